@@ -0,0 +1,41 @@
+package Graph.benchmark;
+
+import Graph.Graph;
+import Graph.generator.GraphGenerator;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * BenchmarkGraphs makes the graphs and edge lists the benchmarks use.
+ *
+ * @author cameronmonks
+ */
+final class BenchmarkGraphs {
+
+    private BenchmarkGraphs() {
+    }
+
+    /**
+     * @return the edges of the graph generator makes from Shape.SEED
+     */
+    static EdgeList edges(GraphGenerator generator) {
+
+        EdgeList edges = new EdgeList((int) generator.expectedEdgeCount());
+        generator.generate(Shape.SEED, ForkJoinPool.commonPool(), edges::add);
+        return edges;
+    }
+
+    /**
+     * @effects adds the nodes 0 to nodeCount - 1 and then every edge of edges to graph
+     *      one call to addNode and addEdge at a time
+     */
+    static void addAll(Graph<Integer, Double> graph, int nodeCount, EdgeList edges) {
+
+        for (int node = 0; node < nodeCount; node++) {
+            graph.addNode(node);
+        }
+        for (int i = 0; i < edges.size(); i++) {
+            graph.addEdge(edges.parent(i), edges.child(i), edges.weight(i));
+        }
+    }
+}
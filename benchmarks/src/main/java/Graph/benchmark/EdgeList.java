@@ -0,0 +1,52 @@
+package Graph.benchmark;
+
+import java.util.Arrays;
+
+/**
+ * EdgeList is the parents, children and weights of a list of edges in int and
+ * double arrays, so a benchmark can add them to a graph without making objects first.
+ *
+ * @author cameronmonks
+ */
+final class EdgeList {
+
+    private int[] parents;
+    private int[] children;
+    private double[] weights;
+    private int size;
+
+    EdgeList(int capacity) {
+        parents = new int[Math.max(1, capacity)];
+        children = new int[parents.length];
+        weights = new double[parents.length];
+    }
+
+    void add(int parent, int child, double weight) {
+
+        if (size == parents.length) {
+            parents = Arrays.copyOf(parents, size * 2);
+            children = Arrays.copyOf(children, size * 2);
+            weights = Arrays.copyOf(weights, size * 2);
+        }
+        parents[size] = parent;
+        children[size] = child;
+        weights[size] = weight;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int parent(int i) {
+        return parents[i];
+    }
+
+    int child(int i) {
+        return children[i];
+    }
+
+    double weight(int i) {
+        return weights[i];
+    }
+}
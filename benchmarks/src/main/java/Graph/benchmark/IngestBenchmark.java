@@ -0,0 +1,70 @@
+package Graph.benchmark;
+
+import Graph.Graph;
+import Graph.GraphBuilder;
+import Graph.generator.GraphGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds a whole graph per operation, with addNode and addEdge one at a time and
+ * with a GraphBuilder.
+ *
+ * @author cameronmonks
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IngestBenchmark {
+
+    @Param({"10000", "100000"})
+    public int nodeCount;
+
+    @Param({"GRID", "UNIFORM", "SCALE_FREE"})
+    public Shape shape;
+
+    private GraphGenerator generator;
+    private EdgeList edges;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        generator = shape.generator(nodeCount);
+        edges = BenchmarkGraphs.edges(generator);
+    }
+
+    @Benchmark
+    public Graph<Integer, Double> addNodeAndEdge() {
+
+        Graph<Integer, Double> graph = new Graph<Integer, Double>();
+        BenchmarkGraphs.addAll(graph, generator.nodeCount(), edges);
+        return graph;
+    }
+
+    @Benchmark
+    public Graph<Integer, Double> graphBuilder() {
+
+        GraphBuilder<Integer, Double> builder = new GraphBuilder<Integer, Double>(generator.nodeCount(), edges.size());
+        for (int node = 0; node < generator.nodeCount(); node++) {
+            builder.addNode(node);
+        }
+        for (int i = 0; i < edges.size(); i++) {
+            builder.addEdge(edges.parent(i), edges.child(i), edges.weight(i));
+        }
+        return builder.build();
+    }
+}
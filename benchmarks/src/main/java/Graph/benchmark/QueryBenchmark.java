@@ -0,0 +1,92 @@
+package Graph.benchmark;
+
+import Graph.Graph;
+import Graph.generator.GraphGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queries a graph built once per trial. Each operation picks the next node or pair
+ * of nodes from a fixed seeded list, so every run asks the same questions.
+ *
+ * @author cameronmonks
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryBenchmark {
+
+    private static final int QUERY_COUNT = 1024;
+
+    @Param({"10000", "100000"})
+    public int nodeCount;
+
+    @Param({"GRID", "UNIFORM", "SCALE_FREE"})
+    public Shape shape;
+
+    private Graph<Integer, Double> graph;
+    private int[] sources;
+    private int[] targets;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        GraphGenerator generator = shape.generator(nodeCount);
+        graph = generator.generate(Shape.SEED);
+
+        Random random = new Random(7);
+        sources = new int[QUERY_COUNT];
+        targets = new int[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            sources[i] = random.nextInt(generator.nodeCount());
+            targets[i] = random.nextInt(generator.nodeCount());
+        }
+    }
+
+    private int nextQuery() {
+        next = (next + 1) & (QUERY_COUNT - 1);
+        return next;
+    }
+
+    @Benchmark
+    public HashSet<Integer> getNodesConnectedTo() {
+        return graph.getNodesConnectedTo(sources[nextQuery()]);
+    }
+
+    @Benchmark
+    public Map<Integer, Double> dijkstraForward() {
+        return graph.dijkstra(sources[nextQuery()], false, (Double d) -> d);
+    }
+
+    @Benchmark
+    public Map<Integer, Double> dijkstraReverse() {
+        return graph.dijkstra(sources[nextQuery()], true, (Double d) -> d);
+    }
+
+    @Benchmark
+    public ArrayList<Entry<Entry<Integer, Integer>, Double>> findPath() {
+        int query = nextQuery();
+        return graph.findPath(sources[query], targets[query], (Double d) -> d);
+    }
+}
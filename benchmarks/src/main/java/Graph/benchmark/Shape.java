@@ -0,0 +1,52 @@
+package Graph.benchmark;
+
+import Graph.generator.ErdosRenyiGenerator;
+import Graph.generator.GraphGenerator;
+import Graph.generator.GridGenerator;
+import Graph.generator.RMatGenerator;
+
+/**
+ * Shape picks the generator of the graphs the benchmarks run on. Every graph is made
+ * from the same seed, so each run of a benchmark sees the same graph.
+ *
+ * @author cameronmonks
+ */
+public enum Shape {
+
+    // a square grid with an edge each way between neighbors, like a road network
+    GRID {
+        @Override
+        GraphGenerator generator(int nodeCount) {
+            int side = (int) Math.ceil(Math.sqrt(nodeCount));
+            return new GridGenerator(side, (nodeCount + side - 1) / side);
+        }
+    },
+
+    // every edge goes between two nodes picked uniformly at random
+    UNIFORM {
+        @Override
+        GraphGenerator generator(int nodeCount) {
+            return new ErdosRenyiGenerator(nodeCount, (long) nodeCount * DEGREE);
+        }
+    },
+
+    // R-MAT power-law graph, a few nodes have most of the edges
+    SCALE_FREE {
+        @Override
+        GraphGenerator generator(int nodeCount) {
+            return new RMatGenerator(nodeCount, (long) nodeCount * DEGREE);
+        }
+    };
+
+    // the average edges going out of each node of the random shapes
+    static final int DEGREE = 8;
+
+    static final long SEED = 42;
+
+    /**
+     * @require nodeCount > 0
+     * @param nodeCount
+     * @return a generator of graphs of this shape with about nodeCount nodes
+     */
+    abstract GraphGenerator generator(int nodeCount);
+}
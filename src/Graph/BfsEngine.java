@@ -0,0 +1,438 @@
+package Graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * BfsEngine finds how many edges every node is away from a start node of a
+ * GraphSnapshot with a direction-optimizing breadth first search spread over the
+ * threads of a ForkJoinPool.
+ *
+ * While the frontier is small each level is found top-down: the threads go through
+ * the edges out of the frontier and claim each new node by setting its bit in a
+ * visited bitmap with compareAndSet. Once the edges out of the frontier are more
+ * than ALPHA times fewer than the edges out of the nodes not visited yet, levels are
+ * found bottom-up instead: every node not visited looks through the edges going into
+ * it for one that comes from the frontier and stops at the first one. It goes back to
+ * top-down once the frontier has fewer than nodeCount / BETA nodes.
+ *
+ * An engine keeps its arrays between runs. An engine is not thread safe, one run
+ * at a time already uses every thread of its pool.
+ *
+ * @param <N> where N is the label of the Node
+ * @param <E> where E is the label of the Edge
+ * @author cameronmonks
+ */
+public class BfsEngine<N, E> {
+
+    // go bottom-up once the edges out of the frontier are more than 1 / ALPHA of the unvisited edges
+    private static final int ALPHA = 14;
+
+    // go back to top-down once the frontier has fewer than 1 / BETA of the nodes
+    private static final int BETA = 24;
+
+    // a level with less work than this is run by the calling thread alone
+    private static final int PARALLEL_THRESHOLD = 1024;
+
+    // how many frontier nodes a thread takes at a time going top-down
+    private static final int TOP_DOWN_CHUNK = 64;
+
+    // how many nodes a thread takes at a time going bottom-up, a multiple of 64
+    private static final int BOTTOM_UP_CHUNK = 4096;
+
+    private final GraphSnapshot<N, E> snapshot;
+    private final ForkJoinPool pool;
+    private final boolean directionOptimizing;
+
+    // the level of every node in the last run, -1 if it was not reached
+    private final int[] levels;
+
+    // one bit per node, set once the node is reached
+    private final AtomicLongArray visited;
+
+    // one bit per node of the frontier and of the next frontier, only used going bottom-up
+    private AtomicLongArray frontierBits;
+    private AtomicLongArray nextBits;
+
+    // the nodes of the current level
+    private int[] frontier;
+    private int frontierSize;
+
+    // each thread of a level puts the nodes it reaches into its own list
+    private final ArrayList<IntList> nextLists;
+
+    private int reachedCount;
+    private int bottomUpLevels;
+    private boolean hasRun;
+
+    // Abstraction Function:
+    // BfsEngine, b, represents the levels of the last run where the level of
+    // node n is levels[n], -1 meaning n was not reached
+    //
+    // Representation Invariant for every BfsEngine b:
+    // levels.length == snapshot.nodeCount() &&
+    // visited.length() == frontierBits.length() == nextBits.length() == (snapshot.nodeCount() + 63) / 64 &&
+    // foreach node n: levels[n] != -1 iff the bit of n in visited is set &&
+    // nextLists.size() == pool.getParallelism() && between runs every list is empty
+
+    /**
+     * Runs on the common ForkJoinPool.
+     *
+     * @require snapshot != null
+     * @effects Constructs an engine for snapshot
+     * @param snapshot the graph to search
+     */
+    public BfsEngine(GraphSnapshot<N, E> snapshot) {
+        this(snapshot, ForkJoinPool.commonPool(), true);
+    }
+
+    /**
+     * @require snapshot != null && pool != null
+     * @effects Constructs an engine for snapshot
+     * @param snapshot the graph to search
+     * @param pool the threads to run on
+     * @param directionOptimizing if levels may be found bottom-up, else every level is found top-down
+     */
+    public BfsEngine(GraphSnapshot<N, E> snapshot, ForkJoinPool pool, boolean directionOptimizing) {
+
+        this.snapshot = snapshot;
+        this.pool = pool;
+        this.directionOptimizing = directionOptimizing;
+
+        int nodeCount = snapshot.nodeCount();
+        int words = (nodeCount + 63) >>> 6;
+        levels = new int[nodeCount];
+        visited = new AtomicLongArray(words);
+        frontierBits = new AtomicLongArray(words);
+        nextBits = new AtomicLongArray(words);
+        frontier = new int[16];
+        frontierSize = 0;
+
+        int workerCount = Math.max(1, pool.getParallelism());
+        nextLists = new ArrayList<IntList>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            nextLists.add(new IntList());
+        }
+
+        reachedCount = 0;
+        bottomUpLevels = 0;
+        hasRun = false;
+
+        checkRep();
+    }
+
+    /**
+     * Checks that the representation invariant holds (if any).
+     **/
+    // Throws a RuntimeException if the rep invariant is violated.
+    private void checkRep() throws RuntimeException {
+    	/*
+    	for (int n = 0; n < levels.length; n++) {
+    		if ((levels[n] != -1) != hasBit(visited, n)) {
+    			throw new RuntimeException("levels and visited do not agree");
+    		}
+    	}
+    	*/
+    }
+
+    /**
+     *
+     * @return the snapshot this engine searches
+     */
+    public GraphSnapshot<N, E> getSnapshot() {
+        return snapshot;
+    }
+
+    private static boolean hasBit(AtomicLongArray bits, int i) {
+        return (bits.get(i >>> 6) & (1L << i)) != 0;
+    }
+
+    // sets the bit of i and returns true if this call set it
+    private static boolean setBit(AtomicLongArray bits, int i) {
+
+        int word = i >>> 6;
+        long mask = 1L << i;
+
+        long old = bits.get(word);
+        while ((old & mask) == 0) {
+            if (bits.compareAndSet(word, old, old | mask)) {
+                return true;
+            }
+            old = bits.get(word);
+        }
+        return false;
+    }
+
+    private static void clear(AtomicLongArray bits) {
+
+        for (int i = 0; i < bits.length(); i++) {
+            bits.set(i, 0L);
+        }
+    }
+
+    /**
+     * @require 0 <= source < getSnapshot().nodeCount()
+     * @modifies this
+     * @effects finds the level of every node connected to source
+     * @param source the id of the start node
+     * @param reverseOrder if you want to the edges direction to be flipped
+     */
+    public void run(int source, boolean reverseOrder) {
+
+        Arrays.fill(levels, -1);
+        clear(visited);
+        hasRun = true;
+        bottomUpLevels = 0;
+
+        // out edges are followed going top-down, in edges are looked at going bottom-up
+        int[] outOffsets = reverseOrder ? snapshot.reverseOffsets : snapshot.forwardOffsets;
+        int[] outNeighbors = reverseOrder ? snapshot.reverseSources : snapshot.forwardTargets;
+        int[] inOffsets = reverseOrder ? snapshot.forwardOffsets : snapshot.reverseOffsets;
+        int[] inNeighbors = reverseOrder ? snapshot.forwardTargets : snapshot.reverseSources;
+
+        int nodeCount = levels.length;
+
+        levels[source] = 0;
+        setBit(visited, source);
+        frontier[0] = source;
+        frontierSize = 1;
+        reachedCount = 1;
+
+        long frontierEdges = outOffsets[source + 1] - outOffsets[source];
+        long unvisitedEdges = snapshot.edgeCount() - frontierEdges;
+        boolean bottomUp = false;
+
+        for (int level = 1; frontierSize > 0; level++) {
+
+            if (directionOptimizing) {
+                if (!bottomUp && frontierEdges > unvisitedEdges / ALPHA) {
+                    bottomUp = true;
+                    clear(frontierBits);
+                    for (int i = 0; i < frontierSize; i++) {
+                        setBit(frontierBits, frontier[i]);
+                    }
+                } else if (bottomUp && frontierSize < nodeCount / BETA) {
+                    bottomUp = false;
+                }
+            }
+
+            if (bottomUp) {
+                bottomUpLevels++;
+                clear(nextBits);
+                bottomUpStep(inOffsets, inNeighbors, level);
+                AtomicLongArray swap = frontierBits;
+                frontierBits = nextBits;
+                nextBits = swap;
+            } else {
+                topDownStep(outOffsets, outNeighbors, level);
+            }
+
+            // the lists of the threads are the next frontier
+            frontierSize = 0;
+            for (IntList list : nextLists) {
+                if (frontierSize + list.size() > frontier.length) {
+                    frontier = Arrays.copyOf(frontier, Math.max(frontier.length * 2, frontierSize + list.size()));
+                }
+                for (int i = 0; i < list.size(); i++) {
+                    frontier[frontierSize++] = list.get(i);
+                }
+                list.clear();
+            }
+
+            frontierEdges = 0;
+            for (int i = 0; i < frontierSize; i++) {
+                frontierEdges += outOffsets[frontier[i] + 1] - outOffsets[frontier[i]];
+            }
+            unvisitedEdges -= frontierEdges;
+            reachedCount += frontierSize;
+        }
+
+        checkRep();
+    }
+
+    // claims the unvisited nodes out of the frontier for level
+    private void topDownStep(int[] outOffsets, int[] outNeighbors, int level) {
+
+        final int[] current = frontier;
+
+        forEachChunk(frontierSize, TOP_DOWN_CHUNK, (IntList next, int from, int to) -> {
+            for (int i = from; i < to; i++) {
+                int node = current[i];
+                for (int slot = outOffsets[node]; slot < outOffsets[node + 1]; slot++) {
+                    int child = outNeighbors[slot];
+                    if (!hasBit(visited, child) && setBit(visited, child)) {
+                        levels[child] = level;
+                        next.add(child);
+                    }
+                }
+            }
+        });
+    }
+
+    // every unvisited node with an edge from the frontier joins level
+    private void bottomUpStep(int[] inOffsets, int[] inNeighbors, int level) {
+
+        final AtomicLongArray current = frontierBits;
+        final AtomicLongArray next = nextBits;
+
+        forEachChunk(levels.length, BOTTOM_UP_CHUNK, (IntList nextList, int from, int to) -> {
+            for (int node = from; node < to; node++) {
+
+                // skip 64 visited nodes at a time
+                if ((node & 63) == 0 && visited.get(node >>> 6) == -1L) {
+                    node += 63;
+                    continue;
+                }
+                if (hasBit(visited, node)) {
+                    continue;
+                }
+
+                for (int slot = inOffsets[node]; slot < inOffsets[node + 1]; slot++) {
+                    if (hasBit(current, inNeighbors[slot])) {
+                        levels[node] = level;
+                        setBit(visited, node);
+                        setBit(next, node);
+                        nextList.add(node);
+                        break;
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Step runs part of a level and puts the nodes it reaches into next.
+     */
+    private interface Step {
+        void run(IntList next, int from, int to);
+    }
+
+    /**
+     * @effects runs step on 0 to size - 1 in chunks, spread over the threads of pool if size is large
+     */
+    private void forEachChunk(int size, int chunk, Step step) {
+
+        if (size < PARALLEL_THRESHOLD || nextLists.size() == 1) {
+            step.run(nextLists.get(0), 0, size);
+            return;
+        }
+
+        AtomicInteger cursor = new AtomicInteger();
+        pool.invoke(new RecursiveAction() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void compute() {
+
+                RecursiveAction[] tasks = new RecursiveAction[nextLists.size()];
+                for (int i = 0; i < tasks.length; i++) {
+                    final IntList next = nextLists.get(i);
+                    tasks[i] = new RecursiveAction() {
+                        private static final long serialVersionUID = 1L;
+
+                        @Override
+                        protected void compute() {
+                            int start;
+                            while ((start = cursor.getAndAdd(chunk)) < size) {
+                                step.run(next, start, Math.min(size, start + chunk));
+                            }
+                        }
+                    };
+                }
+                invokeAll(tasks);
+            }
+        });
+    }
+
+    /**
+     * @require 0 <= node < getSnapshot().nodeCount()
+     * @param node
+     * @return true if the last run reached node else false
+     */
+    public boolean isReached(int node) {
+        return hasRun && levels[node] != -1;
+    }
+
+    /**
+     * @require 0 <= node < getSnapshot().nodeCount()
+     * @param node
+     * @return how many edges node is from the start of the last run, -1 if it was not reached
+     */
+    public int getLevel(int node) {
+        return hasRun ? levels[node] : -1;
+    }
+
+    /**
+     *
+     * @return the amount of nodes the last run reached, including the start node
+     */
+    public int getReachedCount() {
+        return reachedCount;
+    }
+
+    /**
+     *
+     * @return the amount of levels the last run found bottom-up
+     */
+    public int getBottomUpLevels() {
+        return bottomUpLevels;
+    }
+
+    /**
+     * Same as Graph.bfsLevels(headNode, reverseOrder).
+     *
+     * @param headNode the start node
+     * @param reverseOrder if you want to the edges direction to be flipped
+     * @return Map<N, Integer> where each key is the label of a node connected to headNode
+     * 		and the value is the fewest edges between them. Empty if headNode doesn't exist
+     */
+    public Map<N, Integer> bfsLevels(N headNode, boolean reverseOrder) {
+
+        Map<N, Integer> nodesAndLevels = new HashMap<>();
+
+        int source = snapshot.getNodeId(headNode);
+        if (source == -1) return nodesAndLevels;
+
+        run(source, reverseOrder);
+
+        for (int node = 0; node < levels.length; node++) {
+            if (levels[node] != -1) {
+                nodesAndLevels.put(snapshot.getNodeLabel(node), levels[node]);
+            }
+        }
+
+        return nodesAndLevels;
+    }
+
+    /**
+     * Same as Graph.getReachableNodes(headNode, reverseOrder).
+     *
+     * @param headNode the start node
+     * @param reverseOrder if you want to the edges direction to be flipped
+     * @return a HashSet<N> of headNode and every node connected to it. Empty if headNode doesn't exist
+     */
+    public HashSet<N> getReachableNodes(N headNode, boolean reverseOrder) {
+
+        HashSet<N> reachable = new HashSet<N>();
+
+        int source = snapshot.getNodeId(headNode);
+        if (source == -1) return reachable;
+
+        run(source, reverseOrder);
+
+        for (int node = 0; node < levels.length; node++) {
+            if (levels[node] != -1) {
+                reachable.add(snapshot.getNodeLabel(node));
+            }
+        }
+
+        return reachable;
+    }
+}
@@ -0,0 +1,113 @@
+package Graph;
+
+/**
+ * ConcurrentGraph is a Graph that many threads can use at once. Nodes, edges
+ * and labels are kept in concurrent maps and sets, so reads such as
+ * getNodesConnectedTo, dijkstra and findPath take no locks and run while other
+ * threads call addNode and addEdge. A read sees every change that finished
+ * before it started and may or may not see changes made while it runs.
+ *
+ * addNode and addEdge lock one of a fixed number of stripes chosen by the label
+ * of the node (for addEdge the parent node), so writers only wait for each other
+ * when they add the same node or edges out of nodes in the same stripe.
+ *
+ * Listeners added with addListener are called from the writing threads and
+ * must be thread safe.
+ *
+ * @param <N> where N is the label of the Node
+ * @param <E> where E is the label of the Edge
+ * @author cameronmonks
+ */
+public class ConcurrentGraph<N, E> extends Graph<N, E> {
+
+    private static final int DEFAULT_STRIPES = 64;
+
+    private final Object[] stripes;
+
+    // Abstraction Function:
+    // ConcurrentGraph, g, represents the same Graph as its super class
+    //
+    // Representation Invariant for every ConcurrentGraph g:
+    // the representation invariant of Graph &&
+    // stripes != null && stripes.length is a power of 2
+
+    /**
+     * @effects Constructs a new ConcurrentGraph with value no nodes or edges
+     */
+    public ConcurrentGraph() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * @require stripeCount >= 1
+     * @effects Constructs a new ConcurrentGraph with value no nodes or edges
+     * @param stripeCount about how many writers can add nodes and edges at once,
+     * 		rounded up to a power of 2
+     */
+    public ConcurrentGraph(int stripeCount) {
+
+        super(true);
+
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        if (stripeCount == 1) size = 1;
+
+        stripes = new Object[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Object();
+        }
+
+        checkRep();
+    }
+
+    /**
+     * Checks that the representation invariant holds (if any).
+     **/
+    // Throws a RuntimeException if the rep invariant is violated.
+    private void checkRep() throws RuntimeException {
+    	/*
+    	if (Integer.bitCount(stripes.length) != 1) {
+    		throw new RuntimeException("stripes.length is not a power of 2");
+    	}
+    	*/
+    }
+
+    // the lock for everything keyed by label
+    private Object stripeFor(N label) {
+
+        int h = label == null ? 0 : label.hashCode();
+        h ^= (h >>> 16);
+        return stripes[h & (stripes.length - 1)];
+    }
+
+    /**
+     * @modifies this.graph
+     * @effects adds a node with nodeData to graph if its not already in their
+     * @param nodeData
+     * @return true if nodeData is added else false
+     */
+    @Override
+    public boolean addNode(N nodeData) {
+
+        synchronized (stripeFor(nodeData)) {
+            return super.addNode(nodeData);
+        }
+    }
+
+    /**
+     * @require parentNode != null && childNode != null && edgeLabel != null
+     * @modifies this.graph
+     * @effects adds an edge going from parent node to
+     * 		childNode with edgeLabel as the label if parentNode and childNode exist
+     * @param parentNode
+     * @param childNode
+     * @param edgeLabel
+     * @return true if edge is added else false
+     */
+    @Override
+    public boolean addEdge(N parentNode, N childNode, E edgeLabel) {
+
+        synchronized (stripeFor(parentNode)) {
+            return super.addEdge(parentNode, childNode, edgeLabel);
+        }
+    }
+}
@@ -0,0 +1,668 @@
+package Graph;
+
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map.Entry;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * ContractionHierarchy answers shortest path queries on a Graph that does not
+ * change. While it is made, the nodes are contracted one at a time from least
+ * to most important, and when a node is contracted a shortcut arc is added
+ * between two of its neighbors if the only shortest path between them goes
+ * through it. A query is then a bidirectional Dijkstra that only ever goes
+ * up to more important nodes, which settles very few nodes.
+ *
+ * Every shortcut remembers the two arcs it replaces, so a path is unpacked
+ * back into the Edge labels of the graph and has the same format as
+ * Graph.findPath.
+ *
+ * The hierarchy only knows about the graph at the time it was made. Queries
+ * are thread safe.
+ *
+ * @param <N> where N is the label of the Node
+ * @param <E> where E is the label of the Edge
+ * @author cameronmonks
+ */
+public class ContractionHierarchy<N, E> {
+
+    // the most nodes a witness search settles before giving up and adding the shortcut,
+    // smaller while only working out a priority since it is done much more often
+    private static final int WITNESS_SETTLE_LIMIT = 100;
+    private static final int PRIORITY_SETTLE_LIMIT = 20;
+
+    private final GraphSnapshot<N, E> snapshot;
+
+    // every arc of the graph, original arcs first and then shortcuts
+    private int arcCount;
+    private int[] arcFrom;
+    private int[] arcTo;
+    private double[] arcWeight;
+
+    // for shortcuts the two arcs it replaces, for original arcs -1
+    private int[] arcFirst;
+    private int[] arcSecond;
+
+    // for original arcs the label with the smallest weight, for shortcuts null
+    private Object[] arcLabel;
+
+    private final int originalArcCount;
+
+    // the order the nodes were contracted in, higher is more important
+    private final int[] rank;
+
+    // arcs going up from each node, for the forward search
+    private final int[] upOffsets;
+    private final int[] upArcs;
+
+    // arcs coming down into each node, for the backward search
+    private final int[] downOffsets;
+    private final int[] downArcs;
+
+    private final long preprocessingTimeNanos;
+
+    // the Queries no query is using, shared by every thread. A query takes one or makes
+    // one if there are none, and at most Graph.MAX_IDLE_SEARCHES are kept
+    private final ArrayDeque<Query> idleQueries;
+
+    // scratch used only while contracting
+    private IndexedDaryHeap witnessHeap;
+    private double[] witnessDistances;
+    private int[] witnessStamps;
+    private int witnessStamp;
+
+    // one more than the highest level of the contracted neighbors of each node
+    private int[] levels;
+
+    // Abstraction Function:
+    // ContractionHierarchy, c, represents the shortest paths of the graph snapshot
+    // where a path from s to t goes up the arcs in upArcs from s and down the arcs
+    // in downArcs to t and each arc is unpacked with arcFirst and arcSecond
+    //
+    // Representation Invariant for every ContractionHierarchy c:
+    // originalArcCount <= arcCount &&
+    // foreach arc a < originalArcCount: arcFirst[a] == arcSecond[a] == -1 && arcLabel[a] != null
+    // foreach arc a >= originalArcCount: arcFrom[a] == arcFrom[arcFirst[a]] &&
+    //      arcTo[arcFirst[a]] == arcFrom[arcSecond[a]] && arcTo[arcSecond[a]] == arcTo[a] &&
+    //      arcWeight[a] == arcWeight[arcFirst[a]] + arcWeight[arcSecond[a]]
+    // foreach arc a in upArcs: rank[arcFrom[a]] < rank[arcTo[a]]
+    // foreach arc a in downArcs: rank[arcFrom[a]] > rank[arcTo[a]]
+
+    /**
+     * @require graph != null && toDouble != null && toDouble never returns a negative number
+     * @effects Constructs the contraction hierarchy of graph
+     * @param graph the graph to search
+     * @param toDouble should convert the edges to a double
+     */
+    public ContractionHierarchy(Graph<N, E> graph, ToDoubleFunction<E> toDouble) {
+
+        long startTime = System.nanoTime();
+
+        snapshot = graph.freeze();
+        int nodeCount = snapshot.nodeCount();
+        int edgeCount = snapshot.edgeCount();
+
+        arcCount = 0;
+        arcFrom = new int[Math.max(16, edgeCount * 2)];
+        arcTo = new int[arcFrom.length];
+        arcWeight = new double[arcFrom.length];
+        arcFirst = new int[arcFrom.length];
+        arcSecond = new int[arcFrom.length];
+        arcLabel = new Object[arcFrom.length];
+
+        IntList[] out = new IntList[nodeCount];
+        IntList[] in = new IntList[nodeCount];
+        for (int v = 0; v < nodeCount; v++) {
+            out[v] = new IntList(snapshot.getOutEdgeEnd(v) - snapshot.getOutEdgeStart(v));
+            in[v] = new IntList(snapshot.getInEdgeEnd(v) - snapshot.getInEdgeStart(v));
+        }
+
+        for (int v = 0; v < nodeCount; v++) {
+            for (int e = snapshot.getOutEdgeStart(v); e < snapshot.getOutEdgeEnd(v); e++) {
+
+                int w = snapshot.getEdgeTarget(e);
+                if (v == w) continue;
+
+                E minLabel = null;
+                double min = Double.POSITIVE_INFINITY;
+                for (int l = 0; l < snapshot.getLabelCount(e); l++) {
+                    E label = snapshot.getLabel(e, l);
+                    double weight = toDouble.applyAsDouble(label);
+                    if (minLabel == null || weight < min) {
+                        minLabel = label;
+                        min = weight;
+                    }
+                }
+
+                addArc(v, w, min, -1, -1, minLabel, out, in);
+            }
+        }
+        originalArcCount = arcCount;
+
+        rank = contract(out, in);
+
+        upOffsets = new int[nodeCount + 1];
+        downOffsets = new int[nodeCount + 1];
+        for (int a = 0; a < arcCount; a++) {
+            if (rank[arcFrom[a]] < rank[arcTo[a]]) {
+                upOffsets[arcFrom[a] + 1]++;
+            } else {
+                downOffsets[arcTo[a] + 1]++;
+            }
+        }
+        for (int v = 0; v < nodeCount; v++) {
+            upOffsets[v + 1] += upOffsets[v];
+            downOffsets[v + 1] += downOffsets[v];
+        }
+
+        upArcs = new int[upOffsets[nodeCount]];
+        downArcs = new int[downOffsets[nodeCount]];
+        int[] upNext = Arrays.copyOf(upOffsets, nodeCount);
+        int[] downNext = Arrays.copyOf(downOffsets, nodeCount);
+        for (int a = 0; a < arcCount; a++) {
+            if (rank[arcFrom[a]] < rank[arcTo[a]]) {
+                upArcs[upNext[arcFrom[a]]++] = a;
+            } else {
+                downArcs[downNext[arcTo[a]]++] = a;
+            }
+        }
+
+        arcFrom = Arrays.copyOf(arcFrom, arcCount);
+        arcTo = Arrays.copyOf(arcTo, arcCount);
+        arcWeight = Arrays.copyOf(arcWeight, arcCount);
+        arcFirst = Arrays.copyOf(arcFirst, arcCount);
+        arcSecond = Arrays.copyOf(arcSecond, arcCount);
+        arcLabel = Arrays.copyOf(arcLabel, arcCount);
+
+        witnessHeap = null;
+        witnessDistances = null;
+        witnessStamps = null;
+        levels = null;
+
+        idleQueries = new ArrayDeque<Query>();
+
+        preprocessingTimeNanos = System.nanoTime() - startTime;
+
+        checkRep();
+    }
+
+    /**
+     * Checks that the representation invariant holds (if any).
+     **/
+    // Throws a RuntimeException if the rep invariant is violated.
+    private void checkRep() throws RuntimeException {
+    	/*
+    	for (int a = originalArcCount; a < arcCount; a++) {
+    		if (arcFrom[a] != arcFrom[arcFirst[a]] || arcTo[a] != arcTo[arcSecond[a]]) {
+    			throw new RuntimeException("shortcut does not match the arcs it replaces");
+    		}
+    	}
+
+    	for (int a : upArcs) {
+    		if (rank[arcFrom[a]] >= rank[arcTo[a]]) {
+    			throw new RuntimeException("up arc goes down");
+    		}
+    	}
+
+    	for (int a : downArcs) {
+    		if (rank[arcFrom[a]] <= rank[arcTo[a]]) {
+    			throw new RuntimeException("down arc goes up");
+    		}
+    	}
+    	*/
+    }
+
+    private void addArc(int from, int to, double weight, int first, int second, Object label, IntList[] out, IntList[] in) {
+
+        if (arcCount == arcFrom.length) {
+            int capacity = arcCount * 2;
+            arcFrom = Arrays.copyOf(arcFrom, capacity);
+            arcTo = Arrays.copyOf(arcTo, capacity);
+            arcWeight = Arrays.copyOf(arcWeight, capacity);
+            arcFirst = Arrays.copyOf(arcFirst, capacity);
+            arcSecond = Arrays.copyOf(arcSecond, capacity);
+            arcLabel = Arrays.copyOf(arcLabel, capacity);
+        }
+
+        arcFrom[arcCount] = from;
+        arcTo[arcCount] = to;
+        arcWeight[arcCount] = weight;
+        arcFirst[arcCount] = first;
+        arcSecond[arcCount] = second;
+        arcLabel[arcCount] = label;
+
+        out[from].add(arcCount);
+        in[to].add(arcCount);
+        arcCount++;
+    }
+
+    // contracts every node and returns the rank of each node
+    private int[] contract(IntList[] out, IntList[] in) {
+
+        int nodeCount = out.length;
+        boolean[] contracted = new boolean[nodeCount];
+        int[] contractedNeighbors = new int[nodeCount];
+        levels = new int[nodeCount];
+        int[] rank = new int[nodeCount];
+
+        witnessHeap = new IndexedDaryHeap(4, nodeCount);
+        witnessDistances = new double[nodeCount];
+        witnessStamps = new int[nodeCount];
+        witnessStamp = 0;
+
+        int[] neighborStamps = new int[nodeCount];
+        IntList neighbors = new IntList();
+
+        IndexedDaryHeap order = new IndexedDaryHeap(4, nodeCount);
+        for (int v = 0; v < nodeCount; v++) {
+            order.insertOrChange(v, priority(v, out, in, contracted, contractedNeighbors));
+        }
+
+        int nextRank = 0;
+        while (!order.isEmpty()) {
+
+            int v = order.poll();
+
+            // the priority may be out of date since a neighbor was contracted
+            double priority = priority(v, out, in, contracted, contractedNeighbors);
+            if (!order.isEmpty() && priority > order.peekKey()) {
+                order.insertOrChange(v, priority);
+                continue;
+            }
+
+            contractNode(v, true, out, in, contracted);
+            contracted[v] = true;
+            rank[v] = nextRank++;
+
+            neighbors.clear();
+            for (int i = 0; i < out[v].size(); i++) {
+                addNeighbor(arcTo[out[v].get(i)], nextRank, neighborStamps, neighbors, contracted);
+            }
+            for (int i = 0; i < in[v].size(); i++) {
+                addNeighbor(arcFrom[in[v].get(i)], nextRank, neighborStamps, neighbors, contracted);
+            }
+
+            for (int i = 0; i < neighbors.size(); i++) {
+                int u = neighbors.get(i);
+                removeContracted(out[u], arcTo, contracted);
+                removeContracted(in[u], arcFrom, contracted);
+                contractedNeighbors[u]++;
+                levels[u] = Math.max(levels[u], levels[v] + 1);
+                order.insertOrChange(u, priority(u, out, in, contracted, contractedNeighbors));
+            }
+        }
+
+        return rank;
+    }
+
+    // removes the arcs from arcs whose other end is contracted
+    private static void removeContracted(IntList arcs, int[] otherEnd, boolean[] contracted) {
+
+        int kept = 0;
+        for (int i = 0; i < arcs.size(); i++) {
+            int a = arcs.get(i);
+            if (!contracted[otherEnd[a]]) {
+                arcs.set(kept++, a);
+            }
+        }
+        while (arcs.size() > kept) {
+            arcs.removeLast();
+        }
+    }
+
+    private void addNeighbor(int u, int stamp, int[] neighborStamps, IntList neighbors, boolean[] contracted) {
+
+        if (!contracted[u] && neighborStamps[u] != stamp) {
+            neighborStamps[u] = stamp;
+            neighbors.add(u);
+        }
+    }
+
+    // the edge difference of v plus how many of its neighbors are already contracted
+    // and how high up in the hierarchy they are, so contraction is spread out over the graph
+    private double priority(int v, IntList[] out, IntList[] in, boolean[] contracted, int[] contractedNeighbors) {
+
+        int shortcuts = contractNode(v, false, out, in, contracted);
+
+        int degree = 0;
+        for (int i = 0; i < out[v].size(); i++) {
+            if (!contracted[arcTo[out[v].get(i)]]) degree++;
+        }
+        for (int i = 0; i < in[v].size(); i++) {
+            if (!contracted[arcFrom[in[v].get(i)]]) degree++;
+        }
+
+        return 2 * (shortcuts - degree) + contractedNeighbors[v] + levels[v];
+    }
+
+    // returns the amount of shortcuts needed to contract v and adds them if add is true
+    private int contractNode(int v, boolean add, IntList[] out, IntList[] in, boolean[] contracted) {
+
+        double maxOut = 0.0;
+        for (int j = 0; j < out[v].size(); j++) {
+            int b = out[v].get(j);
+            if (!contracted[arcTo[b]]) {
+                maxOut = Math.max(maxOut, arcWeight[b]);
+            }
+        }
+
+        int shortcuts = 0;
+
+        for (int i = 0; i < in[v].size(); i++) {
+
+            int a = in[v].get(i);
+            int u = arcFrom[a];
+            if (contracted[u]) continue;
+
+            witnessSearch(u, v, arcWeight[a] + maxOut, add ? WITNESS_SETTLE_LIMIT : PRIORITY_SETTLE_LIMIT, out, contracted);
+
+            for (int j = 0; j < out[v].size(); j++) {
+
+                int b = out[v].get(j);
+                int w = arcTo[b];
+                if (contracted[w] || w == u) continue;
+
+                double via = arcWeight[a] + arcWeight[b];
+                double witness = witnessStamps[w] == witnessStamp ? witnessDistances[w] : Double.POSITIVE_INFINITY;
+
+                if (witness > via) {
+                    shortcuts++;
+                    if (add) {
+                        addArc(u, w, via, a, b, null, out, in);
+                    }
+                }
+            }
+        }
+
+        return shortcuts;
+    }
+
+    // Dijkstra from source over the nodes not contracted yet without going through skip
+    private void witnessSearch(int source, int skip, double limit, int settleLimit, IntList[] out, boolean[] contracted) {
+
+        witnessHeap.clear();
+        witnessStamp++;
+
+        witnessDistances[source] = 0.0;
+        witnessStamps[source] = witnessStamp;
+        witnessHeap.insertOrDecrease(source, 0.0);
+
+        int settled = 0;
+        while (!witnessHeap.isEmpty() && witnessHeap.peekKey() <= limit && settled < settleLimit) {
+
+            int u = witnessHeap.poll();
+            double distance = witnessDistances[u];
+            settled++;
+
+            for (int i = 0; i < out[u].size(); i++) {
+
+                int a = out[u].get(i);
+                int w = arcTo[a];
+                if (w == skip || contracted[w]) continue;
+
+                double newDistance = distance + arcWeight[a];
+                if (witnessStamps[w] != witnessStamp) {
+                    witnessStamps[w] = witnessStamp;
+                    witnessDistances[w] = newDistance;
+                    witnessHeap.insertOrDecrease(w, newDistance);
+                } else if (newDistance < witnessDistances[w] && witnessHeap.contains(w)) {
+                    witnessDistances[w] = newDistance;
+                    witnessHeap.insertOrDecrease(w, newDistance);
+                }
+            }
+        }
+    }
+
+
+    /**
+     *
+     * @return how long it took to make this hierarchy in nanoseconds
+     */
+    public long getPreprocessingTimeNanos() {
+        return preprocessingTimeNanos;
+    }
+
+    /**
+     *
+     * @return the amount of shortcut arcs added while contracting
+     */
+    public int getShortcutCount() {
+        return arcCount - originalArcCount;
+    }
+
+    /**
+     *
+     * @return the amount of nodes in the hierarchy
+     */
+    public int nodeCount() {
+        return snapshot.nodeCount();
+    }
+
+    /**
+     * @param startNode
+     * @param toNode
+     * @return the shortest distance from startNode to toNode or infinity if there is no path
+     */
+    public double getDistance(N startNode, N toNode) {
+
+        if (startNode != null && startNode.equals(toNode)) {
+            return 0.0;
+        }
+
+        int source = snapshot.getNodeId(startNode);
+        int target = snapshot.getNodeId(toNode);
+        if (source == -1 || target == -1) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        Query q = startQuery();
+        try {
+            q.run(source, target);
+            return q.shortest;
+        } finally {
+            finishQuery(q);
+        }
+    }
+
+    /**
+     *
+     * @param startNode
+     * @param toNode
+     * @return the same path as Graph.findPath(startNode, toNode, toDouble) with the toDouble this
+     * 		hierarchy was made with or null if there is no path
+     */
+    public ArrayList<Entry<Entry<N,N>, E>> findPath(N startNode, N toNode) {
+
+        if (startNode != null && startNode.equals(toNode)) {
+            return new ArrayList<>();
+        }
+
+        int source = snapshot.getNodeId(startNode);
+        int target = snapshot.getNodeId(toNode);
+        if (source == -1 || target == -1) {
+            return null;
+        }
+
+        // the arcs of the path in the hierarchy
+        IntList arcs = new IntList();
+        Query q = startQuery();
+        try {
+            int meetingNode = q.run(source, target);
+            if (meetingNode == -1) {
+                return null;
+            }
+
+            for (int v = meetingNode; v != source; v = arcFrom[q.forwardArcs[v]]) {
+                arcs.add(q.forwardArcs[v]);
+            }
+            for (int i = 0, j = arcs.size() - 1; i < j; i++, j--) {
+                int swap = arcs.get(i);
+                arcs.set(i, arcs.get(j));
+                arcs.set(j, swap);
+            }
+            for (int v = meetingNode; v != target; v = arcTo[q.backwardArcs[v]]) {
+                arcs.add(q.backwardArcs[v]);
+            }
+        } finally {
+            finishQuery(q);
+        }
+
+        ArrayList<Entry<Entry<N,N>, E>> path = new ArrayList<>();
+        IntList stack = new IntList();
+        for (int i = 0; i < arcs.size(); i++) {
+            stack.add(arcs.get(i));
+            unpack(stack, path);
+        }
+
+        return path;
+    }
+
+    // adds the original arcs of the arcs on stack to path in order
+    @SuppressWarnings("unchecked")
+    private void unpack(IntList stack, ArrayList<Entry<Entry<N,N>, E>> path) {
+
+        while (!stack.isEmpty()) {
+
+            int a = stack.removeLast();
+
+            if (arcFirst[a] == -1) {
+                N from = snapshot.getNodeLabel(arcFrom[a]);
+                N to = snapshot.getNodeLabel(arcTo[a]);
+                path.add(new AbstractMap.SimpleEntry<Entry<N,N>, E>(new AbstractMap.SimpleEntry<N, N>(from, to), (E) arcLabel[a]));
+            } else {
+                stack.add(arcSecond[a]);
+                stack.add(arcFirst[a]);
+            }
+        }
+    }
+
+    /**
+     * Like the NodeSearches of a Graph, the graph keeps at most Graph.MAX_IDLE_SEARCHES
+     * Queries whatever the amount of threads querying it, and they go away with it.
+     *
+     * @return a Query no other query is using
+     */
+    private Query startQuery() {
+
+        Query q;
+        synchronized (idleQueries) {
+            q = idleQueries.poll();
+        }
+        return q != null ? q : new Query(rank.length);
+    }
+
+    /**
+     * @modifies this
+     * @effects keeps q for a later query if there are fewer than Graph.MAX_IDLE_SEARCHES
+     * 		kept, else lets go of it
+     */
+    private void finishQuery(Query q) {
+
+        synchronized (idleQueries) {
+            if (idleQueries.size() < Graph.MAX_IDLE_SEARCHES) {
+                idleQueries.push(q);
+            }
+        }
+    }
+
+    /**
+     * Query is the scratch of one query, used by one thread at a time
+     */
+    private final class Query {
+
+        private final IndexedDaryHeap forwardHeap;
+        private final IndexedDaryHeap backwardHeap;
+        private final double[] forwardDistances;
+        private final double[] backwardDistances;
+        private final int[] forwardStamps;
+        private final int[] backwardStamps;
+
+        // the arc each node was reached by in each search
+        private final int[] forwardArcs;
+        private final int[] backwardArcs;
+
+        private int stamp;
+        private double shortest;
+
+        private Query(int nodeCount) {
+            forwardHeap = new IndexedDaryHeap(4, nodeCount);
+            backwardHeap = new IndexedDaryHeap(4, nodeCount);
+            forwardDistances = new double[nodeCount];
+            backwardDistances = new double[nodeCount];
+            forwardStamps = new int[nodeCount];
+            backwardStamps = new int[nodeCount];
+            forwardArcs = new int[nodeCount];
+            backwardArcs = new int[nodeCount];
+            stamp = 0;
+        }
+
+        // returns the node where the shortest path meets or -1 if there is no path
+        private int run(int source, int target) {
+
+            forwardHeap.clear();
+            backwardHeap.clear();
+            stamp++;
+
+            forwardDistances[source] = 0.0;
+            forwardStamps[source] = stamp;
+            forwardHeap.insertOrDecrease(source, 0.0);
+
+            backwardDistances[target] = 0.0;
+            backwardStamps[target] = stamp;
+            backwardHeap.insertOrDecrease(target, 0.0);
+
+            shortest = Double.POSITIVE_INFINITY;
+            int meetingNode = -1;
+
+            while (true) {
+
+                double forwardTop = forwardHeap.isEmpty() ? Double.POSITIVE_INFINITY : forwardHeap.peekKey();
+                double backwardTop = backwardHeap.isEmpty() ? Double.POSITIVE_INFINITY : backwardHeap.peekKey();
+                if (Math.min(forwardTop, backwardTop) >= shortest || (forwardHeap.isEmpty() && backwardHeap.isEmpty())) {
+                    break;
+                }
+
+                boolean forward = forwardTop <= backwardTop;
+                IndexedDaryHeap heap = forward ? forwardHeap : backwardHeap;
+                double[] distances = forward ? forwardDistances : backwardDistances;
+                int[] stamps = forward ? forwardStamps : backwardStamps;
+                int[] reachedBy = forward ? forwardArcs : backwardArcs;
+                double[] otherDistances = forward ? backwardDistances : forwardDistances;
+                int[] otherStamps = forward ? backwardStamps : forwardStamps;
+
+                int v = heap.poll();
+                double distance = distances[v];
+
+                if (otherStamps[v] == stamp && distance + otherDistances[v] < shortest) {
+                    shortest = distance + otherDistances[v];
+                    meetingNode = v;
+                }
+
+                int[] offsets = forward ? upOffsets : downOffsets;
+                int[] arcs = forward ? upArcs : downArcs;
+
+                for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+
+                    int a = arcs[i];
+                    int w = forward ? arcTo[a] : arcFrom[a];
+                    double newDistance = distance + arcWeight[a];
+
+                    if (stamps[w] != stamp) {
+                        stamps[w] = stamp;
+                        distances[w] = newDistance;
+                        reachedBy[w] = a;
+                        heap.insertOrDecrease(w, newDistance);
+                    } else if (newDistance < distances[w] && heap.contains(w)) {
+                        distances[w] = newDistance;
+                        reachedBy[w] = a;
+                        heap.insertOrDecrease(w, newDistance);
+                    }
+                }
+            }
+
+            return meetingNode;
+        }
+    }
+}
@@ -0,0 +1,457 @@
+package Graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * DeltaSteppingEngine finds the same distances as DijkstraEngine with delta-stepping,
+ * which spreads the work of one search over the threads of a ForkJoinPool.
+ *
+ * Nodes are kept in buckets of width delta by their distance. All the nodes in the
+ * smallest bucket are relaxed at the same time by every thread, and a node whose
+ * distance gets smaller is put in the bucket of its new distance, which may be the
+ * same bucket. Distances are stored as the bits of the doubles in an AtomicLongArray
+ * and only lowered with compareAndSet, so the threads need no locks.
+ *
+ * A small delta does less wasted work and a large delta has fewer rounds with more
+ * nodes in each. By default delta is the largest edge weight over the average
+ * out degree. Edge weights must not be negative.
+ *
+ * An engine keeps its buckets between runs. An engine is not thread safe, one run
+ * at a time already uses every thread of its pool.
+ *
+ * @param <N> where N is the label of the Node
+ * @param <E> where E is the label of the Edge
+ * @author cameronmonks
+ */
+public class DeltaSteppingEngine<N, E> implements ShortestPathEngine<N, E> {
+
+    // the bits of a distance that has not been reached, more than the bits of every double >= 0
+    private static final long UNREACHED = Long.MAX_VALUE;
+
+    // a round with fewer nodes than this is run by the calling thread alone
+    private static final int PARALLEL_THRESHOLD = 512;
+
+    // how many nodes a thread takes from the frontier at a time
+    private static final int CHUNK_SIZE = 64;
+
+    // how many buckets past the first bucket are kept in arrays, later nodes wait in an overflow list
+    private static final int BUCKET_WINDOW = 1 << 16;
+
+    private final GraphSnapshot<N, E> snapshot;
+    private final double[] edgeWeights;
+    private final double delta;
+    private final ForkJoinPool pool;
+
+    // the bits of the distance of every node, UNREACHED if it was not reached
+    private final AtomicLongArray distances;
+
+    // each thread of a round puts nodes into the buckets of its own worker
+    private final ArrayList<Worker> workers;
+
+    // the nodes being relaxed this round
+    private int[] frontier;
+
+    // the bucket of the first array bucket, a node with distance d is in bucket floor(d / delta)
+    private long firstBucket;
+
+    private boolean hasRun;
+
+    // Abstraction Function:
+    // DeltaSteppingEngine, d, represents the shortest distances of the last run where the
+    // distance of node n is longBitsToDouble(distances[n]) if distances[n] != UNREACHED else infinity
+    //
+    // Representation Invariant for every DeltaSteppingEngine d:
+    // edgeWeights.length == snapshot.edgeCount() && distances.length() == snapshot.nodeCount() &&
+    // delta > 0 && workers.size() == pool.getParallelism() &&
+    // between runs every bucket and overflow list of every worker is empty
+
+    /**
+     * Runs on the common ForkJoinPool with delta chosen from the edge weights.
+     *
+     * @require snapshot != null && toDouble != null
+     * @effects Constructs an engine for snapshot with the given edge weights
+     * @param snapshot the graph to search
+     * @param toDouble should convert the edges to a double
+     */
+    public DeltaSteppingEngine(GraphSnapshot<N, E> snapshot, ToDoubleFunction<E> toDouble) {
+        this(snapshot, DijkstraEngine.minimumWeights(snapshot, toDouble), Double.NaN, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Runs on the common ForkJoinPool.
+     *
+     * @require snapshot != null && toDouble != null && delta > 0
+     * @effects Constructs an engine for snapshot with the given edge weights
+     * @param snapshot the graph to search
+     * @param toDouble should convert the edges to a double
+     * @param delta the width of a bucket
+     */
+    public DeltaSteppingEngine(GraphSnapshot<N, E> snapshot, ToDoubleFunction<E> toDouble, double delta) {
+        this(snapshot, DijkstraEngine.minimumWeights(snapshot, toDouble), delta, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @require snapshot != null && toDouble != null && delta > 0 && pool != null
+     * @effects Constructs an engine for snapshot with the given edge weights
+     * @param snapshot the graph to search
+     * @param toDouble should convert the edges to a double
+     * @param delta the width of a bucket
+     * @param pool the threads to run on
+     */
+    public DeltaSteppingEngine(GraphSnapshot<N, E> snapshot, ToDoubleFunction<E> toDouble, double delta, ForkJoinPool pool) {
+        this(snapshot, DijkstraEngine.minimumWeights(snapshot, toDouble), delta, pool);
+    }
+
+    /**
+     * @require edgeWeights == DijkstraEngine.minimumWeights(snapshot, toDouble) && pool != null
+     * @effects Constructs an engine for snapshot with the given edge weights
+     * @param snapshot the graph to search
+     * @param edgeWeights the weight of every edge indexed by edge id
+     * @param delta the width of a bucket or NaN to choose it from edgeWeights
+     * @param pool the threads to run on
+     */
+    DeltaSteppingEngine(GraphSnapshot<N, E> snapshot, double[] edgeWeights, double delta, ForkJoinPool pool) {
+
+        this.snapshot = snapshot;
+        this.edgeWeights = edgeWeights;
+        this.delta = Double.isNaN(delta) ? chooseDelta(snapshot, edgeWeights) : delta;
+        this.pool = pool;
+
+        distances = new AtomicLongArray(snapshot.nodeCount());
+        int workerCount = Math.max(1, pool.getParallelism());
+        workers = new ArrayList<Worker>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(new Worker());
+        }
+        frontier = new int[16];
+        firstBucket = 0;
+        hasRun = false;
+
+        checkRep();
+    }
+
+    /**
+     * Checks that the representation invariant holds (if any).
+     **/
+    // Throws a RuntimeException if the rep invariant is violated.
+    private void checkRep() throws RuntimeException {
+    	/*
+    	if (!(delta > 0)) {
+    		throw new RuntimeException("delta is not positive");
+    	}
+
+    	for (Worker w : workers) {
+    		if (!w.isEmpty()) {
+    			throw new RuntimeException("a bucket was left with nodes in it");
+    		}
+    	}
+    	*/
+    }
+
+    /**
+     * @param snapshot
+     * @param edgeWeights
+     * @return the largest finite edge weight over the average out degree, or 1 if that is not positive
+     */
+    static <N, E> double chooseDelta(GraphSnapshot<N, E> snapshot, double[] edgeWeights) {
+
+        double max = 0.0;
+        for (double w : edgeWeights) {
+            if (w > max && w != Double.POSITIVE_INFINITY) {
+                max = w;
+            }
+        }
+
+        double averageDegree = Math.max(1.0, (double) snapshot.edgeCount() / Math.max(1, snapshot.nodeCount()));
+        double delta = max / averageDegree;
+
+        return delta > 0 ? delta : 1.0;
+    }
+
+    /**
+     *
+     * @return the width of a bucket
+     */
+    public double getDelta() {
+        return delta;
+    }
+
+    @Override
+    public GraphSnapshot<N, E> getSnapshot() {
+        return snapshot;
+    }
+
+    // the bucket of a distance, Long.MAX_VALUE for infinity
+    private long bucketOf(double distance) {
+        return (long) (distance / delta);
+    }
+
+    @Override
+    public void run(int source, boolean reverseOrder) {
+
+        for (int i = 0; i < distances.length(); i++) {
+            distances.set(i, UNREACHED);
+        }
+        hasRun = true;
+
+        int[] offsets = reverseOrder ? snapshot.reverseOffsets : snapshot.forwardOffsets;
+        int[] neighbors = reverseOrder ? snapshot.reverseSources : snapshot.forwardTargets;
+        int[] edges = reverseOrder ? snapshot.reverseEdges : null;
+
+        distances.set(source, Double.doubleToRawLongBits(0.0));
+        firstBucket = 0;
+        workers.get(0).add(source, 0);
+
+        int bucket = 0;
+        while (true) {
+
+            int next = nextBucket(bucket);
+
+            if (next != -1) {
+                bucket = next;
+                int size = takeBucket(bucket);
+                relax(offsets, neighbors, edges, size, firstBucket + bucket);
+                continue;
+            }
+
+            // every array bucket is empty, move the window to the overflow nodes
+            int size = takeOverflow();
+            if (size == 0) {
+                break;
+            }
+
+            double min = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < size; i++) {
+                min = Math.min(min, Double.longBitsToDouble(distances.get(frontier[i])));
+            }
+
+            if (min == Double.POSITIVE_INFINITY) {
+                // only nodes at infinity are left, they can only reach more nodes at infinity
+                relax(offsets, neighbors, edges, size, Long.MAX_VALUE);
+                continue;
+            }
+
+            firstBucket = bucketOf(min);
+            bucket = 0;
+            for (int i = 0; i < size; i++) {
+                int node = frontier[i];
+                workers.get(0).add(node, bucketOf(Double.longBitsToDouble(distances.get(node))) - firstBucket);
+            }
+        }
+
+        checkRep();
+    }
+
+    /**
+     * @param from the first bucket to look at
+     * @return the first array bucket at or after from that some worker has a node in, or -1
+     */
+    private int nextBucket(int from) {
+
+        int end = 0;
+        for (Worker w : workers) {
+            end = Math.max(end, w.buckets.size());
+        }
+
+        for (int b = from; b < end; b++) {
+            for (Worker w : workers) {
+                if (b < w.buckets.size() && !w.buckets.get(b).isEmpty()) {
+                    return b;
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * @modifies this
+     * @effects moves the nodes in bucket of every worker into the frontier
+     * @return the amount of nodes in the frontier
+     */
+    private int takeBucket(int bucket) {
+
+        int size = 0;
+        for (Worker w : workers) {
+            if (bucket < w.buckets.size()) {
+                size = take(w.buckets.get(bucket), size);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @modifies this
+     * @effects moves the overflow nodes of every worker into the frontier
+     * @return the amount of nodes in the frontier
+     */
+    private int takeOverflow() {
+
+        int size = 0;
+        for (Worker w : workers) {
+            size = take(w.overflow, size);
+        }
+        return size;
+    }
+
+    // moves the nodes of list to the frontier after size and returns the new size
+    private int take(IntList list, int size) {
+
+        if (size + list.size() > frontier.length) {
+            frontier = Arrays.copyOf(frontier, Math.max(frontier.length * 2, size + list.size()));
+        }
+        for (int i = 0; i < list.size(); i++) {
+            frontier[size++] = list.get(i);
+        }
+        list.clear();
+        return size;
+    }
+
+    /**
+     * @modifies this
+     * @effects relaxes the edges of the first size nodes of the frontier that are still in bucket
+     */
+    private void relax(int[] offsets, int[] neighbors, int[] edges, int size, long bucket) {
+
+        if (size < PARALLEL_THRESHOLD || workers.size() == 1) {
+            workers.get(0).relax(offsets, neighbors, edges, 0, size, bucket);
+            return;
+        }
+
+        AtomicInteger cursor = new AtomicInteger();
+        pool.invoke(new RecursiveAction() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void compute() {
+
+                RecursiveAction[] tasks = new RecursiveAction[workers.size()];
+                for (int i = 0; i < workers.size(); i++) {
+                    final Worker worker = workers.get(i);
+                    tasks[i] = new RecursiveAction() {
+                        private static final long serialVersionUID = 1L;
+
+                        @Override
+                        protected void compute() {
+                            int start;
+                            while ((start = cursor.getAndAdd(CHUNK_SIZE)) < size) {
+                                worker.relax(offsets, neighbors, edges, start, Math.min(size, start + CHUNK_SIZE), bucket);
+                            }
+                        }
+                    };
+                }
+                invokeAll(tasks);
+            }
+        });
+    }
+
+    @Override
+    public boolean isReached(int node) {
+        return hasRun && distances.get(node) != UNREACHED;
+    }
+
+    @Override
+    public double getDistance(int node) {
+        return isReached(node) ? Double.longBitsToDouble(distances.get(node)) : Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    public Map<N, Double> dijkstra(N headNode, boolean reverseOrder) {
+
+        int source = snapshot.getNodeId(headNode);
+
+        if (source == -1) {
+            Map<N, Double> nodesAndDistances = new HashMap<>();
+            nodesAndDistances.put(headNode, 0.0);
+            return nodesAndDistances;
+        }
+
+        run(source, reverseOrder);
+
+        Map<N, Double> nodesAndDistances = new HashMap<>();
+        for (int node = 0; node < distances.length(); node++) {
+            long bits = distances.get(node);
+            if (bits != UNREACHED) {
+                nodesAndDistances.put(snapshot.getNodeLabel(node), Double.longBitsToDouble(bits));
+            }
+        }
+
+        return nodesAndDistances;
+    }
+
+    /**
+     * Worker holds the buckets one thread puts nodes into during a round, so
+     * threads never share a list.
+     */
+    private class Worker {
+
+        // buckets.get(b) holds nodes in bucket firstBucket + b
+        private final ArrayList<IntList> buckets = new ArrayList<IntList>();
+
+        // nodes in a bucket past the window or at infinity
+        private final IntList overflow = new IntList();
+
+        // puts node in array bucket b, or in overflow if b is past the window
+        void add(int node, long b) {
+
+            if (b >= BUCKET_WINDOW) {
+                overflow.add(node);
+                return;
+            }
+
+            while (buckets.size() <= b) {
+                buckets.add(new IntList());
+            }
+            buckets.get((int) b).add(node);
+        }
+
+        boolean isEmpty() {
+
+            for (IntList list : buckets) {
+                if (!list.isEmpty()) return false;
+            }
+            return overflow.isEmpty();
+        }
+
+        /**
+         * @effects relaxes the edges of frontier[from .. to - 1] whose distance is still in bucket
+         */
+        void relax(int[] offsets, int[] neighbors, int[] edges, int from, int to, long bucket) {
+
+            for (int i = from; i < to; i++) {
+
+                int node = frontier[i];
+                double distance = Double.longBitsToDouble(distances.get(node));
+
+                // node moved to an earlier bucket after it was put in this one and was relaxed there
+                if (bucket != Long.MAX_VALUE && bucketOf(distance) < bucket) {
+                    continue;
+                }
+
+                for (int slot = offsets[node]; slot < offsets[node + 1]; slot++) {
+
+                    int next = neighbors[slot];
+                    double newDistance = distance + edgeWeights[edges == null ? slot : edges[slot]];
+                    long newBits = Double.doubleToRawLongBits(newDistance);
+
+                    long oldBits = distances.get(next);
+                    while (newBits < oldBits) {
+                        if (distances.compareAndSet(next, oldBits, newBits)) {
+                            add(next, newDistance == Double.POSITIVE_INFINITY ? BUCKET_WINDOW : bucketOf(newDistance) - firstBucket);
+                            break;
+                        }
+                        oldBits = distances.get(next);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package Graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * DijkstraEngine runs Dijkstra over a GraphSnapshot with int node ids,
+ * primitive double distances and an IndexedDaryHeap with decrease-key.
+ * The weight of every edge is the smallest weight of its labels and is worked
+ * out once when the engine is made.
+ *
+ * An engine keeps its scratch arrays between runs and only resets them lazily,
+ * so once it is made a run allocates nothing. An engine is not thread safe,
+ * use one engine per thread.
+ *
+ * @param <N> where N is the label of the Node
+ * @param <E> where E is the label of the Edge
+ * @author cameronmonks
+ */
+public class DijkstraEngine<N, E> implements ShortestPathEngine<N, E> {
+
+    static final int DEFAULT_ARITY = 4;
+
+    private final GraphSnapshot<N, E> snapshot;
+    private final double[] edgeWeights;
+
+    private final IndexedDaryHeap heap;
+    private final double[] distances;
+
+    // a node's distance is only valid for this run if reachedStamps[node] == stamp
+    private final int[] reachedStamps;
+    private int stamp;
+
+    // the nodes settled in the last run in the order they were settled
+    private final int[] settledOrder;
+    private int settledCount;
+
+    // Abstraction Function:
+    // DijkstraEngine, d, represents the shortest distances of the last run where
+    // the distance of node n is distances[n] if reachedStamps[n] == stamp else infinity
+    //
+    // Representation Invariant for every DijkstraEngine d:
+    // edgeWeights.length == snapshot.edgeCount() &&
+    // distances.length == reachedStamps.length == settledOrder.length == snapshot.nodeCount() &&
+    // 0 <= settledCount <= settledOrder.length &&
+    // foreach 0 <= i < settledCount: reachedStamps[settledOrder[i]] == stamp
+
+    /**
+     * @require snapshot != null && toDouble != null
+     * @effects Constructs an engine for snapshot with the given edge weights
+     * @param snapshot the graph to search
+     * @param toDouble should convert the edges to a double
+     */
+    public DijkstraEngine(GraphSnapshot<N, E> snapshot, ToDoubleFunction<E> toDouble) {
+        this(snapshot, toDouble, DEFAULT_ARITY);
+    }
+
+    /**
+     * @require snapshot != null && toDouble != null && arity >= 2
+     * @effects Constructs an engine for snapshot with the given edge weights
+     * @param snapshot the graph to search
+     * @param toDouble should convert the edges to a double
+     * @param arity how many children each entry in the heap has
+     */
+    public DijkstraEngine(GraphSnapshot<N, E> snapshot, ToDoubleFunction<E> toDouble, int arity) {
+        this(snapshot, minimumWeights(snapshot, toDouble), arity);
+    }
+
+    /**
+     * Engines made from the same edgeWeights share them, they are never changed.
+     *
+     * @require snapshot != null && edgeWeights == minimumWeights(snapshot, toDouble) && arity >= 2
+     * @effects Constructs an engine for snapshot with the given edge weights
+     * @param snapshot the graph to search
+     * @param edgeWeights the weight of every edge indexed by edge id
+     * @param arity how many children each entry in the heap has
+     */
+    DijkstraEngine(GraphSnapshot<N, E> snapshot, double[] edgeWeights, int arity) {
+
+        this.snapshot = snapshot;
+        this.edgeWeights = edgeWeights;
+
+        int nodeCount = snapshot.nodeCount();
+        heap = new IndexedDaryHeap(arity, nodeCount);
+        distances = new double[nodeCount];
+        reachedStamps = new int[nodeCount];
+        settledOrder = new int[nodeCount];
+        stamp = 0;
+        settledCount = 0;
+
+        checkRep();
+    }
+
+    /**
+     * Checks that the representation invariant holds (if any).
+     **/
+    // Throws a RuntimeException if the rep invariant is violated.
+    private void checkRep() throws RuntimeException {
+    	/*
+    	if (edgeWeights.length != snapshot.edgeCount()) {
+    		throw new RuntimeException("edgeWeights does not match the snapshot");
+    	}
+
+    	for (int i = 0; i < settledCount; i++) {
+    		if (reachedStamps[settledOrder[i]] != stamp) {
+    			throw new RuntimeException("settled node was not reached");
+    		}
+    	}
+    	*/
+    }
+
+    /**
+     * @param snapshot
+     * @param toDouble
+     * @return the smallest weight of the labels of every edge in snapshot indexed by edge id
+     */
+    static <N, E> double[] minimumWeights(GraphSnapshot<N, E> snapshot, ToDoubleFunction<E> toDouble) {
+
+        double[] weights = new double[snapshot.edgeCount()];
+
+        for (int e = 0; e < weights.length; e++) {
+            double min = Double.POSITIVE_INFINITY;
+            for (int l = snapshot.labelOffsets[e]; l < snapshot.labelOffsets[e + 1]; l++) {
+                @SuppressWarnings("unchecked")
+                double w = toDouble.applyAsDouble((E) snapshot.labels[l]);
+                if (w < min) {
+                    min = w;
+                }
+            }
+            weights[e] = min;
+        }
+
+        return weights;
+    }
+
+    /**
+     *
+     * @return the snapshot this engine searches
+     */
+    @Override
+    public GraphSnapshot<N, E> getSnapshot() {
+        return snapshot;
+    }
+
+    // starts a new run without clearing the distances
+    private void reset() {
+
+        heap.clear();
+        settledCount = 0;
+        stamp++;
+
+        if (stamp == Integer.MAX_VALUE) {
+            Arrays.fill(reachedStamps, 0);
+            stamp = 1;
+        }
+    }
+
+    /**
+     * @require 0 <= source < getSnapshot().nodeCount()
+     * @modifies this
+     * @effects finds the shortest distance from source to every node connected to source
+     * @param source the id of the start node
+     * @param reverseOrder if you want to the edges direction to be flipped
+     */
+    @Override
+    public void run(int source, boolean reverseOrder) {
+        run(source, reverseOrder, null, 0);
+    }
+
+    /**
+     * Stops once stopCount of the nodes in stopAt are settled, after that only those
+     * nodes and the settled nodes are sure to have their shortest distance.
+     *
+     * @require 0 <= source < getSnapshot().nodeCount() &&
+     * 		(stopAt == null || stopAt.length == getSnapshot().nodeCount())
+     * @modifies this
+     * @effects finds the shortest distance from source to the nodes connected to source
+     * @param source the id of the start node
+     * @param reverseOrder if you want to the edges direction to be flipped
+     * @param stopAt the nodes to stop at or null to find every node
+     * @param stopCount how many of the nodes in stopAt have to be settled to stop
+     */
+    void run(int source, boolean reverseOrder, boolean[] stopAt, int stopCount) {
+
+        reset();
+
+        int[] offsets = reverseOrder ? snapshot.reverseOffsets : snapshot.forwardOffsets;
+        int[] neighbors = reverseOrder ? snapshot.reverseSources : snapshot.forwardTargets;
+        int[] reverseEdges = snapshot.reverseEdges;
+
+        distances[source] = 0.0;
+        reachedStamps[source] = stamp;
+        heap.insertOrDecrease(source, 0.0);
+
+        while (!heap.isEmpty()) {
+
+            int node = heap.poll();
+            double distance = distances[node];
+            settledOrder[settledCount++] = node;
+
+            if (stopAt != null && stopAt[node] && --stopCount == 0) {
+                break;
+            }
+
+            for (int slot = offsets[node]; slot < offsets[node + 1]; slot++) {
+
+                int next = neighbors[slot];
+                double weight = edgeWeights[reverseOrder ? reverseEdges[slot] : slot];
+                double newDistance = distance + weight;
+
+                if (reachedStamps[next] != stamp) {
+                    reachedStamps[next] = stamp;
+                    distances[next] = newDistance;
+                    heap.insertOrDecrease(next, newDistance);
+                } else if (newDistance < distances[next] && heap.contains(next)) {
+                    distances[next] = newDistance;
+                    heap.insertOrDecrease(next, newDistance);
+                }
+            }
+        }
+
+        checkRep();
+    }
+
+    /**
+     * @require 0 <= node < getSnapshot().nodeCount()
+     * @param node
+     * @return true if the last run reached node else false
+     */
+    @Override
+    public boolean isReached(int node) {
+        return reachedStamps[node] == stamp && stamp != 0;
+    }
+
+    /**
+     * @require 0 <= node < getSnapshot().nodeCount()
+     * @param node
+     * @return the distance of node in the last run or infinity if it was not reached
+     */
+    @Override
+    public double getDistance(int node) {
+        return isReached(node) ? distances[node] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     *
+     * @return the amount of nodes settled in the last run
+     */
+    public int getSettledCount() {
+        return settledCount;
+    }
+
+    /**
+     * @require 0 <= index < getSettledCount()
+     * @param index
+     * @return the id of the node settled at position index in the last run
+     */
+    public int getSettledNode(int index) {
+        return settledOrder[index];
+    }
+
+    /**
+     * Same as Graph.dijkstra(headNode, reverseOrder, toDouble) with the toDouble
+     * this engine was made with.
+     *
+     * @param headNode the start of the node in the dijkstra
+     * @param reverseOrder if you want to the edges direction to be flipped
+     * @return Map<N, Double> where each key is the label of the nodes
+     * 		connected to headNode and the value is the distance from headNode
+     */
+    @Override
+    public Map<N, Double> dijkstra(N headNode, boolean reverseOrder) {
+
+        int source = snapshot.getNodeId(headNode);
+
+        if (source == -1) {
+            Map<N, Double> nodesAndDistances = new HashMap<>();
+            nodesAndDistances.put(headNode, 0.0);
+            return nodesAndDistances;
+        }
+
+        run(source, reverseOrder);
+
+        Map<N, Double> nodesAndDistances = new HashMap<>(Math.max(16, (int) (settledCount / 0.75f) + 1));
+        for (int i = 0; i < settledCount; i++) {
+            int node = settledOrder[i];
+            nodesAndDistances.put(snapshot.getNodeLabel(node), distances[node]);
+        }
+
+        return nodesAndDistances;
+    }
+}
@@ -0,0 +1,245 @@
+package Graph;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DistanceMatrix holds the shortest distances from a list of source nodes to a
+ * list of target nodes in one primitive double array, one row per source.
+ * A target that can not be reached from a source has a distance of infinity.
+ *
+ * A matrix from dijkstraAll has a column for every node of the graph, but a source may
+ * only reach a few of them on a big graph. Each of its rows only holds the columns
+ * of the reached nodes and their distances, so it takes memory for what was reached
+ * instead of sources times every node.
+ *
+ * @param <N> where N is the label of the Node
+ * @author cameronmonks
+ */
+public class DistanceMatrix<N> {
+
+    private final List<N> sources;
+    private final List<N> targets;
+
+    // distances[row * targets.size() + column], null if the rows only hold the reached columns
+    private final double[] distances;
+
+    // the reached columns of each row in increasing order and their distances, null if
+    // distances holds every column
+    private final int[][] rowColumns;
+    private final double[][] rowDistances;
+
+    // the row of each source and column of each target, made the first time they are asked for
+    private Map<N, Integer> sourceRows;
+    private Map<N, Integer> targetColumns;
+
+    // Abstraction Function:
+    // DistanceMatrix, m, represents the distance from sources.get(r) to targets.get(c)
+    // as distances[r * targets.size() + c] for every row r and column c, or if distances
+    // is null as rowDistances[r][i] where rowColumns[r][i] == c and infinity if c is not in rowColumns[r]
+    //
+    // Representation Invariant for every DistanceMatrix m:
+    // sources != null && targets != null &&
+    // (distances.length == sources.size() * targets.size() <= MAX_SIZE ||
+    //  distances == null && rowColumns.length == rowDistances.length == sources.size() &&
+    //      foreach r: rowColumns[r].length == rowDistances[r].length && rowColumns[r] is strictly increasing)
+
+    // the most elements an array can have on every JVM
+    static final int MAX_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * Every row * targets.size() + column of a matrix is then at most MAX_SIZE, so
+     * the indexes into distances can not overflow.
+     *
+     * @param sourceCount the amount of rows
+     * @param targetCount the amount of columns
+     * @return sourceCount * targetCount
+     * @throws IllegalArgumentException if a matrix that big does not fit in one array
+     */
+    static int size(int sourceCount, int targetCount) {
+
+        long size = (long) sourceCount * targetCount;
+        if (size > MAX_SIZE) {
+            throw new IllegalArgumentException("a distance matrix of " + sourceCount + " sources and " + targetCount +
+                    " targets has " + size + " distances, more than the " + MAX_SIZE + " one array can hold");
+        }
+        return (int) size;
+    }
+
+    /**
+     * @require distances.length == size(sources.size(), targets.size())
+     * @effects Constructs a matrix that holds on to sources, targets and distances
+     * @param sources the node of each row
+     * @param targets the node of each column
+     * @param distances the distances row after row
+     */
+    DistanceMatrix(List<N> sources, List<N> targets, double[] distances) {
+
+        this.sources = Collections.unmodifiableList(sources);
+        this.targets = Collections.unmodifiableList(targets);
+        this.distances = distances;
+        this.rowColumns = null;
+        this.rowDistances = null;
+
+        checkRep();
+    }
+
+    /**
+     * @require rowColumns.length == rowDistances.length == sources.size() and each row of
+     * 		rowColumns is strictly increasing and as long as the same row of rowDistances
+     * @effects Constructs a matrix that only holds the reached columns of each row and
+     * 		holds on to sources, targets and the rows
+     * @param sources the node of each row
+     * @param targets the node of each column
+     * @param rowColumns the reached columns of each row
+     * @param rowDistances the distance of each reached column of each row
+     */
+    DistanceMatrix(List<N> sources, List<N> targets, int[][] rowColumns, double[][] rowDistances) {
+
+        this.sources = Collections.unmodifiableList(sources);
+        this.targets = Collections.unmodifiableList(targets);
+        this.distances = null;
+        this.rowColumns = rowColumns;
+        this.rowDistances = rowDistances;
+
+        checkRep();
+    }
+
+    /**
+     * Checks that the representation invariant holds (if any).
+     **/
+    // Throws a RuntimeException if the rep invariant is violated.
+    private void checkRep() throws RuntimeException {
+    	/*
+    	if (distances != null && distances.length != sources.size() * targets.size()) {
+    		throw new RuntimeException("distances does not have a value for every source and target");
+    	}
+    	*/
+    }
+
+    /**
+     *
+     * @return the sources in row order
+     */
+    public List<N> getSources() {
+        return sources;
+    }
+
+    /**
+     *
+     * @return the targets in column order
+     */
+    public List<N> getTargets() {
+        return targets;
+    }
+
+    /**
+     *
+     * @return the amount of rows
+     */
+    public int getSourceCount() {
+        return sources.size();
+    }
+
+    /**
+     *
+     * @return the amount of columns
+     */
+    public int getTargetCount() {
+        return targets.size();
+    }
+
+    /**
+     * @require 0 <= row < getSourceCount() && 0 <= column < getTargetCount()
+     * @param row
+     * @param column
+     * @return the distance from getSources().get(row) to getTargets().get(column)
+     * 		or infinity if it can not be reached
+     */
+    public double get(int row, int column) {
+
+        if (distances != null) {
+            return distances[row * targets.size() + column];
+        }
+
+        int i = Arrays.binarySearch(rowColumns[row], column);
+        return i < 0 ? Double.POSITIVE_INFINITY : rowDistances[row][i];
+    }
+
+    /**
+     *
+     * @param source
+     * @param target
+     * @return the distance from source to target, infinity if it can not be reached
+     * 		or if source is not a source or target is not a target of this matrix
+     */
+    public double get(N source, N target) {
+
+        Integer row = getRow(source);
+        Integer column = getColumn(target);
+        if (row == null || column == null) return Double.POSITIVE_INFINITY;
+
+        return get(row, column);
+    }
+
+    /**
+     * @param source
+     * @return a Map<N, Double> of the targets that can be reached from source and their
+     * 		distances, the same as Graph.dijkstra on a matrix from dijkstraAll. Empty if
+     * 		source is not a source of this matrix
+     */
+    public Map<N, Double> getDistances(N source) {
+
+        Map<N, Double> nodesAndDistances = new HashMap<>();
+
+        Integer row = getRow(source);
+        if (row == null) return nodesAndDistances;
+
+        if (distances == null) {
+            int[] columns = rowColumns[row];
+            for (int i = 0; i < columns.length; i++) {
+                nodesAndDistances.put(targets.get(columns[i]), rowDistances[row][i]);
+            }
+            return nodesAndDistances;
+        }
+
+        int start = row * targets.size();
+        for (int c = 0; c < targets.size(); c++) {
+            double distance = distances[start + c];
+            if (distance != Double.POSITIVE_INFINITY) {
+                nodesAndDistances.put(targets.get(c), distance);
+            }
+        }
+
+        return nodesAndDistances;
+    }
+
+    private synchronized Integer getRow(N source) {
+
+        if (sourceRows == null) {
+            sourceRows = indexOf(sources);
+        }
+        return sourceRows.get(source);
+    }
+
+    private synchronized Integer getColumn(N target) {
+
+        if (targetColumns == null) {
+            targetColumns = indexOf(targets);
+        }
+        return targetColumns.get(target);
+    }
+
+    // a map from each node of nodes to its first index
+    private static <N> Map<N, Integer> indexOf(List<N> nodes) {
+
+        Map<N, Integer> indexes = new HashMap<N, Integer>(Math.max(16, (int) (nodes.size() / 0.75f) + 1));
+        for (int i = nodes.size() - 1; i >= 0; i--) {
+            indexes.put(nodes.get(i), i);
+        }
+        return indexes;
+    }
+}
@@ -0,0 +1,219 @@
+package Graph;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * DistanceMatrixTask fills the rows of a distance matrix on a ForkJoinPool by
+ * splitting the sources in half until each task has one source. The DijkstraEngines
+ * are kept in a shared queue and reused, so each worker thread only ever makes
+ * one engine. A row of a matrix with targets allocates nothing, a row of every node
+ * is made as long as the nodes the source reaches.
+ *
+ * @param <N> where N is the label of the Node
+ * @param <E> where E is the label of the Edge
+ * @author cameronmonks
+ */
+class DistanceMatrixTask<N, E> extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final GraphSnapshot<N, E> snapshot;
+    private final double[] edgeWeights;
+    private final boolean reverseOrder;
+
+    // the node id of each row, -1 if the source is not in the snapshot
+    private final int[] sourceIds;
+
+    // the node id of each column, -1 if the target is not in the snapshot,
+    // or null if the columns are every node in id order
+    private final int[] targetIds;
+
+    // the nodes to stop at and how many there are, null and 0 if targetIds is null
+    private final boolean[] stopAt;
+    private final int stopCount;
+
+    // the engines not being used right now
+    private final Queue<DijkstraEngine<N, E>> engines;
+
+    // the matrix the rows are written to, null if targetIds is null
+    private final double[] distances;
+
+    // the reached node ids of each row in increasing order and their distances,
+    // null unless targetIds is null
+    private final int[][] rowColumns;
+    private final double[][] rowDistances;
+
+    // the rows this task fills
+    private final int from;
+    private final int to;
+
+    // Abstraction Function:
+    // DistanceMatrixTask, t, represents filling rows from to to - 1 of distances
+    // with the distances from sourceIds[row] to each target
+    //
+    // Representation Invariant for every DistanceMatrixTask t:
+    // 0 <= from <= to <= sourceIds.length &&
+    // (targetIds != null && distances.length == sourceIds.length * targetIds.length ||
+    //  targetIds == null && rowColumns.length == rowDistances.length == sourceIds.length)
+
+    /**
+     * @require every array has the sizes in the representation invariant
+     * @effects Constructs a task that fills rows from to to - 1
+     * @param snapshot the graph to search
+     * @param edgeWeights DijkstraEngine.minimumWeights of snapshot
+     * @param reverseOrder if you want to the edges direction to be flipped
+     * @param sourceIds the node id of each row
+     * @param targetIds the node id of each column or null for every node
+     * @param engines the engines to reuse
+     * @param distances where to write the rows if targetIds is not null, else null
+     * @param rowColumns where to write the reached node ids of each row if targetIds is null, else null
+     * @param rowDistances where to write their distances if targetIds is null, else null
+     * @param from the first row
+     * @param to one after the last row
+     */
+    DistanceMatrixTask(GraphSnapshot<N, E> snapshot, double[] edgeWeights, boolean reverseOrder,
+                       int[] sourceIds, int[] targetIds, Queue<DijkstraEngine<N, E>> engines,
+                       double[] distances, int[][] rowColumns, double[][] rowDistances, int from, int to) {
+
+        this.snapshot = snapshot;
+        this.edgeWeights = edgeWeights;
+        this.reverseOrder = reverseOrder;
+        this.sourceIds = sourceIds;
+        this.targetIds = targetIds;
+        this.engines = engines;
+        this.distances = distances;
+        this.rowColumns = rowColumns;
+        this.rowDistances = rowDistances;
+        this.from = from;
+        this.to = to;
+
+        if (targetIds == null) {
+            stopAt = null;
+            stopCount = 0;
+        } else {
+            stopAt = new boolean[snapshot.nodeCount()];
+            int count = 0;
+            for (int t : targetIds) {
+                if (t != -1 && !stopAt[t]) {
+                    stopAt[t] = true;
+                    count++;
+                }
+            }
+            stopCount = count;
+        }
+
+        checkRep();
+    }
+
+    // a task for rows from to to - 1 that shares everything else with parent
+    private DistanceMatrixTask(DistanceMatrixTask<N, E> parent, int from, int to) {
+
+        this.snapshot = parent.snapshot;
+        this.edgeWeights = parent.edgeWeights;
+        this.reverseOrder = parent.reverseOrder;
+        this.sourceIds = parent.sourceIds;
+        this.targetIds = parent.targetIds;
+        this.stopAt = parent.stopAt;
+        this.stopCount = parent.stopCount;
+        this.engines = parent.engines;
+        this.distances = parent.distances;
+        this.rowColumns = parent.rowColumns;
+        this.rowDistances = parent.rowDistances;
+        this.from = from;
+        this.to = to;
+
+        checkRep();
+    }
+
+    /**
+     * Checks that the representation invariant holds (if any).
+     **/
+    // Throws a RuntimeException if the rep invariant is violated.
+    private void checkRep() throws RuntimeException {
+    	/*
+    	if (from < 0 || from > to || to > sourceIds.length) {
+    		throw new RuntimeException("rows are out of range");
+    	}
+    	*/
+    }
+
+    @Override
+    protected void compute() {
+
+        if (to - from > 1) {
+            int middle = (from + to) >>> 1;
+            invokeAll(new DistanceMatrixTask<N, E>(this, from, middle),
+                      new DistanceMatrixTask<N, E>(this, middle, to));
+            return;
+        }
+
+        DijkstraEngine<N, E> engine = engines.poll();
+        if (engine == null) {
+            engine = new DijkstraEngine<N, E>(snapshot, edgeWeights, DijkstraEngine.DEFAULT_ARITY);
+        }
+
+        if (targetIds == null) {
+            for (int row = from; row < to; row++) {
+                fillReached(engine, row);
+            }
+            engines.offer(engine);
+            return;
+        }
+
+        int columns = targetIds.length;
+
+        for (int row = from; row < to; row++) {
+
+            // can not overflow, DistanceMatrix.size checked the whole matrix fits in an int
+            int start = row * columns;
+            int source = sourceIds[row];
+
+            if (source == -1 || stopCount == 0) {
+                Arrays.fill(distances, start, start + columns, Double.POSITIVE_INFINITY);
+                continue;
+            }
+
+            engine.run(source, reverseOrder, stopAt, stopCount);
+
+            for (int c = 0; c < columns; c++) {
+                int target = targetIds[c];
+                distances[start + c] = target == -1 ? Double.POSITIVE_INFINITY : engine.getDistance(target);
+            }
+        }
+
+        engines.offer(engine);
+    }
+
+    /**
+     * @modifies engine, rowColumns, rowDistances
+     * @effects sets row of rowColumns and rowDistances to the nodes sourceIds[row] reaches,
+     * 		by id, and their distances
+     */
+    private void fillReached(DijkstraEngine<N, E> engine, int row) {
+
+        int source = sourceIds[row];
+        if (source == -1) {
+            rowColumns[row] = new int[0];
+            rowDistances[row] = new double[0];
+            return;
+        }
+
+        engine.run(source, reverseOrder);
+
+        int[] columns = new int[engine.getSettledCount()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = engine.getSettledNode(i);
+        }
+        Arrays.sort(columns);
+
+        double[] rowDistance = new double[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            rowDistance[i] = engine.getDistance(columns[i]);
+        }
+
+        rowColumns[row] = columns;
+        rowDistances[row] = rowDistance;
+    }
+}
@@ -0,0 +1,476 @@
+package Graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.ObjDoubleConsumer;
+
+/**
+ * DoubleWeightedGraph is a directed multigraph whose edges are labeled by double
+ * weights, for when a Graph<N, Double> would only ever hold numbers. There is no Node,
+ * Edge or Double object per edge: each node gets a dense id and every edge is one
+ * index into parallel int and double arrays plus a slot of a hash table, so an edge
+ * takes about 60 bytes where a Graph<N, Double> edge takes a few hundred.
+ *
+ * The edges going out of and into each node are linked lists through those arrays,
+ * and a hash table from (parent, child) to the edges between them finds parallel
+ * edges without looking at the other edges of the node.
+ *
+ * Like Graph, an edge with several weights is one entry per distinct weight, and
+ * adding the same weight twice does nothing. Like Graph it is not thread safe.
+ *
+ * @param <N> where N is the label of the Node
+ * @author cameronmonks
+ */
+public class DoubleWeightedGraph<N> {
+
+    // node label dictionary
+    private final HashMap<N, Integer> nodeIds;
+    private final ArrayList<N> nodeLabels;
+
+    // the first edge going out of and into each node id, -1 if there is none
+    private int[] firstOut;
+    private int[] firstIn;
+
+    // indexed by edge id
+    private int[] parents;
+    private int[] children;
+    private double[] weights;
+    private int[] nextOut;
+    private int[] nextIn;
+    private int[] nextSamePair;
+    private int edgeCount;
+
+    // open addressing hash table from (parent << 32 | child) to the newest edge between them
+    private long[] pairKeys;
+    private int[] pairEdges;
+    private int pairCount;
+
+    private final IdAdjacency adjacency = new Adjacency();
+
+    // Abstraction Function:
+    // DoubleWeightedGraph, g, represents the graph with the nodes nodeLabels and an edge from
+    // nodeLabels.get(parents[k]) to nodeLabels.get(children[k]) labeled weights[k] for every k < edgeCount
+    //
+    // Representation Invariant for every DoubleWeightedGraph g:
+    // foreach i: nodeIds.get(nodeLabels.get(i)) == i &&
+    // foreach node id n: following nextOut from firstOut[n] visits every edge k with parents[k] == n once &&
+    // foreach node id n: following nextIn from firstIn[n] visits every edge k with children[k] == n once &&
+    // following nextSamePair from the pairEdges entry of (p, c) visits every edge from p to c once &&
+    // no two edges with the same parent and child have the same weight &&
+    // pairCount * 2 <= pairKeys.length, pairKeys.length is a power of 2
+
+    /**
+     * @effects Constructs a new DoubleWeightedGraph with no nodes or edges
+     */
+    public DoubleWeightedGraph() {
+        this(16, 16);
+    }
+
+    /**
+     * @require expectedNodeCount >= 0 && expectedEdgeCount >= 0
+     * @effects Constructs a new DoubleWeightedGraph with no nodes or edges that holds
+     * 		about expectedNodeCount nodes and expectedEdgeCount edges without growing
+     * @param expectedNodeCount
+     * @param expectedEdgeCount
+     */
+    public DoubleWeightedGraph(int expectedNodeCount, int expectedEdgeCount) {
+
+        int nodeCapacity = Math.max(1, expectedNodeCount);
+        int edgeCapacity = Math.max(1, expectedEdgeCount);
+
+        nodeIds = new HashMap<N, Integer>(Node.capacityFor(expectedNodeCount));
+        nodeLabels = new ArrayList<N>(expectedNodeCount);
+        firstOut = new int[nodeCapacity];
+        firstIn = new int[nodeCapacity];
+
+        parents = new int[edgeCapacity];
+        children = new int[edgeCapacity];
+        weights = new double[edgeCapacity];
+        nextOut = new int[edgeCapacity];
+        nextIn = new int[edgeCapacity];
+        nextSamePair = new int[edgeCapacity];
+        edgeCount = 0;
+
+        int tableSize = Integer.highestOneBit(Math.max(8, edgeCapacity) * 2 - 1) << 1;
+        pairKeys = new long[tableSize];
+        pairEdges = new int[tableSize];
+        Arrays.fill(pairEdges, -1);
+        pairCount = 0;
+
+        checkRep();
+    }
+
+    /**
+     * Checks that the representation invariant holds (if any).
+     **/
+    // Throws a RuntimeException if the rep invariant is violated.
+    private void checkRep() throws RuntimeException {
+    	/*
+    	for (int i = 0; i < nodeLabels.size(); i++) {
+    		if (nodeIds.get(nodeLabels.get(i)) != i) {
+    			throw new RuntimeException("node id does not match its label");
+    		}
+    	}
+
+    	if (pairCount * 2 > pairKeys.length) {
+    		throw new RuntimeException("pair table is too full");
+    	}
+    	*/
+    }
+
+    /**
+     * @modifies this
+     * @effects adds a node with nodeData to graph if its not already in their
+     * @param nodeData
+     * @return true if nodeData is added else false
+     */
+    public boolean addNode(N nodeData) {
+
+        if (nodeIds.containsKey(nodeData)) {
+            return false;
+        }
+
+        int id = nodeLabels.size();
+        if (id == firstOut.length) {
+            firstOut = Arrays.copyOf(firstOut, id * 2);
+            firstIn = Arrays.copyOf(firstIn, id * 2);
+        }
+        firstOut[id] = -1;
+        firstIn[id] = -1;
+
+        nodeIds.put(nodeData, id);
+        nodeLabels.add(nodeData);
+
+        checkRep();
+        return true;
+    }
+
+    /**
+     *
+     * @param node
+     * @return true if node is in the graph else false
+     */
+    public boolean hasNode(N node) {
+        return nodeIds.containsKey(node);
+    }
+
+    /**
+     *
+     * @param node
+     * @return the id of node, from 0 to nodeCount() - 1, or -1 if it is not in the graph
+     */
+    public int getNodeId(N node) {
+
+        Integer id = nodeIds.get(node);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * @require 0 <= id < nodeCount()
+     * @param id
+     * @return the label of the node with id
+     */
+    public N getNodeLabel(int id) {
+        return nodeLabels.get(id);
+    }
+
+    /**
+     *
+     * @return an ArrayList<N> of the nodes in the graph
+     */
+    public ArrayList<N> getNodes() {
+        return new ArrayList<N>(nodeLabels);
+    }
+
+    /**
+     *
+     * @return the amount of nodes in the graph
+     */
+    public int nodeCount() {
+        return nodeLabels.size();
+    }
+
+    /**
+     *
+     * @return the amount of edges in the graph, counting each distinct weight
+     */
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * @modifies this.graph
+     * @effects adds an edge from parentNode to childNode weighing weight if both nodes
+     * 		are in the graph and there is no edge between them with that weight
+     * @param parentNode
+     * @param childNode
+     * @param weight
+     * @return true if edge is added else false
+     */
+    public boolean addEdge(N parentNode, N childNode, double weight) {
+
+        int parent = getNodeId(parentNode);
+        int child = getNodeId(childNode);
+        if (parent == -1 || child == -1) {
+            return false;
+        }
+
+        long key = pairKey(parent, child);
+        int slot = findSlot(key);
+        int first = pairEdges[slot];
+
+        for (int e = first; e != -1; e = nextSamePair[e]) {
+            if (Double.doubleToLongBits(weights[e]) == Double.doubleToLongBits(weight)) {
+                return false;
+            }
+        }
+
+        if (edgeCount == parents.length) {
+            growEdges();
+        }
+
+        int e = edgeCount++;
+        parents[e] = parent;
+        children[e] = child;
+        weights[e] = weight;
+        nextOut[e] = firstOut[parent];
+        firstOut[parent] = e;
+        nextIn[e] = firstIn[child];
+        firstIn[child] = e;
+        nextSamePair[e] = first;
+
+        pairKeys[slot] = key;
+        pairEdges[slot] = e;
+        if (first == -1 && ++pairCount * 2 > pairKeys.length) {
+            growPairs();
+        }
+
+        checkRep();
+        return true;
+    }
+
+    private static long pairKey(int parent, int child) {
+        return ((long) parent << 32) | (child & 0xFFFFFFFFL);
+    }
+
+    // the slot of key in the pair table or the empty slot it would go in
+    private int findSlot(long key) {
+
+        int mask = pairKeys.length - 1;
+        long h = key * 0x9E3779B97F4A7C15L;
+        int slot = (int) (h >>> 32) & mask;
+
+        while (pairEdges[slot] != -1 && pairKeys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void growEdges() {
+
+        int capacity = parents.length * 2;
+        parents = Arrays.copyOf(parents, capacity);
+        children = Arrays.copyOf(children, capacity);
+        weights = Arrays.copyOf(weights, capacity);
+        nextOut = Arrays.copyOf(nextOut, capacity);
+        nextIn = Arrays.copyOf(nextIn, capacity);
+        nextSamePair = Arrays.copyOf(nextSamePair, capacity);
+    }
+
+    private void growPairs() {
+
+        long[] oldKeys = pairKeys;
+        int[] oldEdges = pairEdges;
+
+        pairKeys = new long[oldKeys.length * 2];
+        pairEdges = new int[oldKeys.length * 2];
+        Arrays.fill(pairEdges, -1);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldEdges[i] != -1) {
+                int slot = findSlot(oldKeys[i]);
+                pairKeys[slot] = oldKeys[i];
+                pairEdges[slot] = oldEdges[i];
+            }
+        }
+    }
+
+    /**
+     *
+     * @param node
+     * @return returns a HashSet<N> of the label of the nodes that
+     * 			node is connected to. If node does not
+     * 			exist it returns empty HashSet<N>
+     */
+    public HashSet<N> getNodesConnectedTo(N node) {
+
+        HashSet<N> connected = new HashSet<N>();
+        int id = getNodeId(node);
+        if (id == -1) return connected;
+
+        for (int e = firstOut[id]; e != -1; e = nextOut[e]) {
+            connected.add(nodeLabels.get(children[e]));
+        }
+        return connected;
+    }
+
+    /**
+     *
+     * @param node
+     * @return returns a HashSet<N> of the label of the nodes that
+     * 			are connected to node. If node does not
+     * 			exist it returns empty HashSet<N>
+     */
+    public HashSet<N> getNodesGoingIntoNode(N node) {
+
+        HashSet<N> connected = new HashSet<N>();
+        int id = getNodeId(node);
+        if (id == -1) return connected;
+
+        for (int e = firstIn[id]; e != -1; e = nextIn[e]) {
+            connected.add(nodeLabels.get(parents[e]));
+        }
+        return connected;
+    }
+
+    /**
+     *
+     * @param fromNode
+     * @param toNode
+     * @return a HashSet<Double> of the weights between the nodes, fromNode to toNode
+     * 		if their doesn't exist an edge between them for any reason it returns
+     * 		the empty set
+     */
+    public HashSet<Double> getEdgesBetweenNodes(N fromNode, N toNode) {
+
+        HashSet<Double> result = new HashSet<Double>();
+        int from = getNodeId(fromNode);
+        int to = getNodeId(toNode);
+        if (from == -1 || to == -1) return result;
+
+        for (int e = pairEdges[findSlot(pairKey(from, to))]; e != -1; e = nextSamePair[e]) {
+            result.add(weights[e]);
+        }
+        return result;
+    }
+
+    /**
+     *
+     * @param fromNode
+     * @param toNode
+     * @return the smallest weight of the edges from fromNode to toNode or
+     * 		Double.POSITIVE_INFINITY if there is none
+     */
+    public double getMinWeight(N fromNode, N toNode) {
+
+        int from = getNodeId(fromNode);
+        int to = getNodeId(toNode);
+        if (from == -1 || to == -1) return Double.POSITIVE_INFINITY;
+
+        double min = Double.POSITIVE_INFINITY;
+        for (int e = pairEdges[findSlot(pairKey(from, to))]; e != -1; e = nextSamePair[e]) {
+            min = Math.min(min, weights[e]);
+        }
+        return min;
+    }
+
+    /**
+     * Walks the edges without copying them or boxing the weights, a node with
+     * several weights to the same node is given once for each weight.
+     *
+     * @require action != null
+     * @effects calls action with the label and weight of every edge going out of node
+     * @param node
+     * @param action
+     */
+    public void forEachOutNeighbor(N node, ObjDoubleConsumer<? super N> action) {
+
+        int id = getNodeId(node);
+        if (id == -1) return;
+
+        for (int e = firstOut[id]; e != -1; e = nextOut[e]) {
+            action.accept(nodeLabels.get(children[e]), weights[e]);
+        }
+    }
+
+    /**
+     * Walks the edges without copying them or boxing the weights, a node with
+     * several weights to the same node is given once for each weight.
+     *
+     * @require action != null
+     * @effects calls action with the label and weight of every edge going into node
+     * @param node
+     * @param action
+     */
+    public void forEachInNeighbor(N node, ObjDoubleConsumer<? super N> action) {
+
+        int id = getNodeId(node);
+        if (id == -1) return;
+
+        for (int e = firstIn[id]; e != -1; e = nextIn[e]) {
+            action.accept(nodeLabels.get(parents[e]), weights[e]);
+        }
+    }
+
+    /**
+     * The adjacency IdDijkstra searches, an edge is its edge id and the
+     * edges of a node are walked through its linked list.
+     */
+    private final class Adjacency implements IdAdjacency {
+
+        @Override
+        public int nodeCount() {
+            return nodeLabels.size();
+        }
+
+        @Override
+        public long firstEdge(int node, boolean reverseOrder) {
+            return reverseOrder ? firstIn[node] : firstOut[node];
+        }
+
+        @Override
+        public long nextEdge(int node, long edge, boolean reverseOrder) {
+            return reverseOrder ? nextIn[(int) edge] : nextOut[(int) edge];
+        }
+
+        @Override
+        public int edgeEnd(long edge, boolean reverseOrder) {
+            return reverseOrder ? parents[(int) edge] : children[(int) edge];
+        }
+
+        @Override
+        public double edgeWeight(long edge, boolean reverseOrder) {
+            return weights[(int) edge];
+        }
+    }
+
+    /**
+     * Same as Graph.dijkstra(headNode, reverseOrder, (Double d) -> d).
+     *
+     * @param headNode the start of the node in the dijkstra
+     * @param reverseOrder if you want to the edges direction to be flipped
+     * @return Map<N, Double> where each key is the label of the nodes
+     * 		connected to headNode and the value is the distance from headNode
+     */
+    public Map<N, Double> dijkstra(N headNode, boolean reverseOrder) {
+        return IdDijkstra.dijkstra(adjacency, nodeLabels::get, headNode, getNodeId(headNode), reverseOrder);
+    }
+
+    /**
+     * Same as Graph.findPath(startNode, toNode, (Double d) -> d), stops as soon as toNode
+     * is settled.
+     *
+     * @param startNode
+     * @param toNode
+     * @return an ArrayList of the path. At each element is a Entry<Entry<node1, node2>, weight> where
+     * 		the weight is of the next edge to take to get close to toNode from startNode. If their
+     * 		is not a path then it returns null
+     */
+    public ArrayList<Entry<Entry<N,N>, Double>> findPath(N startNode, N toNode) {
+        return IdDijkstra.findPath(adjacency, nodeLabels::get, startNode, getNodeId(startNode), toNode, getNodeId(toNode));
+    }
+}
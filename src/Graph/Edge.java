@@ -1,28 +1,75 @@
 package Graph;
 
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
 
 /**
  * Edge presents an Edge in Graph going from
  * Node parent to Node child
  * N is the node labels and E is for edge Labels
  *
+ * Most edges only ever have one label, so the labels are kept in the smallest form
+ * that holds them: the first label inline, up to SMALL_LABEL_COUNT labels in an array
+ * and a set only once there are more. The array is copied when a label is added, so
+ * readers on other threads always see a whole array.
+ *
  * @param <N> where N is the label of the Node
  * @param <E> where E is the label of the Edge
  * @author cameronmonks
  */
 public class Edge<N, E> {
 
-    private final HashSet<E> labels;
+    // edges with up to this many labels do not make a set
+    static final int SMALL_LABEL_COUNT = 8;
+
+    // the first label, every edge has at least one
+    private final E firstLabel;
+
+    // the labels after firstLabel in the order they were added, null if there are none
+    private volatile Object[] moreLabels;
+
+    // every label, null until there are more than SMALL_LABEL_COUNT
+    private volatile Set<E> labelSet;
+
+    // if labelSet has to be thread safe
+    private final boolean concurrent;
+
     private final Node<N, E> parent;
     private final Node<N, E> child;
 
+    // the index of this edge in its graph, from 0 to edgeCount() - 1, or -1
+    private final int id;
+
+    // the version of the graph that added this edge, 0 if it is not in a graph
+    private final long version;
+
+    // the labels added after this edge was made and the version of the graph that
+    // added each of them, null until a label is added after the edge was made with
+    // addLabel(label, version). A label that is not in it is in every version of the edge
+    private volatile Map<E, Long> laterLabelVersions;
+
+    // read-only view of labels, made the first time it is asked for
+    private Set<E> labelsView;
+
     //
     // Abstraction Function:
     // Edge, e, represents the Edge
     //
     // Representation Invariant for every Edge e:
-    // e.label != null && e.parent != null && e.child != null  && labels.size() > 0
+    // e.label != null && e.parent != null && e.child != null &&
+    // (labelSet == null && 1 + moreLabels.length <= SMALL_LABEL_COUNT or
+    //  labelSet contains firstLabel, every label of moreLabels and labelSet.size() > SMALL_LABEL_COUNT) &&
+    // no label is in firstLabel and moreLabels twice
     //
 
     /**
@@ -32,10 +79,48 @@ public class Edge<N, E> {
      * @param child
      */
     public Edge(Node<N, E> parent, E label, Node<N, E> child) {
-        labels = new HashSet<E>();
-        labels.add(label);
+        this(parent, label, child, -1);
+    }
+
+    /**
+     * @effects Constructs a new Edge with values given
+     * @param parent
+     * @param label
+     * @param child
+     * @param id the index of this edge in its graph or -1 if it is not in a graph
+     */
+    Edge(Node<N, E> parent, E label, Node<N, E> child, int id) {
+        this(parent, label, child, id, false);
+    }
+
+    /**
+     * @effects Constructs a new Edge with values given
+     * @param parent
+     * @param label
+     * @param child
+     * @param id the index of this edge in its graph or -1 if it is not in a graph
+     * @param concurrent if labels can be added and read from many threads at once
+     */
+    Edge(Node<N, E> parent, E label, Node<N, E> child, int id, boolean concurrent) {
+        this(parent, label, child, id, 0, concurrent);
+    }
+
+    /**
+     * @effects Constructs a new Edge with values given
+     * @param parent
+     * @param label
+     * @param child
+     * @param id the index of this edge in its graph or -1 if it is not in a graph
+     * @param version the version of the graph that adds this edge
+     * @param concurrent if labels can be added and read from many threads at once
+     */
+    Edge(Node<N, E> parent, E label, Node<N, E> child, int id, long version, boolean concurrent) {
+        this.firstLabel = label;
+        this.concurrent = concurrent;
         this.parent = parent;
         this.child = child;
+        this.id = id;
+        this.version = version;
 
         checkRep();
     }
@@ -47,12 +132,12 @@ public class Edge<N, E> {
     // Throws a RuntimeException if the rep invariant is violated.
     private void checkRep() throws RuntimeException {
     	/*
-    	if (labels == null || parent == null || child == null) {
+    	if (firstLabel == null || parent == null || child == null) {
     		throw new RuntimeException("Label or parent or child is null");
     	}
 
-    	if (labels.size() == 0) {
-    		throw new RuntimeException("Labels.size() = 0");
+    	if (labelSet == null && moreLabels != null && 1 + moreLabels.length > SMALL_LABEL_COUNT) {
+    		throw new RuntimeException("too many labels without a set");
     	}
     	*/
     }
@@ -66,9 +151,94 @@ public class Edge<N, E> {
      */
     public boolean addLabel(E label) {
 
-        boolean r = labels.add(label);
+        Set<E> set = labelSet;
+        if (set != null) {
+            boolean r = set.add(label);
+            checkRep();
+            return r;
+        }
+
+        if (hasLabel(label)) {
+            return false;
+        }
+
+        Object[] more = moreLabels;
+        int count = more == null ? 0 : more.length;
+
+        if (1 + count < SMALL_LABEL_COUNT) {
+            Object[] grown = more == null ? new Object[1] : Arrays.copyOf(more, count + 1);
+            grown[count] = label;
+            moreLabels = grown;
+        } else {
+            set = concurrent ? ConcurrentHashMap.<E>newKeySet() : new HashSet<E>();
+            set.add(firstLabel);
+            for (Object other : more) {
+                set.add(cast(other));
+            }
+            set.add(label);
+            labelSet = set;
+        }
+
         checkRep();
-        return r;
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private E cast(Object label) {
+        return (E) label;
+    }
+
+    /**
+     * @param label
+     * @return true if label is a label of this edge else false
+     */
+    public boolean hasLabel(E label) {
+
+        Set<E> set = labelSet;
+        if (set != null) {
+            return set.contains(label);
+        }
+
+        if (Objects.equals(firstLabel, label)) {
+            return true;
+        }
+
+        Object[] more = moreLabels;
+        if (more != null) {
+            for (Object other : more) {
+                if (Objects.equals(other, label)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Only one thread may add labels to this edge at a time.
+     *
+     * @modifies labels
+     * @effects label is added to labels if labels doesn't contain label
+     * @param label
+     * @param version the version of the graph that adds label
+     * @return true if label was added else false
+     */
+    boolean addLabel(E label, long version) {
+
+        if (hasLabel(label)) {
+            return false;
+        }
+
+        // the version is stored first so that a reader that sees the label sees its version
+        Map<E, Long> versions = laterLabelVersions;
+        if (versions == null) {
+            versions = new ConcurrentHashMap<E, Long>();
+            laterLabelVersions = versions;
+        }
+        versions.put(label, version);
+
+        return addLabel(label);
     }
 
     /**
@@ -90,13 +260,263 @@ public class Edge<N, E> {
         return child;
     }
 
+    /**
+     *
+     * @return the index of this edge in its graph or -1 if it is not in a graph
+     */
+    int getId() {
+        return id;
+    }
+
+    /**
+     *
+     * @return the version of the graph that added this edge, 0 if it is not in a graph
+     */
+    long getVersion() {
+        return version;
+    }
+
+    /**
+     * @param label a label of this edge
+     * @param version
+     * @param versions laterLabelVersions
+     * @return true if label was added in or before version else false
+     */
+    private boolean hasLabelAt(E label, long version, Map<E, Long> versions) {
+
+        if (versions == null) return true;
+
+        Long added = versions.get(label);
+        return added == null || added <= version;
+    }
+
+    /**
+     *
+     * @param version a version of the graph, at least getVersion()
+     * @return a copy of the labels the edge had in version
+     */
+    HashSet<E> getLabels(long version) {
+
+        Map<E, Long> versions = laterLabelVersions;
+        HashSet<E> result = new HashSet<E>();
+
+        forEachLabel((E label) -> {
+            if (hasLabelAt(label, version, versions)) {
+                result.add(label);
+            }
+        });
+
+        return result;
+    }
+
     /**
      *
      * @return  a copy of the labels
      */
-    @SuppressWarnings("unchecked")
     public HashSet<E> getLabels() {
-        return (HashSet<E>) labels.clone();
+
+        Set<E> set = labelSet;
+        if (set != null) {
+            return new HashSet<E>(set);
+        }
+
+        HashSet<E> result = new HashSet<E>(Node.capacityFor(getLabelsCount()));
+        forEachLabel(result::add);
+        return result;
+    }
+
+
+    /**
+     * Does not copy the labels, the view changes when labels are added to this edge
+     *
+     * @return a read-only view of the labels
+     */
+    public Set<E> getLabelsView() {
+
+        if (labelsView == null) {
+            labelsView = new LabelsView();
+        }
+        return labelsView;
+    }
+
+    /**
+     * LabelsView is the read-only set getLabelsView returns, it reads the labels of
+     * the edge each time it is used.
+     */
+    private class LabelsView extends AbstractSet<E> {
+
+        @Override
+        public int size() {
+            return getLabelsCount();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object label) {
+            return hasLabel((E) label);
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+
+            Set<E> set = labelSet;
+            if (set != null) {
+                return Collections.unmodifiableSet(set).iterator();
+            }
+
+            Object[] more = moreLabels;
+            int count = 1 + (more == null ? 0 : more.length);
+
+            return new Iterator<E>() {
+
+                private int next = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return next < count;
+                }
+
+                @Override
+                public E next() {
+
+                    if (next >= count) {
+                        throw new NoSuchElementException();
+                    }
+                    return next++ == 0 ? firstLabel : cast(more[next - 2]);
+                }
+            };
+        }
+    }
+
+    /**
+     * @require action != null
+     * @effects calls action with every label without copying them
+     * @param action
+     */
+    public void forEachLabel(Consumer<? super E> action) {
+
+        Set<E> set = labelSet;
+        if (set != null) {
+            for (E label : set) {
+                action.accept(label);
+            }
+            return;
+        }
+
+        action.accept(firstLabel);
+
+        Object[] more = moreLabels;
+        if (more != null) {
+            for (Object label : more) {
+                action.accept(cast(label));
+            }
+        }
+    }
+
+    /**
+     * Looks at the labels without copying them
+     *
+     * @require toDouble != null
+     * @param toDouble should convert the labels to a double
+     * @return the smallest value of toDouble of the labels
+     */
+    public double getMinWeight(ToDoubleFunction<E> toDouble) {
+        return getMinWeight(toDouble, Long.MAX_VALUE);
+    }
+
+    /**
+     * @require toDouble != null
+     * @param toDouble should convert the labels to a double
+     * @param version a version of the graph, at least getVersion()
+     * @return the smallest value of toDouble of the labels the edge had in version
+     */
+    double getMinWeight(ToDoubleFunction<E> toDouble, long version) {
+
+        Map<E, Long> versions = laterLabelVersions;
+        Set<E> set = labelSet;
+        Object[] more = moreLabels;
+
+        // the edge only has one label, nearly every edge
+        if (set == null && more == null) {
+            return hasLabelAt(firstLabel, version, versions) ? toDouble.applyAsDouble(firstLabel) : Double.POSITIVE_INFINITY;
+        }
+
+        double min = Double.POSITIVE_INFINITY;
+        if (set != null) {
+            for (E label : set) {
+                double value = toDouble.applyAsDouble(label);
+                if (value < min && hasLabelAt(label, version, versions)) {
+                    min = value;
+                }
+            }
+            return min;
+        }
+
+        // a few labels, looked at in place so weighing the edge allocates nothing
+        for (int i = -1; i < more.length; i++) {
+            E label = i < 0 ? firstLabel : cast(more[i]);
+            double value = toDouble.applyAsDouble(label);
+            if (value < min && hasLabelAt(label, version, versions)) {
+                min = value;
+            }
+        }
+
+        return min;
+    }
+
+    /**
+     * Looks at the labels without copying them
+     *
+     * @require toDouble != null
+     * @param toDouble should convert the labels to a double
+     * @return the label with the smallest value of toDouble
+     */
+    public E getMinLabel(ToDoubleFunction<E> toDouble) {
+        return getMinLabel(toDouble, Long.MAX_VALUE);
+    }
+
+    /**
+     * @require toDouble != null
+     * @param toDouble should convert the labels to a double
+     * @param version a version of the graph, at least getVersion()
+     * @return the label the edge had in version with the smallest value of toDouble
+     */
+    E getMinLabel(ToDoubleFunction<E> toDouble, long version) {
+
+        Map<E, Long> versions = laterLabelVersions;
+        Set<E> set = labelSet;
+        Object[] more = moreLabels;
+
+        // the edge only has one label, nearly every edge
+        if (set == null && more == null) {
+            return hasLabelAt(firstLabel, version, versions) ? firstLabel : null;
+        }
+
+        E minLabel = null;
+        double min = Double.POSITIVE_INFINITY;
+
+        if (set != null) {
+            for (E label : set) {
+                double value = toDouble.applyAsDouble(label);
+                if ((minLabel == null || value < min) && hasLabelAt(label, version, versions)) {
+                    minLabel = label;
+                    min = value;
+                }
+            }
+            return minLabel;
+        }
+
+        // a few labels, looked at in place so weighing the edge allocates nothing
+        for (int i = -1; i < more.length; i++) {
+            E label = i < 0 ? firstLabel : cast(more[i]);
+            double value = toDouble.applyAsDouble(label);
+            if ((minLabel == null || value < min) && hasLabelAt(label, version, versions)) {
+                minLabel = label;
+                min = value;
+            }
+        }
+
+        return minLabel;
     }
 
 
@@ -105,7 +525,14 @@ public class Edge<N, E> {
      * @return the amount of labels
      */
     public int getLabelsCount() {
-        return labels.size();
+
+        Set<E> set = labelSet;
+        if (set != null) {
+            return set.size();
+        }
+
+        Object[] more = moreLabels;
+        return 1 + (more == null ? 0 : more.length);
     }
 
 }
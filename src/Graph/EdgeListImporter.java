@@ -0,0 +1,707 @@
+package Graph;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * EdgeListImporter reads text files with one edge per line, parent, child and weight
+ * separated by a comma (CSV) or a tab (TSV), into a GraphBuilder. The file is split
+ * into chunks at line ends and each chunk is read on its own thread of a ForkJoinPool
+ * straight from the FileChannel into a byte buffer.
+ *
+ * Lines are parsed from the bytes: each distinct node label is turned into a String
+ * once per import, in a dictionary from label bytes to String the chunks share, and
+ * weights are parsed from the bytes without making a String unless they have more
+ * digits than a double can hold exactly. Each chunk remembers the labels it has seen,
+ * so it asks the dictionary and the builder about a label only once. Edges are handed
+ * to the builder by node id in batches of getBatchSize() edges, so the builder is only
+ * locked to copy a whole batch.
+ *
+ * Blank lines are skipped, lines may end with \r\n, and fields can not be quoted.
+ *
+ * @author cameronmonks
+ */
+public class EdgeListImporter {
+
+    /**
+     * ProgressListener is told how far an import is after every batch and once at the end,
+     * from one thread at a time.
+     */
+    public interface ProgressListener {
+
+        /**
+         * The throughput is bytesRead * 1e9 / elapsedNanos bytes per second.
+         *
+         * @param bytesRead the bytes of the file parsed and handed to the builder
+         * @param totalBytes the size of the file
+         * @param edgesRead the edges handed to the builder
+         * @param elapsedNanos the time since the import started
+         */
+        void progress(long bytesRead, long totalBytes, long edgesRead, long elapsedNanos);
+    }
+
+    // each chunk reads the file this many bytes at a time, more if a line is longer
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    // a file is split into chunks of about this many bytes, and into no more than
+    // 4 chunks per thread of the pool
+    private static final long MIN_CHUNK_SIZE = 1 << 22;
+
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final byte separator;
+    private final boolean hasHeader;
+    private int batchSize;
+    private ProgressListener listener;
+
+    // Abstraction Function:
+    // EdgeListImporter, i, reads files whose fields are separated by separator,
+    // skipping the first line if hasHeader
+    //
+    // Representation Invariant for every EdgeListImporter i:
+    // separator != '\n' && separator != '\r' && batchSize > 0
+
+    /**
+     * @require separator is an ASCII character other than a line end
+     * @effects Constructs an importer of files whose fields are separated by separator
+     * @param separator ',' for CSV or '\t' for TSV
+     * @param hasHeader if the first line of a file names the fields and has no edge
+     */
+    public EdgeListImporter(char separator, boolean hasHeader) {
+
+        this.separator = (byte) separator;
+        this.hasHeader = hasHeader;
+        this.batchSize = 1 << 16;
+
+        checkRep();
+    }
+
+    /**
+     * Checks that the representation invariant holds (if any).
+     **/
+    // Throws a RuntimeException if the rep invariant is violated.
+    private void checkRep() throws RuntimeException {
+    	/*
+    	if (separator == '\n' || separator == '\r' || batchSize <= 0) {
+    		throw new RuntimeException("bad separator or batch size");
+    	}
+    	*/
+    }
+
+    /**
+     *
+     * @return an importer of comma separated files without a header
+     */
+    public static EdgeListImporter csv() {
+        return new EdgeListImporter(',', false);
+    }
+
+    /**
+     *
+     * @return an importer of tab separated files without a header
+     */
+    public static EdgeListImporter tsv() {
+        return new EdgeListImporter('\t', false);
+    }
+
+    /**
+     *
+     * @return how many edges each thread parses before handing them to the builder
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @require batchSize > 0
+     * @modifies this
+     * @effects sets how many edges each thread parses before handing them to the builder
+     * @param batchSize
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+        checkRep();
+    }
+
+    /**
+     * @modifies this
+     * @effects sets the listener told about the progress of every import, null for none
+     * @param listener
+     */
+    public void setProgressListener(ProgressListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Imports on the common ForkJoinPool.
+     *
+     * @require file != null
+     * @param file
+     * @return a new Graph with an edge for every line of file
+     * @throws IOException if file can not be read or has a line without three fields
+     */
+    public Graph<String, Double> importGraph(Path file) throws IOException {
+        return importGraph(file, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @require file != null && pool != null
+     * @param file
+     * @param pool the threads to parse on
+     * @return a new Graph with an edge for every line of file
+     * @throws IOException if file can not be read or has a line without three fields
+     */
+    public Graph<String, Double> importGraph(Path file, ForkJoinPool pool) throws IOException {
+
+        GraphBuilder<String, Double> builder = new GraphBuilder<String, Double>();
+        importInto(file, builder, pool);
+        return builder.build(pool);
+    }
+
+    /**
+     * @require file != null && builder != null && pool != null
+     * @modifies builder
+     * @effects adds an edge to builder for every line of file, from the first field to
+     * 		the second field labeled by the number in the third field
+     * @param file
+     * @param builder
+     * @param pool the threads to parse on
+     * @return the amount of edges added
+     * @throws IOException if file can not be read or has a line without three fields
+     */
+    public long importInto(Path file, GraphBuilder<String, Double> builder, ForkJoinPool pool) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+
+            Import job = new Import(channel, builder, System.nanoTime());
+
+            long[] bounds = chunkBounds(channel, job.totalBytes, pool.getParallelism());
+            if (bounds.length == 2) {
+                new Chunk(job, bounds[0], bounds[1]).parse();
+            } else {
+                try {
+                    pool.invoke(new ChunkTask(job, bounds, 0, bounds.length - 1));
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            }
+
+            if (listener != null) {
+                listener.progress(job.bytesRead, job.totalBytes, job.edgesRead, System.nanoTime() - job.startNanos);
+            }
+            return job.edgesRead;
+        }
+    }
+
+    /**
+     * @return the start of every chunk followed by the end of the file, every start
+     * 		but the first is just after a line end
+     */
+    private static long[] chunkBounds(FileChannel channel, long size, int parallelism) throws IOException {
+
+        int chunkCount = (int) Math.max(1, Math.min(4L * parallelism, size / MIN_CHUNK_SIZE));
+        if (parallelism == 1) {
+            chunkCount = 1;
+        }
+
+        long[] bounds = new long[chunkCount + 1];
+        bounds[chunkCount] = size;
+
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        for (int i = 1; i < chunkCount; i++) {
+
+            // start after the first line end at or after the middle of the file
+            long position = Math.max(bounds[i - 1], size / chunkCount * i - 1);
+            long start = size;
+            while (position < size && start == size) {
+
+                buffer.clear();
+                int read = channel.read(buffer, position);
+                if (read <= 0) break;
+
+                for (int b = 0; b < read; b++) {
+                    if (buffer.get(b) == '\n') {
+                        start = position + b + 1;
+                        break;
+                    }
+                }
+                position += read;
+            }
+            bounds[i] = start;
+        }
+        return bounds;
+    }
+
+    /**
+     * Import is what the chunks of one call to importInto share.
+     */
+    private final class Import {
+
+        final FileChannel channel;
+        final GraphBuilder<String, Double> builder;
+        final long startNanos;
+        final long totalBytes;
+
+        // the String of every node label read so far by any chunk
+        final ConcurrentHashMap<LabelBytes, String> labels = new ConcurrentHashMap<LabelBytes, String>();
+
+        // guarded by builder
+        long bytesRead;
+        long edgesRead;
+
+        Import(FileChannel channel, GraphBuilder<String, Double> builder, long startNanos) throws IOException {
+            this.channel = channel;
+            this.builder = builder;
+            this.startNanos = startNanos;
+            this.totalBytes = channel.size();
+        }
+
+        // hands the edges of batch to the builder
+        void push(Batch batch, LabelTable nodes, long bytes) {
+
+            int[] builderIds = nodes.addNewLabels(builder);
+            for (int k = 0; k < batch.size; k++) {
+                batch.parents[k] = builderIds[batch.parents[k]];
+                batch.children[k] = builderIds[batch.children[k]];
+            }
+
+            synchronized (builder) {
+                builder.addEdges(batch.parents, batch.children, batch.weights);
+                bytesRead += bytes;
+                edgesRead += batch.size;
+
+                if (listener != null && bytesRead < totalBytes) {
+                    listener.progress(bytesRead, totalBytes, edgesRead, System.nanoTime() - startNanos);
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * ChunkTask parses chunks from to to - 1, split in half until there is one.
+     */
+    private final class ChunkTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Import job;
+        private final long[] bounds;
+        private final int from;
+        private final int to;
+
+        ChunkTask(Import job, long[] bounds, int from, int to) {
+            this.job = job;
+            this.bounds = bounds;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ChunkTask(job, bounds, from, middle), new ChunkTask(job, bounds, middle, to));
+                return;
+            }
+
+            try {
+                new Chunk(job, bounds[from], bounds[to]).parse();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Chunk parses the lines from start to end of the file.
+     */
+    private final class Chunk {
+
+        private final Import job;
+        private final long start;
+        private final long end;
+
+        private final LabelTable nodes;
+        private final Batch batch = new Batch(batchSize);
+
+        Chunk(Import job, long start, long end) {
+            this.job = job;
+            this.start = start;
+            this.end = end;
+            this.nodes = new LabelTable(job.labels);
+        }
+
+        void parse() throws IOException {
+
+            byte[] bytes = new byte[(int) Math.min(BUFFER_SIZE, Math.max(16, end - start))];
+            int filled = 0;
+            long position = start;
+            long batchBytes = 0;
+            boolean skipLine = hasHeader && start == 0;
+
+            while (true) {
+
+                boolean atEnd = position >= end;
+                if (!atEnd) {
+                    if (filled == bytes.length) {
+                        bytes = Arrays.copyOf(bytes, bytes.length * 2);
+                    }
+                    ByteBuffer buffer = ByteBuffer.wrap(bytes, filled, (int) Math.min(bytes.length - filled, end - position));
+                    int read = job.channel.read(buffer, position);
+                    if (read < 0) {
+                        throw new IOException("file changed while it was read");
+                    }
+                    position += read;
+                    filled += read;
+                    atEnd = position >= end;
+                }
+
+                // parse every whole line, and the last line of the chunk at its end
+                int lineStart = 0;
+                while (lineStart < filled) {
+
+                    int lineEnd = lineStart;
+                    while (lineEnd < filled && bytes[lineEnd] != '\n') {
+                        lineEnd++;
+                    }
+                    if (lineEnd == filled && !atEnd) {
+                        break;
+                    }
+
+                    if (skipLine) {
+                        skipLine = false;
+                    } else {
+                        parseLine(bytes, lineStart, lineEnd, position - filled + lineStart);
+                    }
+                    batchBytes += Math.min(lineEnd + 1, filled) - lineStart;
+                    lineStart = lineEnd + 1;
+
+                    if (batch.size == batch.parents.length) {
+                        job.push(batch, nodes, batchBytes);
+                        batchBytes = 0;
+                    }
+                }
+
+                if (atEnd) {
+                    break;
+                }
+
+                // keep the part of a line that has not been read yet
+                filled -= lineStart;
+                System.arraycopy(bytes, lineStart, bytes, 0, filled);
+            }
+
+            job.push(batch, nodes, batchBytes);
+        }
+
+        // parses the line from start to end - 1 that starts at offset in the file
+        private void parseLine(byte[] bytes, int start, int end, long offset) throws IOException {
+
+            if (end > start && bytes[end - 1] == '\r') {
+                end--;
+            }
+            if (end == start) {
+                return;
+            }
+
+            int firstSeparator = indexOf(bytes, start, end, separator);
+            int secondSeparator = firstSeparator == -1 ? -1 : indexOf(bytes, firstSeparator + 1, end, separator);
+            if (secondSeparator == -1) {
+                throw new IOException("line at byte " + offset + " does not have three fields: "
+                        + new String(bytes, start, end - start, StandardCharsets.UTF_8));
+            }
+
+            int parent = nodes.intern(bytes, start, firstSeparator);
+            int child = nodes.intern(bytes, firstSeparator + 1, secondSeparator);
+
+            double weight;
+            try {
+                weight = parseDouble(bytes, secondSeparator + 1, end);
+            } catch (NumberFormatException e) {
+                throw new IOException("line at byte " + offset + " has a weight that is not a number: "
+                        + new String(bytes, start, end - start, StandardCharsets.UTF_8));
+            }
+
+            batch.add(parent, child, weight);
+        }
+    }
+
+    private static int indexOf(byte[] bytes, int start, int end, byte b) {
+
+        for (int i = start; i < end; i++) {
+            if (bytes[i] == b) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Same as Double.parseDouble(new String(bytes, start, end - start)) without making
+     * the String when the number has at most 15 digits and a small exponent, which can
+     * be computed exactly with one multiplication or division.
+     *
+     * @param bytes
+     * @param start
+     * @param end
+     * @return the number in bytes from start to end - 1
+     * @throws NumberFormatException if it is not a number
+     */
+    static double parseDouble(byte[] bytes, int start, int end) {
+
+        int i = start;
+        boolean negative = false;
+        if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+            negative = bytes[i] == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean anyDigit = false;
+        boolean exact = true;
+
+        for (; i < end && bytes[i] >= '0' && bytes[i] <= '9'; i++) {
+            anyDigit = true;
+            if (digits < 15) {
+                mantissa = mantissa * 10 + (bytes[i] - '0');
+                if (mantissa != 0) digits++;
+            } else {
+                exact = false;
+            }
+        }
+        if (i < end && bytes[i] == '.') {
+            for (i++; i < end && bytes[i] >= '0' && bytes[i] <= '9'; i++) {
+                anyDigit = true;
+                if (digits < 15) {
+                    mantissa = mantissa * 10 + (bytes[i] - '0');
+                    if (mantissa != 0) digits++;
+                    exponent--;
+                } else {
+                    exact = false;
+                }
+            }
+        }
+        if (anyDigit && i < end && (bytes[i] == 'e' || bytes[i] == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+                negativeExponent = bytes[i] == '-';
+                i++;
+            }
+            int written = 0;
+            boolean anyExponentDigit = false;
+            for (; i < end && bytes[i] >= '0' && bytes[i] <= '9'; i++) {
+                anyExponentDigit = true;
+                if (written < 1000) {
+                    written = written * 10 + (bytes[i] - '0');
+                }
+            }
+            exact &= anyExponentDigit;
+            exponent += negativeExponent ? -written : written;
+        }
+
+        if (exact && anyDigit && i == end) {
+            if (mantissa == 0) {
+                return negative ? -0.0 : 0.0;
+            }
+            if (exponent >= -22 && exponent <= 22) {
+                double value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+                return negative ? -value : value;
+            }
+        }
+
+        return Double.parseDouble(new String(bytes, start, end - start, StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * Batch is the edges a chunk parsed that are not in the builder yet, by node id
+     * in the chunk's LabelTable until push turns them into ids in the builder.
+     */
+    private static final class Batch {
+
+        final int[] parents;
+        final int[] children;
+        final ArrayList<Double> weights;
+        int size;
+
+        Batch(int capacity) {
+            parents = new int[capacity];
+            children = new int[capacity];
+            weights = new ArrayList<Double>(capacity);
+        }
+
+        void add(int parent, int child, double weight) {
+            parents[size] = parent;
+            children[size] = child;
+            weights.add(weight);
+            size++;
+        }
+
+        void clear() {
+            weights.clear();
+            size = 0;
+        }
+    }
+
+    /**
+     * LabelBytes is the bytes of a label, the key of the dictionary the chunks share.
+     */
+    private static final class LabelBytes {
+
+        final byte[] bytes;
+        final int hash;
+
+        LabelBytes(byte[] bytes, int hash) {
+            this.bytes = bytes;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof LabelBytes && Arrays.equals(bytes, ((LabelBytes) obj).bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * LabelTable gives each distinct label a chunk reads an id, and gets its String from
+     * the dictionary of the import the first time the chunk reads it. Labels are looked
+     * up by their bytes in an open addressing hash table.
+     */
+    private static final class LabelTable {
+
+        private final ConcurrentHashMap<LabelBytes, String> dictionary;
+
+        // the bytes of label id i are bytes[offsets[i] .. offsets[i + 1]]
+        private byte[] bytes = new byte[1 << 12];
+        private final IntList offsets = new IntList();
+        private final IntList hashes = new IntList();
+        private final ArrayList<String> labels = new ArrayList<String>();
+
+        // label id + 1 in each slot, 0 for an empty slot
+        private int[] slots = new int[1 << 10];
+
+        // the id in the builder of label id i, for every i < inBuilder
+        private int[] builderIds = new int[1 << 10];
+        private int inBuilder;
+
+        LabelTable(ConcurrentHashMap<LabelBytes, String> dictionary) {
+            this.dictionary = dictionary;
+            offsets.add(0);
+        }
+
+        // adds the labels read since the last call to builder and returns the id in the
+        // builder of every label id
+        int[] addNewLabels(GraphBuilder<String, Double> builder) {
+
+            int count = labels.size();
+            if (inBuilder < count) {
+                if (builderIds.length < count) {
+                    builderIds = Arrays.copyOf(builderIds, Math.max(count, builderIds.length * 2));
+                }
+                synchronized (builder) {
+                    builder.addNodes(labels.subList(inBuilder, count), builderIds, inBuilder);
+                }
+                inBuilder = count;
+            }
+            return builderIds;
+        }
+
+        // returns the id of the label in source from start to end - 1, adding it if it is new
+        int intern(byte[] source, int start, int end) {
+
+            int hash = 0x811c9dc5;
+            for (int i = start; i < end; i++) {
+                hash = (hash ^ source[i]) * 0x01000193;
+            }
+
+            int mask = slots.length - 1;
+            for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+
+                int id = slots[slot] - 1;
+                if (id == -1) {
+                    return add(source, start, end, hash, slot);
+                }
+                if (hashes.get(id) == hash && sameBytes(id, source, start, end)) {
+                    return id;
+                }
+            }
+        }
+
+        private boolean sameBytes(int id, byte[] source, int start, int end) {
+
+            int from = offsets.get(id);
+            if (offsets.get(id + 1) - from != end - start) return false;
+
+            for (int i = start; i < end; i++) {
+                if (bytes[from + i - start] != source[i]) return false;
+            }
+            return true;
+        }
+
+        private int add(byte[] source, int start, int end, int hash, int slot) {
+
+            int id = labels.size();
+            int from = offsets.get(id);
+            int length = end - start;
+            if (from + length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, from + length));
+            }
+            System.arraycopy(source, start, bytes, from, length);
+
+            offsets.add(from + length);
+            hashes.add(hash);
+            labels.add(sharedLabel(source, start, end, hash));
+            slots[slot] = id + 1;
+
+            // keep the table at most half full
+            if (labels.size() * 2 > slots.length) {
+                int[] newSlots = new int[slots.length * 2];
+                int mask = newSlots.length - 1;
+                for (int i = 0; i < labels.size(); i++) {
+                    int s = hashes.get(i) & mask;
+                    while (newSlots[s] != 0) {
+                        s = (s + 1) & mask;
+                    }
+                    newSlots[s] = i + 1;
+                }
+                slots = newSlots;
+            }
+            return id;
+        }
+
+        // the String of the label in source from start to end - 1, made once per import
+        private String sharedLabel(byte[] source, int start, int end, int hash) {
+
+            LabelBytes key = new LabelBytes(Arrays.copyOfRange(source, start, end), hash);
+            String label = dictionary.get(key);
+            if (label == null) {
+                String made = new String(key.bytes, StandardCharsets.UTF_8);
+                label = dictionary.putIfAbsent(key, made);
+                if (label == null) {
+                    label = made;
+                }
+            }
+            return label;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package Graph;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * EdgeWeigher gives the weight of an Edge and the label that has that weight,
+ * so searches can ask for one double per edge instead of looking at every label.
+ *
+ * @param <N> where N is the label of the Node
+ * @param <E> where E is the label of the Edge
+ * @author cameronmonks
+ */
+public interface EdgeWeigher<N, E> {
+
+    /**
+     * @require edge != null
+     * @param edge
+     * @return the weight of edge, the smallest weight of its labels
+     */
+    double getWeight(Edge<N, E> edge);
+
+    /**
+     * @require edge != null
+     * @param edge
+     * @return a label of edge whose weight is getWeight(edge)
+     */
+    E getLabel(Edge<N, E> edge);
+
+    /**
+     * Looks at every label of an edge each time it is asked, use a WeightedView
+     * to only look at them once.
+     *
+     * @require toDouble != null
+     * @param toDouble should convert the edges to a double
+     * @return an EdgeWeigher that weighs an edge by its smallest label
+     */
+    static <N, E> EdgeWeigher<N, E> minLabel(ToDoubleFunction<E> toDouble) {
+
+        return new EdgeWeigher<N, E>() {
+            @Override
+            public double getWeight(Edge<N, E> edge) {
+                return edge.getMinWeight(toDouble);
+            }
+
+            @Override
+            public E getLabel(Edge<N, E> edge) {
+                return edge.getMinLabel(toDouble);
+            }
+        };
+    }
+}
@@ -1,17 +1,23 @@
 package Graph;
 
 import java.util.AbstractMap;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.ToDoubleBiFunction;
 import java.util.function.ToDoubleFunction;
 
 /**
@@ -25,15 +31,49 @@ import java.util.function.ToDoubleFunction;
  */
 public class Graph<N, E> {
 
-    private HashMap<N, Node<N, E>> nodes;
-    private HashSet<Edge<N, E>> edges;
+    private Map<N, Node<N, E>> nodes;
+    private Set<Edge<N, E>> edges;
+
+    // told about every node and edge label added
+    private List<GraphListener<N, E>> listeners;
+
+    // the id of the next new edge
+    private final AtomicInteger nextEdgeId;
+
+    // the id of the next new node, nodes get the ids 0 to nodeCount() - 1 in the order they are added
+    private final AtomicInteger nextNodeId;
+
+    // the most NodeSearches a graph keeps for later searches, each holds about 45 bytes per node
+    static final int MAX_IDLE_SEARCHES = Runtime.getRuntime().availableProcessors();
+
+    // the NodeSearches no search is using, shared by every thread. A search takes one
+    // or makes one if there are none, so a weigher or heuristic can search the graph too
+    private final ArrayDeque<NodeSearch<N, E>> idleSearches;
+
+    // if nodes, edges and labels can be added and read from many threads at once
+    private final boolean concurrent;
+
+    // the newest version that every change up to has finished, what getVersion() returns
+    private final AtomicLong version;
+
+    // the version of the newest change that has started
+    private final AtomicLong startedVersion;
+
+    // the changes that have finished after version but are not visible yet because
+    // a change before them is still running
+    private final Set<Long> finishedVersions;
+
+    // if snapshot() has been called. Until then every view is made after every label
+    // that was added, so a Graph does not need to remember when each label was added
+    private volatile boolean snapshotTaken;
 
     // Abstraction Function:
     // Graph, g, represents the Graph
     //
     // Representation Invariant for every Graph g:
     // nodes != null && edges != null &&
-    // foreach Node i,j in nodes: i != j i.label != j.label
+    // foreach Node i,j in nodes: i != j i.label != j.label && i.id != j.id
+    // foreach Node i in nodes: 0 <= i.id < nextNodeId
     // foreach Edge e in edges: e.parent is an element in nodes && e.child is an element in nodes
     // foreach Edge i,j in edges: (i != j && (i.parent != j.parent || i.child != j.child))
     //
@@ -47,9 +87,58 @@ public class Graph<N, E> {
      * @effects Constructs a new Graph with value no nodes or edges
      */
     public Graph() {
+        this(false);
+    }
+
+    /**
+     * Only makes the collections thread safe, adding nodes and edges from many
+     * threads also needs locking, see ConcurrentGraph
+     *
+     * @effects Constructs a new Graph with value no nodes or edges
+     * @param concurrent if nodes, edges and labels can be added and read from many threads at once
+     */
+    Graph(boolean concurrent) {
+
+        this.concurrent = concurrent;
+        if (concurrent) {
+            nodes = new ConcurrentHashMap<N, Node<N, E>>();
+            edges = ConcurrentHashMap.<Edge<N, E>>newKeySet();
+            listeners = new CopyOnWriteArrayList<GraphListener<N, E>>();
+        } else {
+            nodes = new HashMap<N, Node<N, E>>();
+            edges = new HashSet<Edge<N, E>>();
+            listeners = new ArrayList<GraphListener<N, E>>();
+        }
+        nextEdgeId = new AtomicInteger();
+        nextNodeId = new AtomicInteger();
+        idleSearches = new ArrayDeque<NodeSearch<N, E>>();
+        version = new AtomicLong();
+        startedVersion = new AtomicLong();
+        finishedVersions = ConcurrentHashMap.<Long>newKeySet();
 
-        nodes = new HashMap<N, Node<N, E>>();
-        edges = new HashSet<Edge<N, E>>();
+        checkRep();
+    }
+
+    /**
+     * Sizes the collections so they do not grow while a GraphBuilder fills them.
+     *
+     * @require nodeCount >= 0 && edgeCount >= 0
+     * @effects Constructs a new Graph with value no nodes or edges
+     * @param nodeCount about how many nodes will be added
+     * @param edgeCount about how many edges will be added
+     */
+    Graph(int nodeCount, int edgeCount) {
+
+        concurrent = false;
+        nodes = new HashMap<N, Node<N, E>>(Node.capacityFor(nodeCount));
+        edges = new HashSet<Edge<N, E>>(Node.capacityFor(edgeCount));
+        listeners = new ArrayList<GraphListener<N, E>>();
+        nextEdgeId = new AtomicInteger();
+        nextNodeId = new AtomicInteger();
+        idleSearches = new ArrayDeque<NodeSearch<N, E>>();
+        version = new AtomicLong();
+        startedVersion = new AtomicLong();
+        finishedVersions = ConcurrentHashMap.<Long>newKeySet();
 
         checkRep();
     }
@@ -97,8 +186,15 @@ public class Graph<N, E> {
     public boolean addNode(N nodeData) {
 
         if (!nodes.containsKey(nodeData)) {
-            Node<N, E> n = new Node<N, E>(nodeData);
-            nodes.put(nodeData, n);
+            long v = startChange();
+            try {
+                nodes.put(nodeData, new Node<N, E>(nodeData, nextNodeId.getAndIncrement(), v, concurrent));
+            } finally {
+                finishChange(v);
+            }
+            for (GraphListener<N, E> listener : listeners) {
+                listener.nodeAdded(nodeData);
+            }
             checkRep();
             return true;
         }
@@ -164,6 +260,86 @@ public class Graph<N, E> {
         return n.getLabelsGoingIntoNode(toNode);
     }
 
+    /**
+     * Does not copy anything, the view changes when edges are added to the graph
+     *
+     * @param node
+     * @return a read-only view of the labels of the nodes that are connected from
+     * 			node. If node doesn't exist it returns an empty set
+     */
+    public Set<N> getNodesConnectedToView(N node) {
+
+        Node<N, E> n = nodes.get(node);
+        if (n == null) return Collections.emptySet();
+
+        return n.getNextNodesView();
+    }
+
+    /**
+     * Does not copy anything, the view changes when edges are added to the graph
+     *
+     * @param node
+     * @return a read-only view of the labels of the nodes that go into
+     * 			node. If node doesn't exist it returns an empty set
+     */
+    public Set<N> getNodesGoingIntoNodeView(N node) {
+
+        Node<N, E> n = nodes.get(node);
+        if (n == null) return Collections.emptySet();
+
+        return n.getPrevNodesView();
+    }
+
+    /**
+     * Does not copy anything, the view changes when labels are added to the edge
+     *
+     * @param fromNode
+     * @param toNode
+     * @return a read-only view of the labels between the nodes, fromNode to toNode
+     * 		if their doesn't exist an edge between them for any reason it returns
+     * 		an empty set
+     */
+    public Set<E> getEdgesBetweenNodesView(N fromNode, N toNode) {
+
+        Node<N, E> n = nodes.get(fromNode);
+        if (n == null) return Collections.emptySet();
+
+        Edge<N, E> e = n.getEdgeToNextNode(toNode);
+        if (e == null) return Collections.emptySet();
+
+        return e.getLabelsView();
+    }
+
+    /**
+     * @require action != null
+     * @effects calls action with every node connected from node and the edge going
+     * 		to it without copying anything. Does nothing if node doesn't exist
+     * @param node
+     * @param action
+     */
+    public void forEachOutNeighbor(N node, BiConsumer<? super N, ? super Edge<N, E>> action) {
+
+        Node<N, E> n = nodes.get(node);
+        if (n != null) {
+            n.forEachNextNode(action);
+        }
+    }
+
+    /**
+     * @require action != null
+     * @effects calls action with every node going into node and the edge coming
+     * 		from it without copying anything. Does nothing if node doesn't exist
+     * @param node
+     * @param action
+     */
+    public void forEachInNeighbor(N node, BiConsumer<? super N, ? super Edge<N, E>> action) {
+
+        Node<N, E> n = nodes.get(node);
+        if (n != null) {
+            n.forEachPrevNode(action);
+        }
+    }
+
     /**
      * @require parentNode != null && childNode != null && edgeLabel != null
      * @modifies this.graph
@@ -187,16 +363,43 @@ public class Graph<N, E> {
         Edge<N, E> e = parent.getEdgeToNextNode(child.getLabel());
 
         if (e == null) {
-            Edge<N, E> newEdge = new Edge<N, E>(parent, edgeLabel, child);
-            edges.add(newEdge);
-            parent.addEdge(newEdge);
-            child.addEdge(newEdge);
+            long v = startChange();
+            Edge<N, E> newEdge;
+            try {
+                // made inside the try, if it throws later writers must not wait for v forever
+                newEdge = new Edge<N, E>(parent, edgeLabel, child, nextEdgeId.getAndIncrement(), v, concurrent);
+                edges.add(newEdge);
+                parent.addEdge(newEdge);
+                child.addEdge(newEdge);
+            } finally {
+                finishChange(v);
+            }
+            for (GraphListener<N, E> listener : listeners) {
+                listener.edgeLabelAdded(newEdge, edgeLabel);
+            }
             checkRep();
             return true;
         }
 
 
-        boolean didAdd = e.addLabel(edgeLabel);
+        if (e.getLabelsView().contains(edgeLabel)) {
+            checkRep();
+            return false;
+        }
+
+        long v = startChange();
+        boolean didAdd;
+        try {
+            // a ConcurrentGraph may be snapshotted while the label is being added
+            didAdd = concurrent || snapshotTaken ? e.addLabel(edgeLabel, v) : e.addLabel(edgeLabel);
+        } finally {
+            finishChange(v);
+        }
+        if (didAdd) {
+            for (GraphListener<N, E> listener : listeners) {
+                listener.edgeLabelAdded(e, edgeLabel);
+            }
+        }
         checkRep();
         return didAdd;
     }
@@ -235,6 +438,166 @@ public class Graph<N, E> {
         return edges.size();
     }
 
+    /**
+     * Goes up by one for every node, edge and edge label added.
+     *
+     * @return the version of the graph
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Nothing is copied, the returned view only hides the nodes, edges and labels
+     * added after it was made, so it is cheap to make one for every reader.
+     *
+     * @return an immutable view of the graph as it is now
+     */
+    public GraphVersion<N, E> snapshot() {
+
+        snapshotTaken = true;
+        return new GraphVersion<N, E>(this, version.get());
+    }
+
+    /**
+     * @modifies this
+     * @effects starts a change, finishChange must be called with the result
+     * @return the version of the graph after the change
+     */
+    private long startChange() {
+        return startedVersion.incrementAndGet();
+    }
+
+    /**
+     * Changes are made visible in the order they started, so a reader at a version
+     * sees every change up to it. No writer waits for another: a change that finishes
+     * while one before it is still running is left in finishedVersions, and the
+     * writer of that earlier change makes both visible when it finishes.
+     *
+     * @modifies this
+     * @effects makes the change v visible to getVersion() and snapshot() once every
+     * 		change before it has finished
+     * @param v the result of startChange()
+     */
+    private void finishChange(long v) {
+
+        if (version.get() != v - 1) {
+            finishedVersions.add(v);
+            // the change before v may have finished before v was added, then v is
+            // only made visible if it is taken back here
+            if (version.get() != v - 1 || !finishedVersions.remove(v)) {
+                return;
+            }
+        }
+
+        // only the writer that took v can make it visible, so version is only set here
+        long current = v;
+        version.set(current);
+        while (finishedVersions.remove(current + 1)) {
+            current++;
+            version.set(current);
+        }
+    }
+
+    /**
+     *
+     * @param node
+     * @return the Node with label node or null if it is not in the graph
+     */
+    Node<N, E> getNode(N node) {
+        return nodes.get(node);
+    }
+
+    /**
+     * Used by GraphBuilder, the node is not connected to anything yet.
+     *
+     * @require node is not in the graph && node.getId() == nodeCount()
+     * @modifies this.graph
+     * @effects adds node to the graph without telling the listeners
+     * @param node
+     */
+    void putBuiltNode(Node<N, E> node) {
+        nodes.put(node.getLabel(), node);
+        nextNodeId.incrementAndGet();
+    }
+
+    /**
+     * Used by GraphBuilder, may be called from many threads at once.
+     *
+     * @param parent
+     * @param label
+     * @param child
+     * @return a new Edge from parent to child with the next edge id, not yet in the graph
+     */
+    Edge<N, E> newBuiltEdge(Node<N, E> parent, E label, Node<N, E> child) {
+        return new Edge<N, E>(parent, label, child, nextEdgeId.getAndIncrement());
+    }
+
+    /**
+     * Used by GraphBuilder once every node and edge is in place.
+     *
+     * @require every edge of builtEdges is in the maps of its nodes
+     * @modifies this.graph
+     * @effects adds builtEdges to the edges of the graph and counts changes as
+     * 		that many changes to the version
+     * @param builtEdges
+     * @param changes the amount of nodes, edges and labels that were added
+     */
+    void finishBuild(Collection<Edge<N, E>> builtEdges, long changes) {
+
+        edges.addAll(builtEdges);
+        startedVersion.addAndGet(changes);
+        version.addAndGet(changes);
+
+        checkRep();
+    }
+
+
+    /**
+     * @require listener != null
+     * @modifies this.graph
+     * @effects listener is told about every node and edge label added from now on
+     * @param listener
+     */
+    public void addListener(GraphListener<N, E> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @modifies this.graph
+     * @effects listener is not told about changes anymore
+     * @param listener
+     * @return true if listener was listening else false
+     */
+    public boolean removeListener(GraphListener<N, E> listener) {
+        return listeners.remove(listener);
+    }
+
+    /**
+     *
+     * @return the nodes in the graph, backed by the graph
+     */
+    Collection<Node<N, E>> nodeValues() {
+        return nodes.values();
+    }
+
+    /**
+     *
+     * @return the edges in the graph, backed by the graph
+     */
+    Set<Edge<N, E>> edgeSet() {
+        return edges;
+    }
+
+    /**
+     * Later changes to this graph do not change the returned snapshot.
+     *
+     * @return an immutable compressed sparse row copy of this graph
+     */
+    public GraphSnapshot<N, E> freeze() {
+        return GraphSnapshot.of(this);
+    }
+
 
     /**
      * @required N headNode is a node in the graph
@@ -246,139 +609,665 @@ public class Graph<N, E> {
      * 		connected to headNode and the value is the distance from headNode
      */
     public Map<N, Double> dijkstra(N headNode, boolean reverseOrder, ToDoubleFunction<E> toDouble) {
+        return dijkstra(headNode, reverseOrder, toDouble, null);
+    }
+
+    /**
+     * @required N headNode is a node in the graph
+     * @required this.graph != null
+     * @param headNode the start of the node in the dijkstra
+     * @param reverseOrder if you want to the edges direction to be flipped
+     * @param weigher gives the weight of each edge
+     * @return Map<N, Double> where each key is the label of the nodes
+     * 		connected to headNode and the value is the distance from headNode
+     */
+    public Map<N, Double> dijkstra(N headNode, boolean reverseOrder, EdgeWeigher<N, E> weigher) {
+        return dijkstra(headNode, reverseOrder, weigher, Long.MAX_VALUE, null);
+    }
+
+    /**
+     * The same as dijkstra(headNode, reverseOrder, toDouble) and adds what the search did to stats.
+     *
+     * @required N headNode is a node in the graph
+     * @param headNode the start of the node in the dijkstra
+     * @param reverseOrder if you want to the edges direction to be flipped
+     * @param toDouble should convert the edges to a double
+     * @param stats counts the work of the search, null to not count it
+     * @return Map<N, Double> where each key is the label of the nodes
+     * 		connected to headNode and the value is the distance from headNode
+     */
+    public Map<N, Double> dijkstra(N headNode, boolean reverseOrder, ToDoubleFunction<E> toDouble, SearchStats stats) {
+        stats = SearchStats.orRecorded(stats);
+        return dijkstra(headNode, reverseOrder, EdgeWeigher.<N, E>minLabel(SearchStats.counting(stats, toDouble)),
+                Long.MAX_VALUE, stats);
+    }
+
+    /**
+     * The same as dijkstra(headNode, reverseOrder, weigher) and adds what the search did to stats.
+     *
+     * @required N headNode is a node in the graph
+     * @param headNode the start of the node in the dijkstra
+     * @param reverseOrder if you want to the edges direction to be flipped
+     * @param weigher gives the weight of each edge
+     * @param stats counts the work of the search, null to not count it
+     * @return Map<N, Double> where each key is the label of the nodes
+     * 		connected to headNode and the value is the distance from headNode
+     */
+    public Map<N, Double> dijkstra(N headNode, boolean reverseOrder, EdgeWeigher<N, E> weigher, SearchStats stats) {
+        return dijkstra(headNode, reverseOrder, weigher, Long.MAX_VALUE, stats);
+    }
+
+    /**
+     * @param headNode the start of the node in the dijkstra
+     * @param reverseOrder if you want to the edges direction to be flipped
+     * @param weigher gives the weight of each edge
+     * @param atVersion only uses the nodes and edges added in or before atVersion
+     * @param stats counts the work of the search, null to not count it
+     * @return the same as dijkstra(headNode, reverseOrder, weigher) on the graph as it was in atVersion
+     */
+    Map<N, Double> dijkstra(N headNode, boolean reverseOrder, EdgeWeigher<N, E> weigher, long atVersion, SearchStats stats) {
 
         // a map from the nodes in graph that are connected to headNode and the distances from headNode to the node
         Map<N, Double> nodesAndDistances = new HashMap<>();
 
-        // The queue will be sorted by the nodes closest to headNode
-        PriorityQueue<Entry<N, Double>> heap = new PriorityQueue<Entry<N, Double>>(new Comparator<Entry<N, Double>>() {
-            @Override
-            public int compare(Entry<N, Double> o1, Entry<N, Double> o2) {
-                return o1.getValue().compareTo(o2.getValue());
+        Node<N, E> head = nodes.get(headNode);
+        if (head == null || head.getVersion() > atVersion) {
+            nodesAndDistances.put(headNode, 0.0);
+            return nodesAndDistances;
+        }
+
+        stats = SearchStats.begin(stats);
+        NodeSearch<N, E> search = startSearch();
+        try {
+
+            // the heap is sorted by the nodes closest to headNode
+            IndexedDaryHeap heap = search.getHeap();
+            search.reach(head, 0.0, null);
+            heap.insertOrDecrease(head.getId(), 0.0);
+            if (stats != null) stats.heapPushes++;
+
+            while (!heap.isEmpty()) {
+
+                int id = heap.poll();
+                Node<N, E> node = search.getNode(id);
+                double distance = search.getDistance(id);
+                nodesAndDistances.put(node.getLabel(), distance);
+                if (stats != null) {
+                    stats.heapPops++;
+                    stats.nodesSettled++;
+                }
+
+                // update all the nodes connected to node that havn't been settled yet
+                for (Edge<N, E> e : reverseOrder ? node.getPrevEdges() : node.getNextEdges()) {
+
+                    Node<N, E> nextNode = reverseOrder ? e.getParent() : e.getChild();
+                    if (e.getVersion() > atVersion || search.isSettled(nextNode.getId())) {
+                        continue;
+                    }
+
+                    relax(search, nextNode, distance + weigher.getWeight(e), e, stats);
+                }
             }
-        });
-        heap.add(new AbstractMap.SimpleEntry<N, Double>(headNode, 0.0));
 
-        while (!heap.isEmpty()) {
+            return nodesAndDistances;
+        } finally {
+            finishSearch(search);
+            if (stats != null) stats.end("dijkstra");
+        }
+    }
+
+    /**
+     * search.relax(node, distance, edge) counting the edge and the heap change in stats
+     *
+     * @require !search.isSettled(node.getId())
+     * @param stats counts the work of the search or null
+     */
+    private static <N, E> void relax(NodeSearch<N, E> search, Node<N, E> node, double distance, Edge<N, E> edge, SearchStats stats) {
+
+        if (stats == null) {
+            search.relax(node, distance, edge);
+            return;
+        }
 
-            Entry<N, Double> firstNodePair = heap.poll();
-            if (nodesAndDistances.containsKey(firstNodePair.getKey())) {
-                continue;
+        boolean queued = search.isReached(node.getId());
+        stats.edgesRelaxed++;
+        if (search.relax(node, distance, edge)) {
+            if (queued) {
+                stats.heapDecreases++;
+            } else {
+                stats.heapPushes++;
             }
+        }
+    }
 
-            // update all the nodes connected to firstNodePair that havn't been seen yet
-            HashSet<N> possibleNodes = reverseOrder ? getNodesGoingIntoNode(firstNodePair.getKey()) : getNodesConnectedTo(firstNodePair.getKey());
-            for (N nextNode : possibleNodes) {
+    /**
+     * Freezes the graph and runs one Dijkstra per source in parallel, see GraphSnapshot.dijkstraAll.
+     *
+     * @param sources the start nodes, a source not in the graph reaches nothing
+     * @param reverseOrder if you want to the edges direction to be flipped
+     * @param toDouble should convert the edges to a double
+     * @return a DistanceMatrix with a row for each source and a column for each node
+     * 		of the graph, getDistances(source) is the same as dijkstra(source, reverseOrder, toDouble).
+     * 		Each row only holds the nodes its source reaches
+     */
+    public DistanceMatrix<N> dijkstraAll(Collection<N> sources, boolean reverseOrder, ToDoubleFunction<E> toDouble) {
+        return freeze().dijkstraAll(sources, reverseOrder, toDouble);
+    }
+
+    /**
+     * Freezes the graph and runs one Dijkstra per source in parallel, see GraphSnapshot.distanceMatrix.
+     *
+     * @param sources the start nodes, a source not in the graph reaches nothing
+     * @param targets the end nodes, a target not in the graph can not be reached
+     * @param toDouble should convert the edges to a double
+     * @return a DistanceMatrix with the distance from every source to every target
+     * @throws IllegalArgumentException if sources.size() * targets.size() distances do not fit in one array
+     */
+    public DistanceMatrix<N> distanceMatrix(Collection<N> sources, Collection<N> targets, ToDoubleFunction<E> toDouble) {
+        return freeze().distanceMatrix(sources, targets, toDouble);
+    }
 
-                if (!nodesAndDistances.containsKey(nextNode)) {
 
-                    ArrayList<E> possibleEdges;
-                    if (reverseOrder) {
-                        possibleEdges = new ArrayList<E>(getEdgesBetweenNodes(nextNode, firstNodePair.getKey()));
-                    } else {
-                        possibleEdges = new ArrayList<E>(getEdgesBetweenNodes(firstNodePair.getKey(), nextNode));
-                    }
+    /**
+     * Searches forward from startNode and stops as soon as toNode is settled.
+     *
+     * @param startNode
+     * @param toNode
+     * @param toDouble should convert the edges to a double
+     * @return an ArrayList of the path. At each element is a Entry<Entry<node1, node2>, edge> where
+     * 		the edge is the next path to take to get close to toNode from startNode and node1 and node2
+     * 		are connected through edge. If their is not a path then it returns null
+     */
+    public ArrayList<Entry<Entry<N,N>, E>> findPath(N startNode, N toNode, ToDoubleFunction<E> toDouble) {
+        return findPath(startNode, toNode, toDouble, (SearchStats) null);
+    }
+
+    /**
+     * Searches forward from startNode and stops as soon as toNode is settled.
+     *
+     * @param startNode
+     * @param toNode
+     * @param weigher gives the weight of each edge
+     * @return an ArrayList of the path. At each element is a Entry<Entry<node1, node2>, edge> where
+     * 		the edge is the next path to take to get close to toNode from startNode and node1 and node2
+     * 		are connected through edge. If their is not a path then it returns null
+     */
+    public ArrayList<Entry<Entry<N,N>, E>> findPath(N startNode, N toNode, EdgeWeigher<N, E> weigher) {
+        return findPath(startNode, toNode, weigher, Long.MAX_VALUE, null);
+    }
+
+    /**
+     * The same as findPath(startNode, toNode, toDouble) and adds what the search did to stats.
+     *
+     * @param startNode
+     * @param toNode
+     * @param toDouble should convert the edges to a double
+     * @param stats counts the work of the search, null to not count it
+     * @return the path from startNode to toNode or null if there is not a path
+     */
+    public ArrayList<Entry<Entry<N,N>, E>> findPath(N startNode, N toNode, ToDoubleFunction<E> toDouble, SearchStats stats) {
+        stats = SearchStats.orRecorded(stats);
+        return findPath(startNode, toNode, EdgeWeigher.<N, E>minLabel(SearchStats.counting(stats, toDouble)),
+                Long.MAX_VALUE, stats);
+    }
+
+    /**
+     * The same as findPath(startNode, toNode, weigher) and adds what the search did to stats.
+     *
+     * @param startNode
+     * @param toNode
+     * @param weigher gives the weight of each edge
+     * @param stats counts the work of the search, null to not count it
+     * @return the path from startNode to toNode or null if there is not a path
+     */
+    public ArrayList<Entry<Entry<N,N>, E>> findPath(N startNode, N toNode, EdgeWeigher<N, E> weigher, SearchStats stats) {
+        return findPath(startNode, toNode, weigher, Long.MAX_VALUE, stats);
+    }
+
+    /**
+     * @param startNode
+     * @param toNode
+     * @param weigher gives the weight of each edge
+     * @param atVersion only uses the nodes and edges added in or before atVersion
+     * @param stats counts the work of the search, null to not count it
+     * @return the same as findPath(startNode, toNode, weigher) on the graph as it was in atVersion
+     */
+    ArrayList<Entry<Entry<N,N>, E>> findPath(N startNode, N toNode, EdgeWeigher<N, E> weigher, long atVersion, SearchStats stats) {
+
+        if (startNode != null && startNode.equals(toNode)) {
+            return new ArrayList<>();
+        }
+
+        Node<N, E> start = nodes.get(startNode);
+        Node<N, E> to = nodes.get(toNode);
+        if (start == null || to == null || start.getVersion() > atVersion || to.getVersion() > atVersion) {
+            return null;
+        }
+
+        stats = SearchStats.begin(stats);
+        NodeSearch<N, E> search = startSearch();
+        try {
 
-                    E distanceAsN = Collections.min(possibleEdges,
-                            new Comparator<E>() {
+            IndexedDaryHeap heap = search.getHeap();
+            search.reach(start, 0.0, null);
+            heap.insertOrDecrease(start.getId(), 0.0);
+            if (stats != null) stats.heapPushes++;
 
-                                @Override
-                                public int compare(E e1, E e2) {
+            while (!heap.isEmpty()) {
 
-                                    Double v1 = toDouble.applyAsDouble(e1);
-                                    Double v2 = toDouble.applyAsDouble(e2);
-                                    return v1.compareTo(v2);
-                                }
-                            });
+                int id = heap.poll();
+                Node<N, E> node = search.getNode(id);
+                if (stats != null) {
+                    stats.heapPops++;
+                    stats.nodesSettled++;
+                }
+
+                if (node == to) {
+                    return buildPath(search, start, to, weigher);
+                }
+
+                double distance = search.getDistance(id);
 
-                    double distance = toDouble.applyAsDouble(distanceAsN);
+                for (Edge<N, E> e : node.getNextEdges()) {
 
-                    heap.add(new AbstractMap.SimpleEntry<N, Double>(nextNode, firstNodePair.getValue() + distance));
+                    Node<N, E> nextNode = e.getChild();
+                    if (e.getVersion() > atVersion || search.isSettled(nextNode.getId())) {
+                        continue;
+                    }
+
+                    relax(search, nextNode, distance + weigher.getWeight(e), e, stats);
                 }
             }
 
-            nodesAndDistances.put(firstNodePair.getKey(), firstNodePair.getValue());
+            return null;
+        } finally {
+            finishSearch(search);
+            if (stats != null) stats.end("findPath");
         }
+    }
 
-        return nodesAndDistances;
+    /**
+     * A* search from startNode to toNode. heuristic.applyAsDouble(node, toNode) must never be more
+     * than the real distance from node to toNode, for example a Landmarks made with the same toDouble.
+     * Nodes are looked at again if a shorter way to them is found, so the heuristic does not
+     * have to be consistent.
+     *
+     * @param startNode
+     * @param toNode
+     * @param toDouble should convert the edges to a double
+     * @param heuristic a lower bound of the distance from the first node to the second node
+     * @return the same path as findPath(startNode, toNode, toDouble) or null if there is no path
+     */
+    public ArrayList<Entry<Entry<N,N>, E>> findPath(N startNode, N toNode, ToDoubleFunction<E> toDouble, ToDoubleBiFunction<N, N> heuristic) {
+        return findPath(startNode, toNode, EdgeWeigher.<N, E>minLabel(toDouble), heuristic);
     }
 
+    /**
+     * A* search from startNode to toNode. heuristic.applyAsDouble(node, toNode) must never be more
+     * than the real distance from node to toNode, for example a Landmarks made with the same weights.
+     * Nodes are looked at again if a shorter way to them is found, so the heuristic does not
+     * have to be consistent.
+     *
+     * @param startNode
+     * @param toNode
+     * @param weigher gives the weight of each edge
+     * @param heuristic a lower bound of the distance from the first node to the second node
+     * @return the same path as findPath(startNode, toNode, weigher) or null if there is no path
+     */
+    public ArrayList<Entry<Entry<N,N>, E>> findPath(N startNode, N toNode, EdgeWeigher<N, E> weigher, ToDoubleBiFunction<N, N> heuristic) {
+
+        if (startNode != null && startNode.equals(toNode)) {
+            return new ArrayList<>();
+        }
+
+        Node<N, E> start = nodes.get(startNode);
+        Node<N, E> to = nodes.get(toNode);
+        if (start == null || to == null) {
+            return null;
+        }
+
+        NodeSearch<N, E> search = startSearch();
+        try {
+
+            // the heap is sorted by distance from startNode plus the heuristic, the
+            // heuristic of each node is only worked out once when it is first reached
+            IndexedDaryHeap heap = search.getHeap();
+
+            double startEstimate = heuristic.applyAsDouble(startNode, toNode);
+            search.reach(start, 0.0, null);
+            search.setEstimate(start.getId(), startEstimate);
+            heap.insertOrDecrease(start.getId(), startEstimate);
+
+            while (!heap.isEmpty()) {
+
+                int id = heap.poll();
+                Node<N, E> node = search.getNode(id);
+
+                if (node == to) {
+                    return buildPath(search, start, to, weigher);
+                }
+
+                double distance = search.getDistance(id);
+
+                for (Edge<N, E> e : node.getNextEdges()) {
+
+                    Node<N, E> nextNode = e.getChild();
+                    int nextId = nextNode.getId();
+                    double newDistance = distance + weigher.getWeight(e);
+
+                    if (!search.isReached(nextId)) {
+                        search.reach(nextNode, newDistance, e);
+                        search.setEstimate(nextId, heuristic.applyAsDouble(nextNode.getLabel(), toNode));
+                        heap.insertOrDecrease(nextId, newDistance + search.getEstimate(nextId));
+                    } else if (newDistance < search.getDistance(nextId)) {
+                        // a node that was already looked at goes back into the heap
+                        search.reach(nextNode, newDistance, e);
+                        heap.insertOrDecrease(nextId, newDistance + search.getEstimate(nextId));
+                    }
+                }
+            }
+
+            return null;
+        } finally {
+            finishSearch(search);
+        }
+    }
 
     /**
+     * Searches forward from startNode and backward from toNode at the same time and
+     * stops once the two smallest distances left in the searches add up to at least
+     * the shortest path found where they meet.
      *
      * @param startNode
      * @param toNode
-     * @return an ArrayList of the path. At each element is a Entry<Entry<node1, node2>, edge> where
-     * 		the edge is the next path to take to get close to toNode from startNode and node1 and node2
-     * 		are connected through edge. If their is not a path then it returns null
+     * @param toDouble should convert the edges to a double
+     * @return the same path as findPath(startNode, toNode, toDouble) or null if there is no path
      */
-    public ArrayList<Entry<Entry<N,N>, E>> findPath(N startNode, N toNode, ToDoubleFunction<E> toDouble) {
+    public ArrayList<Entry<Entry<N,N>, E>> findPathBidirectional(N startNode, N toNode, ToDoubleFunction<E> toDouble) {
+        return findPathBidirectional(startNode, toNode, EdgeWeigher.<N, E>minLabel(toDouble));
+    }
 
-        ArrayList<Entry<Entry<N,N>, E>> path = new ArrayList<>();
+    /**
+     * Searches forward from startNode and backward from toNode at the same time and
+     * stops once the two smallest distances left in the searches add up to at least
+     * the shortest path found where they meet.
+     *
+     * @param startNode
+     * @param toNode
+     * @param weigher gives the weight of each edge
+     * @return the same path as findPath(startNode, toNode, weigher) or null if there is no path
+     */
+    public ArrayList<Entry<Entry<N,N>, E>> findPathBidirectional(N startNode, N toNode, EdgeWeigher<N, E> weigher) {
 
-        Map<N, Double> shortestDistances = dijkstra(toNode, true, toDouble);
+        if (startNode != null && startNode.equals(toNode)) {
+            return new ArrayList<>();
+        }
 
-        if (!shortestDistances.containsKey(startNode)) {
+        Node<N, E> start = nodes.get(startNode);
+        Node<N, E> to = nodes.get(toNode);
+        if (start == null || to == null) {
             return null;
         }
 
-        N lastNode = startNode;
-        double lastLength = shortestDistances.get(lastNode);
+        // the forward search from startNode reaches each node through the edge going into it,
+        // the backward search from toNode through the edge going out of it
+        NodeSearch<N, E> forwardSearch = startSearch();
+        NodeSearch<N, E> backwardSearch = startSearch();
+        try {
+
+            forwardSearch.reach(start, 0.0, null);
+            forwardSearch.getHeap().insertOrDecrease(start.getId(), 0.0);
+            backwardSearch.reach(to, 0.0, null);
+            backwardSearch.getHeap().insertOrDecrease(to.getId(), 0.0);
+
+            double shortest = Double.POSITIVE_INFINITY;
+            Node<N, E> meetingNode = null;
+
+            while (!forwardSearch.getHeap().isEmpty() && !backwardSearch.getHeap().isEmpty()) {
+
+                double forwardTop = forwardSearch.getHeap().peekKey();
+                double backwardTop = backwardSearch.getHeap().peekKey();
+                if (forwardTop + backwardTop >= shortest) {
+                    break;
+                }
+
+                boolean forward = forwardTop <= backwardTop;
+                NodeSearch<N, E> search = forward ? forwardSearch : backwardSearch;
+                NodeSearch<N, E> other = forward ? backwardSearch : forwardSearch;
+
+                int id = search.getHeap().poll();
+                Node<N, E> node = search.getNode(id);
+                double distance = search.getDistance(id);
+
+                for (Edge<N, E> e : forward ? node.getNextEdges() : node.getPrevEdges()) {
+
+                    Node<N, E> nextNode = forward ? e.getChild() : e.getParent();
+                    int nextId = nextNode.getId();
+                    if (search.isSettled(nextId)) {
+                        continue;
+                    }
+
+                    double newDistance = distance + weigher.getWeight(e);
+                    if (search.relax(nextNode, newDistance, e) && other.isReached(nextId)
+                            && newDistance + other.getDistance(nextId) < shortest) {
+                        shortest = newDistance + other.getDistance(nextId);
+                        meetingNode = nextNode;
+                    }
+                }
+            }
+
+            if (meetingNode == null) {
+                return null;
+            }
+
+            ArrayList<Entry<Entry<N,N>, E>> path = buildPath(forwardSearch, start, meetingNode, weigher);
+
+            Node<N, E> lastNode = meetingNode;
+            while (lastNode != to) {
+
+                Edge<N, E> e = backwardSearch.getEdge(lastNode.getId());
+                Node<N, E> nextNode = e.getChild();
+
+                path.add(new AbstractMap.SimpleEntry<Entry<N,N>, E>(new AbstractMap.SimpleEntry<N, N>(lastNode.getLabel(), nextNode.getLabel()), weigher.getLabel(e)));
+                lastNode = nextNode;
+            }
+
+            return path;
+        } finally {
+            finishSearch(backwardSearch);
+            finishSearch(forwardSearch);
+        }
+    }
+
+    /**
+     * Breadth first search that walks the edges of the nodes without copying them.
+     *
+     * @param headNode the start node
+     * @param reverseOrder if you want to the edges direction to be flipped
+     * @return Map<N, Integer> where each key is the label of a node connected to headNode
+     * 		and the value is the fewest edges between them. Empty if headNode doesn't exist
+     */
+    public Map<N, Integer> bfsLevels(N headNode, boolean reverseOrder) {
+
+        Map<N, Integer> nodesAndLevels = new HashMap<>();
 
-        while (!lastNode.equals(toNode)) {
+        Node<N, E> head = nodes.get(headNode);
+        if (head == null) return nodesAndLevels;
 
+        // the distance of each node reached is its level
+        NodeSearch<N, E> search = startSearch();
+        try {
 
-            // Get Next Best Node
-            N nextNode = null;
-            double newLength = lastLength;
+            ArrayDeque<Node<N, E>> queue = new ArrayDeque<Node<N, E>>();
+            queue.add(head);
+            search.reach(head, 0, null);
+            nodesAndLevels.put(headNode, 0);
 
-            for (N nextPosibleNode : getNodesConnectedTo(lastNode)) {
+            while (!queue.isEmpty()) {
 
-                double newLastLength = shortestDistances.get(nextPosibleNode).doubleValue();
-                E lengthOfPathAsE = Collections.min(this.getEdgesBetweenNodes(lastNode, nextPosibleNode), new Comparator<E>() {
-                    @Override
-                    public int compare(E e1, E e2) {
+                Node<N, E> node = queue.poll();
+                int nextLevel = (int) search.getDistance(node.getId()) + 1;
 
-                        Double v1 = toDouble.applyAsDouble(e1);
-                        Double v2 = toDouble.applyAsDouble(e2);
-                        return v1.compareTo(v2);
+                for (Edge<N, E> e : reverseOrder ? node.getPrevEdges() : node.getNextEdges()) {
+
+                    Node<N, E> nextNode = reverseOrder ? e.getParent() : e.getChild();
+
+                    if (!search.isReached(nextNode.getId())) {
+                        search.reach(nextNode, nextLevel, e);
+                        nodesAndLevels.put(nextNode.getLabel(), nextLevel);
+                        queue.add(nextNode);
                     }
-                });
+                }
+            }
+
+            return nodesAndLevels;
+        } finally {
+            finishSearch(search);
+        }
+    }
+
+    /**
+     *
+     * @param headNode the start node
+     * @param reverseOrder if you want to the edges direction to be flipped
+     * @return a HashSet<N> of headNode and every node connected to it. Empty if headNode doesn't exist
+     */
+    public HashSet<N> getReachableNodes(N headNode, boolean reverseOrder) {
+        return new HashSet<N>(bfsLevels(headNode, reverseOrder).keySet());
+    }
+
+    /**
+     * Breadth first search from startNode that stops as soon as toNode is reached.
+     *
+     * @param startNode
+     * @param toNode
+     * @return an ArrayList<N> of the nodes on a path from startNode to toNode with the
+     * 		fewest edges, starting with startNode and ending with toNode. If their is not
+     * 		a path then it returns null
+     */
+    public ArrayList<N> findPathFewestEdges(N startNode, N toNode) {
 
-                double lengthOfPath = toDouble.applyAsDouble(lengthOfPathAsE);
+        Node<N, E> start = nodes.get(startNode);
+        Node<N, E> to = nodes.get(toNode);
+        if (start == null || to == null) {
+            return null;
+        }
+
+        // each node keeps the edge it was first reached through
+        NodeSearch<N, E> search = startSearch();
+        try {
+
+            ArrayDeque<Node<N, E>> queue = new ArrayDeque<Node<N, E>>();
+            queue.add(start);
+            search.reach(start, 0, null);
+
+            while (!queue.isEmpty() && !search.isReached(to.getId())) {
+
+                Node<N, E> node = queue.poll();
+
+                for (Edge<N, E> e : node.getNextEdges()) {
 
-                if (newLastLength + lengthOfPath <= newLength) {
+                    Node<N, E> nextNode = e.getChild();
 
-                    nextNode = nextPosibleNode;
-                    newLength = newLastLength;
+                    if (!search.isReached(nextNode.getId())) {
+                        search.reach(nextNode, 0, e);
+                        queue.add(nextNode);
+                    }
                 }
             }
 
-            E bestEdge = Collections.min(new ArrayList<E>(getEdgesBetweenNodes(lastNode, nextNode)),
-                    new Comparator<E>() {
+            if (!search.isReached(to.getId())) {
+                return null;
+            }
+
+            ArrayList<N> path = new ArrayList<N>();
+            Node<N, E> lastNode = to;
+            path.add(lastNode.getLabel());
+            while (lastNode != start) {
+                lastNode = search.getEdge(lastNode.getId()).getParent();
+                path.add(lastNode.getLabel());
+            }
+
+            Collections.reverse(path);
+            return path;
+        } finally {
+            finishSearch(search);
+        }
+    }
+
+    /**
+     * Freezes the graph and runs a direction-optimizing breadth first search on many
+     * threads, see BfsEngine. Use a BfsEngine directly to run many searches.
+     *
+     * @param headNode the start node
+     * @param reverseOrder if you want to the edges direction to be flipped
+     * @return the same as bfsLevels(headNode, reverseOrder)
+     */
+    public Map<N, Integer> parallelBfsLevels(N headNode, boolean reverseOrder) {
+        return new BfsEngine<N, E>(freeze()).bfsLevels(headNode, reverseOrder);
+    }
+
+    /**
+     * Every search of the graph goes through a NodeSearch and gives it back with
+     * finishSearch when it is done. The graph keeps at most MAX_IDLE_SEARCHES of them
+     * whatever the amount of threads searching it, and they go away with the graph.
+     * Run many searches on a frozen graph with a DijkstraEngine per thread to keep the
+     * scratch arrays of each thread.
+     *
+     * @return a NodeSearch no other search is using, with no node reached
+     */
+    private NodeSearch<N, E> startSearch() {
+
+        NodeSearch<N, E> search;
+        synchronized (idleSearches) {
+            search = idleSearches.poll();
+        }
+        if (search == null) {
+            search = new NodeSearch<N, E>(nextNodeId.get());
+        }
+
+        search.start(nextNodeId.get());
+        return search;
+    }
 
-                        @Override
-                        public int compare(E e1, E e2) {
+    /**
+     * @modifies search, this
+     * @effects clears search and keeps it for a later search if the graph keeps
+     * 		fewer than MAX_IDLE_SEARCHES, else lets go of it
+     */
+    private void finishSearch(NodeSearch<N, E> search) {
 
-                            double v1 = toDouble.applyAsDouble(e1);
-                            double v2 = toDouble.applyAsDouble(e2);
+        search.finish();
+        synchronized (idleSearches) {
+            if (idleSearches.size() < MAX_IDLE_SEARCHES) {
+                idleSearches.push(search);
+            }
+        }
+    }
+
+    /**
+     * @require search has a chain of edges from to back to start
+     * @param search the search that reached to
+     * @param start
+     * @param to
+     * @param weigher gives the label of each edge
+     * @return the path from start to to in the format of findPath
+     */
+    private ArrayList<Entry<Entry<N,N>, E>> buildPath(NodeSearch<N, E> search, Node<N, E> start, Node<N, E> to, EdgeWeigher<N, E> weigher) {
+
+        ArrayList<Entry<Entry<N,N>, E>> path = new ArrayList<>();
 
-                            if (v1 < v2) {
-                                return -1;
-                            } else if (v2 > v1) {
-                                return 1;
-                            }
-                            return 0;
-                        }
-                    });
+        Node<N, E> lastNode = to;
+        while (lastNode != start) {
 
-            // update the path for the new node
-            path.add(new AbstractMap.SimpleEntry<Entry<N,N>, E>(new AbstractMap.SimpleEntry<N, N>(lastNode, nextNode), bestEdge));
+            Edge<N, E> e = search.getEdge(lastNode.getId());
+            Node<N, E> prevNode = e.getParent();
 
-            lastNode = nextNode;
-            lastLength = newLength;
+            path.add(new AbstractMap.SimpleEntry<Entry<N,N>, E>(new AbstractMap.SimpleEntry<N, N>(prevNode.getLabel(), lastNode.getLabel()), weigher.getLabel(e)));
+            lastNode = prevNode;
         }
 
+        Collections.reverse(path);
         return path;
     }
 }
@@ -0,0 +1,386 @@
+package Graph;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+/**
+ * GraphBuilder makes a Graph out of many nodes and edges faster than calling
+ * addNode and addEdge for each of them. Edges are only written down when they are
+ * added, and build() then counts how many edges go out of and into every node,
+ * makes every map at the size it will end up, and puts the edges into the nodes
+ * grouped by node, so each edge is looked up once and no map ever grows.
+ * Parallel edges become one Edge with all of their labels.
+ *
+ * build() splits the nodes over the threads of a ForkJoinPool: first every edge
+ * is put into the node it goes out of, then into the node it goes into, so two
+ * threads never change the same node.
+ *
+ * The result is the same graph as adding the nodes and edges one by one, with
+ * the nodes of an edge added if they were not added before.
+ *
+ * @param <N> where N is the label of the Node
+ * @param <E> where E is the label of the Edge
+ * @author cameronmonks
+ */
+public class GraphBuilder<N, E> {
+
+    // build() splits the nodes into tasks of at most this many nodes
+    private static final int NODES_PER_TASK = 4096;
+
+    // the id of every node added, ids go from 0 to nodeLabels.size() - 1
+    private final Map<N, Integer> nodeIds;
+    private final ArrayList<N> nodeLabels;
+
+    // the parent id, child id and label of every edge added, in the order they were added
+    private final IntList parents;
+    private final IntList children;
+    private final ArrayList<E> labels;
+
+    // Abstraction Function:
+    // GraphBuilder, b, represents the graph with the nodes nodeLabels and an edge from
+    // nodeLabels.get(parents[k]) to nodeLabels.get(children[k]) labeled labels.get(k) for every k
+    //
+    // Representation Invariant for every GraphBuilder b:
+    // foreach i: nodeIds.get(nodeLabels.get(i)) == i &&
+    // parents.size() == children.size() == labels.size() &&
+    // foreach k: 0 <= parents[k], children[k] < nodeLabels.size()
+
+    /**
+     * @effects Constructs a builder with no nodes or edges
+     */
+    public GraphBuilder() {
+        this(16, 16);
+    }
+
+    /**
+     * @require expectedNodeCount >= 0 && expectedEdgeCount >= 0
+     * @effects Constructs a builder with no nodes or edges that holds about
+     * 		expectedNodeCount nodes and expectedEdgeCount edges without growing
+     * @param expectedNodeCount
+     * @param expectedEdgeCount
+     */
+    public GraphBuilder(int expectedNodeCount, int expectedEdgeCount) {
+
+        nodeIds = new HashMap<N, Integer>(Node.capacityFor(expectedNodeCount));
+        nodeLabels = new ArrayList<N>(expectedNodeCount);
+        parents = new IntList(expectedEdgeCount);
+        children = new IntList(expectedEdgeCount);
+        labels = new ArrayList<E>(expectedEdgeCount);
+
+        checkRep();
+    }
+
+    /**
+     * Checks that the representation invariant holds (if any).
+     **/
+    // Throws a RuntimeException if the rep invariant is violated.
+    private void checkRep() throws RuntimeException {
+    	/*
+    	if (parents.size() != children.size() || parents.size() != labels.size()) {
+    		throw new RuntimeException("edges are missing a parent, child or label");
+    	}
+
+    	for (int i = 0; i < nodeLabels.size(); i++) {
+    		if (nodeIds.get(nodeLabels.get(i)) != i) {
+    			throw new RuntimeException("node id does not match its label");
+    		}
+    	}
+    	*/
+    }
+
+    // the id of node, adding it if it is new
+    private int idOf(N node) {
+
+        Integer id = nodeIds.get(node);
+        if (id == null) {
+            id = nodeLabels.size();
+            nodeIds.put(node, id);
+            nodeLabels.add(node);
+        }
+        return id;
+    }
+
+    /**
+     * @modifies this
+     * @effects adds node if it was not already added
+     * @param node
+     * @return true if node is added else false
+     */
+    public boolean addNode(N node) {
+
+        int count = nodeLabels.size();
+        return idOf(node) == count;
+    }
+
+    /**
+     * @require parentNode != null && childNode != null && edgeLabel != null
+     * @modifies this
+     * @effects adds an edge going from parentNode to childNode with edgeLabel as
+     * 		the label, and adds parentNode and childNode if they were not already added
+     * @param parentNode
+     * @param childNode
+     * @param edgeLabel
+     */
+    public void addEdge(N parentNode, N childNode, E edgeLabel) {
+
+        parents.add(idOf(parentNode));
+        children.add(idOf(childNode));
+        labels.add(edgeLabel);
+    }
+
+    /**
+     * Adds many nodes at once and gives back their ids, so EdgeListImporter can hand
+     * over edges by id.
+     *
+     * @require nodes != null && ids.length >= from + nodes.size()
+     * @modifies this, ids
+     * @effects adds every node of nodes that was not already added and sets
+     * 		ids[from + i] to the id of nodes.get(i)
+     * @param nodes
+     * @param ids
+     * @param from
+     */
+    void addNodes(List<N> nodes, int[] ids, int from) {
+
+        for (int i = 0; i < nodes.size(); i++) {
+            ids[from + i] = idOf(nodes.get(i));
+        }
+    }
+
+    /**
+     * Same as addEdge for every edge, with the nodes given by the ids addNodes gave
+     * back.
+     *
+     * @require 0 <= parentIds[k], childIds[k] < nodeCount() for every k < edgeLabels.size()
+     * @modifies this
+     * @effects adds an edge going from the node with id parentIds[k] to the node with
+     * 		id childIds[k] with edgeLabels.get(k) as the label, for every k < edgeLabels.size()
+     * @param parentIds
+     * @param childIds
+     * @param edgeLabels
+     */
+    void addEdges(int[] parentIds, int[] childIds, List<E> edgeLabels) {
+
+        parents.addAll(parentIds, edgeLabels.size());
+        children.addAll(childIds, edgeLabels.size());
+        labels.addAll(edgeLabels);
+    }
+
+    /**
+     *
+     * @return the amount of nodes added
+     */
+    public int nodeCount() {
+        return nodeLabels.size();
+    }
+
+    /**
+     *
+     * @return the amount of edges added, counting each parallel edge
+     */
+    public int edgeCount() {
+        return labels.size();
+    }
+
+    /**
+     * Builds on the common ForkJoinPool.
+     *
+     * @modifies this
+     * @effects removes every node and edge from this builder
+     * @return a new Graph with every node and edge added
+     */
+    public Graph<N, E> build() {
+        return build(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @require pool != null
+     * @modifies this
+     * @effects removes every node and edge from this builder
+     * @param pool the threads to build on
+     * @return a new Graph with every node and edge added
+     */
+    public Graph<N, E> build(ForkJoinPool pool) {
+
+        int nodeCount = nodeLabels.size();
+        int edgeCount = labels.size();
+
+        int[] parentIds = parents.toArray();
+        int[] childIds = children.toArray();
+
+        // the edges of every node grouped by parent and by child
+        int[] outStart = new int[nodeCount + 1];
+        int[] byParent = groupBy(parentIds, nodeCount, outStart);
+        int[] inStart = new int[nodeCount + 1];
+        int[] byChild = groupBy(childIds, nodeCount, inStart);
+
+        Graph<N, E> graph = new Graph<N, E>(nodeCount, edgeCount);
+
+        ArrayList<Node<N, E>> built = new ArrayList<Node<N, E>>(nodeCount);
+        for (int id = 0; id < nodeCount; id++) {
+            Node<N, E> node = new Node<N, E>(nodeLabels.get(id), id, outStart[id + 1] - outStart[id], inStart[id + 1] - inStart[id]);
+            built.add(node);
+            graph.putBuiltNode(node);
+        }
+
+        ConcurrentLinkedQueue<ArrayList<Edge<N, E>>> newEdges = new ConcurrentLinkedQueue<ArrayList<Edge<N, E>>>();
+        AtomicLong changes = new AtomicLong(nodeCount);
+
+        // every edge goes into the node it comes from, one thread per parent
+        forEachNode(pool, nodeCount, () -> {
+
+            ArrayList<Edge<N, E>> taskEdges = new ArrayList<Edge<N, E>>();
+            newEdges.add(taskEdges);
+
+            return (int p) -> {
+
+                Node<N, E> parent = built.get(p);
+                for (int slot = outStart[p]; slot < outStart[p + 1]; slot++) {
+
+                    int k = byParent[slot];
+                    Node<N, E> child = built.get(childIds[k]);
+                    Edge<N, E> e = parent.getEdgeToNextNode(child.getLabel());
+
+                    if (e == null) {
+                        e = graph.newBuiltEdge(parent, labels.get(k), child);
+                        parent.addNextEdge(e);
+                        taskEdges.add(e);
+                        changes.incrementAndGet();
+                    } else if (e.addLabel(labels.get(k))) {
+                        changes.incrementAndGet();
+                    }
+                }
+            };
+        });
+
+        // and into the node it goes to, one thread per child
+        forEachNode(pool, nodeCount, () -> (int c) -> {
+
+            Node<N, E> child = built.get(c);
+            for (int slot = inStart[c]; slot < inStart[c + 1]; slot++) {
+
+                Node<N, E> parent = built.get(parentIds[byChild[slot]]);
+                if (child.getEdgeToPrevNode(parent.getLabel()) == null) {
+                    child.addPrevEdge(parent.getEdgeToNextNode(child.getLabel()));
+                }
+            }
+        });
+
+        ArrayList<Edge<N, E>> allEdges = new ArrayList<Edge<N, E>>();
+        for (ArrayList<Edge<N, E>> taskEdges : newEdges) {
+            allEdges.addAll(taskEdges);
+        }
+        graph.finishBuild(allEdges, changes.get());
+
+        clear();
+        return graph;
+    }
+
+    /**
+     * @modifies this
+     * @effects removes every node and edge from this builder
+     */
+    public void clear() {
+
+        nodeIds.clear();
+        nodeLabels.clear();
+        parents.clear();
+        children.clear();
+        labels.clear();
+    }
+
+    /**
+     * Counting sort of the edges by key that keeps the order they were added in.
+     *
+     * @require start.length == keyCount + 1
+     * @modifies start
+     * @effects start[i] is where the edges with key i start in the result
+     * @param keys the key of every edge
+     * @param keyCount
+     * @param start
+     * @return the edges ordered by key
+     */
+    private static int[] groupBy(int[] keys, int keyCount, int[] start) {
+
+        for (int key : keys) {
+            start[key + 1]++;
+        }
+        for (int i = 0; i < keyCount; i++) {
+            start[i + 1] += start[i];
+        }
+
+        int[] next = new int[keyCount];
+        System.arraycopy(start, 0, next, 0, keyCount);
+
+        int[] ordered = new int[keys.length];
+        for (int k = 0; k < keys.length; k++) {
+            ordered[next[keys[k]]++] = k;
+        }
+        return ordered;
+    }
+
+    /**
+     * TaskBody makes the action one task runs on each of its nodes.
+     */
+    private interface TaskBody {
+        IntConsumer newAction();
+    }
+
+    /**
+     * @effects runs an action of body on every node id from 0 to nodeCount - 1,
+     * 		each task of pool makes its own action
+     */
+    private static void forEachNode(ForkJoinPool pool, int nodeCount, TaskBody body) {
+
+        if (nodeCount <= NODES_PER_TASK || pool.getParallelism() == 1) {
+            IntConsumer action = body.newAction();
+            for (int id = 0; id < nodeCount; id++) {
+                action.accept(id);
+            }
+            return;
+        }
+
+        pool.invoke(new NodeRangeTask(body, 0, nodeCount));
+    }
+
+    /**
+     * NodeRangeTask runs body on the node ids from to to - 1, split in half until
+     * there are at most NODES_PER_TASK.
+     */
+    private static class NodeRangeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final TaskBody body;
+        private final int from;
+        private final int to;
+
+        NodeRangeTask(TaskBody body, int from, int to) {
+            this.body = body;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (to - from > NODES_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new NodeRangeTask(body, from, middle), new NodeRangeTask(body, middle, to));
+                return;
+            }
+
+            IntConsumer action = body.newAction();
+            for (int id = from; id < to; id++) {
+                action.accept(id);
+            }
+        }
+    }
+}
@@ -0,0 +1,739 @@
+package Graph;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * GraphFile is a graph stored in a file in the same compressed sparse row (CSR) layout
+ * as a GraphSnapshot. open() maps the file into memory with FileChannel.map and every
+ * query reads the mapped file, so opening a file of any size takes about as long as
+ * reading its header and nothing is copied into HashMaps. Pages are read from disk
+ * the first time they are used.
+ *
+ * Labels are stored as the bytes their LabelCodec gives them. Node ids are ordered by
+ * the bytes of their labels so getNodeId is a binary search, and each distinct edge
+ * label is stored once.
+ *
+ * The file holds, in order, all numbers big endian:
+ * a header of magic, format, nodeCount, edgeCount, labelCount, distinctLabelCount as
+ * ints then nodeByteCount and labelByteCount as longs,
+ * nodeByteOffsets[nodeCount + 1], forwardOffsets[nodeCount + 1], forwardTargets[edgeCount],
+ * reverseOffsets[nodeCount + 1], reverseSources[edgeCount], reverseEdges[edgeCount],
+ * labelOffsets[edgeCount + 1], edgeLabelIds[labelCount], labelByteOffsets[distinctLabelCount + 1]
+ * as ints, then the node label bytes and the distinct edge label bytes.
+ *
+ * Byte offsets are ints, so each kind of label can take at most 2GB.
+ * A GraphFile does not change and is thread safe.
+ *
+ * @param <N> where N is the label of the Node
+ * @param <E> where E is the label of the Edge
+ * @author cameronmonks
+ */
+public class GraphFile<N, E> {
+
+    private static final int MAGIC = 0x47524146;
+    private static final int FORMAT = 1;
+    private static final int HEADER_SIZE = 40;
+
+    private final LabelCodec<N> nodeCodec;
+    private final LabelCodec<E> edgeCodec;
+
+    private final int nodeCount;
+    private final int edgeCount;
+
+    // node label dictionary, node id n is nodeBytes[nodeByteOffsets[n] .. nodeByteOffsets[n + 1]]
+    private final IntBuffer nodeByteOffsets;
+    private final ByteBuffer nodeBytes;
+
+    // forward adjacency, indexed by node id then by edge id
+    private final IntBuffer forwardOffsets;
+    private final IntBuffer forwardTargets;
+
+    // reverse adjacency, indexed by node id then by reverse slot
+    private final IntBuffer reverseOffsets;
+    private final IntBuffer reverseSources;
+    private final IntBuffer reverseEdges;
+
+    // label table, the labels of edge id e are the distinct labels
+    // edgeLabelIds[labelOffsets[e] .. labelOffsets[e + 1]]
+    private final IntBuffer labelOffsets;
+    private final IntBuffer edgeLabelIds;
+    private final IntBuffer labelByteOffsets;
+    private final ByteBuffer labelBytes;
+
+    // Abstraction Function:
+    // GraphFile, f, represents the graph written to the file, the same as the
+    // GraphSnapshot it was written from with the node ids ordered by label bytes
+    //
+    // Representation Invariant for every GraphFile f:
+    // the buffers hold the sections of a file written by write() &&
+    // foreach node id n < nodeCount - 1: the bytes of n are less than the bytes of n + 1
+
+    /**
+     * @effects Constructs a GraphFile on the sections of a mapped file
+     */
+    private GraphFile(LabelCodec<N> nodeCodec, LabelCodec<E> edgeCodec, int nodeCount, int edgeCount,
+            IntBuffer nodeByteOffsets, ByteBuffer nodeBytes,
+            IntBuffer forwardOffsets, IntBuffer forwardTargets,
+            IntBuffer reverseOffsets, IntBuffer reverseSources, IntBuffer reverseEdges,
+            IntBuffer labelOffsets, IntBuffer edgeLabelIds, IntBuffer labelByteOffsets, ByteBuffer labelBytes) {
+
+        this.nodeCodec = nodeCodec;
+        this.edgeCodec = edgeCodec;
+        this.nodeCount = nodeCount;
+        this.edgeCount = edgeCount;
+        this.nodeByteOffsets = nodeByteOffsets;
+        this.nodeBytes = nodeBytes;
+        this.forwardOffsets = forwardOffsets;
+        this.forwardTargets = forwardTargets;
+        this.reverseOffsets = reverseOffsets;
+        this.reverseSources = reverseSources;
+        this.reverseEdges = reverseEdges;
+        this.labelOffsets = labelOffsets;
+        this.edgeLabelIds = edgeLabelIds;
+        this.labelByteOffsets = labelByteOffsets;
+        this.labelBytes = labelBytes;
+
+        checkRep();
+    }
+
+    /**
+     * Checks that the representation invariant holds (if any).
+     **/
+    // Throws a RuntimeException if the rep invariant is violated.
+    private void checkRep() throws RuntimeException {
+    	/*
+    	for (int n = 0; n + 1 < nodeCount; n++) {
+    		if (compareNode(n, nodeCodec.encode(getNodeLabel(n + 1))) >= 0) {
+    			throw new RuntimeException("nodes are not ordered by their bytes");
+    		}
+    	}
+    	*/
+    }
+
+    /**
+     * @require graph != null && path != null && nodeCodec != null && edgeCodec != null
+     * @modifies the file at path
+     * @effects writes graph to path, replacing the file if there is one
+     * @param graph
+     * @param path
+     * @param nodeCodec turns the node labels into bytes
+     * @param edgeCodec turns the edge labels into bytes
+     * @throws IOException if the file can not be written
+     */
+    public static <N, E> void write(Graph<N, E> graph, Path path, LabelCodec<N> nodeCodec, LabelCodec<E> edgeCodec) throws IOException {
+        write(graph.freeze(), path, nodeCodec, edgeCodec);
+    }
+
+    /**
+     * @require snapshot != null && path != null && nodeCodec != null && edgeCodec != null
+     * @modifies the file at path
+     * @effects writes snapshot to path, replacing the file if there is one
+     * @param snapshot
+     * @param path
+     * @param nodeCodec turns the node labels into bytes
+     * @param edgeCodec turns the edge labels into bytes
+     * @throws IOException if the file can not be written
+     * @throws IllegalArgumentException if two nodes have the same bytes
+     */
+    public static <N, E> void write(GraphSnapshot<N, E> snapshot, Path path, LabelCodec<N> nodeCodec, LabelCodec<E> edgeCodec) throws IOException {
+
+        int nodeCount = snapshot.nodeCount();
+        int edgeCount = snapshot.edgeCount();
+
+        // give the nodes new ids in the order of their bytes
+        byte[][] encodedNodes = new byte[nodeCount][];
+        Integer[] order = new Integer[nodeCount];
+        for (int n = 0; n < nodeCount; n++) {
+            encodedNodes[n] = nodeCodec.encode(snapshot.getNodeLabel(n));
+            order[n] = n;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return compareBytes(encodedNodes[a], encodedNodes[b]);
+            }
+        });
+
+        int[] newIds = new int[nodeCount];
+        for (int n = 0; n < nodeCount; n++) {
+            newIds[order[n]] = n;
+            if (n > 0 && compareBytes(encodedNodes[order[n - 1]], encodedNodes[order[n]]) == 0) {
+                throw new IllegalArgumentException("two nodes have the same bytes: " + snapshot.getNodeLabel(order[n]));
+            }
+        }
+
+        int[] sources = new int[edgeCount];
+        int[] targets = new int[edgeCount];
+        for (int n = 0; n < nodeCount; n++) {
+            for (int e = snapshot.getOutEdgeStart(n); e < snapshot.getOutEdgeEnd(n); e++) {
+                sources[e] = newIds[n];
+                targets[e] = newIds[snapshot.getEdgeTarget(e)];
+            }
+        }
+
+        // the same two stable counting sorts as GraphSnapshot, edge id k of the file
+        // is edge id bySource[k] of the snapshot
+        int[] byTarget = GraphSnapshot.countingSort(targets, GraphSnapshot.identity(edgeCount), nodeCount);
+        int[] bySource = GraphSnapshot.countingSort(sources, byTarget, nodeCount);
+
+        int[] forwardOffsets = GraphSnapshot.offsets(sources, nodeCount);
+        int[] forwardTargets = new int[edgeCount];
+        int[] edgeSources = new int[edgeCount];
+        for (int k = 0; k < edgeCount; k++) {
+            forwardTargets[k] = targets[bySource[k]];
+            edgeSources[k] = sources[bySource[k]];
+        }
+
+        int[] reverseOffsets = GraphSnapshot.offsets(forwardTargets, nodeCount);
+        int[] reverseEdges = GraphSnapshot.countingSort(forwardTargets, GraphSnapshot.identity(edgeCount), nodeCount);
+        int[] reverseSources = new int[edgeCount];
+        for (int r = 0; r < edgeCount; r++) {
+            reverseSources[r] = edgeSources[reverseEdges[r]];
+        }
+
+        // store each distinct edge label once
+        int[] labelOffsets = new int[edgeCount + 1];
+        for (int k = 0; k < edgeCount; k++) {
+            labelOffsets[k + 1] = labelOffsets[k] + snapshot.getLabelCount(bySource[k]);
+        }
+
+        int labelCount = labelOffsets[edgeCount];
+        int[] edgeLabelIds = new int[labelCount];
+        HashMap<E, Integer> distinctIds = new HashMap<E, Integer>();
+        ArrayList<byte[]> encodedLabels = new ArrayList<byte[]>();
+
+        for (int k = 0; k < edgeCount; k++) {
+            int edge = bySource[k];
+            for (int i = 0; i < snapshot.getLabelCount(edge); i++) {
+
+                E label = snapshot.getLabel(edge, i);
+                Integer id = distinctIds.get(label);
+                if (id == null) {
+                    id = encodedLabels.size();
+                    distinctIds.put(label, id);
+                    encodedLabels.add(edgeCodec.encode(label));
+                }
+                edgeLabelIds[labelOffsets[k] + i] = id;
+            }
+        }
+
+        int[] nodeByteOffsets = byteOffsets(order, encodedNodes);
+        Integer[] labelOrder = new Integer[encodedLabels.size()];
+        for (int i = 0; i < labelOrder.length; i++) {
+            labelOrder[i] = i;
+        }
+        byte[][] labelBytes = encodedLabels.toArray(new byte[encodedLabels.size()][]);
+        int[] labelByteOffsets = byteOffsets(labelOrder, labelBytes);
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT);
+            out.writeInt(nodeCount);
+            out.writeInt(edgeCount);
+            out.writeInt(labelCount);
+            out.writeInt(labelBytes.length);
+            out.writeLong(nodeByteOffsets[nodeCount]);
+            out.writeLong(labelByteOffsets[labelBytes.length]);
+
+            writeInts(out, nodeByteOffsets);
+            writeInts(out, forwardOffsets);
+            writeInts(out, forwardTargets);
+            writeInts(out, reverseOffsets);
+            writeInts(out, reverseSources);
+            writeInts(out, reverseEdges);
+            writeInts(out, labelOffsets);
+            writeInts(out, edgeLabelIds);
+            writeInts(out, labelByteOffsets);
+
+            for (Integer n : order) {
+                out.write(encodedNodes[n]);
+            }
+            for (byte[] bytes : labelBytes) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    // returns where each of bytes in the given order starts when they are written one after the other
+    private static int[] byteOffsets(Integer[] order, byte[][] bytes) throws IOException {
+
+        int[] offsets = new int[order.length + 1];
+        long end = 0;
+        for (int i = 0; i < order.length; i++) {
+            end += bytes[order[i]].length;
+            if (end > Integer.MAX_VALUE) {
+                throw new IOException("labels take more than 2GB");
+            }
+            offsets[i + 1] = (int) end;
+        }
+        return offsets;
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for (int v : values) {
+            out.writeInt(v);
+        }
+    }
+
+    // compares the bytes as unsigned numbers, a shorter array that starts the same is less
+    private static int compareBytes(byte[] a, byte[] b) {
+
+        int length = Math.min(a.length, b.length);
+        for (int i = 0; i < length; i++) {
+            int c = (a[i] & 0xff) - (b[i] & 0xff);
+            if (c != 0) return c;
+        }
+        return a.length - b.length;
+    }
+
+    /**
+     * @require path != null && nodeCodec != null && edgeCodec != null
+     * @param path a file made by write
+     * @param nodeCodec turns bytes back into the node labels, the same one it was written with
+     * @param edgeCodec turns bytes back into the edge labels, the same one it was written with
+     * @return the graph in the file, read from the file as it is used
+     * @throws IOException if the file can not be read or was not made by write
+     */
+    public static <N, E> GraphFile<N, E> open(Path path, LabelCodec<N> nodeCodec, LabelCodec<E> edgeCodec) throws IOException {
+
+        // the mapping stays valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("not a graph file: " + path);
+            }
+
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("not a graph file: " + path);
+            }
+            int format = header.getInt();
+            if (format != FORMAT) {
+                throw new IOException("unknown graph file format " + format + ": " + path);
+            }
+
+            int nodeCount = header.getInt();
+            int edgeCount = header.getInt();
+            int labelCount = header.getInt();
+            int distinctLabelCount = header.getInt();
+            long nodeByteCount = header.getLong();
+            long labelByteCount = header.getLong();
+
+            long expectedSize = HEADER_SIZE + 4L * (3L * (nodeCount + 1) + 4L * edgeCount + 1 + labelCount + distinctLabelCount + 1)
+                    + nodeByteCount + labelByteCount;
+            if (size != expectedSize) {
+                throw new IOException("graph file is " + size + " bytes but should be " + expectedSize + ": " + path);
+            }
+
+            long[] position = { HEADER_SIZE };
+
+            IntBuffer nodeByteOffsets = mapInts(channel, position, nodeCount + 1);
+            IntBuffer forwardOffsets = mapInts(channel, position, nodeCount + 1);
+            IntBuffer forwardTargets = mapInts(channel, position, edgeCount);
+            IntBuffer reverseOffsets = mapInts(channel, position, nodeCount + 1);
+            IntBuffer reverseSources = mapInts(channel, position, edgeCount);
+            IntBuffer reverseEdges = mapInts(channel, position, edgeCount);
+            IntBuffer labelOffsets = mapInts(channel, position, edgeCount + 1);
+            IntBuffer edgeLabelIds = mapInts(channel, position, labelCount);
+            IntBuffer labelByteOffsets = mapInts(channel, position, distinctLabelCount + 1);
+            ByteBuffer nodeBytes = mapBytes(channel, position, nodeByteCount);
+            ByteBuffer labelBytes = mapBytes(channel, position, labelByteCount);
+
+            return new GraphFile<N, E>(nodeCodec, edgeCodec, nodeCount, edgeCount, nodeByteOffsets, nodeBytes,
+                    forwardOffsets, forwardTargets, reverseOffsets, reverseSources, reverseEdges,
+                    labelOffsets, edgeLabelIds, labelByteOffsets, labelBytes);
+        }
+    }
+
+    // maps the next count ints at position[0] and moves position[0] past them
+    private static IntBuffer mapInts(FileChannel channel, long[] position, int count) throws IOException {
+        return mapBytes(channel, position, 4L * count).asIntBuffer();
+    }
+
+    // maps the next count bytes at position[0] and moves position[0] past them
+    private static ByteBuffer mapBytes(FileChannel channel, long[] position, long count) throws IOException {
+
+        if (count > Integer.MAX_VALUE) {
+            throw new IOException("graph file section is more than 2GB");
+        }
+        ByteBuffer section = channel.map(FileChannel.MapMode.READ_ONLY, position[0], count);
+        position[0] += count;
+        return section;
+    }
+
+
+    /**
+     *
+     * @return the amount of nodes in the file
+     */
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     *
+     * @return the amount of Edges in the file, parallel labels count once
+     */
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     *
+     * @param node
+     * @return true if node is in the file else false
+     */
+    public boolean hasNode(N node) {
+        return getNodeId(node) != -1;
+    }
+
+    /**
+     *
+     * @param node
+     * @return the id of node or -1 if it is not in the file
+     */
+    public int getNodeId(N node) {
+
+        byte[] key = nodeCodec.encode(node);
+
+        int low = 0;
+        int high = nodeCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int c = compareNode(mid, key);
+            if (c < 0) {
+                low = mid + 1;
+            } else if (c > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    // compares the bytes of node id with key like compareBytes
+    private int compareNode(int id, byte[] key) {
+
+        int start = nodeByteOffsets.get(id);
+        int length = nodeByteOffsets.get(id + 1) - start;
+
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int c = (nodeBytes.get(start + i) & 0xff) - (key[i] & 0xff);
+            if (c != 0) return c;
+        }
+        return length - key.length;
+    }
+
+    // returns the bytes from start to end as their own buffer
+    private static ByteBuffer slice(ByteBuffer bytes, int start, int end) {
+
+        ByteBuffer b = bytes.duplicate();
+        b.limit(end);
+        b.position(start);
+        return b.slice();
+    }
+
+    /**
+     * @require 0 <= id < nodeCount()
+     * @param id
+     * @return the label of the node with id
+     */
+    public N getNodeLabel(int id) {
+        return nodeCodec.decode(slice(nodeBytes, nodeByteOffsets.get(id), nodeByteOffsets.get(id + 1)));
+    }
+
+    /**
+     *
+     * @return an ArrayList<N> of the labels of all the nodes ordered by id
+     */
+    public ArrayList<N> getNodes() {
+
+        ArrayList<N> nodes = new ArrayList<N>(nodeCount);
+        for (int id = 0; id < nodeCount; id++) {
+            nodes.add(getNodeLabel(id));
+        }
+        return nodes;
+    }
+
+    /**
+     * @require 0 <= id < nodeCount()
+     * @param id
+     * @return the first edge id going out of id
+     */
+    public int getOutEdgeStart(int id) {
+        return forwardOffsets.get(id);
+    }
+
+    /**
+     * @require 0 <= id < nodeCount()
+     * @param id
+     * @return one past the last edge id going out of id
+     */
+    public int getOutEdgeEnd(int id) {
+        return forwardOffsets.get(id + 1);
+    }
+
+    /**
+     * @require 0 <= edge < edgeCount()
+     * @param edge
+     * @return the id of the node edge goes into
+     */
+    public int getEdgeTarget(int edge) {
+        return forwardTargets.get(edge);
+    }
+
+    /**
+     * @require 0 <= id < nodeCount()
+     * @param id
+     * @return the first reverse slot going into id
+     */
+    public int getInEdgeStart(int id) {
+        return reverseOffsets.get(id);
+    }
+
+    /**
+     * @require 0 <= id < nodeCount()
+     * @param id
+     * @return one past the last reverse slot going into id
+     */
+    public int getInEdgeEnd(int id) {
+        return reverseOffsets.get(id + 1);
+    }
+
+    /**
+     * @require 0 <= slot < edgeCount()
+     * @param slot
+     * @return the id of the node the edge in slot comes from
+     */
+    public int getInEdgeSource(int slot) {
+        return reverseSources.get(slot);
+    }
+
+    /**
+     * @require 0 <= slot < edgeCount()
+     * @param slot
+     * @return the edge id of the edge in slot
+     */
+    public int getInEdge(int slot) {
+        return reverseEdges.get(slot);
+    }
+
+    /**
+     * @require 0 <= fromId, toId < nodeCount()
+     * @param fromId
+     * @param toId
+     * @return the id of the edge going from fromId to toId or -1 if there is none
+     */
+    public int getEdge(int fromId, int toId) {
+
+        int low = forwardOffsets.get(fromId);
+        int high = forwardOffsets.get(fromId + 1) - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int target = forwardTargets.get(mid);
+            if (target < toId) {
+                low = mid + 1;
+            } else if (target > toId) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @require 0 <= edge < edgeCount()
+     * @param edge
+     * @return the amount of labels on edge
+     */
+    public int getLabelCount(int edge) {
+        return labelOffsets.get(edge + 1) - labelOffsets.get(edge);
+    }
+
+    /**
+     * @require 0 <= edge < edgeCount() && 0 <= index < getLabelCount(edge)
+     * @param edge
+     * @param index
+     * @return the label at index on edge
+     */
+    public E getLabel(int edge, int index) {
+
+        int id = edgeLabelIds.get(labelOffsets.get(edge) + index);
+        return edgeCodec.decode(slice(labelBytes, labelByteOffsets.get(id), labelByteOffsets.get(id + 1)));
+    }
+
+    /**
+     *
+     * @param node
+     * @return returns a HashSet<N> of the label of the nodes that
+     * 			are connected from @param node. If node doesn't
+     * 			exist it returns empty HashSet<N>
+     */
+    public HashSet<N> getNodesConnectedTo(N node) {
+
+        HashSet<N> nextNodes = new HashSet<N>();
+        int id = getNodeId(node);
+        if (id == -1) return nextNodes;
+
+        for (int e = getOutEdgeStart(id); e < getOutEdgeEnd(id); e++) {
+            nextNodes.add(getNodeLabel(forwardTargets.get(e)));
+        }
+        return nextNodes;
+    }
+
+    /**
+     *
+     * @param node
+     * @return returns a HashSet<N> of the label of the nodes that
+     * 			go into @param node. If node doesn't
+     * 			exist it returns empty HashSet<N>
+     */
+    public HashSet<N> getNodesGoingIntoNode(N node) {
+
+        HashSet<N> prevNodes = new HashSet<N>();
+        int id = getNodeId(node);
+        if (id == -1) return prevNodes;
+
+        for (int r = getInEdgeStart(id); r < getInEdgeEnd(id); r++) {
+            prevNodes.add(getNodeLabel(reverseSources.get(r)));
+        }
+        return prevNodes;
+    }
+
+    /**
+     *
+     * @param fromNode
+     * @param toNode
+     * @return a HashSet<E> of the labels between the nodes, fromNode to toNode
+     * 		if their doesn't exist an edge between them for any reason it returns
+     * 		the empty set
+     */
+    public HashSet<E> getEdgesBetweenNodes(N fromNode, N toNode) {
+
+        HashSet<E> edgeLabels = new HashSet<E>();
+        int from = getNodeId(fromNode);
+        int to = getNodeId(toNode);
+        if (from == -1 || to == -1) return edgeLabels;
+
+        int edge = getEdge(from, to);
+        if (edge == -1) return edgeLabels;
+
+        for (int i = 0; i < getLabelCount(edge); i++) {
+            edgeLabels.add(getLabel(edge, i));
+        }
+        return edgeLabels;
+    }
+
+    /**
+     * @require 0 <= edge < edgeCount()
+     * @param edge
+     * @param toDouble should convert the edges to a double
+     * @return the smallest toDouble of the labels of edge
+     */
+    private double getMinWeight(int edge, ToDoubleFunction<E> toDouble) {
+
+        double min = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < getLabelCount(edge); i++) {
+            min = Math.min(min, toDouble.applyAsDouble(getLabel(edge, i)));
+        }
+        return min;
+    }
+
+    /**
+     * Searches the mapped file directly, only the labels of the edges it reaches are decoded.
+     *
+     * @param headNode the start of the node in the dijkstra
+     * @param reverseOrder if you want to the edges direction to be flipped
+     * @param toDouble should convert the edges to a double
+     * @return Map<N, Double> where each key is the label of the nodes
+     * 		connected to headNode and the value is the distance from headNode
+     */
+    public Map<N, Double> dijkstra(N headNode, boolean reverseOrder, ToDoubleFunction<E> toDouble) {
+        return IdDijkstra.dijkstra(new Adjacency(toDouble), this::getNodeLabel, headNode, getNodeId(headNode), reverseOrder);
+    }
+
+    /**
+     * The adjacency IdDijkstra searches, an edge is its edge id or its reverse slot
+     * and is weighed by its smallest label.
+     */
+    private final class Adjacency implements IdAdjacency {
+
+        private final ToDoubleFunction<E> toDouble;
+
+        private Adjacency(ToDoubleFunction<E> toDouble) {
+            this.toDouble = toDouble;
+        }
+
+        @Override
+        public int nodeCount() {
+            return nodeCount;
+        }
+
+        @Override
+        public long firstEdge(int node, boolean reverseOrder) {
+            int start = reverseOrder ? getInEdgeStart(node) : getOutEdgeStart(node);
+            int end = reverseOrder ? getInEdgeEnd(node) : getOutEdgeEnd(node);
+            return start < end ? start : -1;
+        }
+
+        @Override
+        public long nextEdge(int node, long edge, boolean reverseOrder) {
+            int end = reverseOrder ? getInEdgeEnd(node) : getOutEdgeEnd(node);
+            return edge + 1 < end ? edge + 1 : -1;
+        }
+
+        @Override
+        public int edgeEnd(long edge, boolean reverseOrder) {
+            return reverseOrder ? reverseSources.get((int) edge) : forwardTargets.get((int) edge);
+        }
+
+        @Override
+        public double edgeWeight(long edge, boolean reverseOrder) {
+            return getMinWeight(reverseOrder ? reverseEdges.get((int) edge) : (int) edge, toDouble);
+        }
+    }
+
+    /**
+     * Reads the whole file, use it when the graph has to be changed.
+     *
+     * @return a new Graph with every node and edge in the file
+     */
+    public Graph<N, E> toGraph() {
+
+        GraphBuilder<N, E> builder = new GraphBuilder<N, E>(nodeCount, labelOffsets.get(edgeCount));
+        ArrayList<N> nodes = getNodes();
+
+        for (N node : nodes) {
+            builder.addNode(node);
+        }
+        for (int id = 0; id < nodeCount; id++) {
+            for (int e = getOutEdgeStart(id); e < getOutEdgeEnd(id); e++) {
+                for (int i = 0; i < getLabelCount(e); i++) {
+                    builder.addEdge(nodes.get(id), nodes.get(forwardTargets.get(e)), getLabel(e, i));
+                }
+            }
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,25 @@
+package Graph;
+
+/**
+ * GraphListener is told about every change to a Graph it was added to with
+ * Graph.addListener. It is called after the change is made.
+ *
+ * @param <N> where N is the label of the Node
+ * @param <E> where E is the label of the Edge
+ * @author cameronmonks
+ */
+public interface GraphListener<N, E> {
+
+    /**
+     * @effects called after node is added to the graph
+     * @param node the label of the new node
+     */
+    void nodeAdded(N node);
+
+    /**
+     * @effects called after label is added to edge, including when edge is new
+     * @param edge the edge label was added to
+     * @param label the new label
+     */
+    void edgeLabelAdded(Edge<N, E> edge, E label);
+}
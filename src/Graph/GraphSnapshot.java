@@ -0,0 +1,532 @@
+package Graph;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * GraphSnapshot is an immutable compressed sparse row (CSR) copy of a Graph.
+ * Every node gets a dense int id from 0 to nodeCount() - 1 and every Edge gets
+ * a dense int id from 0 to edgeCount() - 1. Searches can then walk int arrays
+ * instead of looking nodes and edges up in hash maps.
+ *
+ * Edges going out of node id n are the edge ids getOutEdgeStart(n) to
+ * getOutEdgeEnd(n) - 1, sorted by their target id. Edges going into node id n
+ * are the reverse slots getInEdgeStart(n) to getInEdgeEnd(n) - 1, sorted by
+ * their source id.
+ *
+ * The snapshot does not change when the Graph it was made from changes.
+ *
+ * @param <N> where N is the label of the Node
+ * @param <E> where E is the label of the Edge
+ * @author cameronmonks
+ */
+public class GraphSnapshot<N, E> {
+
+    private final Object[] nodeLabels;
+    private final HashMap<N, Integer> nodeIds;
+
+    // forward adjacency, indexed by node id then by edge id
+    final int[] forwardOffsets;
+    final int[] forwardTargets;
+
+    // reverse adjacency, indexed by node id then by reverse slot
+    final int[] reverseOffsets;
+    final int[] reverseSources;
+    final int[] reverseEdges;
+
+    // label table, indexed by edge id
+    final int[] labelOffsets;
+    final Object[] labels;
+
+    // Abstraction Function:
+    // GraphSnapshot, s, represents the Graph it was made from at the time it was made
+    //
+    // Representation Invariant for every GraphSnapshot s:
+    // forwardOffsets.length == reverseOffsets.length == nodeLabels.length + 1 &&
+    // labelOffsets.length == forwardTargets.length + 1 &&
+    // foreach node id n: nodeIds.get(nodeLabels[n]) == n
+    // foreach node id n: forwardTargets[forwardOffsets[n] .. forwardOffsets[n + 1]] is strictly increasing
+    // foreach node id n: reverseSources[reverseOffsets[n] .. reverseOffsets[n + 1]] is strictly increasing
+    // foreach reverse slot r into node n: forwardTargets[reverseEdges[r]] == n
+    // foreach edge id e: labelOffsets[e] < labelOffsets[e + 1]
+    //
+    // In other words:
+    // Every node has a unique id and every edge has a unique id
+    // Every edge is in the forward rows of its parent and in the reverse rows of its child
+    // Every edge has at least one label
+
+    /**
+     * @require graph != null
+     * @effects Constructs a snapshot of graph
+     * @param graph the graph to copy
+     */
+    GraphSnapshot(Graph<N, E> graph) {
+
+        // copy the nodes and edges first, a ConcurrentGraph can change while this runs
+        ArrayList<Node<N, E>> nodeList = new ArrayList<Node<N, E>>(graph.nodeValues());
+        ArrayList<Edge<N, E>> allEdges = new ArrayList<Edge<N, E>>(graph.edgeSet());
+
+        int nodeCount = nodeList.size();
+
+        nodeLabels = new Object[nodeCount];
+        nodeIds = new HashMap<N, Integer>(Math.max(16, (int) (nodeCount / 0.75f) + 1));
+
+        int id = 0;
+        for (Node<N, E> n : nodeList) {
+            nodeLabels[id] = n.getLabel();
+            nodeIds.put(n.getLabel(), id);
+            id++;
+        }
+
+        // skip edges to nodes that were added after the nodes were copied
+        ArrayList<Edge<N, E>> edgeList = new ArrayList<Edge<N, E>>(allEdges.size());
+        for (Edge<N, E> e : allEdges) {
+            if (nodeIds.containsKey(e.getParent().getLabel()) && nodeIds.containsKey(e.getChild().getLabel())) {
+                edgeList.add(e);
+            }
+        }
+
+        int edgeCount = edgeList.size();
+        int[] sources = new int[edgeCount];
+        int[] targets = new int[edgeCount];
+
+        for (int i = 0; i < edgeCount; i++) {
+            Edge<N, E> e = edgeList.get(i);
+            sources[i] = nodeIds.get(e.getParent().getLabel());
+            targets[i] = nodeIds.get(e.getChild().getLabel());
+        }
+
+        // Two stable counting sorts: first by target then by source, so every
+        // forward row ends up sorted by target
+        int[] byTarget = countingSort(targets, identity(edgeCount), nodeCount);
+        int[] bySource = countingSort(sources, byTarget, nodeCount);
+
+        forwardOffsets = offsets(sources, nodeCount);
+        forwardTargets = new int[edgeCount];
+        for (int e = 0; e < edgeCount; e++) {
+            forwardTargets[e] = targets[bySource[e]];
+        }
+
+        int[] edgeSources = new int[edgeCount];
+        for (int e = 0; e < edgeCount; e++) {
+            edgeSources[e] = sources[bySource[e]];
+        }
+
+        // forward edge ids are already sorted by source, so a stable sort by
+        // target leaves every reverse row sorted by source
+        reverseOffsets = offsets(forwardTargets, nodeCount);
+        reverseEdges = countingSort(forwardTargets, identity(edgeCount), nodeCount);
+        reverseSources = new int[edgeCount];
+        for (int r = 0; r < edgeCount; r++) {
+            reverseSources[r] = edgeSources[reverseEdges[r]];
+        }
+
+        // copy each label set once so labels added while this runs are left out consistently
+        ArrayList<HashSet<E>> labelSets = new ArrayList<HashSet<E>>(edgeCount);
+        int labelCount = 0;
+        for (int e = 0; e < edgeCount; e++) {
+            HashSet<E> edgeLabels = edgeList.get(bySource[e]).getLabels();
+            labelSets.add(edgeLabels);
+            labelCount += edgeLabels.size();
+        }
+
+        labelOffsets = new int[edgeCount + 1];
+        labels = new Object[labelCount];
+        int l = 0;
+        for (int e = 0; e < edgeCount; e++) {
+            labelOffsets[e] = l;
+            for (E label : labelSets.get(e)) {
+                labels[l++] = label;
+            }
+        }
+        labelOffsets[edgeCount] = l;
+
+        checkRep();
+    }
+
+    /**
+     * @require graph != null
+     * @param graph the graph to copy
+     * @return a snapshot of graph
+     */
+    public static <N, E> GraphSnapshot<N, E> of(Graph<N, E> graph) {
+        return new GraphSnapshot<N, E>(graph);
+    }
+
+    /**
+     * Checks that the representation invariant holds (if any).
+     **/
+    // Throws a RuntimeException if the rep invariant is violated.
+    private void checkRep() throws RuntimeException {
+    	/*
+    	for (int n = 0; n < nodeLabels.length; n++) {
+    		if (nodeIds.get(nodeLabels[n]) != n) {
+    			throw new RuntimeException("nodeIds does not match nodeLabels");
+    		}
+    		for (int e = forwardOffsets[n] + 1; e < forwardOffsets[n + 1]; e++) {
+    			if (forwardTargets[e - 1] >= forwardTargets[e]) {
+    				throw new RuntimeException("forward row is not sorted");
+    			}
+    		}
+    	}
+
+    	for (int e = 0; e < forwardTargets.length; e++) {
+    		if (labelOffsets[e] >= labelOffsets[e + 1]) {
+    			throw new RuntimeException("edge has no labels");
+    		}
+    	}
+    	*/
+    }
+
+    // returns 0, 1, ..., size - 1
+    static int[] identity(int size) {
+        int[] a = new int[size];
+        for (int i = 0; i < size; i++) {
+            a[i] = i;
+        }
+        return a;
+    }
+
+    // returns order stably sorted by keys[order[i]]
+    static int[] countingSort(int[] keys, int[] order, int keyCount) {
+
+        int[] start = new int[keyCount + 1];
+        for (int i : order) {
+            start[keys[i] + 1]++;
+        }
+        for (int k = 0; k < keyCount; k++) {
+            start[k + 1] += start[k];
+        }
+
+        int[] sorted = new int[order.length];
+        for (int i : order) {
+            sorted[start[keys[i]]++] = i;
+        }
+        return sorted;
+    }
+
+    // returns the row offsets of a CSR whose rows are keyed by keys
+    static int[] offsets(int[] keys, int keyCount) {
+
+        int[] offsets = new int[keyCount + 1];
+        for (int k : keys) {
+            offsets[k + 1]++;
+        }
+        for (int k = 0; k < keyCount; k++) {
+            offsets[k + 1] += offsets[k];
+        }
+        return offsets;
+    }
+
+
+    /**
+     *
+     * @return the amount of nodes in the snapshot
+     */
+    public int nodeCount() {
+        return nodeLabels.length;
+    }
+
+    /**
+     *
+     * @return the amount of edges in the snapshot
+     */
+    public int edgeCount() {
+        return forwardTargets.length;
+    }
+
+    /**
+     *
+     * @param node
+     * @return true if node is in the snapshot else false
+     */
+    public boolean hasNode(N node) {
+        return nodeIds.containsKey(node);
+    }
+
+    /**
+     *
+     * @param node
+     * @return the id of node or -1 if node is not in the snapshot
+     */
+    public int getNodeId(N node) {
+
+        Integer id = nodeIds.get(node);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * @require 0 <= id < nodeCount()
+     * @param id
+     * @return the label of the node with the given id
+     */
+    @SuppressWarnings("unchecked")
+    public N getNodeLabel(int id) {
+        return (N) nodeLabels[id];
+    }
+
+    /**
+     *
+     * @return an ArrayList<N> of the nodes in the snapshot ordered by id
+     */
+    @SuppressWarnings("unchecked")
+    public ArrayList<N> getNodes() {
+
+        ArrayList<N> nodesList = new ArrayList<N>(nodeLabels.length);
+        for (Object label : nodeLabels) {
+            nodesList.add((N) label);
+        }
+        return nodesList;
+    }
+
+    /**
+     * @require 0 <= id < nodeCount()
+     * @param id
+     * @return the first edge id going out of node id
+     */
+    public int getOutEdgeStart(int id) {
+        return forwardOffsets[id];
+    }
+
+    /**
+     * @require 0 <= id < nodeCount()
+     * @param id
+     * @return one past the last edge id going out of node id
+     */
+    public int getOutEdgeEnd(int id) {
+        return forwardOffsets[id + 1];
+    }
+
+    /**
+     * @require 0 <= edge < edgeCount()
+     * @param edge
+     * @return the id of the child node of edge
+     */
+    public int getEdgeTarget(int edge) {
+        return forwardTargets[edge];
+    }
+
+    /**
+     * @require 0 <= id < nodeCount()
+     * @param id
+     * @return the first reverse slot going into node id
+     */
+    public int getInEdgeStart(int id) {
+        return reverseOffsets[id];
+    }
+
+    /**
+     * @require 0 <= id < nodeCount()
+     * @param id
+     * @return one past the last reverse slot going into node id
+     */
+    public int getInEdgeEnd(int id) {
+        return reverseOffsets[id + 1];
+    }
+
+    /**
+     * @require 0 <= slot < edgeCount()
+     * @param slot a reverse slot
+     * @return the id of the parent node of the edge at slot
+     */
+    public int getInEdgeSource(int slot) {
+        return reverseSources[slot];
+    }
+
+    /**
+     * @require 0 <= slot < edgeCount()
+     * @param slot a reverse slot
+     * @return the edge id of the edge at slot
+     */
+    public int getInEdge(int slot) {
+        return reverseEdges[slot];
+    }
+
+    /**
+     * @require 0 <= fromId, toId < nodeCount()
+     * @param fromId
+     * @param toId
+     * @return the id of the edge going from fromId to toId or -1 if there is none
+     */
+    public int getEdge(int fromId, int toId) {
+
+        int low = forwardOffsets[fromId];
+        int high = forwardOffsets[fromId + 1] - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int target = forwardTargets[mid];
+            if (target < toId) {
+                low = mid + 1;
+            } else if (target > toId) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @require 0 <= edge < edgeCount()
+     * @param edge
+     * @return the amount of labels on edge
+     */
+    public int getLabelCount(int edge) {
+        return labelOffsets[edge + 1] - labelOffsets[edge];
+    }
+
+    /**
+     * @require 0 <= edge < edgeCount() && 0 <= index < getLabelCount(edge)
+     * @param edge
+     * @param index
+     * @return the label at index on edge
+     */
+    @SuppressWarnings("unchecked")
+    public E getLabel(int edge, int index) {
+        return (E) labels[labelOffsets[edge] + index];
+    }
+
+    /**
+     *
+     * @param node
+     * @return returns a HashSet<N> of the label of the nodes that
+     * 			are connected from @param node. If node doesn't
+     * 			exist it returns empty HashSet<N>
+     */
+    public HashSet<N> getNodesConnectedTo(N node) {
+
+        HashSet<N> nextNodes = new HashSet<N>();
+        int id = getNodeId(node);
+        if (id == -1) return nextNodes;
+
+        for (int e = forwardOffsets[id]; e < forwardOffsets[id + 1]; e++) {
+            nextNodes.add(getNodeLabel(forwardTargets[e]));
+        }
+        return nextNodes;
+    }
+
+    /**
+     *
+     * @param node
+     * @return returns a HashSet<N> of the label of the nodes that
+     * 			go into @param node. If node doesn't
+     * 			exist it returns empty HashSet<N>
+     */
+    public HashSet<N> getNodesGoingIntoNode(N node) {
+
+        HashSet<N> prevNodes = new HashSet<N>();
+        int id = getNodeId(node);
+        if (id == -1) return prevNodes;
+
+        for (int r = reverseOffsets[id]; r < reverseOffsets[id + 1]; r++) {
+            prevNodes.add(getNodeLabel(reverseSources[r]));
+        }
+        return prevNodes;
+    }
+
+    /**
+     *
+     * @param fromNode
+     * @param toNode
+     * @return a HashSet<E> of the labels between the nodes, fromNode to toNode
+     * 		if their doesn't exist an edge between them for any reason it returns
+     * 		the empty set
+     */
+    public HashSet<E> getEdgesBetweenNodes(N fromNode, N toNode) {
+
+        HashSet<E> edgeLabels = new HashSet<E>();
+        int from = getNodeId(fromNode);
+        int to = getNodeId(toNode);
+        if (from == -1 || to == -1) return edgeLabels;
+
+        int edge = getEdge(from, to);
+        if (edge == -1) return edgeLabels;
+
+        for (int l = labelOffsets[edge]; l < labelOffsets[edge + 1]; l++) {
+            edgeLabels.add(getLabel(edge, l - labelOffsets[edge]));
+        }
+        return edgeLabels;
+    }
+
+    /**
+     * Makes a new DijkstraEngine for every call, use a DijkstraEngine
+     * directly to run many searches with the same weights.
+     *
+     * @param headNode the start of the node in the dijkstra
+     * @param reverseOrder if you want to the edges direction to be flipped
+     * @param toDouble should convert the edges to a double
+     * @return Map<N, Double> where each key is the label of the nodes
+     * 		connected to headNode and the value is the distance from headNode
+     */
+    public Map<N, Double> dijkstra(N headNode, boolean reverseOrder, ToDoubleFunction<E> toDouble) {
+        return new DijkstraEngine<N, E>(this, toDouble).dijkstra(headNode, reverseOrder);
+    }
+
+    /**
+     * Runs one Dijkstra per source in parallel on the common ForkJoinPool.
+     *
+     * @param sources the start nodes, a source not in the snapshot reaches nothing
+     * @param reverseOrder if you want to the edges direction to be flipped
+     * @param toDouble should convert the edges to a double
+     * @return a DistanceMatrix with a row for each source and a column for each
+     * 		node of getNodes(), getDistances(source) is the same as dijkstra(source, reverseOrder, toDouble)
+     * 		for every source in the snapshot. Each row only holds the nodes its source reaches
+     */
+    public DistanceMatrix<N> dijkstraAll(Collection<N> sources, boolean reverseOrder, ToDoubleFunction<E> toDouble) {
+
+        ArrayList<N> rows = new ArrayList<N>(sources);
+        int[] sourceIds = nodeIds(rows);
+        int[][] rowColumns = new int[rows.size()][];
+        double[][] rowDistances = new double[rows.size()][];
+
+        if (rows.size() > 0) {
+            ForkJoinPool.commonPool().invoke(new DistanceMatrixTask<N, E>(this, DijkstraEngine.minimumWeights(this, toDouble),
+                    reverseOrder, sourceIds, null, new ConcurrentLinkedQueue<DijkstraEngine<N, E>>(),
+                    null, rowColumns, rowDistances, 0, rows.size()));
+        }
+
+        return new DistanceMatrix<N>(rows, getNodes(), rowColumns, rowDistances);
+    }
+
+    /**
+     * Runs one Dijkstra per source in parallel on the common ForkJoinPool, each
+     * stops once every target is settled.
+     *
+     * @param sources the start nodes, a source not in the snapshot reaches nothing
+     * @param targets the end nodes, a target not in the snapshot can not be reached
+     * @param toDouble should convert the edges to a double
+     * @return a DistanceMatrix with the distance from every source to every target
+     * @throws IllegalArgumentException if sources.size() * targets.size() distances do not fit in one array
+     */
+    public DistanceMatrix<N> distanceMatrix(Collection<N> sources, Collection<N> targets, ToDoubleFunction<E> toDouble) {
+
+        ArrayList<N> rows = new ArrayList<N>(sources);
+        ArrayList<N> columns = new ArrayList<N>(targets);
+        double[] distances = new double[DistanceMatrix.size(rows.size(), columns.size())];
+
+        if (rows.size() > 0) {
+            ForkJoinPool.commonPool().invoke(new DistanceMatrixTask<N, E>(this, DijkstraEngine.minimumWeights(this, toDouble),
+                    false, nodeIds(rows), nodeIds(columns), new ConcurrentLinkedQueue<DijkstraEngine<N, E>>(),
+                    distances, null, null, 0, rows.size()));
+        }
+
+        return new DistanceMatrix<N>(rows, columns, distances);
+    }
+
+    // the id of each node of nodes, -1 for a node not in the snapshot
+    private int[] nodeIds(ArrayList<N> nodes) {
+
+        int[] ids = new int[nodes.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = getNodeId(nodes.get(i));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,211 @@
+package Graph;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * GraphVersion is an immutable view of a Graph as it was in one version, made by
+ * Graph.snapshot(). Nothing is copied: every node, edge and edge label of the graph
+ * remembers the version that added it and the view hides the ones added later.
+ * Reads on a view never lock and give the same answer no matter what is added to
+ * the graph after the view was made. Only a ConcurrentGraph may be added to by other
+ * threads while a view of it is read, a Graph keeps its nodes and edges in HashMaps
+ * and HashSets, so a view of it may only be read while no thread changes the graph.
+ *
+ * A graph only grows, so a view is just the graph and a version number and there
+ * is nothing to clean up once it is no longer used.
+ *
+ * @param <N> where N is the label of the Node
+ * @param <E> where E is the label of the Edge
+ * @author cameronmonks
+ */
+public class GraphVersion<N, E> {
+
+    private final Graph<N, E> graph;
+    private final long version;
+
+    // Abstraction Function:
+    // GraphVersion, v, represents the nodes, edges and edge labels
+    // of graph that were added in or before version
+    //
+    // Representation Invariant for every GraphVersion v:
+    // graph != null && 0 <= version <= graph.getVersion()
+
+    /**
+     * @require graph != null && every change to graph up to version has finished
+     * @effects Constructs the view of graph in version
+     * @param graph
+     * @param version
+     */
+    GraphVersion(Graph<N, E> graph, long version) {
+
+        this.graph = graph;
+        this.version = version;
+
+        checkRep();
+    }
+
+    /**
+     * Checks that the representation invariant holds (if any).
+     **/
+    // Throws a RuntimeException if the rep invariant is violated.
+    private void checkRep() throws RuntimeException {
+    	/*
+    	if (graph == null || version < 0 || version > graph.getVersion()) {
+    		throw new RuntimeException("version is not a version of graph");
+    	}
+    	*/
+    }
+
+    /**
+     *
+     * @return the version of the graph this is a view of
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    // the node with label node if it is in this version else null
+    private Node<N, E> getNode(N node) {
+
+        Node<N, E> n = graph.getNode(node);
+        if (n == null || n.getVersion() > version) return null;
+
+        return n;
+    }
+
+    /**
+     *
+     * @param node
+     * @return true if node is in this version else false
+     */
+    public boolean hasNode(N node) {
+        return getNode(node) != null;
+    }
+
+    /**
+     * Looks at every node of the graph
+     *
+     * @return an ArrayList<N> of the nodes in this version
+     */
+    public ArrayList<N> getNodes() {
+
+        ArrayList<N> nodesList = new ArrayList<N>();
+
+        for (Node<N, E> n : graph.nodeValues()) {
+            if (n.getVersion() <= version) {
+                nodesList.add(n.getLabel());
+            }
+        }
+
+        return nodesList;
+    }
+
+    /**
+     *
+     * @param node
+     * @return a HashSet<N> of the labels of the nodes connected from node in
+     * 			this version. If node doesn't exist it returns empty HashSet<N>
+     */
+    public HashSet<N> getNodesConnectedTo(N node) {
+
+        HashSet<N> result = new HashSet<N>();
+
+        Node<N, E> n = getNode(node);
+        if (n == null) return result;
+
+        for (Edge<N, E> e : n.getNextEdges()) {
+            if (e.getVersion() <= version) {
+                result.add(e.getChild().getLabel());
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     *
+     * @param node
+     * @return a HashSet<N> of the labels of the nodes going into node in
+     * 			this version. If node doesn't exist it returns empty HashSet<N>
+     */
+    public HashSet<N> getNodesGoingIntoNode(N node) {
+
+        HashSet<N> result = new HashSet<N>();
+
+        Node<N, E> n = getNode(node);
+        if (n == null) return result;
+
+        for (Edge<N, E> e : n.getPrevEdges()) {
+            if (e.getVersion() <= version) {
+                result.add(e.getParent().getLabel());
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     *
+     * @param fromNode
+     * @param toNode
+     * @return a HashSet<E> of the labels between the nodes, fromNode to toNode in this
+     * 		version. If their doesn't exist an edge between them it returns the empty set
+     */
+    public HashSet<E> getEdgesBetweenNodes(N fromNode, N toNode) {
+
+        Node<N, E> n = getNode(fromNode);
+        if (n == null) return new HashSet<E>();
+
+        Edge<N, E> e = n.getEdgeToNextNode(toNode);
+        if (e == null || e.getVersion() > version) return new HashSet<E>();
+
+        return e.getLabels(version);
+    }
+
+    /**
+     * @param toDouble should convert the edges to a double
+     * @return an EdgeWeigher that only looks at the labels in this version
+     */
+    private EdgeWeigher<N, E> weigher(ToDoubleFunction<E> toDouble) {
+
+        return new EdgeWeigher<N, E>() {
+            @Override
+            public double getWeight(Edge<N, E> edge) {
+                return edge.getMinWeight(toDouble, version);
+            }
+
+            @Override
+            public E getLabel(Edge<N, E> edge) {
+                return edge.getMinLabel(toDouble, version);
+            }
+        };
+    }
+
+    /**
+     * @param headNode the start of the node in the dijkstra
+     * @param reverseOrder if you want to the edges direction to be flipped
+     * @param toDouble should convert the edges to a double
+     * @return the same as Graph.dijkstra(headNode, reverseOrder, toDouble) on the graph
+     * 		as it was in this version
+     */
+    public Map<N, Double> dijkstra(N headNode, boolean reverseOrder, ToDoubleFunction<E> toDouble) {
+        SearchStats stats = SearchStats.orRecorded(null);
+        return graph.dijkstra(headNode, reverseOrder, weigher(SearchStats.counting(stats, toDouble)), version, stats);
+    }
+
+    /**
+     * @param startNode
+     * @param toNode
+     * @param toDouble should convert the edges to a double
+     * @return the same as Graph.findPath(startNode, toNode, toDouble) on the graph
+     * 		as it was in this version
+     */
+    public ArrayList<Entry<Entry<N,N>, E>> findPath(N startNode, N toNode, ToDoubleFunction<E> toDouble) {
+        SearchStats stats = SearchStats.orRecorded(null);
+        return graph.findPath(startNode, toNode, weigher(SearchStats.counting(stats, toDouble)), version, stats);
+    }
+}
@@ -0,0 +1,51 @@
+package Graph;
+
+/**
+ * IdAdjacency is the adjacency of a graph whose nodes are dense int ids and whose
+ * edges are long ids weighing a double, so IdDijkstra can search a
+ * DoubleWeightedGraph, an OffHeapGraph and a GraphFile with the same code. Walking
+ * the edges going into a node gives the same edges as reverseOrder searches do.
+ *
+ * @author cameronmonks
+ */
+interface IdAdjacency {
+
+    /**
+     *
+     * @return the amount of nodes, their ids are 0 to nodeCount() - 1
+     */
+    int nodeCount();
+
+    /**
+     * @require 0 <= node < nodeCount()
+     * @param node
+     * @param reverseOrder if the edges going into node are walked instead
+     * @return the first edge going out of node, or -1 if it has none
+     */
+    long firstEdge(int node, boolean reverseOrder);
+
+    /**
+     * @require edge was returned by firstEdge or nextEdge for node and reverseOrder
+     * @param node
+     * @param edge
+     * @param reverseOrder if the edges going into node are walked instead
+     * @return the edge of node after edge, or -1 if edge is the last
+     */
+    long nextEdge(int node, long edge, boolean reverseOrder);
+
+    /**
+     * @require edge was returned by firstEdge or nextEdge for reverseOrder
+     * @param edge
+     * @param reverseOrder if edge is walked backwards
+     * @return the node edge goes to, or comes from if reverseOrder
+     */
+    int edgeEnd(long edge, boolean reverseOrder);
+
+    /**
+     * @require edge was returned by firstEdge or nextEdge for reverseOrder
+     * @param edge
+     * @param reverseOrder if edge is walked backwards
+     * @return the weight of edge
+     */
+    double edgeWeight(long edge, boolean reverseOrder);
+}
@@ -0,0 +1,158 @@
+package Graph;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.IntFunction;
+
+/**
+ * IdDijkstra is the Dijkstra search of the graphs that keep their adjacency by int
+ * node ids, DoubleWeightedGraph, OffHeapGraph and GraphFile. The distances are kept
+ * in arrays indexed by node id and labels are only looked at to make the result.
+ *
+ * An edge is weighed only if its end is not settled yet, so a GraphFile only decodes
+ * the labels of the edges that can still shorten a distance.
+ *
+ * @author cameronmonks
+ */
+class IdDijkstra {
+
+    /**
+     * Finds the shortest distances from source.
+     *
+     * @require graph != null && 0 <= source < graph.nodeCount() and the arrays hold
+     * 		graph.nodeCount() values
+     * @param graph
+     * @param source
+     * @param reverseOrder if you want to the edges direction to be flipped
+     * @param stop the node to stop at once it is settled or -1 to find every node
+     * @param distances set to the distance of each node reached
+     * @param reached set to true for each node reached
+     * @param previous set to the node before each node reached on its shortest path, or null
+     * @param previousEdges set to the edge each node was reached through, or null
+     * @param settledOrder set to the nodes settled in order, or null
+     */
+    static void run(IdAdjacency graph, int source, boolean reverseOrder, int stop,
+            double[] distances, boolean[] reached, int[] previous, long[] previousEdges, IntList settledOrder) {
+
+        IndexedDaryHeap heap = new IndexedDaryHeap(DijkstraEngine.DEFAULT_ARITY, graph.nodeCount());
+        distances[source] = 0.0;
+        reached[source] = true;
+        heap.insertOrDecrease(source, 0.0);
+
+        while (!heap.isEmpty()) {
+
+            int node = heap.poll();
+            double distance = distances[node];
+            if (settledOrder != null) {
+                settledOrder.add(node);
+            }
+            if (node == stop) {
+                break;
+            }
+
+            for (long e = graph.firstEdge(node, reverseOrder); e != -1; e = graph.nextEdge(node, e, reverseOrder)) {
+
+                int end = graph.edgeEnd(e, reverseOrder);
+                if (reached[end] && !heap.contains(end)) {
+                    continue;
+                }
+
+                double newDistance = distance + graph.edgeWeight(e, reverseOrder);
+                if (!reached[end] || newDistance < distances[end]) {
+                    reached[end] = true;
+                    distances[end] = newDistance;
+                    heap.insertOrDecrease(end, newDistance);
+                    if (previous != null) {
+                        previous[end] = node;
+                    }
+                    if (previousEdges != null) {
+                        previousEdges[end] = e;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Same as Graph.dijkstra(headNode, reverseOrder, (Double d) -> d).
+     *
+     * @require graph != null && labels != null
+     * @param graph
+     * @param labels gives the label of each node id
+     * @param headNode the start of the node in the dijkstra
+     * @param source the id of headNode, or -1 if it is not in graph
+     * @param reverseOrder if you want to the edges direction to be flipped
+     * @return Map<N, Double> where each key is the label of the nodes
+     * 		connected to headNode and the value is the distance from headNode
+     */
+    static <N> Map<N, Double> dijkstra(IdAdjacency graph, IntFunction<N> labels, N headNode, int source, boolean reverseOrder) {
+
+        if (source == -1) {
+            Map<N, Double> nodesAndDistances = new HashMap<>();
+            nodesAndDistances.put(headNode, 0.0);
+            return nodesAndDistances;
+        }
+
+        double[] distances = new double[graph.nodeCount()];
+        boolean[] reached = new boolean[graph.nodeCount()];
+        IntList settledOrder = new IntList();
+        run(graph, source, reverseOrder, -1, distances, reached, null, null, settledOrder);
+
+        Map<N, Double> nodesAndDistances = new HashMap<>(Node.capacityFor(settledOrder.size()));
+        for (int i = 0; i < settledOrder.size(); i++) {
+            int node = settledOrder.get(i);
+            nodesAndDistances.put(labels.apply(node), distances[node]);
+        }
+        return nodesAndDistances;
+    }
+
+    /**
+     * Same as Graph.findPath(startNode, toNode, (Double d) -> d), stops as soon as toNode
+     * is settled.
+     *
+     * @require graph != null && labels != null
+     * @param graph
+     * @param labels gives the label of each node id
+     * @param startNode
+     * @param start the id of startNode, or -1 if it is not in graph
+     * @param toNode
+     * @param to the id of toNode, or -1 if it is not in graph
+     * @return an ArrayList of the path. At each element is a Entry<Entry<node1, node2>, weight> where
+     * 		the weight is of the next edge to take to get close to toNode from startNode. If their
+     * 		is not a path then it returns null
+     */
+    static <N> ArrayList<Entry<Entry<N,N>, Double>> findPath(IdAdjacency graph, IntFunction<N> labels,
+            N startNode, int start, N toNode, int to) {
+
+        if (startNode != null && startNode.equals(toNode)) {
+            return new ArrayList<>();
+        }
+        if (start == -1 || to == -1) {
+            return null;
+        }
+
+        double[] distances = new double[graph.nodeCount()];
+        boolean[] reached = new boolean[graph.nodeCount()];
+        int[] previous = new int[graph.nodeCount()];
+        long[] previousEdges = new long[graph.nodeCount()];
+        run(graph, start, false, to, distances, reached, previous, previousEdges, null);
+
+        if (!reached[to]) {
+            return null;
+        }
+
+        ArrayList<Entry<Entry<N,N>, Double>> path = new ArrayList<>();
+        for (int node = to; node != start; node = previous[node]) {
+
+            path.add(new AbstractMap.SimpleEntry<Entry<N,N>, Double>(
+                    new AbstractMap.SimpleEntry<N, N>(labels.apply(previous[node]), labels.apply(node)),
+                    graph.edgeWeight(previousEdges[node], false)));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+}
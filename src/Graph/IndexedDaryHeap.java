@@ -0,0 +1,255 @@
+package Graph;
+
+import java.util.Arrays;
+
+/**
+ * IndexedDaryHeap is a min heap of int ids 0 to capacity - 1 keyed by doubles.
+ * Every id is in the heap at most once, so a better key for an id already in
+ * the heap is a decrease-key instead of a second entry. Nothing is allocated
+ * after construction unless ensureCapacity grows the heap.
+ *
+ * @author cameronmonks
+ */
+class IndexedDaryHeap {
+
+    private final int arity;
+
+    // heap position to id
+    private int[] heap;
+
+    // id to heap position or -1 if id is not in the heap
+    private int[] positions;
+
+    // id to key, only meaningful while id is in the heap
+    private double[] keys;
+
+    private int size;
+
+    // Abstraction Function:
+    // IndexedDaryHeap, h, represents the set of ids heap[0 .. size - 1] each with the key keys[id]
+    //
+    // Representation Invariant for every IndexedDaryHeap h:
+    // arity >= 2 && 0 <= size <= heap.length == positions.length == keys.length &&
+    // foreach 0 <= i < size: positions[heap[i]] == i
+    // foreach 0 < i < size: keys[heap[(i - 1) / arity]] <= keys[heap[i]]
+    // foreach id not in heap[0 .. size - 1]: positions[id] == -1
+
+    /**
+     * @require arity >= 2 && capacity >= 0
+     * @effects Constructs an empty heap for the ids 0 to capacity - 1
+     * @param arity how many children each heap entry has
+     * @param capacity
+     */
+    IndexedDaryHeap(int arity, int capacity) {
+
+        if (arity < 2) {
+            throw new IllegalArgumentException("arity must be at least 2");
+        }
+
+        this.arity = arity;
+        heap = new int[capacity];
+        positions = new int[capacity];
+        keys = new double[capacity];
+        Arrays.fill(positions, -1);
+        size = 0;
+    }
+
+    /**
+     * @modifies this
+     * @effects makes the ids 0 to capacity - 1 usable
+     * @param capacity
+     */
+    void ensureCapacity(int capacity) {
+
+        if (capacity <= positions.length) return;
+
+        int oldCapacity = positions.length;
+        heap = Arrays.copyOf(heap, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        positions = Arrays.copyOf(positions, capacity);
+        Arrays.fill(positions, oldCapacity, capacity, -1);
+    }
+
+    /**
+     *
+     * @return the amount of ids in the heap
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     *
+     * @return true if there are no ids in the heap else false
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param id
+     * @return true if id is in the heap else false
+     */
+    boolean contains(int id) {
+        return positions[id] != -1;
+    }
+
+    /**
+     * @require contains(id)
+     * @param id
+     * @return the key of id
+     */
+    double getKey(int id) {
+        return keys[id];
+    }
+
+    /**
+     * @require !isEmpty()
+     * @return the smallest key in the heap
+     */
+    double peekKey() {
+        return keys[heap[0]];
+    }
+
+    /**
+     * @require !isEmpty()
+     * @return the id with the smallest key without removing it
+     */
+    int peek() {
+        return heap[0];
+    }
+
+    /**
+     * @modifies this
+     * @effects adds id with key if id is not in the heap or lowers the key
+     * 		of id if key is smaller than its current key
+     * @param id
+     * @param key
+     * @return true if the heap changed else false
+     */
+    boolean insertOrDecrease(int id, double key) {
+
+        int position = positions[id];
+
+        if (position == -1) {
+            keys[id] = key;
+            heap[size] = id;
+            positions[id] = size;
+            siftUp(size++);
+            return true;
+        }
+
+        if (key < keys[id]) {
+            keys[id] = key;
+            siftUp(position);
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * @modifies this
+     * @effects adds id with key if id is not in the heap else changes the key
+     * 		of id to key, even if key is bigger than its current key
+     * @param id
+     * @param key
+     */
+    void insertOrChange(int id, double key) {
+
+        int position = positions[id];
+
+        if (position == -1 || key <= keys[id]) {
+            insertOrDecrease(id, key);
+            return;
+        }
+
+        keys[id] = key;
+        siftDown(position);
+    }
+
+    /**
+     * @require !isEmpty()
+     * @modifies this
+     * @effects removes the id with the smallest key
+     * @return the removed id
+     */
+    int poll() {
+
+        int top = heap[0];
+        positions[top] = -1;
+        size--;
+
+        if (size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            positions[last] = 0;
+            siftDown(0);
+        }
+
+        return top;
+    }
+
+    /**
+     * @modifies this
+     * @effects removes every id from the heap
+     */
+    void clear() {
+
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int position) {
+
+        int id = heap[position];
+        double key = keys[id];
+
+        while (position > 0) {
+            int parent = (position - 1) / arity;
+            int parentId = heap[parent];
+            if (keys[parentId] <= key) break;
+
+            heap[position] = parentId;
+            positions[parentId] = position;
+            position = parent;
+        }
+
+        heap[position] = id;
+        positions[id] = position;
+    }
+
+    private void siftDown(int position) {
+
+        int id = heap[position];
+        double key = keys[id];
+
+        while (true) {
+            int first = position * arity + 1;
+            if (first >= size) break;
+
+            int last = Math.min(first + arity, size);
+            int best = first;
+            double bestKey = keys[heap[first]];
+            for (int child = first + 1; child < last; child++) {
+                double childKey = keys[heap[child]];
+                if (childKey < bestKey) {
+                    best = child;
+                    bestKey = childKey;
+                }
+            }
+
+            if (bestKey >= key) break;
+
+            int bestId = heap[best];
+            heap[position] = bestId;
+            positions[bestId] = position;
+            position = best;
+        }
+
+        heap[position] = id;
+        positions[id] = position;
+    }
+}
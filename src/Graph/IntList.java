@@ -0,0 +1,129 @@
+package Graph;
+
+import java.util.Arrays;
+
+/**
+ * IntList is a growable list of primitive ints, so search code can keep lists
+ * of node and edge ids without boxing them.
+ *
+ * @author cameronmonks
+ */
+class IntList {
+
+    private int[] values;
+    private int size;
+
+    // Abstraction Function:
+    // IntList, l, represents the list values[0 .. size - 1]
+    //
+    // Representation Invariant for every IntList l:
+    // values != null && 0 <= size <= values.length
+
+    /**
+     * @effects Constructs an empty list
+     */
+    IntList() {
+        this(8);
+    }
+
+    /**
+     * @require capacity >= 0
+     * @effects Constructs an empty list that can hold capacity ints before growing
+     * @param capacity
+     */
+    IntList(int capacity) {
+        values = new int[Math.max(1, capacity)];
+        size = 0;
+    }
+
+    /**
+     * @modifies this
+     * @effects adds value to the end of the list
+     * @param value
+     */
+    void add(int value) {
+
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    /**
+     * @require source != null && 0 <= count <= source.length
+     * @modifies this
+     * @effects adds source[0 .. count - 1] to the end of the list
+     * @param source
+     * @param count
+     */
+    void addAll(int[] source, int count) {
+
+        if (size + count > values.length) {
+            values = Arrays.copyOf(values, Math.max(size + count, values.length * 2));
+        }
+        System.arraycopy(source, 0, values, size, count);
+        size += count;
+    }
+
+    /**
+     * @require 0 <= index < size()
+     * @param index
+     * @return the value at index
+     */
+    int get(int index) {
+        return values[index];
+    }
+
+    /**
+     * @require 0 <= index < size()
+     * @modifies this
+     * @effects replaces the value at index with value
+     * @param index
+     * @param value
+     */
+    void set(int index, int value) {
+        values[index] = value;
+    }
+
+    /**
+     * @require !isEmpty()
+     * @modifies this
+     * @effects removes the last value
+     * @return the removed value
+     */
+    int removeLast() {
+        return values[--size];
+    }
+
+    /**
+     *
+     * @return the amount of values in the list
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     *
+     * @return true if the list has no values else false
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @modifies this
+     * @effects removes every value without shrinking the list
+     */
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     *
+     * @return a copy of the values in the list
+     */
+    int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
@@ -0,0 +1,53 @@
+package Graph;
+
+import jdk.jfr.EventType;
+
+/**
+ * JfrSearchRecorder commits a SearchEvent for each search while a Flight Recorder
+ * recording has the Graph.Search event enabled. Needs Java 11, SearchRecorder
+ * loads it by name so the rest of the library still runs on Java 8.
+ *
+ * @author cameronmonks
+ */
+class JfrSearchRecorder extends SearchRecorder {
+
+    private static final EventType TYPE = EventType.getEventType(SearchEvent.class);
+
+    @Override
+    boolean isEnabled() {
+        return TYPE.isEnabled();
+    }
+
+    @Override
+    Object begin() {
+
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    void commit(Object event, String search, SearchStats stats) {
+
+        SearchEvent e = (SearchEvent) event;
+        e.end();
+        if (!e.shouldCommit()) {
+            return;
+        }
+
+        e.search = search;
+        e.nodesSettled = stats.nodesSettled;
+        e.heapPushes = stats.heapPushes;
+        e.heapDecreases = stats.heapDecreases;
+        e.heapPops = stats.heapPops;
+        e.stalePops = stats.stalePops;
+        e.edgesRelaxed = stats.edgesRelaxed;
+        e.labelsEvaluated = stats.labelsEvaluated;
+        e.wallNanos = stats.wallNanos;
+        e.commit();
+    }
+}
@@ -0,0 +1,114 @@
+package Graph;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * LabelCodec turns the labels of nodes or edges into bytes and back, so a graph
+ * can be written to a GraphFile and read back without knowing what its labels are.
+ *
+ * Two labels that are not equal must have different bytes.
+ *
+ * @param <T> the type of the label
+ * @author cameronmonks
+ */
+public interface LabelCodec<T> {
+
+    /**
+     * @require label != null
+     * @param label
+     * @return the bytes of label
+     */
+    byte[] encode(T label);
+
+    /**
+     * @require bytes holds the bytes of one label from its position to its limit
+     * @modifies bytes
+     * @param bytes
+     * @return the label whose bytes are in bytes
+     */
+    T decode(ByteBuffer bytes);
+
+    /**
+     *
+     * @return a LabelCodec that writes Strings as UTF-8
+     */
+    static LabelCodec<String> strings() {
+
+        return new LabelCodec<String>() {
+            @Override
+            public byte[] encode(String label) {
+                return label.getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public String decode(ByteBuffer bytes) {
+
+                if (bytes.hasArray()) {
+                    return new String(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining(), StandardCharsets.UTF_8);
+                }
+                byte[] copy = new byte[bytes.remaining()];
+                bytes.get(copy);
+                return new String(copy, StandardCharsets.UTF_8);
+            }
+        };
+    }
+
+    /**
+     * Negative numbers sort after positive ones in a GraphFile.
+     *
+     * @return a LabelCodec that writes Integers as 4 bytes
+     */
+    static LabelCodec<Integer> integers() {
+
+        return new LabelCodec<Integer>() {
+            @Override
+            public byte[] encode(Integer label) {
+                return ByteBuffer.allocate(4).putInt(label).array();
+            }
+
+            @Override
+            public Integer decode(ByteBuffer bytes) {
+                return bytes.getInt();
+            }
+        };
+    }
+
+    /**
+     *
+     * @return a LabelCodec that writes Longs as 8 bytes
+     */
+    static LabelCodec<Long> longs() {
+
+        return new LabelCodec<Long>() {
+            @Override
+            public byte[] encode(Long label) {
+                return ByteBuffer.allocate(8).putLong(label).array();
+            }
+
+            @Override
+            public Long decode(ByteBuffer bytes) {
+                return bytes.getLong();
+            }
+        };
+    }
+
+    /**
+     *
+     * @return a LabelCodec that writes Doubles as 8 bytes
+     */
+    static LabelCodec<Double> doubles() {
+
+        return new LabelCodec<Double>() {
+            @Override
+            public byte[] encode(Double label) {
+                return ByteBuffer.allocate(8).putDouble(label).array();
+            }
+
+            @Override
+            public Double decode(ByteBuffer bytes) {
+                return bytes.getDouble();
+            }
+        };
+    }
+}
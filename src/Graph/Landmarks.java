@@ -0,0 +1,195 @@
+package Graph;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleBiFunction;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Landmarks is the heuristic for ALT (A*, landmarks, triangle inequality) search.
+ * A few nodes of a Graph are picked as landmarks and the distances from and to
+ * every landmark are found once with Graph.dijkstra. For any landmark L the
+ * triangle inequality gives
+ *
+ *      dist(v, t) >= dist(L, t) - dist(L, v)  and  dist(v, t) >= dist(v, L) - dist(t, L)
+ *
+ * so the largest of these over all landmarks is a lower bound of dist(v, t)
+ * that can be given to Graph.findPath as its heuristic.
+ *
+ * Landmarks only knows about the graph at the time it was made. Since edges are
+ * only ever added, the bounds can become too big after the graph changes, so a new
+ * Landmarks should be made after changing the graph.
+ *
+ * @param <N> where N is the label of the Node
+ * @param <E> where E is the label of the Edge
+ * @author cameronmonks
+ */
+public class Landmarks<N, E> implements ToDoubleBiFunction<N, N> {
+
+    private final ArrayList<N> landmarks;
+
+    // for each node, the distance from each landmark
+    private final HashMap<N, double[]> fromLandmark;
+
+    // for each node, the distance to each landmark
+    private final HashMap<N, double[]> toLandmark;
+
+    // Abstraction Function:
+    // Landmarks, l, represents the landmarks l.landmarks where the distance from landmark i
+    // to node n is fromLandmark.get(n)[i] and from node n to landmark i is toLandmark.get(n)[i]
+    // and infinity means there is no path
+    //
+    // Representation Invariant for every Landmarks l:
+    // landmarks != null && fromLandmark != null && toLandmark != null &&
+    // foreach double[] d in fromLandmark and toLandmark: d.length == landmarks.size()
+
+    /**
+     * Picks the landmarks one at a time, each one as far as possible from the
+     * landmarks that were already picked.
+     *
+     * @require graph != null && count >= 1 && toDouble != null
+     * @effects Constructs count landmarks (or less if graph has less nodes) for graph
+     * @param graph the graph to search
+     * @param count the amount of landmarks to pick
+     * @param toDouble should convert the edges to a double
+     */
+    public Landmarks(Graph<N, E> graph, int count, ToDoubleFunction<E> toDouble) {
+
+        landmarks = new ArrayList<N>();
+        List<N> nodes = graph.getNodes();
+        count = Math.min(count, nodes.size());
+
+        ArrayList<Map<N, Double>> fromDistances = new ArrayList<Map<N, Double>>();
+        ArrayList<Map<N, Double>> toDistances = new ArrayList<Map<N, Double>>();
+
+        // the smallest distance from a picked landmark to each node
+        HashMap<N, Double> closest = new HashMap<N, Double>();
+
+        N next = nodes.isEmpty() ? null : farthest(graph.dijkstra(nodes.get(0), false, toDouble), nodes, null);
+
+        while (landmarks.size() < count) {
+
+            landmarks.add(next);
+            Map<N, Double> from = graph.dijkstra(next, false, toDouble);
+            fromDistances.add(from);
+            toDistances.add(graph.dijkstra(next, true, toDouble));
+
+            for (Map.Entry<N, Double> entry : from.entrySet()) {
+                Double old = closest.get(entry.getKey());
+                if (old == null || entry.getValue() < old) {
+                    closest.put(entry.getKey(), entry.getValue());
+                }
+            }
+
+            next = farthest(closest, nodes, landmarks);
+        }
+
+        fromLandmark = table(fromDistances, nodes);
+        toLandmark = table(toDistances, nodes);
+
+        checkRep();
+    }
+
+    /**
+     * Checks that the representation invariant holds (if any).
+     **/
+    // Throws a RuntimeException if the rep invariant is violated.
+    private void checkRep() throws RuntimeException {
+    	/*
+    	for (double[] d : fromLandmark.values()) {
+    		if (d.length != landmarks.size()) {
+    			throw new RuntimeException("fromLandmark does not match landmarks");
+    		}
+    	}
+
+    	for (double[] d : toLandmark.values()) {
+    		if (d.length != landmarks.size()) {
+    			throw new RuntimeException("toLandmark does not match landmarks");
+    		}
+    	}
+    	*/
+    }
+
+    // returns the node with the largest distance that is not already a landmark,
+    // nodes that are not in distances count as infinitely far
+    private N farthest(Map<N, Double> distances, List<N> nodes, List<N> picked) {
+
+        N best = null;
+        double bestDistance = -1;
+
+        for (N node : nodes) {
+            if (picked != null && picked.contains(node)) continue;
+
+            Double distance = distances.get(node);
+            double d = distance == null ? Double.POSITIVE_INFINITY : distance;
+            if (d > bestDistance) {
+                best = node;
+                bestDistance = d;
+            }
+        }
+
+        return best;
+    }
+
+    // turns one map per landmark into one array per node
+    private HashMap<N, double[]> table(List<Map<N, Double>> distances, List<N> nodes) {
+
+        HashMap<N, double[]> table = new HashMap<N, double[]>();
+
+        for (N node : nodes) {
+            double[] d = new double[landmarks.size()];
+            for (int i = 0; i < d.length; i++) {
+                Double distance = distances.get(i).get(node);
+                d[i] = distance == null ? Double.POSITIVE_INFINITY : distance;
+            }
+            table.put(node, d);
+        }
+
+        return table;
+    }
+
+    /**
+     *
+     * @return the labels of the landmarks
+     */
+    public ArrayList<N> getLandmarks() {
+        return new ArrayList<N>(landmarks);
+    }
+
+    /**
+     * @param node
+     * @param toNode
+     * @return a lower bound of the distance from node to toNode, 0 if nothing is known
+     */
+    @Override
+    public double applyAsDouble(N node, N toNode) {
+
+        double[] fromNode = fromLandmark.get(node);
+        double[] fromTo = fromLandmark.get(toNode);
+        double[] nodeTo = toLandmark.get(node);
+        double[] toTo = toLandmark.get(toNode);
+
+        if (fromNode == null || fromTo == null) {
+            return 0.0;
+        }
+
+        double bound = 0.0;
+
+        for (int i = 0; i < fromNode.length; i++) {
+
+            // dist(L, t) - dist(L, v)
+            if (fromNode[i] != Double.POSITIVE_INFINITY && fromTo[i] != Double.POSITIVE_INFINITY) {
+                bound = Math.max(bound, fromTo[i] - fromNode[i]);
+            }
+
+            // dist(v, L) - dist(t, L)
+            if (nodeTo[i] != Double.POSITIVE_INFINITY && toTo[i] != Double.POSITIVE_INFINITY) {
+                bound = Math.max(bound, nodeTo[i] - toTo[i]);
+            }
+        }
+
+        return bound;
+    }
+}
@@ -1,12 +1,17 @@
 package Graph;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 
 
 /**
@@ -21,13 +26,27 @@ public class Node<N, E> {
 
     private final N label;
 
+    // the dense id the graph gave this node, from 0 to the amount of nodes - 1, -1 if it is not in a graph
+    private final int id;
+
+    // the version of the graph that added this node, 0 if it is not in a graph
+    private final long version;
+
     // A Hashmap that has a key of next node label
-    // and a value of an edge that connects them
-    private HashMap<N, Edge<N, E>> nextNodeLabelToEdgeMap;
+    // and a value of an edge that connects them.
+    // Keyed by label and not by node id: the key sets are the views of
+    // getNextNodesView and getPrevNodesView, a Node made outside a graph has no id,
+    // and Graph.addEdge looks up the child's own label object, which is found by ==
+    // with a cached hash code for Strings, so no long label is compared
+    private Map<N, Edge<N, E>> nextNodeLabelToEdgeMap;
 
     // A Hashmap that has a key of previous node label
     // and a value of an edge that connects them
-    private HashMap<N, Edge<N, E>> prevNodeLabelToEdgeMap;
+    private Map<N, Edge<N, E>> prevNodeLabelToEdgeMap;
+
+    // read-only views of the keys of the maps, made the first time they are asked for
+    private Set<N> nextNodesView;
+    private Set<N> prevNodesView;
 
     // Abstraction Function:
     // Node, n, represents the Node
@@ -50,12 +69,68 @@ public class Node<N, E> {
      * @param label
      */
     public Node(N label) {
+        this(label, false);
+    }
+
+    /**
+     * @require label != null
+     * @effects Constructs a Node with the label given
+     * @param label
+     * @param concurrent if edges can be added and read from many threads at once
+     */
+    Node(N label, boolean concurrent) {
+        this(label, -1, 0, concurrent);
+    }
+
+    /**
+     * @require label != null
+     * @effects Constructs a Node with the label given
+     * @param label
+     * @param id the id the graph gives this node
+     * @param version the version of the graph that adds this node
+     * @param concurrent if edges can be added and read from many threads at once
+     */
+    Node(N label, int id, long version, boolean concurrent) {
+        this.label = label;
+        this.id = id;
+        this.version = version;
+        if (concurrent) {
+            nextNodeLabelToEdgeMap = new ConcurrentHashMap<N, Edge<N, E>>();
+            prevNodeLabelToEdgeMap = new ConcurrentHashMap<N, Edge<N, E>>();
+        } else {
+            nextNodeLabelToEdgeMap = new HashMap<N, Edge<N, E>>();
+            prevNodeLabelToEdgeMap = new HashMap<N, Edge<N, E>>();
+        }
+        checkRep();
+    }
+
+    /**
+     * Sizes the maps so they do not grow while the edges are added.
+     *
+     * @require label != null && nextCount >= 0 && prevCount >= 0
+     * @effects Constructs a Node with the label given
+     * @param label
+     * @param id the id the graph gives this node
+     * @param nextCount about how many nodes this node will be connected to
+     * @param prevCount about how many nodes will be connected to this node
+     */
+    Node(N label, int id, int nextCount, int prevCount) {
         this.label = label;
-        nextNodeLabelToEdgeMap = new HashMap<N, Edge<N, E>>();
-        prevNodeLabelToEdgeMap = new HashMap<N, Edge<N, E>>();
+        this.id = id;
+        this.version = 0;
+        nextNodeLabelToEdgeMap = new HashMap<N, Edge<N, E>>(capacityFor(nextCount));
+        prevNodeLabelToEdgeMap = new HashMap<N, Edge<N, E>>(capacityFor(prevCount));
         checkRep();
     }
 
+    /**
+     * @param count
+     * @return the capacity a HashMap needs to hold count entries without growing
+     */
+    static int capacityFor(int count) {
+        return (int) (count / 0.75f) + 1;
+    }
+
 
     /**
      * Checks that the representation invariant holds (if any).
@@ -102,6 +177,23 @@ public class Node<N, E> {
         return label;
     }
 
+    /**
+     * Searches index their arrays by this id instead of hashing the label.
+     *
+     * @return the dense id the graph gave this node, -1 if it is not in a graph
+     */
+    int getId() {
+        return id;
+    }
+
+    /**
+     *
+     * @return the version of the graph that added this node, 0 if it is not in a graph
+     */
+    long getVersion() {
+        return version;
+    }
+
     /**
      * @require N node != null
      * @param N node
@@ -144,6 +236,93 @@ public class Node<N, E> {
     }
 
 
+    /**
+     * @require e.parent == this
+     * @effects adds e to nextNodeLabelToEdgeMap with key e.child.label
+     * @param e
+     */
+    void addNextEdge(Edge<N, E> e) {
+        nextNodeLabelToEdgeMap.put(e.getChild().getLabel(), e);
+    }
+
+    /**
+     * @require e.child == this
+     * @effects adds e to prevNodeLabelToEdgeMap with key e.parent.label
+     * @param e
+     */
+    void addPrevEdge(Edge<N, E> e) {
+        prevNodeLabelToEdgeMap.put(e.getParent().getLabel(), e);
+    }
+
+    /**
+     *
+     * @return the edges going out of this node, backed by this node
+     */
+    Collection<Edge<N, E>> getNextEdges() {
+        return nextNodeLabelToEdgeMap.values();
+    }
+
+    /**
+     *
+     * @return the edges going into this node, backed by this node
+     */
+    Collection<Edge<N, E>> getPrevEdges() {
+        return prevNodeLabelToEdgeMap.values();
+    }
+
+
+    /**
+     * Does not copy the labels, the view changes when edges are added to this node
+     *
+     * @return a read-only view of the labels of the nodes connected to it
+     */
+    public Set<N> getNextNodesView() {
+
+        if (nextNodesView == null) {
+            nextNodesView = Collections.unmodifiableSet(nextNodeLabelToEdgeMap.keySet());
+        }
+        return nextNodesView;
+    }
+
+    /**
+     * Does not copy the labels, the view changes when edges are added to this node
+     *
+     * @return a read-only view of the labels of the nodes going into it
+     */
+    public Set<N> getPrevNodesView() {
+
+        if (prevNodesView == null) {
+            prevNodesView = Collections.unmodifiableSet(prevNodeLabelToEdgeMap.keySet());
+        }
+        return prevNodesView;
+    }
+
+    /**
+     * @require action != null
+     * @effects calls action with the label of every node connected to it
+     * 		and the edge going to that node, without copying anything
+     * @param action
+     */
+    public void forEachNextNode(BiConsumer<? super N, ? super Edge<N, E>> action) {
+
+        for (Entry<N, Edge<N, E>> entry : nextNodeLabelToEdgeMap.entrySet()) {
+            action.accept(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * @require action != null
+     * @effects calls action with the label of every node going into it
+     * 		and the edge coming from that node, without copying anything
+     * @param action
+     */
+    public void forEachPrevNode(BiConsumer<? super N, ? super Edge<N, E>> action) {
+
+        for (Entry<N, Edge<N, E>> entry : prevNodeLabelToEdgeMap.entrySet()) {
+            action.accept(entry.getKey(), entry.getValue());
+        }
+    }
+
     /**
      * Returns a HashSet of the labels of the nodes connected to it
      * @return a HashSet of the labels of the nodes connected to it
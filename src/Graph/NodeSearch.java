@@ -0,0 +1,233 @@
+package Graph;
+
+import java.util.Arrays;
+
+/**
+ * NodeSearch holds what one search of a Graph knows about each node, in arrays
+ * indexed by the dense id the graph gave the node, so a search never hashes a
+ * label. A Graph keeps a few NodeSearches that any thread can use again for a later
+ * search, only the nodes a search reached are cleared after it, so a search that
+ * reaches few nodes of a big graph costs as little as it would with maps.
+ *
+ * The arrays grow if a node with a bigger id is reached, a ConcurrentGraph can get
+ * new nodes while it is being searched.
+ *
+ * @param <N> where N is the label of the Node
+ * @param <E> where E is the label of the Edge
+ * @author cameronmonks
+ */
+class NodeSearch<N, E> {
+
+    // the nodes a search reached, their distance and the edge they were reached through
+    private boolean[] reached;
+    private double[] distances;
+    private Object[] nodes;
+    private Object[] edges;
+
+    // a lower bound of the distance from each node to the end of the search, for A*
+    private double[] estimates;
+
+    // the ids reached since start, so finish only clears them
+    private final IntList touched;
+
+    // the nodes waiting to be searched keyed by distance
+    private final IndexedDaryHeap heap;
+
+    // Abstraction Function:
+    // NodeSearch, s, represents the nodes touched each with the distance distances[id],
+    // the Node nodes[id], the edge edges[id] and the estimate estimates[id]
+    //
+    // Representation Invariant for every NodeSearch s:
+    // reached.length == distances.length == nodes.length == edges.length == estimates.length &&
+    // foreach id: reached[id] if and only if id is in touched &&
+    // foreach id in the heap: reached[id]
+
+    /**
+     * @require capacity >= 0
+     * @effects Constructs a NodeSearch for the ids 0 to capacity - 1 with no node reached
+     * @param capacity
+     */
+    NodeSearch(int capacity) {
+
+        reached = new boolean[capacity];
+        distances = new double[capacity];
+        nodes = new Object[capacity];
+        edges = new Object[capacity];
+        estimates = new double[capacity];
+        touched = new IntList();
+        heap = new IndexedDaryHeap(DijkstraEngine.DEFAULT_ARITY, capacity);
+
+        checkRep();
+    }
+
+    /**
+     * Checks that the representation invariant holds (if any).
+     **/
+    // Throws a RuntimeException if the rep invariant is violated.
+    private void checkRep() throws RuntimeException {
+    	/*
+    	int count = 0;
+    	for (boolean r : reached) {
+    		if (r) count++;
+    	}
+    	if (count != touched.size()) {
+    		throw new RuntimeException("touched does not match reached");
+    	}
+    	*/
+    }
+
+    /**
+     * @modifies this
+     * @effects makes the ids 0 to nodeCount - 1 usable
+     * @param nodeCount the amount of ids the graph has given out
+     */
+    void start(int nodeCount) {
+        ensureCapacity(nodeCount);
+    }
+
+    /**
+     * @modifies this
+     * @effects no node is reached and the heap is empty, the nodes and edges of the
+     * 		last search are let go of
+     */
+    void finish() {
+
+        for (int i = 0; i < touched.size(); i++) {
+            int id = touched.get(i);
+            reached[id] = false;
+            nodes[id] = null;
+            edges[id] = null;
+        }
+        touched.clear();
+        heap.clear();
+
+        checkRep();
+    }
+
+    private void ensureCapacity(int capacity) {
+
+        if (capacity <= reached.length) return;
+
+        int newCapacity = Math.max(capacity, reached.length * 2);
+        reached = Arrays.copyOf(reached, newCapacity);
+        distances = Arrays.copyOf(distances, newCapacity);
+        nodes = Arrays.copyOf(nodes, newCapacity);
+        edges = Arrays.copyOf(edges, newCapacity);
+        estimates = Arrays.copyOf(estimates, newCapacity);
+        heap.ensureCapacity(newCapacity);
+    }
+
+    /**
+     *
+     * @return the heap of the search, only ids that are reached may be added
+     */
+    IndexedDaryHeap getHeap() {
+        return heap;
+    }
+
+    /**
+     * @param id
+     * @return true if the node with id was reached since start else false
+     */
+    boolean isReached(int id) {
+        return id < reached.length && reached[id];
+    }
+
+    /**
+     * @param id
+     * @return true if the node with id was reached and is not waiting in the heap
+     */
+    boolean isSettled(int id) {
+        return isReached(id) && !heap.contains(id);
+    }
+
+    /**
+     * @modifies this
+     * @effects marks node as reached with distance through edge
+     * @param node
+     * @param distance
+     * @param edge the edge node was reached through or null
+     */
+    void reach(Node<N, E> node, double distance, Edge<N, E> edge) {
+
+        int id = node.getId();
+        ensureCapacity(id + 1);
+
+        if (!reached[id]) {
+            reached[id] = true;
+            nodes[id] = node;
+            touched.add(id);
+        }
+        distances[id] = distance;
+        edges[id] = edge;
+    }
+
+    /**
+     * @require !isSettled(node.getId())
+     * @modifies this
+     * @effects reaches node with distance through edge and puts it in the heap with
+     * 		distance as the key if node was not reached or distance is shorter
+     * @param node
+     * @param distance
+     * @param edge
+     * @return true if node was reached through edge else false
+     */
+    boolean relax(Node<N, E> node, double distance, Edge<N, E> edge) {
+
+        int id = node.getId();
+        if (isReached(id) && distance >= distances[id]) {
+            return false;
+        }
+
+        reach(node, distance, edge);
+        heap.insertOrDecrease(id, distance);
+        return true;
+    }
+
+    /**
+     * @require isReached(id)
+     * @param id
+     * @return the distance of the node with id
+     */
+    double getDistance(int id) {
+        return distances[id];
+    }
+
+    /**
+     * @require isReached(id)
+     * @param id
+     * @return the node with id
+     */
+    @SuppressWarnings("unchecked")
+    Node<N, E> getNode(int id) {
+        return (Node<N, E>) nodes[id];
+    }
+
+    /**
+     * @require isReached(id)
+     * @param id
+     * @return the edge the node with id was reached through or null
+     */
+    @SuppressWarnings("unchecked")
+    Edge<N, E> getEdge(int id) {
+        return (Edge<N, E>) edges[id];
+    }
+
+    /**
+     * @require isReached(id)
+     * @param id
+     * @return the estimate of the node with id
+     */
+    double getEstimate(int id) {
+        return estimates[id];
+    }
+
+    /**
+     * @require isReached(id)
+     * @modifies this
+     * @effects sets the estimate of the node with id
+     */
+    void setEstimate(int id, double estimate) {
+        estimates[id] = estimate;
+    }
+}
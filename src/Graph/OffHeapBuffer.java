@@ -0,0 +1,268 @@
+package Graph;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+/**
+ * OffHeapBuffer is an array of ints, longs or doubles kept outside the Java heap in
+ * direct ByteBuffers, so it can hold more than 2GB and the garbage collector never
+ * has to look at what is in it. The values are split over segments of at most
+ * 2^SEGMENT_SHIFT bytes, and a value never crosses two segments.
+ *
+ * An OffHeapBuffer holds one kind of value, elementSize says how many bytes each
+ * takes. Reads from many threads are safe once the values are written.
+ *
+ * Direct memory is only given back when the garbage collector collects its ByteBuffer,
+ * which may be never with -XX:+DisableExplicitGC. So a segment that is replaced and
+ * the whole buffer on free() are given back right away through the cleaner of the JDK,
+ * if it can be reached, else they are left to the garbage collector.
+ *
+ * @author cameronmonks
+ */
+class OffHeapBuffer {
+
+    // 128MB segments
+    static final int SEGMENT_SHIFT = 27;
+
+    // gives back the memory of a direct ByteBuffer now, does nothing if the JDK does not let it
+    private static final Consumer<ByteBuffer> FREE = findFree();
+
+    private final int elementShift;
+    private final int segmentElementShift;
+    private final long segmentElementMask;
+
+    private final ArrayList<ByteBuffer> segments;
+    private long capacity;
+
+    // Abstraction Function:
+    // OffHeapBuffer, b, represents the array of capacity values where value i is at byte
+    // (i << elementShift) of the buffers in segments one after the other
+    //
+    // Representation Invariant for every OffHeapBuffer b:
+    // every segment but the last holds exactly 1 << SEGMENT_SHIFT bytes &&
+    // capacity == the bytes of all segments >> elementShift
+
+    /**
+     * @require elementSize is 4 or 8 && capacity >= 0
+     * @effects Constructs a buffer of capacity values that are all 0
+     * @param elementSize the bytes of each value, 4 for ints or 8 for longs and doubles
+     * @param capacity the amount of values
+     */
+    OffHeapBuffer(int elementSize, long capacity) {
+
+        this.elementShift = elementSize == 8 ? 3 : 2;
+        this.segmentElementShift = SEGMENT_SHIFT - elementShift;
+        this.segmentElementMask = (1L << segmentElementShift) - 1;
+        this.segments = new ArrayList<ByteBuffer>();
+        this.capacity = 0;
+
+        ensureCapacity(capacity, false);
+
+        checkRep();
+    }
+
+    /**
+     * Checks that the representation invariant holds (if any).
+     **/
+    // Throws a RuntimeException if the rep invariant is violated.
+    private void checkRep() throws RuntimeException {
+    	/*
+    	long bytes = 0;
+    	for (int i = 0; i < segments.size(); i++) {
+    		if (i + 1 < segments.size() && segments.get(i).capacity() != 1 << SEGMENT_SHIFT) {
+    			throw new RuntimeException("segment is not full size");
+    		}
+    		bytes += segments.get(i).capacity();
+    	}
+    	if (bytes >> elementShift != capacity) {
+    		throw new RuntimeException("capacity does not match the segments");
+    	}
+    	*/
+    }
+
+    /**
+     * @return Unsafe.invokeCleaner on Java 9 and later, DirectBuffer.cleaner().clean()
+     * 		on Java 8, or nothing if neither can be reached
+     */
+    private static Consumer<ByteBuffer> findFree() {
+
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            Object unsafe = theUnsafe.get(null);
+            return (ByteBuffer buffer) -> {
+                try {
+                    invokeCleaner.invoke(unsafe, buffer);
+                } catch (ReflectiveOperationException e) {
+                    // left to the garbage collector
+                }
+            };
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // not Java 9 or later
+        }
+
+        try {
+            Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+            Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+            return (ByteBuffer buffer) -> {
+                try {
+                    Object c = cleaner.invoke(buffer);
+                    if (c != null) {
+                        clean.invoke(c);
+                    }
+                } catch (ReflectiveOperationException e) {
+                    // left to the garbage collector
+                }
+            };
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return (ByteBuffer buffer) -> { };
+        }
+    }
+
+    /**
+     * @modifies this
+     * @effects makes the buffer hold at least capacity values, the new values are 0
+     * @param capacity
+     * @param growing if more values will be added after, then the buffer at least
+     * 		doubles so adding one value at a time takes amortized constant time
+     */
+    void ensureCapacity(long capacity, boolean growing) {
+
+        long fullSegment = 1L << SEGMENT_SHIFT;
+
+        while (this.capacity < capacity) {
+
+            long neededBytes = (capacity - this.capacity) << elementShift;
+
+            // a short last segment is replaced by a bigger one, every segment before it is full
+            ByteBuffer last = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+            if (last != null && last.capacity() < fullSegment) {
+                neededBytes += last.capacity();
+                segments.remove(segments.size() - 1);
+                this.capacity -= last.capacity() >> elementShift;
+            } else {
+                last = null;
+            }
+
+            long bytes = neededBytes;
+            if (growing) {
+                bytes = Math.max(Math.max(bytes, 4096), last == null ? 0 : 2L * last.capacity());
+            }
+            bytes = Math.min(bytes, fullSegment);
+
+            ByteBuffer segment = ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder());
+            if (last != null) {
+                last.clear();
+                segment.put(last);
+                segment.clear();
+                FREE.accept(last);
+            }
+            segments.add(segment);
+            this.capacity += bytes >> elementShift;
+        }
+    }
+
+    /**
+     * The memory is given back at once, so a thread still holding a segment would
+     * read freed memory.
+     *
+     * @require no other thread is reading or writing this or will after
+     * @modifies this
+     * @effects gives back the memory of the buffer, it holds no values after and
+     * 		must not be read
+     */
+    void free() {
+
+        for (ByteBuffer segment : segments) {
+            FREE.accept(segment);
+        }
+        segments.clear();
+        capacity = 0;
+
+        checkRep();
+    }
+
+    /**
+     *
+     * @return the amount of values the buffer holds
+     */
+    long capacity() {
+        return capacity;
+    }
+
+    /**
+     *
+     * @return the bytes held outside the heap
+     */
+    long byteCount() {
+        return capacity << elementShift;
+    }
+
+    private ByteBuffer segment(long index) {
+        return segments.get((int) (index >>> segmentElementShift));
+    }
+
+    private int offset(long index) {
+        return (int) (index & segmentElementMask) << elementShift;
+    }
+
+    /**
+     * @require elementSize == 4 && 0 <= index < capacity()
+     * @param index
+     * @return the int at index
+     */
+    int getInt(long index) {
+        return segment(index).getInt(offset(index));
+    }
+
+    /**
+     * @require elementSize == 4 && 0 <= index < capacity()
+     * @modifies this
+     * @effects sets the int at index to value
+     */
+    void putInt(long index, int value) {
+        segment(index).putInt(offset(index), value);
+    }
+
+    /**
+     * @require elementSize == 8 && 0 <= index < capacity()
+     * @param index
+     * @return the long at index
+     */
+    long getLong(long index) {
+        return segment(index).getLong(offset(index));
+    }
+
+    /**
+     * @require elementSize == 8 && 0 <= index < capacity()
+     * @modifies this
+     * @effects sets the long at index to value
+     */
+    void putLong(long index, long value) {
+        segment(index).putLong(offset(index), value);
+    }
+
+    /**
+     * @require elementSize == 8 && 0 <= index < capacity()
+     * @param index
+     * @return the double at index
+     */
+    double getDouble(long index) {
+        return segment(index).getDouble(offset(index));
+    }
+
+    /**
+     * @require elementSize == 8 && 0 <= index < capacity()
+     * @modifies this
+     * @effects sets the double at index to value
+     */
+    void putDouble(long index, double value) {
+        segment(index).putDouble(offset(index), value);
+    }
+}
@@ -0,0 +1,404 @@
+package Graph;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * OffHeapGraph is a graph whose edges are labeled by double weights and whose
+ * adjacency is kept outside the Java heap, for graphs too big to hold as Node and Edge
+ * objects. Only the node labels and their ids are on the heap; each edge takes
+ * 24 bytes of direct memory, its target and weight going out of its parent and its
+ * source and weight going into its child, and is never looked at by the garbage collector.
+ *
+ * It answers the same questions as a Graph<N, Double>, where an edge with several
+ * labels is one entry per distinct weight. It is made with an OffHeapGraphBuilder and
+ * does not change after, so many threads can read it at once until it is closed.
+ *
+ * Direct memory is only given back when the garbage collector collects its buffers,
+ * so a graph that is done with should be closed, which frees it right away. Closing
+ * is not thread safe: the memory is freed at once, so every thread must be done
+ * reading the graph before close() is called and none may read it after.
+ *
+ * The edges going out of node id n are the slots getOutEdgeStart(n) to
+ * getOutEdgeEnd(n) - 1 sorted by target and then weight, and the edges going into it
+ * are the reverse slots getInEdgeStart(n) to getInEdgeEnd(n) - 1 sorted by source
+ * and then weight.
+ *
+ * @param <N> where N is the label of the Node
+ * @author cameronmonks
+ */
+public class OffHeapGraph<N> implements AutoCloseable {
+
+    // node label dictionary, the only part on the heap
+    private final ArrayList<N> nodeLabels;
+    private final HashMap<N, Integer> nodeIds;
+
+    // forward adjacency, longs indexed by node id then ints and doubles by slot
+    private final OffHeapBuffer forwardOffsets;
+    private final OffHeapBuffer forwardTargets;
+    private final OffHeapBuffer forwardWeights;
+
+    // reverse adjacency, longs indexed by node id then ints and doubles by reverse slot
+    private final OffHeapBuffer reverseOffsets;
+    private final OffHeapBuffer reverseSources;
+    private final OffHeapBuffer reverseWeights;
+
+    private final IdAdjacency adjacency = new Adjacency();
+
+    // Abstraction Function:
+    // OffHeapGraph, g, represents the graph with the nodes nodeLabels and an edge from
+    // nodeLabels.get(n) to nodeLabels.get(forwardTargets[s]) labeled forwardWeights[s]
+    // for every node id n and slot forwardOffsets[n] <= s < forwardOffsets[n + 1]
+    //
+    // Representation Invariant for every OffHeapGraph g:
+    // foreach node id n: nodeIds.get(nodeLabels.get(n)) == n &&
+    // foreach node id n: (forwardTargets, forwardWeights) from forwardOffsets[n] to
+    //      forwardOffsets[n + 1] is strictly increasing &&
+    // foreach node id n: (reverseSources, reverseWeights) from reverseOffsets[n] to
+    //      reverseOffsets[n + 1] is strictly increasing &&
+    // the reverse slots hold the same edges as the forward slots
+
+    /**
+     * Used by OffHeapGraphBuilder.
+     *
+     * @effects Constructs an OffHeapGraph on the given dictionary and adjacency
+     */
+    OffHeapGraph(ArrayList<N> nodeLabels, HashMap<N, Integer> nodeIds,
+            OffHeapBuffer forwardOffsets, OffHeapBuffer forwardTargets, OffHeapBuffer forwardWeights,
+            OffHeapBuffer reverseOffsets, OffHeapBuffer reverseSources, OffHeapBuffer reverseWeights) {
+
+        this.nodeLabels = nodeLabels;
+        this.nodeIds = nodeIds;
+        this.forwardOffsets = forwardOffsets;
+        this.forwardTargets = forwardTargets;
+        this.forwardWeights = forwardWeights;
+        this.reverseOffsets = reverseOffsets;
+        this.reverseSources = reverseSources;
+        this.reverseWeights = reverseWeights;
+
+        checkRep();
+    }
+
+    /**
+     * Checks that the representation invariant holds (if any).
+     **/
+    // Throws a RuntimeException if the rep invariant is violated.
+    private void checkRep() throws RuntimeException {
+    	/*
+    	for (int n = 0; n < nodeLabels.size(); n++) {
+    		if (nodeIds.get(nodeLabels.get(n)) != n) {
+    			throw new RuntimeException("node id does not match its label");
+    		}
+    		for (long s = getOutEdgeStart(n) + 1; s < getOutEdgeEnd(n); s++) {
+    			if (forwardTargets.getInt(s - 1) > forwardTargets.getInt(s) ||
+    					(forwardTargets.getInt(s - 1) == forwardTargets.getInt(s) &&
+    					forwardWeights.getDouble(s - 1) >= forwardWeights.getDouble(s))) {
+    				throw new RuntimeException("forward row is not sorted");
+    			}
+    		}
+    	}
+    	*/
+    }
+
+
+    /**
+     *
+     * @return the amount of nodes
+     */
+    public int nodeCount() {
+        return nodeLabels.size();
+    }
+
+    /**
+     *
+     * @return the amount of edges, counting each distinct weight between two nodes
+     */
+    public long edgeCount() {
+        return forwardOffsets.getLong(nodeLabels.size());
+    }
+
+    /**
+     *
+     * @return the bytes this graph holds outside the heap
+     */
+    public long getOffHeapByteCount() {
+        return forwardOffsets.byteCount() + forwardTargets.byteCount() + forwardWeights.byteCount() +
+                reverseOffsets.byteCount() + reverseSources.byteCount() + reverseWeights.byteCount();
+    }
+
+    /**
+     * Reading an edge of the graph after, or while it is being closed, reads freed memory.
+     *
+     * @require no other thread is using this graph or will use it after
+     * @modifies this
+     * @effects frees the memory outside the heap and removes every node, the graph
+     * 		must not be used after
+     */
+    @Override
+    public void close() {
+
+        forwardOffsets.free();
+        forwardTargets.free();
+        forwardWeights.free();
+        reverseOffsets.free();
+        reverseSources.free();
+        reverseWeights.free();
+        nodeLabels.clear();
+        nodeIds.clear();
+    }
+
+    /**
+     *
+     * @param node
+     * @return true if node is in the graph else false
+     */
+    public boolean hasNode(N node) {
+        return nodeIds.containsKey(node);
+    }
+
+    /**
+     *
+     * @param node
+     * @return the id of node or -1 if it is not in the graph
+     */
+    public int getNodeId(N node) {
+        Integer id = nodeIds.get(node);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * @require 0 <= id < nodeCount()
+     * @param id
+     * @return the label of the node with id
+     */
+    public N getNodeLabel(int id) {
+        return nodeLabels.get(id);
+    }
+
+    /**
+     *
+     * @return an ArrayList<N> of the labels of all the nodes ordered by id
+     */
+    public ArrayList<N> getNodes() {
+        return new ArrayList<N>(nodeLabels);
+    }
+
+    /**
+     * @require 0 <= id < nodeCount()
+     * @param id
+     * @return the first slot going out of id
+     */
+    public long getOutEdgeStart(int id) {
+        return forwardOffsets.getLong(id);
+    }
+
+    /**
+     * @require 0 <= id < nodeCount()
+     * @param id
+     * @return one past the last slot going out of id
+     */
+    public long getOutEdgeEnd(int id) {
+        return forwardOffsets.getLong(id + 1);
+    }
+
+    /**
+     * @require 0 <= slot < edgeCount()
+     * @param slot
+     * @return the id of the node the edge in slot goes into
+     */
+    public int getEdgeTarget(long slot) {
+        return forwardTargets.getInt(slot);
+    }
+
+    /**
+     * @require 0 <= slot < edgeCount()
+     * @param slot
+     * @return the weight of the edge in slot
+     */
+    public double getEdgeWeight(long slot) {
+        return forwardWeights.getDouble(slot);
+    }
+
+    /**
+     * @require 0 <= id < nodeCount()
+     * @param id
+     * @return the first reverse slot going into id
+     */
+    public long getInEdgeStart(int id) {
+        return reverseOffsets.getLong(id);
+    }
+
+    /**
+     * @require 0 <= id < nodeCount()
+     * @param id
+     * @return one past the last reverse slot going into id
+     */
+    public long getInEdgeEnd(int id) {
+        return reverseOffsets.getLong(id + 1);
+    }
+
+    /**
+     * @require 0 <= slot < edgeCount()
+     * @param slot
+     * @return the id of the node the edge in the reverse slot comes from
+     */
+    public int getInEdgeSource(long slot) {
+        return reverseSources.getInt(slot);
+    }
+
+    /**
+     * @require 0 <= slot < edgeCount()
+     * @param slot
+     * @return the weight of the edge in the reverse slot
+     */
+    public double getInEdgeWeight(long slot) {
+        return reverseWeights.getDouble(slot);
+    }
+
+    /**
+     *
+     * @param node
+     * @return returns a HashSet<N> of the label of the nodes that
+     * 			are connected from @param node. If node doesn't
+     * 			exist it returns empty HashSet<N>
+     */
+    public HashSet<N> getNodesConnectedTo(N node) {
+
+        HashSet<N> nextNodes = new HashSet<N>();
+        int id = getNodeId(node);
+        if (id == -1) return nextNodes;
+
+        for (long s = getOutEdgeStart(id); s < getOutEdgeEnd(id); s++) {
+            nextNodes.add(nodeLabels.get(forwardTargets.getInt(s)));
+        }
+        return nextNodes;
+    }
+
+    /**
+     *
+     * @param node
+     * @return returns a HashSet<N> of the label of the nodes that
+     * 			go into @param node. If node doesn't
+     * 			exist it returns empty HashSet<N>
+     */
+    public HashSet<N> getNodesGoingIntoNode(N node) {
+
+        HashSet<N> prevNodes = new HashSet<N>();
+        int id = getNodeId(node);
+        if (id == -1) return prevNodes;
+
+        for (long s = getInEdgeStart(id); s < getInEdgeEnd(id); s++) {
+            prevNodes.add(nodeLabels.get(reverseSources.getInt(s)));
+        }
+        return prevNodes;
+    }
+
+    /**
+     * @require 0 <= fromId, toId < nodeCount()
+     * @param fromId
+     * @param toId
+     * @return the first slot going from fromId to toId, the one with the smallest
+     * 		weight, or -1 if there is none
+     */
+    public long getEdge(int fromId, int toId) {
+
+        long low = getOutEdgeStart(fromId);
+        long high = getOutEdgeEnd(fromId);
+
+        // the first slot whose target is not less than toId
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (forwardTargets.getInt(mid) < toId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < getOutEdgeEnd(fromId) && forwardTargets.getInt(low) == toId ? low : -1;
+    }
+
+    /**
+     *
+     * @param fromNode
+     * @param toNode
+     * @return a HashSet<Double> of the weights between the nodes, fromNode to toNode
+     * 		if their doesn't exist an edge between them for any reason it returns
+     * 		the empty set
+     */
+    public HashSet<Double> getEdgesBetweenNodes(N fromNode, N toNode) {
+
+        HashSet<Double> weights = new HashSet<Double>();
+        int from = getNodeId(fromNode);
+        int to = getNodeId(toNode);
+        if (from == -1 || to == -1) return weights;
+
+        long end = getOutEdgeEnd(from);
+        for (long s = getEdge(from, to); s != -1 && s < end && forwardTargets.getInt(s) == to; s++) {
+            weights.add(forwardWeights.getDouble(s));
+        }
+        return weights;
+    }
+
+    /**
+     * The adjacency IdDijkstra searches, an edge is its forward or reverse slot.
+     */
+    private final class Adjacency implements IdAdjacency {
+
+        @Override
+        public int nodeCount() {
+            return nodeLabels.size();
+        }
+
+        @Override
+        public long firstEdge(int node, boolean reverseOrder) {
+            long start = reverseOrder ? getInEdgeStart(node) : getOutEdgeStart(node);
+            long end = reverseOrder ? getInEdgeEnd(node) : getOutEdgeEnd(node);
+            return start < end ? start : -1;
+        }
+
+        @Override
+        public long nextEdge(int node, long edge, boolean reverseOrder) {
+            long end = reverseOrder ? getInEdgeEnd(node) : getOutEdgeEnd(node);
+            return edge + 1 < end ? edge + 1 : -1;
+        }
+
+        @Override
+        public int edgeEnd(long edge, boolean reverseOrder) {
+            return reverseOrder ? reverseSources.getInt(edge) : forwardTargets.getInt(edge);
+        }
+
+        @Override
+        public double edgeWeight(long edge, boolean reverseOrder) {
+            return reverseOrder ? reverseWeights.getDouble(edge) : forwardWeights.getDouble(edge);
+        }
+    }
+
+    /**
+     * Same as Graph.dijkstra(headNode, reverseOrder, (Double d) -> d).
+     *
+     * @param headNode the start of the node in the dijkstra
+     * @param reverseOrder if you want to the edges direction to be flipped
+     * @return Map<N, Double> where each key is the label of the nodes
+     * 		connected to headNode and the value is the distance from headNode
+     */
+    public Map<N, Double> dijkstra(N headNode, boolean reverseOrder) {
+        return IdDijkstra.dijkstra(adjacency, nodeLabels::get, headNode, getNodeId(headNode), reverseOrder);
+    }
+
+    /**
+     * Same as Graph.findPath(startNode, toNode, (Double d) -> d), stops as soon as toNode
+     * is settled.
+     *
+     * @param startNode
+     * @param toNode
+     * @return an ArrayList of the path. At each element is a Entry<Entry<node1, node2>, weight> where
+     * 		the weight is of the next edge to take to get close to toNode from startNode. If their
+     * 		is not a path then it returns null
+     */
+    public ArrayList<Entry<Entry<N,N>, Double>> findPath(N startNode, N toNode) {
+        return IdDijkstra.findPath(adjacency, nodeLabels::get, startNode, getNodeId(startNode), toNode, getNodeId(toNode));
+    }
+}
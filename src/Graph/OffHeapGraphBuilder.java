@@ -0,0 +1,278 @@
+package Graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * OffHeapGraphBuilder makes an OffHeapGraph. The edges added are written outside the
+ * heap as they come in, 16 bytes each, and build() sorts them into the graph's
+ * adjacency there too, so the heap only ever holds the node labels and a few ints
+ * and longs per node. The buffers the edges are written to and the ones build()
+ * is done with are freed right away instead of waiting for the garbage collector.
+ *
+ * Parallel edges with the same weight become one edge, like adding the same label
+ * twice to a Graph.
+ *
+ * @param <N> where N is the label of the Node
+ * @author cameronmonks
+ */
+public class OffHeapGraphBuilder<N> {
+
+    private HashMap<N, Integer> nodeIds;
+    private ArrayList<N> nodeLabels;
+
+    // the parent id, child id and weight of every edge added, in the order they were added
+    private OffHeapBuffer parents;
+    private OffHeapBuffer children;
+    private OffHeapBuffer weights;
+    private long edgeCount;
+
+    // Abstraction Function:
+    // OffHeapGraphBuilder, b, represents the graph with the nodes nodeLabels and an edge from
+    // nodeLabels.get(parents[k]) to nodeLabels.get(children[k]) weighing weights[k] for every k < edgeCount
+    //
+    // Representation Invariant for every OffHeapGraphBuilder b:
+    // foreach i: nodeIds.get(nodeLabels.get(i)) == i &&
+    // edgeCount <= parents.capacity(), children.capacity(), weights.capacity()
+
+    /**
+     * @effects Constructs a builder with no nodes or edges
+     */
+    public OffHeapGraphBuilder() {
+        this(16);
+    }
+
+    /**
+     * @require expectedNodeCount >= 0
+     * @effects Constructs a builder with no nodes or edges that holds about
+     * 		expectedNodeCount node labels without growing
+     * @param expectedNodeCount
+     */
+    public OffHeapGraphBuilder(int expectedNodeCount) {
+        this(expectedNodeCount, 0);
+    }
+
+    /**
+     * @require expectedNodeCount >= 0 && expectedEdgeCount >= 0
+     * @effects Constructs a builder with no nodes or edges that holds about
+     * 		expectedNodeCount node labels and expectedEdgeCount edges without growing
+     * @param expectedNodeCount
+     * @param expectedEdgeCount
+     */
+    public OffHeapGraphBuilder(int expectedNodeCount, long expectedEdgeCount) {
+
+        nodeIds = new HashMap<N, Integer>(Node.capacityFor(expectedNodeCount));
+        nodeLabels = new ArrayList<N>(expectedNodeCount);
+        parents = new OffHeapBuffer(4, expectedEdgeCount);
+        children = new OffHeapBuffer(4, expectedEdgeCount);
+        weights = new OffHeapBuffer(8, expectedEdgeCount);
+        edgeCount = 0;
+
+        checkRep();
+    }
+
+    /**
+     * Checks that the representation invariant holds (if any).
+     **/
+    // Throws a RuntimeException if the rep invariant is violated.
+    private void checkRep() throws RuntimeException {
+    	/*
+    	for (int i = 0; i < nodeLabels.size(); i++) {
+    		if (nodeIds.get(nodeLabels.get(i)) != i) {
+    			throw new RuntimeException("node id does not match its label");
+    		}
+    	}
+    	*/
+    }
+
+    private void clearEdges() {
+        parents.free();
+        children.free();
+        weights.free();
+        parents = new OffHeapBuffer(4, 0);
+        children = new OffHeapBuffer(4, 0);
+        weights = new OffHeapBuffer(8, 0);
+        edgeCount = 0;
+    }
+
+    // the id of node, adding it if it is new
+    private int idOf(N node) {
+
+        Integer id = nodeIds.get(node);
+        if (id == null) {
+            id = nodeLabels.size();
+            nodeIds.put(node, id);
+            nodeLabels.add(node);
+        }
+        return id;
+    }
+
+    /**
+     * @modifies this
+     * @effects adds node if it was not already added
+     * @param node
+     * @return true if node is added else false
+     */
+    public boolean addNode(N node) {
+
+        int count = nodeLabels.size();
+        return idOf(node) == count;
+    }
+
+    /**
+     * @require parentNode != null && childNode != null
+     * @modifies this
+     * @effects adds an edge going from parentNode to childNode weighing weight, and
+     * 		adds parentNode and childNode if they were not already added
+     * @param parentNode
+     * @param childNode
+     * @param weight
+     */
+    public void addEdge(N parentNode, N childNode, double weight) {
+
+        int parent = idOf(parentNode);
+        int child = idOf(childNode);
+
+        if (edgeCount == weights.capacity()) {
+            parents.ensureCapacity(edgeCount + 1, true);
+            children.ensureCapacity(edgeCount + 1, true);
+            weights.ensureCapacity(edgeCount + 1, true);
+        }
+        parents.putInt(edgeCount, parent);
+        children.putInt(edgeCount, child);
+        weights.putDouble(edgeCount, weight);
+        edgeCount++;
+    }
+
+    /**
+     *
+     * @return the amount of nodes added
+     */
+    public int nodeCount() {
+        return nodeLabels.size();
+    }
+
+    /**
+     *
+     * @return the amount of edges added, counting each parallel edge
+     */
+    public long edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * @modifies this
+     * @effects removes every node and edge from this builder
+     * @return a new OffHeapGraph with every node and edge added
+     */
+    public OffHeapGraph<N> build() {
+
+        int nodeCount = nodeLabels.size();
+
+        // place the edges in the rows of their parents
+        long[] rowStarts = countRows(parents, nodeCount);
+        OffHeapBuffer forwardTargets = new OffHeapBuffer(4, edgeCount);
+        OffHeapBuffer forwardWeights = new OffHeapBuffer(8, edgeCount);
+
+        long[] next = Arrays.copyOf(rowStarts, nodeCount);
+        for (long k = 0; k < edgeCount; k++) {
+            long slot = next[parents.getInt(k)]++;
+            forwardTargets.putInt(slot, children.getInt(k));
+            forwardWeights.putDouble(slot, weights.getDouble(k));
+        }
+        clearEdges();
+
+        // sort each row by target and weight and drop repeated weights, rows only
+        // get shorter so they can be moved down in place
+        OffHeapBuffer forwardOffsets = new OffHeapBuffer(8, nodeCount + 1L);
+        long[] keys = new long[16];
+        double[] rowWeights = new double[16];
+        int[] inDegrees = new int[nodeCount];
+        long written = 0;
+
+        for (int n = 0; n < nodeCount; n++) {
+
+            forwardOffsets.putLong(n, written);
+            int length = (int) (rowStarts[n + 1] - rowStarts[n]);
+            if (keys.length < length) {
+                keys = new long[length];
+                rowWeights = new double[length];
+            }
+
+            for (int i = 0; i < length; i++) {
+                keys[i] = ((long) forwardTargets.getInt(rowStarts[n] + i) << 32) | i;
+            }
+            Arrays.sort(keys, 0, length);
+            for (int i = 0; i < length; i++) {
+                rowWeights[i] = forwardWeights.getDouble(rowStarts[n] + (int) keys[i]);
+            }
+
+            int i = 0;
+            while (i < length) {
+
+                int target = (int) (keys[i] >>> 32);
+                int end = i;
+                while (end < length && (int) (keys[end] >>> 32) == target) {
+                    end++;
+                }
+                Arrays.sort(rowWeights, i, end);
+
+                for (int j = i; j < end; j++) {
+                    if (j > i && Double.valueOf(rowWeights[j]).equals(rowWeights[j - 1])) {
+                        continue;
+                    }
+                    forwardTargets.putInt(written, target);
+                    forwardWeights.putDouble(written, rowWeights[j]);
+                    inDegrees[target]++;
+                    written++;
+                }
+                i = end;
+            }
+        }
+        forwardOffsets.putLong(nodeCount, written);
+
+        // the reverse rows, filled by source so they come out sorted by source and weight
+        OffHeapBuffer reverseOffsets = new OffHeapBuffer(8, nodeCount + 1L);
+        long[] reverseNext = new long[nodeCount];
+        long start = 0;
+        for (int n = 0; n < nodeCount; n++) {
+            reverseOffsets.putLong(n, start);
+            reverseNext[n] = start;
+            start += inDegrees[n];
+        }
+        reverseOffsets.putLong(nodeCount, start);
+
+        OffHeapBuffer reverseSources = new OffHeapBuffer(4, written);
+        OffHeapBuffer reverseWeights = new OffHeapBuffer(8, written);
+        for (int n = 0; n < nodeCount; n++) {
+            for (long s = forwardOffsets.getLong(n); s < forwardOffsets.getLong(n + 1); s++) {
+                long slot = reverseNext[forwardTargets.getInt(s)]++;
+                reverseSources.putInt(slot, n);
+                reverseWeights.putDouble(slot, forwardWeights.getDouble(s));
+            }
+        }
+
+        // the graph takes the dictionary as it is, copying it would hold it twice
+        OffHeapGraph<N> graph = new OffHeapGraph<N>(nodeLabels, nodeIds,
+                forwardOffsets, forwardTargets, forwardWeights, reverseOffsets, reverseSources, reverseWeights);
+
+        nodeIds = new HashMap<N, Integer>();
+        nodeLabels = new ArrayList<N>();
+        return graph;
+    }
+
+    // returns where the row of each key starts when keys[0 .. edgeCount - 1] are grouped by key,
+    // followed by edgeCount
+    private long[] countRows(OffHeapBuffer keys, int keyCount) {
+
+        long[] starts = new long[keyCount + 1];
+        for (long k = 0; k < edgeCount; k++) {
+            starts[keys.getInt(k) + 1]++;
+        }
+        for (int i = 0; i < keyCount; i++) {
+            starts[i + 1] += starts[i];
+        }
+        return starts;
+    }
+}
@@ -0,0 +1,275 @@
+package Graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * PathCache remembers the results of findPath and dijkstra on a Graph so asking
+ * for the same nodes and weights again does not search again. It holds at most
+ * maximumSize results and forgets the least recently used one when it is full.
+ *
+ * Every result is tagged with getVersion() of the graph from before the search,
+ * and once the graph has a newer version every result is forgotten, so a result
+ * is never older than the last node or edge added.
+ *
+ * Results are keyed by the nodes and by the toDouble object itself, so pass the same
+ * toDouble every time. The returned paths and maps are shared and can not be changed.
+ * A PathCache is thread safe, the searches themselves run outside the lock.
+ *
+ * @param <N> where N is the label of the Node
+ * @param <E> where E is the label of the Edge
+ * @author cameronmonks
+ */
+public class PathCache<N, E> {
+
+    // stands for a findPath that found no path
+    private static final Object NO_PATH = new Object();
+
+    private final Graph<N, E> graph;
+    private final int maximumSize;
+
+    // least recently used first
+    private final LinkedHashMap<Key, Object> results;
+
+    // the version of graph every result in results is for
+    private long version;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long invalidationCount;
+
+    // Abstraction Function:
+    // PathCache, c, represents the map from each Key k in results to the result
+    // of its search on graph in version
+    //
+    // Representation Invariant for every PathCache c:
+    // graph != null && maximumSize > 0 && results.size() <= maximumSize
+
+    /**
+     * @require graph != null && maximumSize > 0
+     * @effects Constructs an empty cache for graph
+     * @param graph the graph to search
+     * @param maximumSize the most results to hold
+     */
+    public PathCache(Graph<N, E> graph, int maximumSize) {
+
+        this.graph = graph;
+        this.maximumSize = maximumSize;
+        this.results = new LinkedHashMap<Key, Object>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+                if (size() > PathCache.this.maximumSize) {
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.version = graph.getVersion();
+
+        checkRep();
+    }
+
+    /**
+     * Checks that the representation invariant holds (if any).
+     **/
+    // Throws a RuntimeException if the rep invariant is violated.
+    private void checkRep() throws RuntimeException {
+    	/*
+    	if (results.size() > maximumSize) {
+    		throw new RuntimeException("cache holds too many results");
+    	}
+    	*/
+    }
+
+    /**
+     * Same as Graph.findPath(startNode, toNode, toDouble) but remembers the result.
+     *
+     * @param startNode
+     * @param toNode
+     * @param toDouble should convert the edges to a double
+     * @return a read-only list of the path in the format of Graph.findPath or null if
+     * 		their is not a path
+     */
+    @SuppressWarnings("unchecked")
+    public List<Entry<Entry<N,N>, E>> findPath(N startNode, N toNode, ToDoubleFunction<E> toDouble) {
+
+        Key key = new Key(Key.PATH, startNode, toNode, toDouble);
+        long searchVersion = graph.getVersion();
+
+        Object result = lookUp(key, searchVersion);
+        if (result == null) {
+            ArrayList<Entry<Entry<N,N>, E>> path = graph.findPath(startNode, toNode, toDouble);
+            result = path == null ? NO_PATH : Collections.unmodifiableList(path);
+            store(key, result, searchVersion);
+        }
+
+        return result == NO_PATH ? null : (List<Entry<Entry<N,N>, E>>) result;
+    }
+
+    /**
+     * Same as Graph.dijkstra(headNode, reverseOrder, toDouble) but remembers the result.
+     *
+     * @param headNode the start of the node in the dijkstra
+     * @param reverseOrder if you want to the edges direction to be flipped
+     * @param toDouble should convert the edges to a double
+     * @return a read-only Map<N, Double> where each key is the label of the nodes
+     * 		connected to headNode and the value is the distance from headNode
+     */
+    @SuppressWarnings("unchecked")
+    public Map<N, Double> dijkstra(N headNode, boolean reverseOrder, ToDoubleFunction<E> toDouble) {
+
+        Key key = new Key(reverseOrder ? Key.REVERSE_DISTANCES : Key.DISTANCES, headNode, null, toDouble);
+        long searchVersion = graph.getVersion();
+
+        Object result = lookUp(key, searchVersion);
+        if (result == null) {
+            result = Collections.unmodifiableMap(graph.dijkstra(headNode, reverseOrder, toDouble));
+            store(key, result, searchVersion);
+        }
+
+        return (Map<N, Double>) result;
+    }
+
+    /**
+     * @modifies this
+     * @effects forgets every result if the graph changed and counts a hit or a miss
+     * @return the result of key or null if it has none
+     */
+    private synchronized Object lookUp(Key key, long currentVersion) {
+
+        if (currentVersion > version) {
+            invalidationCount += results.size();
+            results.clear();
+            version = currentVersion;
+        }
+
+        // a caller that read an older version than another caller can not use the results
+        Object result = currentVersion == version ? results.get(key) : null;
+        if (result == null) {
+            missCount++;
+        } else {
+            hitCount++;
+        }
+        return result;
+    }
+
+    /**
+     * @modifies this
+     * @effects remembers result for key if the graph was not changed since lookUp
+     */
+    private synchronized void store(Key key, Object result, long searchVersion) {
+
+        if (searchVersion == version) {
+            results.put(key, result);
+        }
+        checkRep();
+    }
+
+    /**
+     * @modifies this
+     * @effects forgets every result, the counters are kept
+     */
+    public synchronized void clear() {
+        results.clear();
+    }
+
+    /**
+     *
+     * @return the amount of results held
+     */
+    public synchronized int size() {
+        return results.size();
+    }
+
+    /**
+     *
+     * @return the most results held
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     *
+     * @return how many calls were answered from the cache
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     *
+     * @return how many calls had to search the graph
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     *
+     * @return how many results were forgotten to make room for newer ones
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     *
+     * @return how many results were forgotten because the graph changed
+     */
+    public synchronized long getInvalidationCount() {
+        return invalidationCount;
+    }
+
+    /**
+     * Key is the kind of search, its nodes and its weights.
+     */
+    private static final class Key {
+
+        static final int PATH = 0;
+        static final int DISTANCES = 1;
+        static final int REVERSE_DISTANCES = 2;
+
+        private final int kind;
+        private final Object from;
+        private final Object to;
+        private final Object weights;
+
+        Key(int kind, Object from, Object to, Object weights) {
+            this.kind = kind;
+            this.from = from;
+            this.to = to;
+            this.weights = weights;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (!(o instanceof Key)) return false;
+
+            Key k = (Key) o;
+            return kind == k.kind && weights == k.weights &&
+                    (from == null ? k.from == null : from.equals(k.from)) &&
+                    (to == null ? k.to == null : to.equals(k.to));
+        }
+
+        @Override
+        public int hashCode() {
+
+            int h = kind;
+            h = 31 * h + (from == null ? 0 : from.hashCode());
+            h = 31 * h + (to == null ? 0 : to.hashCode());
+            h = 31 * h + System.identityHashCode(weights);
+            return h;
+        }
+    }
+}
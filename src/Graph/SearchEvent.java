@@ -0,0 +1,51 @@
+package Graph;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * SearchEvent is the Java Flight Recorder event committed for each dijkstra and
+ * findPath of a Graph. Needs Java 11, it is built apart from the rest of the
+ * library and only used through JfrSearchRecorder.
+ *
+ * @author cameronmonks
+ */
+@Name("Graph.Search")
+@Label("Graph Search")
+@Category("Graph")
+@Description("A shortest path search of a Graph")
+@StackTrace(false)
+class SearchEvent extends jdk.jfr.Event {
+
+    @Label("Search")
+    String search;
+
+    @Label("Nodes Settled")
+    long nodesSettled;
+
+    @Label("Heap Pushes")
+    long heapPushes;
+
+    @Label("Heap Decreases")
+    long heapDecreases;
+
+    @Label("Heap Pops")
+    long heapPops;
+
+    @Label("Stale Pops")
+    long stalePops;
+
+    @Label("Edges Relaxed")
+    long edgesRelaxed;
+
+    @Label("Labels Evaluated")
+    long labelsEvaluated;
+
+    @Label("Wall Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long wallNanos;
+}
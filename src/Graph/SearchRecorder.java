@@ -0,0 +1,68 @@
+package Graph;
+
+/**
+ * SearchRecorder commits a Java Flight Recorder event for each search. The events
+ * are in JfrSearchRecorder and SearchEvent, which need jdk.jfr and are built for
+ * Java 11. On a JVM or a build without them the searches get a SearchRecorder that
+ * is never enabled.
+ *
+ * @author cameronmonks
+ */
+abstract class SearchRecorder {
+
+    // the JfrSearchRecorder if it could be loaded, else one that is never enabled
+    private static final SearchRecorder RECORDER = load();
+
+    private static SearchRecorder load() {
+
+        try {
+            return (SearchRecorder) Class.forName("Graph.JfrSearchRecorder").getDeclaredConstructor().newInstance();
+        } catch (Throwable e) {
+            // jdk.jfr or the Java 11 classes are missing
+            return new SearchRecorder() {
+                @Override
+                boolean isEnabled() {
+                    return false;
+                }
+
+                @Override
+                Object begin() {
+                    return null;
+                }
+
+                @Override
+                void commit(Object event, String search, SearchStats stats) {
+                }
+            };
+        }
+    }
+
+    /**
+     *
+     * @return the SearchRecorder the searches use
+     */
+    static SearchRecorder get() {
+        return RECORDER;
+    }
+
+    /**
+     *
+     * @return true if a recording wants the events of the searches else false
+     */
+    abstract boolean isEnabled();
+
+    /**
+     *
+     * @return an event whose time has started or null if no recording wants it
+     */
+    abstract Object begin();
+
+    /**
+     * @require event was returned by begin
+     * @effects commits event with the counts of stats
+     * @param event
+     * @param search the name of the search
+     * @param stats the counts of the search
+     */
+    abstract void commit(Object event, String search, SearchStats stats);
+}
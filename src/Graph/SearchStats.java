@@ -0,0 +1,289 @@
+package Graph;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * SearchStats counts the work one or more searches of a Graph did. Pass one to
+ * dijkstra or findPath to have it counted, the searches without a SearchStats
+ * only check for null. The counts add up over searches until reset is called.
+ *
+ * When Java Flight Recorder is running and the Graph.Search event is enabled every
+ * dijkstra and findPath also commits a Graph.Search event with these counts, see SearchRecorder.
+ *
+ * A SearchStats is not thread safe, use one per thread.
+ *
+ * @author cameronmonks
+ */
+public final class SearchStats {
+
+    // the searches that were counted
+    long searches;
+
+    // the nodes taken out of the heap whose distance is final
+    long nodesSettled;
+
+    // the nodes put in the heap for the first time
+    long heapPushes;
+
+    // a node in the heap was given a shorter distance
+    long heapDecreases;
+
+    // the nodes taken out of the heap
+    long heapPops;
+
+    // the nodes taken out of the heap that were already settled
+    long stalePops;
+
+    // the edges weighed
+    long edgesRelaxed;
+
+    // the labels given to toDouble
+    long labelsEvaluated;
+
+    // the time the searches took
+    long wallNanos;
+
+    // System.nanoTime() when the running search started
+    private long startNanos;
+
+    // the Flight Recorder event of the running search or null
+    private Object event;
+
+    // the counts when the running search started if it has an event
+    private SearchStats before;
+
+    // Abstraction Function:
+    // SearchStats, s, represents the sum of the counts of the searches counted since
+    // it was made or reset
+    //
+    // Representation Invariant for every SearchStats s:
+    // every count >= 0 &&
+    // nodesSettled <= heapPops &&
+    // heapPops <= heapPushes
+
+    /**
+     * @effects Constructs a SearchStats with every count 0
+     */
+    public SearchStats() {
+        checkRep();
+    }
+
+    /**
+     * Checks that the representation invariant holds (if any).
+     **/
+    // Throws a RuntimeException if the rep invariant is violated.
+    private void checkRep() throws RuntimeException {
+    	/*
+    	if (nodesSettled > heapPops || heapPops > heapPushes) {
+    		throw new RuntimeException("more nodes popped than pushed");
+    	}
+    	*/
+    }
+
+    /**
+     * @param stats the SearchStats given to the search or null
+     * @return stats, a new SearchStats if stats is null and a Flight Recorder event
+     * 		will be committed, else null. Started if not null
+     */
+    static SearchStats begin(SearchStats stats) {
+
+        if (stats == null) {
+            if (!SearchRecorder.get().isEnabled()) {
+                return null;
+            }
+            stats = new SearchStats();
+        }
+
+        stats.event = SearchRecorder.get().begin();
+        if (stats.event != null) {
+            stats.before = stats.copy();
+        }
+        stats.searches++;
+        stats.startNanos = System.nanoTime();
+        return stats;
+    }
+
+    /**
+     * @require begin returned this
+     * @modifies this
+     * @effects adds the time since begin to the wall time and commits the
+     * 		Flight Recorder event of the search if there is one
+     * @param search the name of the search, "dijkstra" or "findPath"
+     */
+    void end(String search) {
+
+        wallNanos += System.nanoTime() - startNanos;
+        if (event != null) {
+            SearchRecorder.get().commit(event, search, since(before));
+            event = null;
+            before = null;
+        }
+
+        checkRep();
+    }
+
+    private SearchStats copy() {
+        return since(new SearchStats());
+    }
+
+    /**
+     * @param start the counts at an earlier time
+     * @return the counts added since start
+     */
+    private SearchStats since(SearchStats start) {
+
+        SearchStats difference = new SearchStats();
+        difference.searches = searches - start.searches;
+        difference.nodesSettled = nodesSettled - start.nodesSettled;
+        difference.heapPushes = heapPushes - start.heapPushes;
+        difference.heapDecreases = heapDecreases - start.heapDecreases;
+        difference.heapPops = heapPops - start.heapPops;
+        difference.stalePops = stalePops - start.stalePops;
+        difference.edgesRelaxed = edgesRelaxed - start.edgesRelaxed;
+        difference.labelsEvaluated = labelsEvaluated - start.labelsEvaluated;
+        difference.wallNanos = wallNanos - start.wallNanos;
+        return difference;
+    }
+
+    /**
+     * Called before the weigher of a search is made, so the labels of a search that
+     * is only counted for a Flight Recorder event are counted too.
+     *
+     * @param stats the SearchStats given to the search or null
+     * @return stats, a new SearchStats if stats is null and a Flight Recorder event
+     * 		will be committed, else null
+     */
+    static SearchStats orRecorded(SearchStats stats) {
+
+        if (stats == null && SearchRecorder.get().isEnabled()) {
+            return new SearchStats();
+        }
+        return stats;
+    }
+
+    /**
+     * @param stats counts the labels or null
+     * @param toDouble
+     * @return toDouble if stats is null, else toDouble counting each label it is
+     * 		given in stats.labelsEvaluated
+     */
+    static <E> ToDoubleFunction<E> counting(SearchStats stats, ToDoubleFunction<E> toDouble) {
+
+        if (stats == null) {
+            return toDouble;
+        }
+
+        return (E label) -> {
+            stats.labelsEvaluated++;
+            return toDouble.applyAsDouble(label);
+        };
+    }
+
+    /**
+     *
+     * @return the amount of searches counted
+     */
+    public long getSearches() {
+        return searches;
+    }
+
+    /**
+     *
+     * @return the amount of nodes whose shortest distance was found
+     */
+    public long getNodesSettled() {
+        return nodesSettled;
+    }
+
+    /**
+     *
+     * @return the amount of nodes put in the heap
+     */
+    public long getHeapPushes() {
+        return heapPushes;
+    }
+
+    /**
+     *
+     * @return the amount of times a node waiting in the heap was given a shorter distance
+     */
+    public long getHeapDecreases() {
+        return heapDecreases;
+    }
+
+    /**
+     *
+     * @return the amount of nodes taken out of the heap
+     */
+    public long getHeapPops() {
+        return heapPops;
+    }
+
+    /**
+     * The heap of a Graph search decreases the key of a node that is already in it
+     * instead of pushing it again, so this is 0 for them.
+     *
+     * @return the amount of nodes taken out of the heap that were already settled
+     */
+    public long getStalePops() {
+        return stalePops;
+    }
+
+    /**
+     *
+     * @return the amount of edges weighed
+     */
+    public long getEdgesRelaxed() {
+        return edgesRelaxed;
+    }
+
+    /**
+     * Only the searches given a toDouble count labels, an EdgeWeigher does not say
+     * how many labels it looked at.
+     *
+     * @return the amount of labels given to toDouble
+     */
+    public long getLabelsEvaluated() {
+        return labelsEvaluated;
+    }
+
+    /**
+     *
+     * @return the nanoseconds the searches took
+     */
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    /**
+     * @modifies this
+     * @effects sets every count to 0
+     */
+    public void reset() {
+
+        searches = 0;
+        nodesSettled = 0;
+        heapPushes = 0;
+        heapDecreases = 0;
+        heapPops = 0;
+        stalePops = 0;
+        edgesRelaxed = 0;
+        labelsEvaluated = 0;
+        wallNanos = 0;
+
+        checkRep();
+    }
+
+    @Override
+    public String toString() {
+        return "SearchStats{searches=" + searches +
+                ", nodesSettled=" + nodesSettled +
+                ", heapPushes=" + heapPushes +
+                ", heapDecreases=" + heapDecreases +
+                ", heapPops=" + heapPops +
+                ", stalePops=" + stalePops +
+                ", edgesRelaxed=" + edgesRelaxed +
+                ", labelsEvaluated=" + labelsEvaluated +
+                ", wallNanos=" + wallNanos + "}";
+    }
+}
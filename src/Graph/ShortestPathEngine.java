@@ -0,0 +1,55 @@
+package Graph;
+
+import java.util.Map;
+
+/**
+ * ShortestPathEngine finds the shortest distances from one node of a GraphSnapshot
+ * to every node it can reach. The engines give the same distances and only differ
+ * in how they find them, see DijkstraEngine and DeltaSteppingEngine.
+ *
+ * @param <N> where N is the label of the Node
+ * @param <E> where E is the label of the Edge
+ * @author cameronmonks
+ */
+public interface ShortestPathEngine<N, E> {
+
+    /**
+     *
+     * @return the snapshot this engine searches
+     */
+    GraphSnapshot<N, E> getSnapshot();
+
+    /**
+     * @require 0 <= source < getSnapshot().nodeCount()
+     * @modifies this
+     * @effects finds the shortest distance from source to every node connected to source
+     * @param source the id of the start node
+     * @param reverseOrder if you want to the edges direction to be flipped
+     */
+    void run(int source, boolean reverseOrder);
+
+    /**
+     * @require 0 <= node < getSnapshot().nodeCount()
+     * @param node
+     * @return true if the last run reached node else false
+     */
+    boolean isReached(int node);
+
+    /**
+     * @require 0 <= node < getSnapshot().nodeCount()
+     * @param node
+     * @return the distance of node in the last run or infinity if it was not reached
+     */
+    double getDistance(int node);
+
+    /**
+     * Same as Graph.dijkstra(headNode, reverseOrder, toDouble) with the toDouble
+     * the engine was made with.
+     *
+     * @param headNode the start of the node in the dijkstra
+     * @param reverseOrder if you want to the edges direction to be flipped
+     * @return Map<N, Double> where each key is the label of the nodes
+     * 		connected to headNode and the value is the distance from headNode
+     */
+    Map<N, Double> dijkstra(N headNode, boolean reverseOrder);
+}
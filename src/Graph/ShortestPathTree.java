@@ -0,0 +1,271 @@
+package Graph;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.PriorityQueue;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * ShortestPathTree keeps the shortest distance and path from one root node to every
+ * node it can reach, or from every node that can reach it with reverseOrder, while
+ * edges are added to its Graph. A graph only grows, so a new edge or label can only
+ * make distances smaller: the tree listens to the graph and only looks at the nodes
+ * whose distance the new edge makes smaller, instead of running dijkstra again.
+ *
+ * The graph holds on to the tree until close() is called. A tree is thread safe,
+ * on a ConcurrentGraph it is updated from the threads that add edges.
+ *
+ * @param <N> where N is the label of the Node
+ * @param <E> where E is the label of the Edge
+ * @author cameronmonks
+ */
+public class ShortestPathTree<N, E> implements GraphListener<N, E> {
+
+    private final Graph<N, E> graph;
+    private final N root;
+    private final boolean reverseOrder;
+    private final ToDoubleFunction<E> toDouble;
+
+    // the shortest distance from root to each node reached, the same as graph.dijkstra(root, reverseOrder, toDouble)
+    private final Map<N, Double> distances;
+
+    // the last edge on the shortest path to each node reached other than root
+    private final Map<N, Edge<N, E>> treeEdges;
+
+    // the amount of nodes whose distance the last update made smaller
+    private int lastAffectedCount;
+
+    // Abstraction Function:
+    // ShortestPathTree, t, represents the shortest path tree of graph rooted at root where
+    // the distance of node n is distances.get(n) and the edge into n in the tree is treeEdges.get(n)
+    //
+    // Representation Invariant for every ShortestPathTree t:
+    // distances.get(root) == 0 &&
+    // foreach n in treeEdges: distances.get(n) == distances.get(the other end of treeEdges.get(n)) +
+    //      the weight of treeEdges.get(n)
+    // foreach edge e from a reached node u to v: distances.get(v) <= distances.get(u) + the weight of e
+
+    /**
+     * @require graph != null && toDouble != null
+     * @effects Constructs the tree of root in graph and starts listening to graph
+     * @param graph
+     * @param root the node the paths start at, or end at if reverseOrder
+     * @param reverseOrder if you want to the edges direction to be flipped
+     * @param toDouble should convert the edges to a double
+     */
+    public ShortestPathTree(Graph<N, E> graph, N root, boolean reverseOrder, ToDoubleFunction<E> toDouble) {
+
+        this.graph = graph;
+        this.root = root;
+        this.reverseOrder = reverseOrder;
+        this.toDouble = toDouble;
+        this.distances = new HashMap<N, Double>();
+        this.treeEdges = new HashMap<N, Edge<N, E>>();
+
+        synchronized (this) {
+            distances.put(root, 0.0);
+            graph.addListener(this);
+
+            Node<N, E> rootNode = graph.getNode(root);
+            if (rootNode != null) {
+                propagate(rootNode, 0.0);
+            }
+        }
+
+        checkRep();
+    }
+
+    /**
+     * Checks that the representation invariant holds (if any).
+     **/
+    // Throws a RuntimeException if the rep invariant is violated.
+    private void checkRep() throws RuntimeException {
+    	/*
+    	if (!distances.get(root).equals(0.0)) {
+    		throw new RuntimeException("root is not at distance 0");
+    	}
+
+    	for (Entry<N, Edge<N, E>> entry : treeEdges.entrySet()) {
+    		Edge<N, E> e = entry.getValue();
+    		N from = (reverseOrder ? e.getChild() : e.getParent()).getLabel();
+    		if (distances.get(entry.getKey()) != distances.get(from) + e.getMinWeight(toDouble)) {
+    			throw new RuntimeException("tree edge does not match the distances");
+    		}
+    	}
+    	*/
+    }
+
+    /**
+     * @modifies this
+     * @effects lowers the distance of start to distance and of every node whose
+     * 		shortest path now goes through start
+     * @param start a node whose distance is now distance
+     * @param distance
+     */
+    private void propagate(Node<N, E> start, double distance) {
+
+        lastAffectedCount = 0;
+
+        PriorityQueue<Entry<Node<N, E>, Double>> heap = new PriorityQueue<Entry<Node<N, E>, Double>>(new Comparator<Entry<Node<N, E>, Double>>() {
+            @Override
+            public int compare(Entry<Node<N, E>, Double> o1, Entry<Node<N, E>, Double> o2) {
+                return o1.getValue().compareTo(o2.getValue());
+            }
+        });
+        heap.add(new AbstractMap.SimpleEntry<Node<N, E>, Double>(start, distance));
+
+        while (!heap.isEmpty()) {
+
+            Entry<Node<N, E>, Double> firstNodePair = heap.poll();
+            Node<N, E> node = firstNodePair.getKey();
+            double nodeDistance = firstNodePair.getValue();
+
+            // a shorter way to node was found after this entry was added
+            if (nodeDistance > distances.get(node.getLabel())) {
+                continue;
+            }
+            lastAffectedCount++;
+
+            for (Edge<N, E> e : reverseOrder ? node.getPrevEdges() : node.getNextEdges()) {
+
+                Node<N, E> nextNode = reverseOrder ? e.getParent() : e.getChild();
+                double newDistance = nodeDistance + e.getMinWeight(toDouble);
+                Double oldDistance = distances.get(nextNode.getLabel());
+
+                if (oldDistance == null || newDistance < oldDistance) {
+                    distances.put(nextNode.getLabel(), newDistance);
+                    treeEdges.put(nextNode.getLabel(), e);
+                    heap.add(new AbstractMap.SimpleEntry<Node<N, E>, Double>(nextNode, newDistance));
+                }
+            }
+        }
+    }
+
+    /**
+     * @modifies graph
+     * @effects stops listening to graph, the tree does not change after
+     */
+    public void close() {
+        graph.removeListener(this);
+    }
+
+    /**
+     * @effects nothing, a new node has no edges
+     * @param node
+     */
+    @Override
+    public void nodeAdded(N node) {
+    }
+
+    /**
+     * @modifies this
+     * @effects lowers the distances the new label makes smaller
+     * @param edge
+     * @param label
+     */
+    @Override
+    public synchronized void edgeLabelAdded(Edge<N, E> edge, E label) {
+
+        lastAffectedCount = 0;
+
+        Node<N, E> from = reverseOrder ? edge.getChild() : edge.getParent();
+        Node<N, E> to = reverseOrder ? edge.getParent() : edge.getChild();
+
+        Double fromDistance = distances.get(from.getLabel());
+        if (fromDistance == null) {
+            return;
+        }
+
+        double newDistance = fromDistance + toDouble.applyAsDouble(label);
+        Double oldDistance = distances.get(to.getLabel());
+
+        if (oldDistance == null || newDistance < oldDistance) {
+            distances.put(to.getLabel(), newDistance);
+            treeEdges.put(to.getLabel(), edge);
+            propagate(to, newDistance);
+        }
+
+        checkRep();
+    }
+
+    /**
+     *
+     * @return the node the paths start at, or end at if the tree is reversed
+     */
+    public N getRoot() {
+        return root;
+    }
+
+    /**
+     *
+     * @param node
+     * @return true if node can be reached from root, or reach root if the tree is reversed
+     */
+    public synchronized boolean isReached(N node) {
+        return distances.containsKey(node);
+    }
+
+    /**
+     *
+     * @param node
+     * @return the shortest distance between root and node or infinity if there is no path
+     */
+    public synchronized double getDistance(N node) {
+
+        Double distance = distances.get(node);
+        return distance == null ? Double.POSITIVE_INFINITY : distance;
+    }
+
+    /**
+     *
+     * @return a copy of the distances, the same as graph.dijkstra(root, reverseOrder, toDouble)
+     */
+    public synchronized Map<N, Double> getDistances() {
+        return new HashMap<N, Double>(distances);
+    }
+
+    /**
+     *
+     * @return the amount of nodes whose distance the last added edge or label made smaller
+     */
+    public synchronized int getLastAffectedCount() {
+        return lastAffectedCount;
+    }
+
+    /**
+     * The path goes from root to node, or from node to root if the tree is reversed.
+     *
+     * @param node
+     * @return the shortest path between root and node in the format of Graph.findPath
+     * 		or null if there is no path
+     */
+    public synchronized ArrayList<Entry<Entry<N,N>, E>> getPath(N node) {
+
+        if (!distances.containsKey(node)) {
+            return null;
+        }
+
+        ArrayList<Entry<Entry<N,N>, E>> path = new ArrayList<>();
+
+        N lastNode = node;
+        while (!lastNode.equals(root)) {
+
+            Edge<N, E> e = treeEdges.get(lastNode);
+            N parentNode = e.getParent().getLabel();
+            N childNode = e.getChild().getLabel();
+
+            path.add(new AbstractMap.SimpleEntry<Entry<N,N>, E>(new AbstractMap.SimpleEntry<N, N>(parentNode, childNode), e.getMinLabel(toDouble)));
+            lastNode = reverseOrder ? childNode : parentNode;
+        }
+
+        if (!reverseOrder) {
+            Collections.reverse(path);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,155 @@
+package Graph;
+
+import java.util.Arrays;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * WeightedView keeps the smallest weight of every Edge of a Graph in an array of
+ * doubles indexed by edge, so a search reads one double per edge instead of applying
+ * toDouble to every label, and updating it allocates nothing. It listens to the graph
+ * and updates itself when addEdge adds an edge or a label. The label with the smallest
+ * weight is only looked for when a path is built.
+ *
+ * The graph holds on to the view until close() is called. On a ConcurrentGraph
+ * the view is updated from the threads that add edges, and an edge whose weight
+ * has not been stored yet is weighed by looking at its labels.
+ *
+ * @param <N> where N is the label of the Node
+ * @param <E> where E is the label of the Edge
+ * @author cameronmonks
+ */
+public class WeightedView<N, E> implements EdgeWeigher<N, E>, GraphListener<N, E> {
+
+    private final Graph<N, E> graph;
+    private final ToDoubleFunction<E> toDouble;
+
+    // indexed by edge id, NaN for an edge that has not been stored yet. Written while
+    // holding this and published again after each write, so readers that read the
+    // reference see the weights written before it
+    private volatile double[] minWeights;
+
+    // Abstraction Function:
+    // WeightedView, w, represents the map from each edge e of graph to
+    // the weight minWeights[e.id], or the smallest toDouble of the labels of e if it is NaN
+    //
+    // Representation Invariant for every WeightedView w:
+    // foreach edge e of graph: e.id >= minWeights.length || minWeights[e.id] is NaN ||
+    //      minWeights[e.id] == the smallest toDouble of the labels of e
+
+    /**
+     * The view starts listening before it weighs the edges already in graph, so an
+     * edge or label added by another thread in between is not missed.
+     *
+     * @require graph != null && toDouble != null
+     * @effects Constructs the view of graph and starts listening to it
+     * @param graph
+     * @param toDouble should convert the edges to a double
+     */
+    public WeightedView(Graph<N, E> graph, ToDoubleFunction<E> toDouble) {
+
+        this.graph = graph;
+        this.toDouble = toDouble;
+
+        double[] weights = new double[Math.max(16, graph.edgeCount())];
+        Arrays.fill(weights, Double.NaN);
+        minWeights = weights;
+
+        graph.addListener(this);
+
+        for (Edge<N, E> e : graph.edgeSet()) {
+            putMin(e.getId(), e.getMinWeight(toDouble));
+        }
+
+        checkRep();
+    }
+
+    /**
+     * Checks that the representation invariant holds (if any).
+     **/
+    // Throws a RuntimeException if the rep invariant is violated.
+    private void checkRep() throws RuntimeException {
+    	/*
+    	for (Edge<N, E> e : graph.edgeSet()) {
+    		if (getWeight(e) != e.getMinWeight(toDouble)) {
+    			throw new RuntimeException("weight of edge is out of date");
+    		}
+    	}
+    	*/
+    }
+
+    /**
+     * @modifies this
+     * @effects sets the weight of edge id to weight if it has none yet or a bigger one
+     */
+    private synchronized void putMin(int id, double weight) {
+
+        double[] weights = minWeights;
+        if (id >= weights.length) {
+            int length = weights.length;
+            weights = Arrays.copyOf(weights, Math.max(id + 1, length * 2));
+            Arrays.fill(weights, length, weights.length, Double.NaN);
+        }
+
+        double old = weights[id];
+        if (Double.isNaN(old) || weight < old) {
+            weights[id] = weight;
+        }
+        minWeights = weights;
+    }
+
+    /**
+     * @modifies graph
+     * @effects stops listening to graph, the view must not be used after
+     */
+    public void close() {
+        graph.removeListener(this);
+    }
+
+    /**
+     * @require edge is an edge of the graph of this view
+     * @param edge
+     * @return the smallest weight of the labels of edge
+     */
+    @Override
+    public double getWeight(Edge<N, E> edge) {
+
+        int id = edge.getId();
+        double[] weights = minWeights;
+        double weight = id < weights.length ? weights[id] : Double.NaN;
+        return Double.isNaN(weight) ? edge.getMinWeight(toDouble) : weight;
+    }
+
+    /**
+     * Looks at every label of edge, it is only asked for the edges of a path.
+     *
+     * @require edge is an edge of the graph of this view
+     * @param edge
+     * @return the label of edge with the smallest weight
+     */
+    @Override
+    public E getLabel(Edge<N, E> edge) {
+        return edge.getMinLabel(toDouble);
+    }
+
+    /**
+     * @effects nothing, a node has no weight
+     * @param node
+     */
+    @Override
+    public void nodeAdded(N node) {
+    }
+
+    /**
+     * @modifies this
+     * @effects updates the weight of edge if label is its smallest label
+     * @param edge
+     * @param label
+     */
+    @Override
+    public void edgeLabelAdded(Edge<N, E> edge, E label) {
+
+        putMin(edge.getId(), toDouble.applyAsDouble(label));
+
+        checkRep();
+    }
+}
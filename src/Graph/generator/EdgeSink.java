@@ -0,0 +1,16 @@
+package Graph.generator;
+
+/**
+ * EdgeSink is told about every edge a GraphGenerator makes.
+ *
+ * @author cameronmonks
+ */
+public interface EdgeSink {
+
+    /**
+     * @param parent the id of the node the edge goes out of
+     * @param child the id of the node the edge goes into
+     * @param weight
+     */
+    void addEdge(int parent, int child, double weight);
+}
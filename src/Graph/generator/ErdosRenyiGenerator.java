@@ -0,0 +1,66 @@
+package Graph.generator;
+
+import java.util.SplittableRandom;
+
+/**
+ * ErdosRenyiGenerator makes uniform random graphs G(n, m): each of the edgeCount
+ * edges goes between two nodes picked uniformly at random, so every node has about
+ * the same degree. Edges picked twice become one edge with two labels, and edges
+ * from a node to itself are kept, like adding them to a Graph.
+ *
+ * @author cameronmonks
+ */
+public class ErdosRenyiGenerator extends GraphGenerator {
+
+    private final long edgeCount;
+    private final double minWeight;
+    private final double maxWeight;
+
+    /**
+     * @require nodeCount > 0 && edgeCount >= 0
+     * @effects Constructs a generator of graphs with nodeCount nodes and edgeCount edges weighing from 1 to 100
+     * @param nodeCount
+     * @param edgeCount
+     */
+    public ErdosRenyiGenerator(int nodeCount, long edgeCount) {
+        this(nodeCount, edgeCount, 1.0, 100.0);
+    }
+
+    /**
+     * @require nodeCount > 0 && edgeCount >= 0 && 0 <= minWeight <= maxWeight
+     * @effects Constructs a generator of graphs with nodeCount nodes and edgeCount edges
+     * @param nodeCount
+     * @param edgeCount
+     * @param minWeight
+     * @param maxWeight
+     */
+    public ErdosRenyiGenerator(int nodeCount, long edgeCount, double minWeight, double maxWeight) {
+
+        super(nodeCount);
+        if (nodeCount == 0 && edgeCount > 0) {
+            throw new IllegalArgumentException("edges need nodes");
+        }
+        this.edgeCount = edgeCount;
+        this.minWeight = minWeight;
+        this.maxWeight = maxWeight;
+    }
+
+    @Override
+    public long expectedEdgeCount() {
+        return edgeCount;
+    }
+
+    // a slot is an edge
+    @Override
+    protected long slotCount() {
+        return edgeCount;
+    }
+
+    @Override
+    protected void generateSlot(long slot, SplittableRandom random, EdgeSink sink) {
+
+        int parent = random.nextInt(nodeCount());
+        int child = random.nextInt(nodeCount());
+        sink.addEdge(parent, child, minWeight + random.nextDouble() * (maxWeight - minWeight));
+    }
+}
@@ -0,0 +1,234 @@
+package Graph.generator;
+
+import Graph.Graph;
+import Graph.GraphBuilder;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * GraphGenerator makes seeded synthetic graphs with the nodes 0 to nodeCount() - 1
+ * and double weights, for load tests and benchmarks.
+ *
+ * A generator is split into slots, a node of a grid or an edge of a random graph,
+ * and the slots into blocks of SLOTS_PER_BLOCK. Each block has its own random number
+ * generator seeded from the seed and the block number, so the blocks are made on the
+ * threads of a ForkJoinPool and the graph is the same for a seed no matter how many
+ * threads make it. The edges of the blocks are handed on in block order, a few
+ * blocks per thread at a time, so only those blocks are held in memory at once.
+ *
+ * @author cameronmonks
+ */
+public abstract class GraphGenerator {
+
+    // the slots of one block, each made by one task with one random number generator
+    static final int SLOTS_PER_BLOCK = 1 << 14;
+
+    private final int nodeCount;
+
+    /**
+     * @require nodeCount >= 0
+     * @param nodeCount the amount of nodes in the graphs made
+     */
+    protected GraphGenerator(int nodeCount) {
+
+        if (nodeCount < 0) {
+            throw new IllegalArgumentException("nodeCount must not be negative");
+        }
+        this.nodeCount = nodeCount;
+    }
+
+    /**
+     *
+     * @return the amount of nodes in the graphs made
+     */
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     *
+     * @return about how many edges the graphs made have, counting each parallel edge
+     */
+    public abstract long expectedEdgeCount();
+
+    /**
+     *
+     * @return the amount of slots
+     */
+    protected abstract long slotCount();
+
+    /**
+     * Only looks at the state of the generator and random, so it can be called
+     * from many threads at once.
+     *
+     * @require 0 <= slot < slotCount()
+     * @effects gives sink the edges of slot
+     * @param slot
+     * @param random the random number generator of the block slot is in
+     * @param sink
+     */
+    protected abstract void generateSlot(long slot, SplittableRandom random, EdgeSink sink);
+
+    /**
+     * Makes the graph on the common ForkJoinPool.
+     *
+     * @param seed
+     * @return a new Graph with the nodes 0 to nodeCount() - 1 and the edges made from seed
+     */
+    public Graph<Integer, Double> generate(long seed) {
+        return generate(seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @require pool != null
+     * @param seed
+     * @param pool the threads to make and build the graph on
+     * @return a new Graph with the nodes 0 to nodeCount() - 1 and the edges made from seed
+     */
+    public Graph<Integer, Double> generate(long seed, ForkJoinPool pool) {
+
+        long edges = Math.min(expectedEdgeCount(), Integer.MAX_VALUE - 8);
+        GraphBuilder<Integer, Double> builder = new GraphBuilder<Integer, Double>(nodeCount, (int) edges);
+        generateInto(builder, seed, pool);
+        return builder.build(pool);
+    }
+
+    /**
+     * @require builder != null && pool != null
+     * @modifies builder
+     * @effects adds the nodes 0 to nodeCount() - 1 in order and then the edges made from seed
+     * @param builder
+     * @param seed
+     * @param pool the threads to make the edges on
+     */
+    public void generateInto(GraphBuilder<Integer, Double> builder, long seed, ForkJoinPool pool) {
+
+        for (int node = 0; node < nodeCount; node++) {
+            builder.addNode(node);
+        }
+        generate(seed, pool, (int parent, int child, double weight) -> builder.addEdge(parent, child, weight));
+    }
+
+    /**
+     * @require pool != null && sink != null
+     * @effects makes the edges from seed on the threads of pool and gives them to sink
+     * 		in the same order for every pool, sink is only called from this thread
+     * @param seed
+     * @param pool
+     * @param sink
+     */
+    public void generate(long seed, ForkJoinPool pool, EdgeSink sink) {
+
+        long slots = slotCount();
+        long blockCount = (slots + SLOTS_PER_BLOCK - 1) / SLOTS_PER_BLOCK;
+        int wave = Math.max(1, pool.getParallelism() * 4);
+
+        EdgeBlock[] blocks = new EdgeBlock[wave];
+        for (long first = 0; first < blockCount; first += wave) {
+
+            int count = (int) Math.min(wave, blockCount - first);
+            if (count == 1 || pool.getParallelism() == 1) {
+                for (int i = 0; i < count; i++) {
+                    blocks[i] = makeBlock(seed, first + i);
+                }
+            } else {
+                pool.invoke(new BlockTask(seed, first, blocks, 0, count));
+            }
+
+            for (int i = 0; i < count; i++) {
+                blocks[i].drainTo(sink);
+                blocks[i] = null;
+            }
+        }
+    }
+
+    // the edges of block
+    private EdgeBlock makeBlock(long seed, long block) {
+
+        long from = block * SLOTS_PER_BLOCK;
+        long to = Math.min(slotCount(), from + SLOTS_PER_BLOCK);
+
+        // each block gets its own generator, so blocks can be made in any order
+        SplittableRandom random = new SplittableRandom(seed ^ (0x9E3779B97F4A7C15L * (block + 1)));
+        EdgeBlock edges = new EdgeBlock((int) (to - from));
+        for (long slot = from; slot < to; slot++) {
+            generateSlot(slot, random, edges);
+        }
+        return edges;
+    }
+
+    /**
+     * BlockTask makes the blocks first + from to first + to - 1 into blocks[from .. to - 1],
+     * split in half until there is one block.
+     */
+    private class BlockTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long seed;
+        private final long first;
+        private final EdgeBlock[] blocks;
+        private final int from;
+        private final int to;
+
+        BlockTask(long seed, long first, EdgeBlock[] blocks, int from, int to) {
+            this.seed = seed;
+            this.first = first;
+            this.blocks = blocks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new BlockTask(seed, first, blocks, from, middle), new BlockTask(seed, first, blocks, middle, to));
+                return;
+            }
+
+            blocks[from] = makeBlock(seed, first + from);
+        }
+    }
+
+    /**
+     * EdgeBlock holds the edges of one block until they are handed on.
+     */
+    private static final class EdgeBlock implements EdgeSink {
+
+        private int[] parents;
+        private int[] children;
+        private double[] weights;
+        private int size;
+
+        EdgeBlock(int capacity) {
+            parents = new int[Math.max(1, capacity)];
+            children = new int[parents.length];
+            weights = new double[parents.length];
+        }
+
+        @Override
+        public void addEdge(int parent, int child, double weight) {
+
+            if (size == parents.length) {
+                parents = Arrays.copyOf(parents, size * 2);
+                children = Arrays.copyOf(children, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            parents[size] = parent;
+            children[size] = child;
+            weights[size] = weight;
+            size++;
+        }
+
+        void drainTo(EdgeSink sink) {
+            for (int i = 0; i < size; i++) {
+                sink.addEdge(parents[i], children[i], weights[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package Graph.generator;
+
+import java.util.SplittableRandom;
+
+/**
+ * GridGenerator makes road-like graphs: the nodes are the cells of a width by height
+ * grid, node id y * width + x, and neighbors to the left, right, above and below are
+ * joined by an edge each way with the same weight. Weights are uniform from
+ * minWeight to maxWeight, like roads of different lengths, and each street may be
+ * missing with probability missingProbability.
+ *
+ * @author cameronmonks
+ */
+public class GridGenerator extends GraphGenerator {
+
+    private final int width;
+    private final int height;
+    private final double minWeight;
+    private final double maxWeight;
+    private final double missingProbability;
+
+    /**
+     * @require width > 0 && height > 0 && width * height <= Integer.MAX_VALUE
+     * @effects Constructs a generator of width by height grids with every street and weights from 1 to 10
+     * @param width
+     * @param height
+     */
+    public GridGenerator(int width, int height) {
+        this(width, height, 1.0, 10.0, 0.0);
+    }
+
+    /**
+     * @require width > 0 && height > 0 && width * height <= Integer.MAX_VALUE &&
+     * 		0 <= minWeight <= maxWeight && 0 <= missingProbability < 1
+     * @effects Constructs a generator of width by height grids
+     * @param width
+     * @param height
+     * @param minWeight
+     * @param maxWeight
+     * @param missingProbability the chance each street is left out
+     */
+    public GridGenerator(int width, int height, double minWeight, double maxWeight, double missingProbability) {
+
+        super(checkedSize(width, height));
+        this.width = width;
+        this.height = height;
+        this.minWeight = minWeight;
+        this.maxWeight = maxWeight;
+        this.missingProbability = missingProbability;
+    }
+
+    private static int checkedSize(int width, int height) {
+
+        if (width <= 0 || height <= 0 || (long) width * height > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("the grid must have between 1 and Integer.MAX_VALUE nodes");
+        }
+        return width * height;
+    }
+
+    @Override
+    public long expectedEdgeCount() {
+        return 2L * ((long) (width - 1) * height + (long) width * (height - 1));
+    }
+
+    // a slot is a node, it makes the streets to the right and below it
+    @Override
+    protected long slotCount() {
+        return nodeCount();
+    }
+
+    @Override
+    protected void generateSlot(long slot, SplittableRandom random, EdgeSink sink) {
+
+        int node = (int) slot;
+        int x = node % width;
+        int y = node / width;
+
+        if (x + 1 < width) {
+            street(node, node + 1, random, sink);
+        }
+        if (y + 1 < height) {
+            street(node, node + width, random, sink);
+        }
+    }
+
+    private void street(int a, int b, SplittableRandom random, EdgeSink sink) {
+
+        // both draws are always made so a street's weight does not depend on missingProbability
+        double missing = random.nextDouble();
+        double weight = minWeight + random.nextDouble() * (maxWeight - minWeight);
+        if (missing < missingProbability) {
+            return;
+        }
+
+        sink.addEdge(a, b, weight);
+        sink.addEdge(b, a, weight);
+    }
+}
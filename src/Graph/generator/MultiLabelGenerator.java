@@ -0,0 +1,83 @@
+package Graph.generator;
+
+import java.util.SplittableRandom;
+
+/**
+ * MultiLabelGenerator makes uniform random graphs where every edge has several
+ * labels, like roads with a time for each hour of the day. Each of the pairCount
+ * pairs of nodes picked uniformly at random gets from minLabels to maxLabels edges
+ * with different weights, which a Graph keeps as one edge with that many labels.
+ *
+ * @author cameronmonks
+ */
+public class MultiLabelGenerator extends GraphGenerator {
+
+    private final long pairCount;
+    private final int minLabels;
+    private final int maxLabels;
+    private final double minWeight;
+    private final double maxWeight;
+
+    /**
+     * @require nodeCount > 0 && pairCount >= 0 && 1 <= minLabels <= maxLabels
+     * @effects Constructs a generator with weights from 1 to 100
+     * @param nodeCount
+     * @param pairCount
+     * @param minLabels
+     * @param maxLabels
+     */
+    public MultiLabelGenerator(int nodeCount, long pairCount, int minLabels, int maxLabels) {
+        this(nodeCount, pairCount, minLabels, maxLabels, 1.0, 100.0);
+    }
+
+    /**
+     * @require nodeCount > 0 && pairCount >= 0 && 1 <= minLabels <= maxLabels &&
+     * 		0 <= minWeight < maxWeight
+     * @effects Constructs a generator of graphs with nodeCount nodes and pairCount multi-label edges
+     * @param nodeCount
+     * @param pairCount
+     * @param minLabels the fewest labels of an edge
+     * @param maxLabels the most labels of an edge
+     * @param minWeight
+     * @param maxWeight
+     */
+    public MultiLabelGenerator(int nodeCount, long pairCount, int minLabels, int maxLabels, double minWeight, double maxWeight) {
+
+        super(nodeCount);
+        if (nodeCount == 0 && pairCount > 0) {
+            throw new IllegalArgumentException("edges need nodes");
+        }
+        if (minLabels < 1 || maxLabels < minLabels) {
+            throw new IllegalArgumentException("an edge needs from 1 to maxLabels labels");
+        }
+
+        this.pairCount = pairCount;
+        this.minLabels = minLabels;
+        this.maxLabels = maxLabels;
+        this.minWeight = minWeight;
+        this.maxWeight = maxWeight;
+    }
+
+    @Override
+    public long expectedEdgeCount() {
+        return pairCount * ((minLabels + maxLabels) / 2);
+    }
+
+    // a slot is a pair of nodes and all of its labels
+    @Override
+    protected long slotCount() {
+        return pairCount;
+    }
+
+    @Override
+    protected void generateSlot(long slot, SplittableRandom random, EdgeSink sink) {
+
+        int parent = random.nextInt(nodeCount());
+        int child = random.nextInt(nodeCount());
+        int labels = minLabels + random.nextInt(maxLabels - minLabels + 1);
+
+        for (int i = 0; i < labels; i++) {
+            sink.addEdge(parent, child, minWeight + random.nextDouble() * (maxWeight - minWeight));
+        }
+    }
+}
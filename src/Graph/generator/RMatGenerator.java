@@ -0,0 +1,123 @@
+package Graph.generator;
+
+import java.util.SplittableRandom;
+
+/**
+ * RMatGenerator makes R-MAT (recursive matrix, a stochastic Kronecker graph) power-law
+ * graphs. Each edge picks its cell of the adjacency matrix by splitting it into four
+ * quarters scale times and going into the top left, top right, bottom left or bottom
+ * right quarter with probability a, b, c or 1 - a - b - c. With the Graph500 values
+ * a = 0.57, b = c = 0.19 a few nodes get most of the edges, like a social or web graph.
+ *
+ * The matrix has 2^scale rows, the smallest power of two at least nodeCount, and
+ * edges that land on a node of at least nodeCount are picked again. Node ids are
+ * scrambled so the nodes with the most edges are not all the small ids.
+ *
+ * @author cameronmonks
+ */
+public class RMatGenerator extends GraphGenerator {
+
+    private final long edgeCount;
+    private final double a;
+    private final double b;
+    private final double c;
+    private final int scale;
+    private final double minWeight;
+    private final double maxWeight;
+
+    /**
+     * @require nodeCount > 0 && edgeCount >= 0
+     * @effects Constructs a generator with the Graph500 probabilities and weights from 1 to 100
+     * @param nodeCount
+     * @param edgeCount
+     */
+    public RMatGenerator(int nodeCount, long edgeCount) {
+        this(nodeCount, edgeCount, 0.57, 0.19, 0.19, 1.0, 100.0);
+    }
+
+    /**
+     * @require nodeCount > 0 && edgeCount >= 0 && a, b, c >= 0 && a + b + c <= 1 &&
+     * 		0 <= minWeight <= maxWeight
+     * @effects Constructs a generator of R-MAT graphs with nodeCount nodes and edgeCount edges
+     * @param nodeCount
+     * @param edgeCount
+     * @param a the probability of the top left quarter
+     * @param b the probability of the top right quarter
+     * @param c the probability of the bottom left quarter
+     * @param minWeight
+     * @param maxWeight
+     */
+    public RMatGenerator(int nodeCount, long edgeCount, double a, double b, double c, double minWeight, double maxWeight) {
+
+        super(nodeCount);
+        if (nodeCount == 0 && edgeCount > 0) {
+            throw new IllegalArgumentException("edges need nodes");
+        }
+        if (a < 0 || b < 0 || c < 0 || a + b + c > 1) {
+            throw new IllegalArgumentException("a, b and c must be probabilities that add up to at most 1");
+        }
+
+        this.edgeCount = edgeCount;
+        this.a = a;
+        this.b = b;
+        this.c = c;
+        this.scale = nodeCount <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(nodeCount - 1);
+        this.minWeight = minWeight;
+        this.maxWeight = maxWeight;
+    }
+
+    @Override
+    public long expectedEdgeCount() {
+        return edgeCount;
+    }
+
+    // a slot is an edge
+    @Override
+    protected long slotCount() {
+        return edgeCount;
+    }
+
+    @Override
+    protected void generateSlot(long slot, SplittableRandom random, EdgeSink sink) {
+
+        int parent;
+        int child;
+        do {
+            parent = 0;
+            child = 0;
+            for (int bit = 0; bit < scale; bit++) {
+
+                double p = random.nextDouble();
+                parent <<= 1;
+                child <<= 1;
+                if (p < a) {
+                    continue;
+                } else if (p < a + b) {
+                    child |= 1;
+                } else if (p < a + b + c) {
+                    parent |= 1;
+                } else {
+                    parent |= 1;
+                    child |= 1;
+                }
+            }
+        } while (parent >= nodeCount() || child >= nodeCount());
+
+        sink.addEdge(scramble(parent), scramble(child), minWeight + random.nextDouble() * (maxWeight - minWeight));
+    }
+
+    // a permutation of 0 to 2^scale - 1 that keeps ids below nodeCount() below nodeCount()
+    private int scramble(int node) {
+
+        if (scale == 0) return node;
+
+        int mask = (1 << scale) - 1;
+        int id = node;
+        do {
+            // odd multiplier and xor-shift are both one to one on scale bits
+            id = (id * 0x2545F491) & mask;
+            id ^= id >>> ((scale + 1) / 2);
+        } while (id >= nodeCount());
+        return id;
+    }
+}
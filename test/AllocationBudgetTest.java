@@ -0,0 +1,257 @@
+import Graph.*;
+import Graph.generator.MultiLabelGenerator;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.LongSupplier;
+import java.util.function.ToDoubleFunction;
+
+import static org.junit.Assert.*;
+
+/**
+ * Fails when the hot paths allocate more than their budget, measured with the bytes
+ * the JVM says this thread allocated. Each operation is run in rounds until the
+ * fewest bytes a round allocated stops going down, so the JIT has compiled it, and
+ * that round is checked. The searches are measured without a SearchStats, the
+ * counts their budgets grow with come from one more run that is not measured.
+ * The budgets are about twice what was measured on a 2000 node 20000 edge
+ * Graph<Integer, Double> while running with the other tests, which keeps the JIT
+ * from removing some iterators. They also hold when the JVM only interprets
+ * (-Xint), so they do not depend on what the JIT manages to remove.
+ */
+public class AllocationBudgetTest {
+
+    // the Edge, its label and its place in the edge sets of the graph and both nodes
+    private static final long ADD_EDGE_BYTES_PER_CALL = 512;
+
+    // the returned HashSet and its table
+    private static final long CONNECTED_TO_BYTES_PER_CALL = 256;
+    private static final long CONNECTED_TO_BYTES_PER_NEIGHBOR = 96;
+
+    // the view object
+    private static final long CONNECTED_TO_VIEW_BYTES_PER_CALL = 64;
+
+    // the returned HashMap entry and boxed distance of each settled node and the iterator
+    // over its edges, the heap and the scratch arrays of a search are used again so
+    // relaxing an edge allocates nothing
+    private static final long DIJKSTRA_BYTES_PER_CALL = 4096;
+    private static final long DIJKSTRA_BYTES_PER_SETTLED = 224;
+    private static final long DIJKSTRA_BYTES_PER_RELAXATION = 0;
+
+    // the returned path and its entries and the iterator over the edges of each settled
+    // node, like dijkstra relaxing an edge allocates nothing
+    private static final long FIND_PATH_BYTES_PER_CALL = 2048;
+    private static final long FIND_PATH_BYTES_PER_SETTLED = 96;
+    private static final long FIND_PATH_BYTES_PER_STEP = 128;
+    private static final long FIND_PATH_BYTES_PER_RELAXATION = 0;
+
+    private static final int NODE_COUNT = 2000;
+    private static final int EDGE_COUNT = 20000;
+
+    // rounds are run until the fewest bytes a round allocated has not gone down by more
+    // than 1% for STABLE_ROUNDS rounds, or MAX_ROUNDS rounds were run
+    private static final int STABLE_ROUNDS = 5;
+    private static final int MAX_ROUNDS = 60;
+
+    private static final ToDoubleFunction<Double> TO_DOUBLE = (Double d) -> d;
+
+    private com.sun.management.ThreadMXBean threads;
+
+    @Before
+    public void setUp() {
+
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        threads = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    private long allocatedBytes() {
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static Graph<Integer, Double> randomGraph(long seed) {
+        return RandomGraphs.make(seed, NODE_COUNT, EDGE_COUNT, (Random r) -> (double) (r.nextInt(10) + 1));
+    }
+
+    /**
+     * randomGraph almost never puts two labels on one edge, the edges of this one have
+     * 2 to 8 labels so the searches weigh them by looking at each label
+     */
+    private static Graph<Integer, Double> multiLabelGraph(long seed) {
+        return new MultiLabelGenerator(NODE_COUNT, EDGE_COUNT, 2, 8).generate(seed);
+    }
+
+    /**
+     * @param round runs the operation once and returns the bytes it allocated
+     * @return the fewest bytes a round allocated once that stopped going down
+     */
+    private static long stableBytes(LongSupplier round) {
+
+        long fewest = Long.MAX_VALUE;
+        int stable = 0;
+        for (int i = 0; i < MAX_ROUNDS && stable < STABLE_ROUNDS; i++) {
+
+            long bytes = round.getAsLong();
+            if (bytes < fewest - fewest / 100) {
+                stable = 0;
+            } else {
+                stable++;
+            }
+            fewest = Math.min(fewest, bytes);
+        }
+        return fewest;
+    }
+
+    private static String budget(String operation, long bytes, long budget) {
+        return operation + " allocated " + bytes + " bytes, the budget is " + budget;
+    }
+
+    @Test
+    public void testAddEdge() {
+
+        int[] seed = new int[1];
+        long bytes = stableBytes(() -> {
+
+            Graph<Integer, Double> g = new Graph<Integer, Double>();
+            for (int i = 0; i < NODE_COUNT; i++) {
+                g.addNode(i);
+            }
+
+            // the labels and ends are made before measuring
+            Random random = new Random(seed[0]++);
+            int[] parents = new int[EDGE_COUNT];
+            int[] children = new int[EDGE_COUNT];
+            Double[] labels = new Double[EDGE_COUNT];
+            for (int i = 0; i < EDGE_COUNT; i++) {
+                parents[i] = random.nextInt(NODE_COUNT);
+                children[i] = random.nextInt(NODE_COUNT);
+                labels[i] = (double) random.nextInt(1000);
+            }
+            Integer[] boxed = new Integer[NODE_COUNT];
+            for (int i = 0; i < NODE_COUNT; i++) {
+                boxed[i] = i;
+            }
+
+            long before = allocatedBytes();
+            for (int i = 0; i < EDGE_COUNT; i++) {
+                g.addEdge(boxed[parents[i]], boxed[children[i]], labels[i]);
+            }
+            return allocatedBytes() - before;
+        });
+
+        long allowed = ADD_EDGE_BYTES_PER_CALL * EDGE_COUNT;
+        assertTrue(budget("addEdge", bytes, allowed), bytes <= allowed);
+    }
+
+    @Test
+    public void testGetNodesConnectedTo() {
+
+        Graph<Integer, Double> g = randomGraph(1);
+        Integer[] boxed = new Integer[NODE_COUNT];
+        long neighbors = 0;
+        for (int i = 0; i < NODE_COUNT; i++) {
+            boxed[i] = i;
+            neighbors += g.getNodesConnectedTo(i).size();
+        }
+
+        long bytes = stableBytes(() -> {
+            long before = allocatedBytes();
+            for (int i = 0; i < NODE_COUNT; i++) {
+                g.getNodesConnectedTo(boxed[i]);
+            }
+            return allocatedBytes() - before;
+        });
+        long allowed = CONNECTED_TO_BYTES_PER_CALL * NODE_COUNT + CONNECTED_TO_BYTES_PER_NEIGHBOR * neighbors;
+        assertTrue(budget("getNodesConnectedTo", bytes, allowed), bytes <= allowed);
+
+        long viewBytes = stableBytes(() -> {
+            long before = allocatedBytes();
+            for (int i = 0; i < NODE_COUNT; i++) {
+                g.getNodesConnectedToView(boxed[i]).size();
+            }
+            return allocatedBytes() - before;
+        });
+        long viewAllowed = CONNECTED_TO_VIEW_BYTES_PER_CALL * NODE_COUNT;
+        assertTrue(budget("getNodesConnectedToView", viewBytes, viewAllowed), viewBytes <= viewAllowed);
+    }
+
+    @Test
+    public void testDijkstra() {
+        checkDijkstra("dijkstra", randomGraph(2));
+    }
+
+    @Test
+    public void testDijkstraMultiLabel() {
+        checkDijkstra("dijkstra on edges with many labels", multiLabelGraph(4));
+    }
+
+    @Test
+    public void testFindPath() {
+        checkFindPath("findPath", randomGraph(3));
+    }
+
+    @Test
+    public void testFindPathMultiLabel() {
+        checkFindPath("findPath on edges with many labels", multiLabelGraph(5));
+    }
+
+    private void checkDijkstra(String operation, Graph<Integer, Double> g) {
+
+        int searches = 50;
+
+        // the counts the budget grows with, from a run that is not measured
+        SearchStats stats = new SearchStats();
+        for (int i = 0; i < searches; i++) {
+            g.dijkstra(i, (i & 1) == 1, TO_DOUBLE, stats);
+        }
+
+        long bytes = stableBytes(() -> {
+            long before = allocatedBytes();
+            for (int i = 0; i < searches; i++) {
+                g.dijkstra(i, (i & 1) == 1, TO_DOUBLE);
+            }
+            return allocatedBytes() - before;
+        });
+
+        long allowed = DIJKSTRA_BYTES_PER_CALL * searches +
+                DIJKSTRA_BYTES_PER_SETTLED * stats.getNodesSettled() +
+                DIJKSTRA_BYTES_PER_RELAXATION * stats.getEdgesRelaxed();
+        assertTrue(budget(operation, bytes, allowed), bytes <= allowed);
+    }
+
+    private void checkFindPath(String operation, Graph<Integer, Double> g) {
+
+        int searches = 200;
+
+        // the counts the budget grows with, from a run that is not measured
+        SearchStats stats = new SearchStats();
+        long steps = 0;
+        for (int i = 0; i < searches; i++) {
+            ArrayList<Map.Entry<Map.Entry<Integer, Integer>, Double>> path = g.findPath(i, NODE_COUNT - 1 - i, TO_DOUBLE, stats);
+            if (path != null) {
+                steps += path.size();
+            }
+        }
+
+        long bytes = stableBytes(() -> {
+            long before = allocatedBytes();
+            for (int i = 0; i < searches; i++) {
+                g.findPath(i, NODE_COUNT - 1 - i, TO_DOUBLE);
+            }
+            return allocatedBytes() - before;
+        });
+
+        long allowed = FIND_PATH_BYTES_PER_CALL * searches +
+                FIND_PATH_BYTES_PER_SETTLED * stats.getNodesSettled() +
+                FIND_PATH_BYTES_PER_STEP * steps +
+                FIND_PATH_BYTES_PER_RELAXATION * stats.getEdgesRelaxed();
+        assertTrue(budget(operation, bytes, allowed), bytes <= allowed);
+    }
+}
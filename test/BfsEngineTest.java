@@ -0,0 +1,72 @@
+import Graph.*;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class BfsEngineTest {
+
+
+    private Graph<Integer, Integer> makeRandomGraph(long seed, int nodeCount, int edgeCount) {
+        return RandomGraphs.make(seed, nodeCount, edgeCount, (Random r) -> 1);
+    }
+
+
+    @Test
+    public void testSameAsGraph() {
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            for (long seed = 0; seed < 3; seed++) {
+
+                Graph<Integer, Integer> g = makeRandomGraph(seed, 20000, 160000);
+                GraphSnapshot<Integer, Integer> s = g.freeze();
+
+                BfsEngine<Integer, Integer> optimizing = new BfsEngine<Integer, Integer>(s, pool, true);
+                BfsEngine<Integer, Integer> topDown = new BfsEngine<Integer, Integer>(s, pool, false);
+
+                for (boolean reverseOrder : new boolean[] { false, true }) {
+
+                    Map<Integer, Integer> expected = g.bfsLevels((int) seed, reverseOrder);
+
+                    assertEquals(expected, optimizing.bfsLevels((int) seed, reverseOrder));
+                    assert(optimizing.getBottomUpLevels() > 0);
+                    assert(optimizing.getReachedCount() == expected.size());
+
+                    assertEquals(expected, topDown.bfsLevels((int) seed, reverseOrder));
+                    assert(topDown.getBottomUpLevels() == 0);
+
+                    assertEquals(g.getReachableNodes((int) seed, reverseOrder), optimizing.getReachableNodes((int) seed, reverseOrder));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testUnreachedNodes() {
+
+        Graph<String, Double> g = new Graph<String, Double>();
+        g.addNode("A");
+        g.addNode("B");
+        g.addNode("C");
+        g.addEdge("A", "B", 1.0);
+
+        BfsEngine<String, Double> engine = new BfsEngine<String, Double>(g.freeze());
+        GraphSnapshot<String, Double> s = engine.getSnapshot();
+
+        assert(engine.getLevel(0) == -1);
+
+        engine.run(s.getNodeId("A"), false);
+        assert(engine.getLevel(s.getNodeId("B")) == 1);
+        assert(!engine.isReached(s.getNodeId("C")));
+        assert(engine.getReachedCount() == 2);
+
+        assert(engine.bfsLevels("Z", false).isEmpty());
+    }
+}
@@ -0,0 +1,133 @@
+import Graph.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentGraphTest {
+
+
+    @Test
+    public void testSameAsGraphOnOneThread() {
+
+        ConcurrentGraph<String, Double> g = new ConcurrentGraph<String, Double>();
+        assert(g.addNode("A"));
+        assert(!g.addNode("A"));
+        assert(g.addNode("B"));
+        assert(g.addNode("C"));
+
+        assert(g.addEdge("A", "B", 1.0));
+        assert(g.addEdge("A", "B", 5.0));
+        assert(!g.addEdge("A", "B", 5.0));
+        assert(g.addEdge("B", "C", 2.0));
+        assert(!g.addEdge("A", "D", 2.0));
+
+        assert(g.getNodes().size() == 3);
+        assert(g.getEdgesBetweenNodes("A", "B").size() == 2);
+
+        Map<String, Double> distances = g.dijkstra("A", false, (Double d) -> d);
+        assert(distances.get("C").equals(3.0));
+        assert(g.findPath("A", "C", (Double d) -> d).size() == 2);
+    }
+
+    @Test
+    public void testWritersAndReaders() throws InterruptedException {
+
+        final int writerCount = 4;
+        final int nodesPerWriter = 300;
+        final ConcurrentGraph<Integer, Integer> g = new ConcurrentGraph<Integer, Integer>();
+        final WeightedView<Integer, Integer> view = new WeightedView<Integer, Integer>(g, (Integer i) -> i);
+
+        g.addNode(0);
+
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicBoolean writing = new AtomicBoolean(true);
+        final ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<Throwable>();
+        List<Thread> writers = new ArrayList<Thread>();
+        List<Thread> readers = new ArrayList<Thread>();
+
+        for (int w = 0; w < writerCount; w++) {
+            final int writer = w;
+            writers.add(new Thread(() -> {
+                try {
+                    start.await();
+                    Random rand = new Random(writer);
+                    for (int i = 0; i < nodesPerWriter; i++) {
+                        int node = 1 + writer * nodesPerWriter + i;
+                        g.addNode(node);
+                        // every node is reachable from 0
+                        g.addEdge(node - 1 < 1 + writer * nodesPerWriter ? 0 : node - 1, node, 1 + rand.nextInt(10));
+                        // and a few shared edges that every writer adds labels to
+                        g.addEdge(0, 1 + rand.nextInt(node), rand.nextInt(100));
+                    }
+                } catch (Throwable t) {
+                    errors.add(t);
+                }
+            }));
+        }
+
+        for (int r = 0; r < 2; r++) {
+            readers.add(new Thread(() -> {
+                try {
+                    start.await();
+                    while (writing.get()) {
+                        Map<Integer, Double> distances = g.dijkstra(0, false, view);
+                        assertEquals(0.0, distances.get(0), 0.0);
+                        g.findPath(0, 1, view);
+                        GraphSnapshot<Integer, Integer> snapshot = g.freeze();
+                        assert(snapshot.nodeCount() >= 1);
+                        for (Integer n : g.getNodesConnectedToView(0)) {
+                            assert(n != null);
+                        }
+                    }
+                } catch (Throwable t) {
+                    errors.add(t);
+                }
+            }));
+        }
+
+        for (Thread t : writers) t.start();
+        for (Thread t : readers) t.start();
+        start.countDown();
+        for (Thread t : writers) t.join();
+        writing.set(false);
+        for (Thread t : readers) t.join();
+
+        if (!errors.isEmpty()) {
+            throw new AssertionError(errors.peek());
+        }
+
+        assert(g.getNodes().size() == 1 + writerCount * nodesPerWriter);
+
+        // every node was reached, and the view agrees with the labels
+        Map<Integer, Double> distances = g.dijkstra(0, false, view);
+        Map<Integer, Double> expected = g.dijkstra(0, false, (Integer i) -> i);
+        assert(distances.size() == 1 + writerCount * nodesPerWriter);
+        assert(distances.equals(expected));
+
+        // the snapshot has every edge once
+        GraphSnapshot<Integer, Integer> snapshot = g.freeze();
+        assert(snapshot.nodeCount() == 1 + writerCount * nodesPerWriter);
+        int edgeCount = 0;
+        for (Integer n : g.getNodes()) {
+            edgeCount += g.getNodesConnectedTo(n).size();
+        }
+        assert(snapshot.edgeCount() == edgeCount);
+
+        Set<Integer> shared = new HashSet<Integer>(g.getNodesConnectedTo(0));
+        for (Integer n : shared) {
+            assert(snapshot.getEdge(snapshot.getNodeId(0), snapshot.getNodeId(n)) >= 0);
+        }
+
+        view.close();
+    }
+}
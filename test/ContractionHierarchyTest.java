@@ -0,0 +1,175 @@
+import Graph.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ContractionHierarchyTest {
+
+
+    private Graph<Integer, Double> makeRandomGraph(long seed, int nodeCount, int edgeCount) {
+        return RandomGraphs.make(seed, nodeCount, edgeCount, (Random r) -> (double) r.nextInt(20));
+    }
+
+    // a width by width grid with roads both ways between neighbors
+    private Graph<Integer, Double> makeGrid(long seed, int width) {
+
+        Random random = new Random(seed);
+        Graph<Integer, Double> g = new Graph<Integer, Double>();
+
+        for (int i = 0; i < width * width; i++) {
+            g.addNode(i);
+        }
+
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < width; y++) {
+                int v = x * width + y;
+                if (x + 1 < width) {
+                    g.addEdge(v, v + width, 1.0 + random.nextInt(9));
+                    g.addEdge(v + width, v, 1.0 + random.nextInt(9));
+                }
+                if (y + 1 < width) {
+                    g.addEdge(v, v + 1, 1.0 + random.nextInt(9));
+                    g.addEdge(v + 1, v, 1.0 + random.nextInt(9));
+                }
+            }
+        }
+
+        return g;
+    }
+
+    // checks path is a real path of g from start to to and returns its length
+    private double checkPath(Graph<Integer, Double> g, int start, int to, ArrayList<Map.Entry<Map.Entry<Integer, Integer>, Double>> path) {
+
+        double length = 0.0;
+        int last = start;
+
+        for (Map.Entry<Map.Entry<Integer, Integer>, Double> step : path) {
+
+            assert(step.getKey().getKey() == last);
+            assert(g.getEdgesBetweenNodes(step.getKey().getKey(), step.getKey().getValue()).contains(step.getValue()));
+
+            length += step.getValue();
+            last = step.getKey().getValue();
+        }
+
+        assert(last == to);
+        return length;
+    }
+
+    private void checkAllPaths(Graph<Integer, Double> g, ContractionHierarchy<Integer, Double> ch, int step) {
+
+        for (int start = 0; start < g.nodeCount(); start += step) {
+
+            Map<Integer, Double> distances = g.dijkstra(start, false, (Double d) -> d);
+
+            for (int to = 0; to < g.nodeCount(); to++) {
+
+                ArrayList<Map.Entry<Map.Entry<Integer, Integer>, Double>> path = ch.findPath(start, to);
+
+                if (!distances.containsKey(to)) {
+                    assert(path == null);
+                    assert(ch.getDistance(start, to) == Double.POSITIVE_INFINITY);
+                } else {
+                    // sums can be added in a different order, so allow a tiny difference
+                    assertEquals(distances.get(to), checkPath(g, start, to, path), 1e-9);
+                    assertEquals(distances.get(to), ch.getDistance(start, to), 1e-9);
+                }
+            }
+        }
+    }
+
+
+    @Test
+    public void testRandomGraph() {
+
+        Graph<Integer, Double> g = makeRandomGraph(1, 150, 500);
+        ContractionHierarchy<Integer, Double> ch = new ContractionHierarchy<Integer, Double>(g, (Double d) -> d);
+
+        assert(ch.nodeCount() == 150);
+        assert(ch.getShortcutCount() >= 0);
+        assert(ch.getPreprocessingTimeNanos() > 0);
+
+        checkAllPaths(g, ch, 7);
+    }
+
+
+    @Test
+    public void testGrid() {
+
+        Graph<Integer, Double> g = makeGrid(2, 15);
+        ContractionHierarchy<Integer, Double> ch = new ContractionHierarchy<Integer, Double>(g, (Double d) -> d);
+
+        checkAllPaths(g, ch, 11);
+    }
+
+
+    @Test
+    public void testMultiLabelEdgesAndNoPath() {
+
+        Graph<String, Double> g = new Graph<String,Double>();
+
+        g.addNode("A");
+        g.addNode("B");
+        g.addNode("C");
+        g.addNode("D");
+
+        g.addEdge("A", "D", 10.0);
+        g.addEdge("A", "D", 9.5);
+        g.addEdge("A", "B", 10.0);
+        g.addEdge("A", "B", 9.0);
+        g.addEdge("B", "D", 0.0);
+        g.addEdge("A", "C", 5.0);
+        g.addEdge("C", "D", 6.0);
+
+        ContractionHierarchy<String, Double> ch = new ContractionHierarchy<String, Double>(g, (Double d) -> d);
+        ArrayList<Map.Entry<Map.Entry<String, String>, Double>> path = ch.findPath("A", "D");
+
+        assert(path.size() == 2);
+        assert(path.get(0).getKey().getKey().equals("A"));
+        assert(path.get(0).getKey().getValue().equals("B"));
+        assert(path.get(0).getValue().equals(9.0));
+        assert(path.get(1).getKey().getKey().equals("B"));
+        assert(path.get(1).getKey().getValue().equals("D"));
+        assert(path.get(1).getValue().equals(0.0));
+
+        assert(ch.findPath("D", "A") == null);
+        assert(ch.findPath("A", "Z") == null);
+        assert(ch.findPath("A", "A").size() == 0);
+    }
+
+    @Test
+    public void testQueriesFromManyThreads() throws InterruptedException {
+
+        Graph<Integer, Double> g = makeRandomGraph(3, 150, 500);
+        ContractionHierarchy<Integer, Double> ch = new ContractionHierarchy<Integer, Double>(g, (Double d) -> d);
+        Map<Integer, Double> expected = g.dijkstra(0, false, (Double d) -> d);
+
+        // the threads take queries from and give them back to the pool of the hierarchy
+        Thread[] threads = new Thread[8];
+        boolean[] same = new boolean[threads.length];
+        for (int t = 0; t < threads.length; t++) {
+            int thread = t;
+            threads[t] = new Thread(() -> {
+                boolean allSame = true;
+                for (int to = 0; to < 150; to++) {
+                    double distance = expected.containsKey(to) ? expected.get(to) : Double.POSITIVE_INFINITY;
+                    allSame &= Math.abs(ch.getDistance(0, to) - distance) < 1e-9 || distance == ch.getDistance(0, to);
+                    allSame &= (ch.findPath(0, to) == null) == !expected.containsKey(to);
+                }
+                same[thread] = allSame;
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (boolean s : same) {
+            assert(s);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+import Graph.*;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class DeltaSteppingEngineTest {
+
+
+    private Graph<Integer, Double> makeRandomGraph(long seed, int nodeCount, int edgeCount) {
+        return RandomGraphs.make(seed, nodeCount, edgeCount, (Random r) -> (double) r.nextInt(100));
+    }
+
+
+    @Test
+    public void testDijkstra() {
+
+        Graph<String, Double> g = new Graph<String,Double>();
+
+        g.addNode("A");
+        g.addNode("B");
+        g.addNode("C");
+        g.addNode("D");
+        g.addNode("E");
+
+        g.addEdge("A", "D", 10.0);
+        g.addEdge("A", "B", 9.0);
+        g.addEdge("B", "D", 0.0);
+        g.addEdge("A", "C", 5.0);
+        g.addEdge("C", "D", 1.0);
+
+        DeltaSteppingEngine<String, Double> engine = new DeltaSteppingEngine<String, Double>(g.freeze(), (Double d) -> d);
+        assert(engine.getDelta() > 0);
+
+        Map<String, Double> distancesFromA = engine.dijkstra("A", false);
+
+        assert(distancesFromA.size() == 4);
+        assert(distancesFromA.get("A").equals(0.0));
+        assert(distancesFromA.get("B").equals(9.0));
+        assert(distancesFromA.get("C").equals(5.0));
+        assert(distancesFromA.get("D").equals(6.0));
+
+        distancesFromA = engine.dijkstra("D", true);
+        assert(distancesFromA.get("A").equals(6.0));
+        assert(!engine.isReached(engine.getSnapshot().getNodeId("E")));
+
+        Map<String, Double> unknown = engine.dijkstra("F", false);
+        assert(unknown.size() == 1 && unknown.get("F").equals(0.0));
+    }
+
+    @Test
+    public void testSameAsDijkstraEngine() {
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            for (long seed = 0; seed < 4; seed++) {
+
+                GraphSnapshot<Integer, Double> s = makeRandomGraph(seed, 3000, 12000).freeze();
+                DijkstraEngine<Integer, Double> dijkstra = new DijkstraEngine<Integer, Double>(s, (Double d) -> d);
+
+                for (double delta : new double[] { 0.001, 1.0, 25.0, 1000.0 }) {
+
+                    ShortestPathEngine<Integer, Double> engine = new DeltaSteppingEngine<Integer, Double>(s, (Double d) -> d, delta, pool);
+
+                    for (boolean reverseOrder : new boolean[] { false, true }) {
+                        int source = (int) (seed * 31) % 3000;
+                        assertEquals(dijkstra.dijkstra(source, reverseOrder), engine.dijkstra(source, reverseOrder));
+                    }
+                }
+
+                ShortestPathEngine<Integer, Double> automatic = new DeltaSteppingEngine<Integer, Double>(s, (Double d) -> d);
+                assertEquals(dijkstra.dijkstra(7, false), automatic.dijkstra(7, false));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+import Graph.*;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class DijkstraEngineTest {
+
+
+    private Graph<Integer, Double> makeRandomGraph(long seed, int nodeCount, int edgeCount) {
+        return RandomGraphs.make(seed, nodeCount, edgeCount, (Random r) -> (double) r.nextInt(100));
+    }
+
+
+    @Test
+    public void testDijkstra() {
+
+        Graph<String, Double> g = new Graph<String,Double>();
+
+        g.addNode("A");
+        g.addNode("B");
+        g.addNode("C");
+        g.addNode("D");
+
+        g.addEdge("A", "D", 10.0);
+        g.addEdge("A", "D", 9.0);
+        g.addEdge("A", "B", 10.0);
+        g.addEdge("A", "B", 9.0);
+        g.addEdge("B", "D", 0.0);
+        g.addEdge("A", "C", 5.0);
+        g.addEdge("C", "D", 1.0);
+
+        DijkstraEngine<String, Double> engine = new DijkstraEngine<String, Double>(g.freeze(), (Double d) -> d);
+
+        Map<String, Double> distancesFromA = engine.dijkstra("A", false);
+
+        assert(distancesFromA.size() == 4);
+        assert(distancesFromA.get("A").equals(0.0));
+        assert(distancesFromA.get("B").equals(9.0));
+        assert(distancesFromA.get("C").equals(5.0));
+        assert(distancesFromA.get("D").equals(6.0));
+
+        distancesFromA = engine.dijkstra("D", true);
+
+        assert(distancesFromA.size() == 4);
+        assert(distancesFromA.get("A").equals(6.0));
+        assert(distancesFromA.get("B").equals(0.0));
+        assert(distancesFromA.get("C").equals(1.0));
+        assert(distancesFromA.get("D").equals(0.0));
+
+        // not a node
+        distancesFromA = engine.dijkstra("Z", false);
+        assert(distancesFromA.equals(g.dijkstra("Z", false, (Double d) -> d)));
+    }
+
+
+    @Test
+    public void testMatchesGraphDijkstra() {
+
+        Graph<Integer, Double> g = makeRandomGraph(7, 200, 1000);
+        GraphSnapshot<Integer, Double> s = g.freeze();
+
+        for (int arity = 2; arity <= 8; arity *= 2) {
+
+            DijkstraEngine<Integer, Double> engine = new DijkstraEngine<Integer, Double>(s, (Double d) -> d, arity);
+
+            for (int head = 0; head < 200; head += 13) {
+                assert(engine.dijkstra(head, false).equals(g.dijkstra(head, false, (Double d) -> d)));
+                assert(engine.dijkstra(head, true).equals(g.dijkstra(head, true, (Double d) -> d)));
+            }
+        }
+    }
+
+
+    @Test
+    public void testRunWithIds() {
+
+        Graph<Integer, Double> g = makeRandomGraph(11, 50, 60);
+        GraphSnapshot<Integer, Double> s = g.freeze();
+        DijkstraEngine<Integer, Double> engine = new DijkstraEngine<Integer, Double>(s, (Double d) -> d);
+
+        Map<Integer, Double> expected = g.dijkstra(3, false, (Double d) -> d);
+        engine.run(s.getNodeId(3), false);
+
+        assert(engine.getSettledCount() == expected.size());
+
+        for (int id = 0; id < s.nodeCount(); id++) {
+            Double distance = expected.get(s.getNodeLabel(id));
+            if (distance == null) {
+                assert(!engine.isReached(id));
+                assert(engine.getDistance(id) == Double.POSITIVE_INFINITY);
+            } else {
+                assert(engine.getDistance(id) == distance);
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+import Graph.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class DistanceMatrixTest {
+
+
+    private Graph<Integer, Double> randomGraph(int nodeCount, int edgeCount, long seed) {
+
+        Graph<Integer, Double> g = new Graph<Integer, Double>();
+        Random rand = new Random(seed);
+
+        for (int i = 0; i < nodeCount; i++) {
+            g.addNode(i);
+        }
+        for (int i = 0; i < edgeCount; i++) {
+            g.addEdge(rand.nextInt(nodeCount), rand.nextInt(nodeCount), (double) rand.nextInt(50));
+        }
+
+        return g;
+    }
+
+    @Test
+    public void testDijkstraAllSameAsDijkstra() {
+
+        Graph<Integer, Double> g = randomGraph(300, 1200, 3);
+        List<Integer> sources = new ArrayList<Integer>();
+        for (int i = 0; i < 300; i += 7) {
+            sources.add(i);
+        }
+
+        for (boolean reverseOrder : new boolean[] { false, true }) {
+
+            DistanceMatrix<Integer> m = g.dijkstraAll(sources, reverseOrder, (Double d) -> d);
+            assert(m.getSourceCount() == sources.size());
+            assert(m.getTargetCount() == 300);
+
+            for (Integer source : sources) {
+                Map<Integer, Double> expected = g.dijkstra(source, reverseOrder, (Double d) -> d);
+                assert(m.getDistances(source).equals(expected));
+            }
+        }
+    }
+
+    @Test
+    public void testDistanceMatrix() {
+
+        Graph<Integer, Double> g = randomGraph(400, 1000, 5);
+        List<Integer> sources = Arrays.asList(0, 1, 2, 3, 500, 4);
+        List<Integer> targets = Arrays.asList(10, 20, 30, 0, 600, 10);
+
+        DistanceMatrix<Integer> m = g.distanceMatrix(sources, targets, (Double d) -> d);
+        assert(m.getSources().equals(sources));
+        assert(m.getTargets().equals(targets));
+
+        for (int r = 0; r < sources.size(); r++) {
+            Map<Integer, Double> expected = g.dijkstra(sources.get(r), false, (Double d) -> d);
+            for (int c = 0; c < targets.size(); c++) {
+
+                double distance = m.get(r, c);
+                Double e = expected.get(targets.get(c));
+
+                if (sources.get(r) == 500 || targets.get(c) == 600 || e == null) {
+                    assert(distance == Double.POSITIVE_INFINITY);
+                } else {
+                    assert(distance == e);
+                }
+                assert(m.get(sources.get(r), targets.get(c)) == distance);
+            }
+        }
+
+        assert(m.get(Integer.valueOf(7), Integer.valueOf(10)) == Double.POSITIVE_INFINITY);
+
+        DistanceMatrix<Integer> empty = g.distanceMatrix(new ArrayList<Integer>(), targets, (Double d) -> d);
+        assert(empty.getSourceCount() == 0);
+    }
+
+    @Test
+    public void testTooBigForOneArray() {
+
+        Graph<Integer, Double> g = new Graph<Integer, Double>();
+        g.addNode(0);
+        g.addNode(1);
+        g.addEdge(0, 1, 1.0);
+
+        // 70,000 * 70,000 wraps around to a positive int, the matrix must not be made
+        List<Integer> sources = Collections.nCopies(70000, 0);
+        List<Integer> targets = Collections.nCopies(70000, 1);
+        try {
+            g.distanceMatrix(sources, targets, (Double d) -> d);
+            fail("a matrix of 4,900,000,000 distances was made");
+        } catch (IllegalArgumentException e) {
+            assert(e.getMessage().contains("70000 sources"));
+        }
+
+        // a smaller matrix with the same targets still works
+        DistanceMatrix<Integer> m = g.distanceMatrix(Collections.nCopies(2, 0), targets, (Double d) -> d);
+        assert(m.get(1, 69999) == 1.0);
+    }
+
+    @Test
+    public void testDijkstraAllOnlyHoldsReachedNodes() {
+
+        Graph<Integer, Double> g = new Graph<Integer, Double>();
+        for (int i = 0; i < 70000; i++) {
+            g.addNode(i);
+        }
+        g.addEdge(0, 1, 1.0);
+
+        // 70,000 rows of every node would be 4,900,000,000 distances, each row only
+        // holds the 2 nodes it reaches
+        List<Integer> sources = Collections.nCopies(70000, 0);
+        DistanceMatrix<Integer> m = g.dijkstraAll(sources, false, (Double d) -> d);
+        assert(m.getSourceCount() == 70000);
+        assert(m.getTargetCount() == 70000);
+        assert(m.get(69999, 1) == 1.0);
+        assert(m.get(69999, 2) == Double.POSITIVE_INFINITY);
+        assert(m.get(Integer.valueOf(0), Integer.valueOf(1)) == 1.0);
+        assert(m.getDistances(0).size() == 2);
+
+        DistanceMatrix<Integer> missing = g.dijkstraAll(Arrays.asList(70000), false, (Double d) -> d);
+        assert(missing.getDistances(70000).isEmpty());
+        assert(missing.get(0, 0) == Double.POSITIVE_INFINITY);
+    }
+}
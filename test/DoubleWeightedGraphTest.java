@@ -0,0 +1,103 @@
+import Graph.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class DoubleWeightedGraphTest {
+
+
+    @Test
+    public void testSmallGraph() {
+
+        DoubleWeightedGraph<String> g = new DoubleWeightedGraph<String>();
+        assert(g.addNode("A"));
+        assert(!g.addNode("A"));
+        assert(g.addNode("B"));
+        assert(g.addNode("C"));
+        assert(g.addNode("D"));
+        assert(g.addNode("E"));
+
+        assert(g.addEdge("A", "B", 3.0));
+        assert(g.addEdge("A", "B", 1.0));
+        assert(!g.addEdge("A", "B", 3.0));
+        assert(g.addEdge("B", "C", 1.0));
+        assert(g.addEdge("A", "C", 5.0));
+        assert(g.addEdge("C", "D", 2.0));
+        assert(g.addEdge("D", "D", 1.0));
+        assert(!g.addEdge("A", "F", 1.0));
+        assert(g.nodeCount() == 5);
+        assert(g.edgeCount() == 6);
+
+        assert(g.getEdgesBetweenNodes("A", "B").size() == 2);
+        assert(g.getEdgesBetweenNodes("A", "B").contains(1.0));
+        assert(g.getEdgesBetweenNodes("B", "A").isEmpty());
+        assert(g.getMinWeight("A", "B") == 1.0);
+        assert(g.getMinWeight("B", "A") == Double.POSITIVE_INFINITY);
+        assert(g.getNodesConnectedTo("A").size() == 2);
+        assert(g.getNodesGoingIntoNode("D").contains("D"));
+        assert(g.getNodesConnectedTo("E").isEmpty());
+
+        double[] sum = new double[1];
+        g.forEachOutNeighbor("A", (String node, double weight) -> sum[0] += weight);
+        assert(sum[0] == 9.0);
+
+        Map<String, Double> distances = g.dijkstra("A", false);
+        assert(distances.get("C").equals(2.0));
+        assert(distances.get("D").equals(4.0));
+        assert(!distances.containsKey("E"));
+        assert(g.dijkstra("D", true).get("A").equals(4.0));
+
+        List<Map.Entry<Map.Entry<String, String>, Double>> path = g.findPath("A", "D");
+        assert(path.size() == 3);
+        assert(path.get(0).getKey().getKey().equals("A") && path.get(0).getValue().equals(1.0));
+        assert(path.get(2).getKey().getValue().equals("D"));
+        assert(g.findPath("A", "E") == null);
+        assert(g.findPath("A", "A").isEmpty());
+    }
+
+    @Test
+    public void testMatchesGraph() {
+
+        Random random = new Random(21);
+        Graph<Integer, Double> expected = new Graph<Integer, Double>();
+        DoubleWeightedGraph<Integer> g = new DoubleWeightedGraph<Integer>();
+
+        for (int i = 0; i < 2000; i++) {
+            expected.addNode(i);
+            g.addNode(i);
+        }
+        for (int i = 0; i < 20000; i++) {
+            int parent = random.nextInt(2000);
+            int child = random.nextInt(2000);
+            double weight = random.nextInt(10) + 1;
+            assert(expected.addEdge(parent, child, weight) == g.addEdge(parent, child, weight));
+        }
+
+        for (int node = 0; node < 2000; node += 7) {
+
+            assert(g.getNodesConnectedTo(node).equals(expected.getNodesConnectedTo(node)));
+            assert(g.getNodesGoingIntoNode(node).equals(expected.getNodesGoingIntoNode(node)));
+            assert(g.getEdgesBetweenNodes(node, node + 1).equals(expected.getEdgesBetweenNodes(node, node + 1)));
+            assert(g.dijkstra(node, false).equals(expected.dijkstra(node, false, (Double d) -> d)));
+            assert(g.dijkstra(node, true).equals(expected.dijkstra(node, true, (Double d) -> d)));
+
+            ArrayList<Map.Entry<Map.Entry<Integer, Integer>, Double>> path = g.findPath(node, 1999 - node);
+            ArrayList<Map.Entry<Map.Entry<Integer, Integer>, Double>> expectedPath = expected.findPath(node, 1999 - node, (Double d) -> d);
+            assert((path == null) == (expectedPath == null));
+            if (path != null) {
+                double length = 0;
+                double expectedLength = 0;
+                for (Map.Entry<Map.Entry<Integer, Integer>, Double> step : path) length += step.getValue();
+                for (Map.Entry<Map.Entry<Integer, Integer>, Double> step : expectedPath) expectedLength += step.getValue();
+                assert(length == expectedLength);
+            }
+        }
+        assert(new HashSet<Integer>(g.getNodes()).equals(new HashSet<Integer>(expected.getNodes())));
+    }
+}
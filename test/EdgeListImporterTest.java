@@ -0,0 +1,134 @@
+import Graph.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class EdgeListImporterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+
+    private Path write(String name, String text) throws IOException {
+
+        Path path = folder.newFile(name).toPath();
+        Files.write(path, text.getBytes(StandardCharsets.UTF_8));
+        return path;
+    }
+
+    @Test
+    public void testImport() throws IOException {
+
+        Path path = write("edges.csv", "parent,child,weight\r\n" +
+                "A,B,1.5\r\n" +
+                "\r\n" +
+                "A,B,2\n" +
+                "B,C,-0.25\n" +
+                "C,D,1e3\n" +
+                "D,A,123456789012345678\n" +
+                "D,B,0.1\n" +
+                "\u00e9,A, 2.5\n" +
+                "B,B,1.7976931348623157E308");
+
+        Graph<String, Double> g = new EdgeListImporter(',', true).importGraph(path);
+
+        assert(new HashSet<String>(g.getNodes()).size() == 5);
+        assert(g.getEdgesBetweenNodes("A", "B").size() == 2);
+        assert(g.getEdgesBetweenNodes("A", "B").contains(1.5));
+        assert(g.getEdgesBetweenNodes("A", "B").contains(2.0));
+        assert(g.getEdgesBetweenNodes("B", "C").contains(-0.25));
+        assert(g.getEdgesBetweenNodes("C", "D").contains(1000.0));
+        assert(g.getEdgesBetweenNodes("D", "A").contains(123456789012345678.0));
+        assert(g.getEdgesBetweenNodes("D", "B").contains(0.1));
+        assert(g.getEdgesBetweenNodes("\u00e9", "A").contains(2.5));
+        assert(g.getEdgesBetweenNodes("B", "B").contains(Double.MAX_VALUE));
+        assert(!g.hasNode("parent"));
+    }
+
+    @Test
+    public void testTsvAndBadLines() throws IOException {
+
+        Path tsv = write("edges.tsv", "A\tB\t3\nB\tC\t4\n");
+        Graph<String, Double> g = EdgeListImporter.tsv().importGraph(tsv);
+        assert(g.dijkstra("A", false, (Double d) -> d).get("C").equals(7.0));
+
+        try {
+            EdgeListImporter.csv().importGraph(write("short.csv", "A,B,1\nA,B\n"));
+            assert(false);
+        } catch (IOException e) {
+        }
+
+        try {
+            EdgeListImporter.csv().importGraph(write("number.csv", "A,B,one\n"));
+            assert(false);
+        } catch (IOException e) {
+        }
+    }
+
+    @Test
+    public void testParallelImport() throws IOException {
+
+        // big enough to be split into chunks
+        Random random = new Random(18);
+        Path path = folder.newFile("big.csv").toPath();
+        ArrayList<String[]> lines = new ArrayList<String[]>();
+
+        try (BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < 600000; i++) {
+                String[] line = { "node" + random.nextInt(40000), "node" + random.nextInt(40000), (random.nextInt(1000) / 8.0) + "" };
+                lines.add(line);
+                out.write(line[0] + "," + line[1] + "," + line[2] + "\n");
+            }
+        }
+
+        EdgeListImporter importer = EdgeListImporter.csv();
+        importer.setBatchSize(1000);
+
+        long[] last = new long[3];
+        importer.setProgressListener((long bytesRead, long totalBytes, long edgesRead, long elapsedNanos) -> {
+            assert(bytesRead >= last[0] && edgesRead >= last[1]);
+            last[0] = bytesRead;
+            last[1] = edgesRead;
+            last[2]++;
+        });
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        GraphBuilder<String, Double> builder = new GraphBuilder<String, Double>();
+        try {
+            assert(importer.importInto(path, builder, pool) == 600000);
+        } finally {
+            pool.shutdown();
+        }
+
+        assert(last[0] == Files.size(path));
+        assert(last[1] == 600000);
+        assert(last[2] > 1);
+
+        Graph<String, Double> expected = new Graph<String, Double>();
+        for (String[] line : lines) {
+            expected.addNode(line[0]);
+            expected.addNode(line[1]);
+            expected.addEdge(line[0], line[1], Double.parseDouble(line[2]));
+        }
+
+        Graph<String, Double> g = builder.build();
+        assert(new HashSet<String>(g.getNodes()).equals(new HashSet<String>(expected.getNodes())));
+        for (String node : expected.getNodes()) {
+            for (String next : expected.getNodesConnectedTo(node)) {
+                assert(g.getEdgesBetweenNodes(node, next).equals(expected.getEdgesBetweenNodes(node, next)));
+            }
+        }
+    }
+}
@@ -1,5 +1,9 @@
 import Graph.*;
 import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
 import static org.junit.Assert.*;
 
 public class EdgeTest {
@@ -49,4 +53,55 @@ public class EdgeTest {
         assert(e.getChild() == n);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testLabelsWithoutCopying() {
+
+        Node<String, Double> parent = new Node<String, Double>("Parent");
+        Node<String, Double> child = new Node<String, Double>("Child");
+
+        Edge<String, Double> e = new Edge<String, Double>(parent, 3.0, child);
+        assert(e.addLabel(1.0));
+        assert(e.addLabel(2.0));
+
+        assert(e.getLabelsView().equals(e.getLabels()));
+        assert(e.getMinWeight((Double d) -> d) == 1.0);
+        assert(e.getMinLabel((Double d) -> d).equals(1.0));
+        assert(e.getMinLabel((Double d) -> -d).equals(3.0));
+
+        double[] sum = new double[1];
+        e.forEachLabel((Double d) -> sum[0] += d);
+        assert(sum[0] == 6.0);
+
+        assert(e.addLabel(0.5));
+        assert(e.getLabelsView().size() == 4);
+    }
+
+    @Test
+    public void testManyLabels() {
+
+        Node<String, Integer> parent = new Node<String, Integer>("Parent");
+        Node<String, Integer> child = new Node<String, Integer>("Child");
+
+        Edge<String, Integer> e = new Edge<String, Integer>(parent, 0, child);
+        Set<Integer> view = e.getLabelsView();
+        assert(view.size() == 1);
+
+        // one label, then an array of labels and then a set
+        HashSet<Integer> expected = new HashSet<Integer>();
+        expected.add(0);
+        for (int i = 1; i < 20; i++) {
+            assert(e.addLabel(i));
+            assert(!e.addLabel(i));
+            assert(!e.addLabel(0));
+            expected.add(i);
+
+            assert(e.getLabelsCount() == i + 1);
+            assert(e.getLabels().equals(expected));
+            assert(view.equals(expected));
+            assert(e.hasLabel(i) && !e.hasLabel(-i));
+            assert(e.getMinLabel((Integer n) -> -n) == i);
+            assert(e.getMinLabel((Integer n) -> n) == 0);
+            assert(e.getMinWeight((Integer n) -> -n) == -i);
+        }
+    }
+}
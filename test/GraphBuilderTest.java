@@ -0,0 +1,128 @@
+import Graph.*;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToDoubleFunction;
+
+import static org.junit.Assert.*;
+
+public class GraphBuilderTest {
+
+
+    // checks that built has the same nodes, edges and labels as expected
+    private void assertSameGraph(Graph<Integer, Double> expected, Graph<Integer, Double> built) {
+
+        assert(new HashSet<Integer>(expected.getNodes()).equals(new HashSet<Integer>(built.getNodes())));
+
+        for (Integer node : expected.getNodes()) {
+            assert(expected.getNodesConnectedTo(node).equals(built.getNodesConnectedTo(node)));
+            assert(expected.getNodesGoingIntoNode(node).equals(built.getNodesGoingIntoNode(node)));
+
+            for (Integer next : expected.getNodesConnectedTo(node)) {
+                assert(expected.getEdgesBetweenNodes(node, next).equals(built.getEdgesBetweenNodes(node, next)));
+            }
+        }
+        assert(expected.getVersion() == built.getVersion());
+    }
+
+    private void fillRandom(Random random, int nodeCount, int edgeCount, Graph<Integer, Double> g, GraphBuilder<Integer, Double> b) {
+
+        for (int i = 0; i < nodeCount; i++) {
+            g.addNode(i);
+            b.addNode(i);
+        }
+        for (int i = 0; i < edgeCount; i++) {
+            int parent = random.nextInt(nodeCount);
+            int child = random.nextInt(nodeCount);
+            // few weights so there are parallel edges with the same label
+            double weight = random.nextInt(5) + 1;
+            g.addEdge(parent, child, weight);
+            b.addEdge(parent, child, weight);
+        }
+    }
+
+    @Test
+    public void testBuild() {
+
+        GraphBuilder<String, Double> b = new GraphBuilder<String, Double>();
+        assert(b.addNode("A"));
+        assert(!b.addNode("A"));
+
+        b.addEdge("A", "B", 1.0);
+        b.addEdge("A", "B", 2.0);
+        b.addEdge("A", "B", 1.0);
+        b.addEdge("B", "C", 3.0);
+        b.addEdge("C", "C", 4.0);
+        assert(b.nodeCount() == 3);
+        assert(b.edgeCount() == 5);
+
+        Graph<String, Double> g = b.build();
+        assert(b.nodeCount() == 0 && b.edgeCount() == 0);
+
+        assert(g.getNodes().size() == 3);
+        assert(g.getEdgesBetweenNodes("A", "B").size() == 2);
+        assert(g.getNodesGoingIntoNode("C").contains("B"));
+        assert(g.getNodesGoingIntoNode("C").contains("C"));
+        assert(g.dijkstra("A", false, (Double d) -> d).get("C").equals(4.0));
+
+        // the same as adding them one by one
+        Graph<String, Double> one = new Graph<String, Double>();
+        one.addNode("A");
+        one.addNode("B");
+        one.addNode("C");
+        one.addEdge("A", "B", 1.0);
+        one.addEdge("A", "B", 2.0);
+        one.addEdge("B", "C", 3.0);
+        one.addEdge("C", "C", 4.0);
+        assert(one.getVersion() == g.getVersion());
+
+        // the built graph can be changed like any other
+        assert(g.addEdge("C", "A", 1.0));
+        assert(g.getVersion() == one.getVersion() + 1);
+    }
+
+    @Test
+    public void testBuildMatchesAddEdge() {
+
+        Random random = new Random(16);
+        Graph<Integer, Double> g = new Graph<Integer, Double>();
+        GraphBuilder<Integer, Double> b = new GraphBuilder<Integer, Double>(500, 3000);
+        fillRandom(random, 500, 3000, g, b);
+
+        Graph<Integer, Double> built = b.build();
+        assertSameGraph(g, built);
+
+        ToDoubleFunction<Double> toDouble = (Double d) -> d;
+        for (int source = 0; source < 500; source += 50) {
+            assert(g.dijkstra(source, false, toDouble).equals(built.dijkstra(source, false, toDouble)));
+            assert(g.dijkstra(source, true, toDouble).equals(built.dijkstra(source, true, toDouble)));
+        }
+    }
+
+    @Test
+    public void testParallelBuild() {
+
+        Random random = new Random(42);
+        Graph<Integer, Double> g = new Graph<Integer, Double>();
+        GraphBuilder<Integer, Double> b = new GraphBuilder<Integer, Double>(20000, 80000);
+        fillRandom(random, 20000, 80000, g, b);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Graph<Integer, Double> built = b.build(pool);
+            assertSameGraph(g, built);
+
+            ToDoubleFunction<Double> toDouble = (Double d) -> d;
+            Map<Integer, Double> expected = g.dijkstra(0, false, toDouble);
+            assert(expected.equals(built.dijkstra(0, false, toDouble)));
+
+            // a WeightedView keeps the weights by edge id, so the ids have to be unique
+            assert(expected.equals(built.dijkstra(0, false, new WeightedView<Integer, Double>(built, toDouble))));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
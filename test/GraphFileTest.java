@@ -0,0 +1,150 @@
+import Graph.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.function.ToDoubleFunction;
+
+import static org.junit.Assert.*;
+
+public class GraphFileTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+
+    private Graph<String, Double> makeGraph() {
+
+        Graph<String, Double> g = new Graph<String, Double>();
+        g.addNode("D");
+        g.addNode("C");
+        g.addNode("B");
+        g.addNode("A");
+        g.addNode("E");
+
+        g.addEdge("A", "B", 1.0);
+        g.addEdge("A", "B", 3.0);
+        g.addEdge("B", "C", 1.0);
+        g.addEdge("A", "C", 5.0);
+        g.addEdge("C", "D", 2.0);
+        g.addEdge("D", "D", 1.0);
+
+        return g;
+    }
+
+    @Test
+    public void testWriteAndOpen() throws IOException {
+
+        Graph<String, Double> g = makeGraph();
+        Path path = folder.newFile("graph.bin").toPath();
+        GraphFile.write(g, path, LabelCodec.strings(), LabelCodec.doubles());
+
+        GraphFile<String, Double> f = GraphFile.open(path, LabelCodec.strings(), LabelCodec.doubles());
+        assert(f.nodeCount() == 5);
+        assert(f.edgeCount() == 5);
+
+        // node ids are in the order of the labels
+        for (int id = 0; id < f.nodeCount(); id++) {
+            assert(f.getNodeId(f.getNodeLabel(id)) == id);
+        }
+        assert(f.getNodeLabel(0).equals("A"));
+        assert(f.getNodeId("F") == -1);
+        assert(!f.hasNode("F"));
+
+        for (String node : g.getNodes()) {
+            assert(f.getNodesConnectedTo(node).equals(g.getNodesConnectedTo(node)));
+            assert(f.getNodesGoingIntoNode(node).equals(g.getNodesGoingIntoNode(node)));
+            for (String next : g.getNodes()) {
+                assert(f.getEdgesBetweenNodes(node, next).equals(g.getEdgesBetweenNodes(node, next)));
+            }
+        }
+
+        ToDoubleFunction<Double> toDouble = (Double d) -> d;
+        assert(f.dijkstra("A", false, toDouble).equals(g.dijkstra("A", false, toDouble)));
+        assert(f.dijkstra("D", true, toDouble).equals(g.dijkstra("D", true, toDouble)));
+        assert(f.dijkstra("F", false, toDouble).get("F").equals(0.0));
+
+        Graph<String, Double> copy = f.toGraph();
+        assert(new HashSet<String>(copy.getNodes()).equals(new HashSet<String>(g.getNodes())));
+        assert(copy.getEdgesBetweenNodes("A", "B").size() == 2);
+    }
+
+    @Test
+    public void testRandomGraph() throws IOException {
+
+        Random random = new Random(17);
+        Graph<Integer, Integer> g = new Graph<Integer, Integer>();
+        for (int i = -200; i < 800; i++) {
+            g.addNode(i);
+        }
+        for (int i = 0; i < 5000; i++) {
+            g.addEdge(random.nextInt(1000) - 200, random.nextInt(1000) - 200, random.nextInt(20));
+        }
+
+        Path path = folder.newFile("random.bin").toPath();
+        GraphFile.write(g, path, LabelCodec.integers(), LabelCodec.integers());
+        GraphFile<Integer, Integer> f = GraphFile.open(path, LabelCodec.integers(), LabelCodec.integers());
+
+        assert(f.nodeCount() == 1000);
+        for (int node = -200; node < 800; node++) {
+            assert(f.getNodesConnectedTo(node).equals(g.getNodesConnectedTo(node)));
+        }
+
+        ToDoubleFunction<Integer> toDouble = (Integer d) -> d;
+        for (int source = -200; source < 800; source += 100) {
+            assert(f.dijkstra(source, false, toDouble).equals(g.dijkstra(source, false, toDouble)));
+            assert(f.dijkstra(source, true, toDouble).equals(g.dijkstra(source, true, toDouble)));
+        }
+    }
+
+    @Test
+    public void testBadFiles() throws IOException {
+
+        Path path = folder.newFile("bad.bin").toPath();
+        Files.write(path, new byte[100]);
+
+        try {
+            GraphFile.open(path, LabelCodec.strings(), LabelCodec.doubles());
+            assert(false);
+        } catch (IOException e) {
+        }
+
+        // a file cut short
+        GraphFile.write(makeGraph(), path, LabelCodec.strings(), LabelCodec.doubles());
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+        try {
+            GraphFile.open(path, LabelCodec.strings(), LabelCodec.doubles());
+            assert(false);
+        } catch (IOException e) {
+        }
+
+        // two labels with the same bytes
+        Graph<String, Double> g = new Graph<String, Double>();
+        g.addNode("A");
+        g.addNode("B");
+        LabelCodec<String> same = new LabelCodec<String>() {
+            @Override
+            public byte[] encode(String label) {
+                return new byte[1];
+            }
+
+            @Override
+            public String decode(ByteBuffer bytes) {
+                return "A";
+            }
+        };
+        try {
+            GraphFile.write(g, path, same, LabelCodec.doubles());
+            assert(false);
+        } catch (IllegalArgumentException e) {
+        }
+    }
+}
@@ -0,0 +1,89 @@
+import Graph.*;
+import Graph.generator.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class GraphGeneratorTest {
+
+    // every edge a generator makes, in the order it makes them
+    private static List<String> edges(GraphGenerator generator, long seed, ForkJoinPool pool) {
+
+        List<String> edges = new ArrayList<String>();
+        generator.generate(seed, pool, (int parent, int child, double weight) -> edges.add(parent + " " + child + " " + weight));
+        return edges;
+    }
+
+    @Test
+    public void testSameGraphForEveryPool() {
+
+        List<GraphGenerator> generators = Arrays.asList(
+                new GridGenerator(300, 200, 1.0, 5.0, 0.1),
+                new ErdosRenyiGenerator(10000, 100000),
+                new RMatGenerator(10000, 100000),
+                new MultiLabelGenerator(1000, 20000, 1, 4));
+
+        for (GraphGenerator generator : generators) {
+
+            List<String> one = edges(generator, 7, new ForkJoinPool(1));
+            List<String> four = edges(generator, 7, new ForkJoinPool(4));
+            assert(one.equals(four));
+            assert(!one.equals(edges(generator, 8, new ForkJoinPool(4))));
+
+            for (String edge : one) {
+                String[] parts = edge.split(" ");
+                assert(Integer.parseInt(parts[0]) < generator.nodeCount());
+                assert(Integer.parseInt(parts[1]) < generator.nodeCount());
+            }
+        }
+    }
+
+    @Test
+    public void testGrid() {
+
+        Graph<Integer, Double> g = new GridGenerator(50, 40).generate(1, new ForkJoinPool(4));
+        assert(g.nodeCount() == 2000);
+        assert(g.edgeCount() == new GridGenerator(50, 40).expectedEdgeCount());
+
+        // a corner, an edge and a middle cell
+        assert(g.getNodesConnectedTo(0).equals(new HashSet<Integer>(Arrays.asList(1, 50))));
+        assert(g.getNodesConnectedTo(1).size() == 3);
+        assert(g.getNodesConnectedTo(51).size() == 4);
+        assert(g.getEdgesBetweenNodes(51, 52).equals(g.getEdgesBetweenNodes(52, 51)));
+        assert(g.getReachableNodes(0, false).size() == 2000);
+    }
+
+    @Test
+    public void testRandomGraphs() {
+
+        Graph<Integer, Double> uniform = new ErdosRenyiGenerator(1000, 5000).generate(3, new ForkJoinPool(4));
+        assert(uniform.nodeCount() == 1000);
+        assert(uniform.edgeCount() > 4900 && uniform.edgeCount() <= 5000);
+
+        // a few nodes of an R-MAT graph have many more edges than any node of a uniform graph
+        Graph<Integer, Double> rmat = new RMatGenerator(1000, 5000).generate(3, new ForkJoinPool(4));
+        int uniformMax = 0;
+        int rmatMax = 0;
+        for (int node = 0; node < 1000; node++) {
+            uniformMax = Math.max(uniformMax, uniform.getNodesConnectedTo(node).size());
+            rmatMax = Math.max(rmatMax, rmat.getNodesConnectedTo(node).size());
+        }
+        assert(rmatMax > 3 * uniformMax);
+
+        Graph<Integer, Double> multi = new MultiLabelGenerator(100, 300, 3, 3).generate(3, new ForkJoinPool(4));
+        int labels = 0;
+        for (int node = 0; node < 100; node++) {
+            for (int next : multi.getNodesConnectedTo(node)) {
+                labels += multi.getEdgesBetweenNodes(node, next).size();
+            }
+        }
+        assert(labels == 900);
+        assert(multi.edgeCount() <= 300);
+    }
+}
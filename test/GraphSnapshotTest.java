@@ -0,0 +1,113 @@
+import Graph.*;
+import org.junit.Test;
+
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+
+public class GraphSnapshotTest {
+
+
+    private Graph<String, String> makeGraph() {
+
+        Graph<String, String> g = new Graph<String, String>();
+        assert(g.addNode("A"));
+        assert(g.addNode("B"));
+        assert(g.addNode("C"));
+        assert(g.addNode("D"));
+
+        assert(g.addEdge("A", "B", "AB1"));
+        assert(g.addEdge("A", "B", "AB2"));
+        assert(g.addEdge("B", "A", "BA"));
+        assert(g.addEdge("A", "C", "AC"));
+        assert(g.addEdge("C", "C", "CC"));
+
+        return g;
+    }
+
+
+    @Test
+    public void testCounts() {
+
+        GraphSnapshot<String, String> s = makeGraph().freeze();
+
+        assert(s.nodeCount() == 4);
+        assert(s.edgeCount() == 4);
+        assert(s.getNodes().size() == 4);
+
+        for (int id = 0; id < s.nodeCount(); id++) {
+            assert(s.getNodeId(s.getNodeLabel(id)) == id);
+        }
+
+        assert(s.getNodeId("Z") == -1);
+        assert(!s.hasNode("Z"));
+        assert(!s.hasNode(null));
+    }
+
+
+    @Test
+    public void testSameQueriesAsGraph() {
+
+        Graph<String, String> g = makeGraph();
+        GraphSnapshot<String, String> s = GraphSnapshot.of(g);
+
+        for (String from : g.getNodes()) {
+
+            assert(s.getNodesConnectedTo(from).equals(g.getNodesConnectedTo(from)));
+            assert(s.getNodesGoingIntoNode(from).equals(g.getNodesGoingIntoNode(from)));
+
+            for (String to : g.getNodes()) {
+                assert(s.getEdgesBetweenNodes(from, to).equals(g.getEdgesBetweenNodes(from, to)));
+            }
+        }
+
+        assert(s.getNodesConnectedTo("Z").size() == 0);
+        assert(s.getNodesGoingIntoNode(null).size() == 0);
+        assert(s.getEdgesBetweenNodes("A", "Z").size() == 0);
+    }
+
+
+    @Test
+    public void testArrayWalks() {
+
+        GraphSnapshot<String, String> s = makeGraph().freeze();
+        int a = s.getNodeId("A");
+        int b = s.getNodeId("B");
+        int c = s.getNodeId("C");
+
+        HashSet<String> next = new HashSet<String>();
+        for (int e = s.getOutEdgeStart(a); e < s.getOutEdgeEnd(a); e++) {
+            next.add(s.getNodeLabel(s.getEdgeTarget(e)));
+        }
+        assert(next.size() == 2 && next.contains("B") && next.contains("C"));
+
+        int ab = s.getEdge(a, b);
+        assert(ab != -1);
+        assert(s.getLabelCount(ab) == 2);
+        assert(s.getEdge(b, c) == -1);
+
+        HashSet<String> prev = new HashSet<String>();
+        for (int r = s.getInEdgeStart(a); r < s.getInEdgeEnd(a); r++) {
+            prev.add(s.getNodeLabel(s.getInEdgeSource(r)));
+            assert(s.getEdgeTarget(s.getInEdge(r)) == a);
+        }
+        assert(prev.size() == 1 && prev.contains("B"));
+    }
+
+
+    @Test
+    public void testSnapshotDoesNotChange() {
+
+        Graph<String, String> g = makeGraph();
+        GraphSnapshot<String, String> s = g.freeze();
+
+        assert(g.addNode("E"));
+        assert(g.addEdge("D", "E", "DE"));
+        assert(g.addEdge("A", "B", "AB3"));
+
+        assert(s.nodeCount() == 4);
+        assert(s.edgeCount() == 4);
+        assert(!s.hasNode("E"));
+        assert(s.getEdgesBetweenNodes("A", "B").size() == 2);
+    }
+}
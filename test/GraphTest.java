@@ -2,8 +2,11 @@ import Graph.*;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Random;
+import java.util.Set;
 
 import static org.junit.Assert.*;
 
@@ -300,4 +303,270 @@ public class GraphTest {
 
     }
 
-}
\ No newline at end of file
+
+    // the sum of the smallest label on every step of path, or -1 if path is not connected
+    private double pathLength(Graph<Integer, Double> g, ArrayList<Map.Entry<Map.Entry<Integer, Integer>, Double>> path) {
+
+        double length = 0.0;
+        for (int i = 0; i < path.size(); i++) {
+
+            Map.Entry<Integer, Integer> step = path.get(i).getKey();
+            if (i > 0 && !path.get(i - 1).getKey().getValue().equals(step.getKey())) return -1;
+            if (!g.getEdgesBetweenNodes(step.getKey(), step.getValue()).contains(path.get(i).getValue())) return -1;
+
+            length += path.get(i).getValue();
+        }
+        return length;
+    }
+
+    @Test
+    public void testFindPathMatchesDijkstra() {
+
+        Random random = new Random(3);
+        Graph<Integer, Double> g = new Graph<Integer, Double>();
+
+        for (int i = 0; i < 100; i++) {
+            g.addNode(i);
+        }
+        for (int i = 0; i < 300; i++) {
+            g.addEdge(random.nextInt(100), random.nextInt(100), (double) random.nextInt(50));
+        }
+
+        for (int start = 0; start < 100; start += 7) {
+
+            Map<Integer, Double> distances = g.dijkstra(start, false, (Double d) -> d);
+
+            for (int to = 0; to < 100; to += 3) {
+
+                ArrayList<Map.Entry<Map.Entry<Integer, Integer>, Double>> path = g.findPath(start, to, (Double d) -> d);
+
+                if (!distances.containsKey(to)) {
+                    assert(path == null);
+                } else {
+                    assert(pathLength(g, path) == distances.get(to));
+                    if (start != to) {
+                        assert(path.get(0).getKey().getKey().equals(start));
+                        assert(path.get(path.size() - 1).getKey().getValue().equals(to));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFindPathNoPath() {
+
+        Graph<String, Double> g = new Graph<String,Double>();
+
+        g.addNode("A");
+        g.addNode("B");
+        g.addEdge("B", "A", 1.0);
+
+        assert(g.findPath("A", "B", (Double d) -> d) == null);
+        assert(g.findPath("A", "Z", (Double d) -> d) == null);
+        assert(g.findPath("Z", "A", (Double d) -> d) == null);
+        assert(g.findPath("A", "A", (Double d) -> d).size() == 0);
+        assert(g.findPath("B", "A", (Double d) -> d).size() == 1);
+    }
+
+    @Test
+    public void testFindPathBidirectional() {
+
+        Random random = new Random(5);
+        Graph<Integer, Double> g = new Graph<Integer, Double>();
+
+        for (int i = 0; i < 100; i++) {
+            g.addNode(i);
+        }
+        for (int i = 0; i < 300; i++) {
+            g.addEdge(random.nextInt(100), random.nextInt(100), (double) random.nextInt(50));
+        }
+
+        for (int start = 0; start < 100; start += 7) {
+
+            Map<Integer, Double> distances = g.dijkstra(start, false, (Double d) -> d);
+
+            for (int to = 0; to < 100; to += 3) {
+
+                ArrayList<Map.Entry<Map.Entry<Integer, Integer>, Double>> path = g.findPathBidirectional(start, to, (Double d) -> d);
+
+                if (!distances.containsKey(to)) {
+                    assert(path == null);
+                } else {
+                    assert(pathLength(g, path) == distances.get(to));
+                }
+            }
+        }
+
+        assert(g.findPathBidirectional(0, 1000, (Double d) -> d) == null);
+        assert(g.findPathBidirectional(4, 4, (Double d) -> d).size() == 0);
+    }
+
+    @Test
+    public void testViewsAndVisitors() {
+
+        Graph<String, String> g = new Graph<String, String>();
+        assert(g.addNode("A"));
+        assert(g.addNode("B"));
+        assert(g.addNode("C"));
+
+        assert(g.addEdge("A", "B", "AB1"));
+        assert(g.addEdge("A", "C", "AC"));
+
+        Set<String> next = g.getNodesConnectedToView("A");
+        Set<String> prev = g.getNodesGoingIntoNodeView("B");
+        Set<String> labels = g.getEdgesBetweenNodesView("A", "B");
+
+        assert(next.equals(g.getNodesConnectedTo("A")));
+        assert(prev.equals(g.getNodesGoingIntoNode("B")));
+        assert(labels.equals(g.getEdgesBetweenNodes("A", "B")));
+
+        // views see later changes
+        assert(g.addEdge("A", "B", "AB2"));
+        assert(g.addEdge("C", "B", "CB"));
+        assert(labels.size() == 2);
+        assert(prev.size() == 2);
+
+        // views are read-only
+        try {
+            next.add("Z");
+            assert(false);
+        } catch (UnsupportedOperationException e) {
+            assert(next.size() == 2);
+        }
+
+        assert(g.getNodesConnectedToView("Z").size() == 0);
+        assert(g.getNodesGoingIntoNodeView(null).size() == 0);
+        assert(g.getEdgesBetweenNodesView("B", "A").size() == 0);
+        assert(g.getEdgesBetweenNodesView("Z", "A").size() == 0);
+
+        HashSet<String> seen = new HashSet<String>();
+        int[] labelCount = new int[1];
+        g.forEachOutNeighbor("A", (String node, Edge<String, String> e) -> {
+            seen.add(node);
+            labelCount[0] += e.getLabelsCount();
+        });
+        assert(seen.equals(g.getNodesConnectedTo("A")));
+        assert(labelCount[0] == 3);
+
+        seen.clear();
+        g.forEachInNeighbor("B", (String node, Edge<String, String> e) -> seen.add(node));
+        assert(seen.equals(g.getNodesGoingIntoNode("B")));
+
+        seen.clear();
+        g.forEachOutNeighbor("Z", (String node, Edge<String, String> e) -> seen.add(node));
+        assert(seen.size() == 0);
+    }
+
+    @Test
+    public void testBreadthFirstSearch() {
+
+        Graph<String, Double> g = new Graph<String, Double>();
+        g.addNode("A");
+        g.addNode("B");
+        g.addNode("C");
+        g.addNode("D");
+        g.addNode("E");
+
+        g.addEdge("A", "B", 100.0);
+        g.addEdge("B", "C", 100.0);
+        g.addEdge("C", "D", 1.0);
+        g.addEdge("A", "C", 500.0);
+        g.addEdge("E", "A", 1.0);
+
+        Map<String, Integer> levels = g.bfsLevels("A", false);
+        assert(levels.size() == 4);
+        assert(levels.get("A") == 0);
+        assert(levels.get("B") == 1);
+        assert(levels.get("C") == 1);
+        assert(levels.get("D") == 2);
+
+        levels = g.bfsLevels("D", true);
+        assert(levels.get("E") == 3);
+        assert(levels.equals(g.parallelBfsLevels("D", true)));
+
+        assert(g.getReachableNodes("C", false).equals(new HashSet<String>(Arrays.asList("C", "D"))));
+        assert(g.getReachableNodes("Z", false).isEmpty());
+        assert(g.bfsLevels("Z", false).isEmpty());
+
+        assert(g.findPathFewestEdges("A", "D").equals(Arrays.asList("A", "C", "D")));
+        assert(g.findPathFewestEdges("E", "E").equals(Arrays.asList("E")));
+        assert(g.findPathFewestEdges("D", "A") == null);
+        assert(g.findPathFewestEdges("A", "Z") == null);
+    }
+
+    @Test
+    public void testSearchesReuseNodeIds() {
+
+        GraphBuilder<Integer, Double> b = new GraphBuilder<Integer, Double>();
+        for (int i = 0; i < 50; i++) {
+            b.addEdge(i, i + 1, 1.0);
+        }
+        Graph<Integer, Double> g = b.build();
+
+        // nodes added after build get the next ids
+        assert(g.addNode(100));
+        assert(g.addEdge(50, 100, 2.0));
+        assert(g.addEdge(0, 100, 60.0));
+
+        for (int repeat = 0; repeat < 3; repeat++) {
+
+            Map<Integer, Double> distances = g.dijkstra(0, false, (Double d) -> d);
+            assert(distances.size() == 52);
+            assert(distances.get(100) == 52.0);
+            assert(g.findPath(0, 100, (Double d) -> d).size() == 51);
+            assert(g.findPathBidirectional(0, 100, (Double d) -> d).size() == 51);
+            assert(g.findPathFewestEdges(0, 100).equals(Arrays.asList(0, 100)));
+            assert(g.bfsLevels(100, true).get(0) == 1);
+        }
+    }
+
+    @Test
+    public void testSearchInsideSearch() {
+
+        Graph<String, Double> g = new Graph<String, Double>();
+        g.addNode("A");
+        g.addNode("B");
+        g.addNode("C");
+        g.addEdge("A", "B", 1.0);
+        g.addEdge("B", "C", 1.0);
+        g.addEdge("A", "C", 5.0);
+
+        // the heuristic searches the same graph while the A* search is running
+        ArrayList<Map.Entry<Map.Entry<String, String>, Double>> path = g.findPath("A", "C", (Double d) -> d,
+                (String node, String to) -> g.dijkstra(node, false, (Double d) -> d).getOrDefault(to, 0.0));
+
+        assert(path.size() == 2);
+        assert(path.get(0).getKey().getValue().equals("B"));
+        assert(g.dijkstra("A", false, (Double d) -> d).get("C") == 2.0);
+    }
+
+    @Test
+    public void testSearchesFromManyThreads() throws InterruptedException {
+
+        Graph<Integer, Double> g = RandomGraphs.make(8, 500, 3000, (Random r) -> (double) r.nextInt(10));
+        Map<Integer, Double> expected = g.dijkstra(0, false, (Double d) -> d);
+
+        // the threads take searches from and give them back to the pool of the graph
+        Thread[] threads = new Thread[8];
+        boolean[] same = new boolean[threads.length];
+        for (int t = 0; t < threads.length; t++) {
+            int thread = t;
+            threads[t] = new Thread(() -> {
+                boolean allSame = true;
+                for (int i = 0; i < 50; i++) {
+                    allSame &= g.dijkstra(0, false, (Double d) -> d).equals(expected);
+                }
+                same[thread] = allSame;
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (boolean s : same) {
+            assert(s);
+        }
+    }
+}
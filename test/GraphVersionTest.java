@@ -0,0 +1,191 @@
+import Graph.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class GraphVersionTest {
+
+
+    @Test
+    public void testVersionCountsChanges() {
+
+        Graph<String, Double> g = new Graph<String, Double>();
+        assert(g.getVersion() == 0);
+
+        g.addNode("A");
+        g.addNode("B");
+        assert(g.getVersion() == 2);
+
+        g.addNode("A");
+        assert(g.getVersion() == 2);
+
+        g.addEdge("A", "B", 1.0);
+        g.addEdge("A", "B", 2.0);
+        assert(g.getVersion() == 4);
+
+        g.addEdge("A", "B", 2.0);
+        g.addEdge("A", "C", 2.0);
+        assert(g.getVersion() == 4);
+    }
+
+    @Test
+    public void testSnapshotDoesNotChange() {
+
+        Graph<String, Double> g = new Graph<String, Double>();
+        g.addNode("A");
+        g.addNode("B");
+        g.addNode("C");
+        g.addEdge("A", "B", 5.0);
+        g.addEdge("B", "C", 5.0);
+
+        GraphVersion<String, Double> v = g.snapshot();
+        assert(v.getVersion() == g.getVersion());
+
+        g.addNode("D");
+        g.addEdge("A", "B", 1.0);
+        g.addEdge("A", "C", 1.0);
+        g.addEdge("C", "D", 1.0);
+
+        assert(!v.hasNode("D"));
+        assert(v.hasNode("C"));
+        assert(v.getNodes().size() == 3);
+
+        HashSet<String> next = v.getNodesConnectedTo("A");
+        assert(next.size() == 1 && next.contains("B"));
+        assert(v.getNodesGoingIntoNode("C").size() == 1);
+        assert(v.getEdgesBetweenNodes("A", "B").size() == 1);
+        assert(v.getEdgesBetweenNodes("A", "C").isEmpty());
+        assert(v.getEdgesBetweenNodes("C", "D").isEmpty());
+
+        Map<String, Double> distances = v.dijkstra("A", false, (Double d) -> d);
+        assert(distances.size() == 3);
+        assert(distances.get("B").equals(5.0));
+        assert(distances.get("C").equals(10.0));
+
+        assert(v.dijkstra("C", true, (Double d) -> d).get("A").equals(10.0));
+
+        ArrayList<Map.Entry<Map.Entry<String, String>, Double>> path = v.findPath("A", "C", (Double d) -> d);
+        assert(path.size() == 2);
+        assert(path.get(0).getValue().equals(5.0));
+        assert(v.findPath("A", "D", (Double d) -> d) == null);
+
+        // the graph itself sees everything
+        assert(g.dijkstra("A", false, (Double d) -> d).get("D").equals(2.0));
+        assert(g.snapshot().dijkstra("A", false, (Double d) -> d).get("D").equals(2.0));
+    }
+
+    @Test
+    public void testLabelsBeforeFirstSnapshot() {
+
+        // a Graph only remembers when labels were added once it has been snapshotted
+        Graph<String, Double> g = new Graph<String, Double>();
+        g.addNode("A");
+        g.addNode("B");
+        g.addEdge("A", "B", 5.0);
+        g.addEdge("A", "B", 3.0);
+
+        GraphVersion<String, Double> v = g.snapshot();
+        g.addEdge("A", "B", 1.0);
+        GraphVersion<String, Double> w = g.snapshot();
+        g.addEdge("A", "B", 0.5);
+
+        assert(v.getEdgesBetweenNodes("A", "B").size() == 2);
+        assert(v.dijkstra("A", false, (Double d) -> d).get("B").equals(3.0));
+        assert(w.getEdgesBetweenNodes("A", "B").size() == 3);
+        assert(w.dijkstra("A", false, (Double d) -> d).get("B").equals(1.0));
+        assert(g.getEdgesBetweenNodes("A", "B").size() == 4);
+    }
+
+    @Test
+    public void testEveryChangeBecomesVisible() throws InterruptedException {
+
+        // writers that finish out of order never wait for each other, the last one to
+        // finish makes the rest visible
+        final ConcurrentGraph<Integer, Integer> g = new ConcurrentGraph<Integer, Integer>();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            final int thread = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    g.addNode(thread * 500 + i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assert(g.getVersion() == 4000);
+        assert(g.snapshot().getNodes().size() == 4000);
+    }
+
+    @Test
+    public void testRepeatableReadsWhileWriting() throws InterruptedException {
+
+        final ConcurrentGraph<Integer, Integer> g = new ConcurrentGraph<Integer, Integer>();
+        final int nodeCount = 500;
+        for (int i = 0; i < nodeCount; i++) {
+            g.addNode(i);
+        }
+        for (int i = 1; i < nodeCount; i++) {
+            g.addEdge(i - 1, i, 100);
+        }
+
+        final AtomicBoolean writing = new AtomicBoolean(true);
+        final ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<Throwable>();
+        List<Thread> threads = new ArrayList<Thread>();
+
+        for (int w = 0; w < 2; w++) {
+            final int writer = w;
+            threads.add(new Thread(() -> {
+                try {
+                    Random rand = new Random(writer);
+                    for (int i = 0; i < 3000; i++) {
+                        g.addEdge(rand.nextInt(nodeCount), rand.nextInt(nodeCount), 1 + rand.nextInt(100));
+                    }
+                } catch (Throwable t) {
+                    errors.add(t);
+                }
+            }));
+        }
+
+        for (int r = 0; r < 2; r++) {
+            threads.add(new Thread(() -> {
+                try {
+                    while (writing.get()) {
+                        GraphVersion<Integer, Integer> v = g.snapshot();
+                        Map<Integer, Double> first = v.dijkstra(0, false, (Integer i) -> i);
+                        Thread.yield();
+                        Map<Integer, Double> second = v.dijkstra(0, false, (Integer i) -> i);
+                        assertEquals(first, second);
+                        assert(v.getVersion() <= g.getVersion());
+                    }
+                } catch (Throwable t) {
+                    errors.add(t);
+                }
+            }));
+        }
+
+        for (Thread t : threads) t.start();
+        threads.get(0).join();
+        threads.get(1).join();
+        writing.set(false);
+        for (Thread t : threads) t.join();
+
+        if (!errors.isEmpty()) {
+            throw new AssertionError(errors.peek());
+        }
+
+        // a snapshot of the finished graph agrees with the graph
+        assertEquals(g.dijkstra(0, false, (Integer i) -> i), g.snapshot().dijkstra(0, false, (Integer i) -> i));
+    }
+}
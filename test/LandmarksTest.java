@@ -0,0 +1,86 @@
+import Graph.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LandmarksTest {
+
+
+    private Graph<Integer, Double> makeRandomGraph(long seed, int nodeCount, int edgeCount) {
+        return RandomGraphs.make(seed, nodeCount, edgeCount, (Random r) -> 1.0 + r.nextInt(20));
+    }
+
+    private double pathLength(ArrayList<Map.Entry<Map.Entry<Integer, Integer>, Double>> path) {
+
+        double length = 0.0;
+        for (Map.Entry<Map.Entry<Integer, Integer>, Double> step : path) {
+            length += step.getValue();
+        }
+        return length;
+    }
+
+
+    @Test
+    public void testLandmarksArePicked() {
+
+        Graph<Integer, Double> g = makeRandomGraph(1, 50, 150);
+
+        Landmarks<Integer, Double> l = new Landmarks<Integer, Double>(g, 4, (Double d) -> d);
+        assert(l.getLandmarks().size() == 4);
+
+        l = new Landmarks<Integer, Double>(g, 100, (Double d) -> d);
+        assert(l.getLandmarks().size() == 50);
+
+        l = new Landmarks<Integer, Double>(new Graph<Integer, Double>(), 4, (Double d) -> d);
+        assert(l.getLandmarks().size() == 0);
+        assert(l.applyAsDouble(1, 2) == 0.0);
+    }
+
+
+    @Test
+    public void testHeuristicIsALowerBound() {
+
+        Graph<Integer, Double> g = makeRandomGraph(2, 80, 240);
+        Landmarks<Integer, Double> l = new Landmarks<Integer, Double>(g, 5, (Double d) -> d);
+
+        for (int start = 0; start < 80; start += 3) {
+
+            Map<Integer, Double> distances = g.dijkstra(start, false, (Double d) -> d);
+
+            for (Map.Entry<Integer, Double> entry : distances.entrySet()) {
+                assert(l.applyAsDouble(start, entry.getKey()) <= entry.getValue());
+            }
+        }
+    }
+
+
+    @Test
+    public void testFindPathWithHeuristic() {
+
+        Graph<Integer, Double> g = makeRandomGraph(3, 120, 400);
+        Landmarks<Integer, Double> l = new Landmarks<Integer, Double>(g, 6, (Double d) -> d);
+
+        for (int start = 0; start < 120; start += 11) {
+
+            Map<Integer, Double> distances = g.dijkstra(start, false, (Double d) -> d);
+
+            for (int to = 0; to < 120; to += 5) {
+
+                ArrayList<Map.Entry<Map.Entry<Integer, Integer>, Double>> alt = g.findPath(start, to, (Double d) -> d, l);
+                ArrayList<Map.Entry<Map.Entry<Integer, Integer>, Double>> plain = g.findPath(start, to, (Double d) -> d, (Integer a, Integer b) -> 0.0);
+
+                if (!distances.containsKey(to)) {
+                    assert(alt == null);
+                    assert(plain == null);
+                } else {
+                    assert(pathLength(alt) == distances.get(to));
+                    assert(pathLength(plain) == distances.get(to));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+import Graph.*;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.ToDoubleFunction;
+
+import static org.junit.Assert.*;
+
+public class OffHeapGraphTest {
+
+
+    @Test
+    public void testSmallGraph() {
+
+        OffHeapGraphBuilder<String> b = new OffHeapGraphBuilder<String>();
+        assert(b.addNode("E"));
+        assert(!b.addNode("E"));
+        b.addEdge("A", "B", 3.0);
+        b.addEdge("A", "B", 1.0);
+        b.addEdge("A", "B", 3.0);
+        b.addEdge("B", "C", 1.0);
+        b.addEdge("A", "C", 5.0);
+        b.addEdge("C", "D", 2.0);
+        b.addEdge("D", "D", 1.0);
+        assert(b.edgeCount() == 7);
+
+        OffHeapGraph<String> g = b.build();
+        assert(b.nodeCount() == 0);
+        assert(g.nodeCount() == 5);
+        assert(g.edgeCount() == 6);
+        assert(g.getOffHeapByteCount() > 0);
+
+        assert(g.getEdgesBetweenNodes("A", "B").size() == 2);
+        assert(g.getEdgesBetweenNodes("A", "B").contains(1.0));
+        assert(g.getEdgesBetweenNodes("B", "A").isEmpty());
+        assert(g.getEdgesBetweenNodes("A", "F").isEmpty());
+        assert(g.getNodesConnectedTo("A").size() == 2);
+        assert(g.getNodesGoingIntoNode("D").contains("D"));
+        assert(g.getNodesConnectedTo("E").isEmpty());
+
+        Map<String, Double> distances = g.dijkstra("A", false);
+        assert(distances.get("C").equals(2.0));
+        assert(distances.get("D").equals(4.0));
+        assert(!distances.containsKey("E"));
+        assert(g.dijkstra("D", true).get("A").equals(4.0));
+
+        List<Map.Entry<Map.Entry<String, String>, Double>> path = g.findPath("A", "D");
+        assert(path.size() == 3);
+        assert(path.get(0).getKey().getKey().equals("A") && path.get(0).getValue().equals(1.0));
+        assert(path.get(2).getKey().getValue().equals("D"));
+        assert(g.findPath("A", "E") == null);
+        assert(g.findPath("A", "A").isEmpty());
+    }
+
+    @Test
+    public void testMatchesGraph() {
+
+        Random random = new Random(19);
+        Graph<Integer, Double> expected = new Graph<Integer, Double>();
+        OffHeapGraphBuilder<Integer> b = new OffHeapGraphBuilder<Integer>(2000);
+
+        for (int i = 0; i < 2000; i++) {
+            expected.addNode(i);
+            b.addNode(i);
+        }
+        for (int i = 0; i < 20000; i++) {
+            int parent = random.nextInt(2000);
+            int child = random.nextInt(2000);
+            double weight = random.nextInt(10) + 1;
+            expected.addEdge(parent, child, weight);
+            b.addEdge(parent, child, weight);
+        }
+
+        OffHeapGraph<Integer> g = b.build();
+        assert(new HashSet<Integer>(g.getNodes()).equals(new HashSet<Integer>(expected.getNodes())));
+
+        for (int node = 0; node < 2000; node++) {
+            assert(g.getNodesConnectedTo(node).equals(expected.getNodesConnectedTo(node)));
+            assert(g.getNodesGoingIntoNode(node).equals(expected.getNodesGoingIntoNode(node)));
+            for (Integer next : expected.getNodesConnectedTo(node)) {
+                assert(g.getEdgesBetweenNodes(node, next).equals(expected.getEdgesBetweenNodes(node, next)));
+            }
+        }
+
+        ToDoubleFunction<Double> toDouble = (Double d) -> d;
+        for (int source = 0; source < 2000; source += 200) {
+            assert(g.dijkstra(source, false).equals(expected.dijkstra(source, false, toDouble)));
+            assert(g.dijkstra(source, true).equals(expected.dijkstra(source, true, toDouble)));
+
+            List<Map.Entry<Map.Entry<Integer, Integer>, Double>> path = g.findPath(source, 1999 - source);
+            List<Map.Entry<Map.Entry<Integer, Integer>, Double>> expectedPath = expected.findPath(source, 1999 - source, toDouble);
+            assert((path == null) == (expectedPath == null));
+            if (path != null) {
+                double length = 0;
+                for (Map.Entry<Map.Entry<Integer, Integer>, Double> step : path) {
+                    length += step.getValue();
+                }
+                assert(length == expected.dijkstra(source, false, toDouble).get(1999 - source));
+            }
+        }
+    }
+
+    @Test
+    public void testPresizedBuildAndClose() {
+
+        OffHeapGraphBuilder<Integer> b = new OffHeapGraphBuilder<Integer>(10, 100);
+        for (int i = 0; i < 100; i++) {
+            b.addEdge(i % 10, (i + 1) % 10, i);
+        }
+        OffHeapGraph<Integer> g = b.build();
+        assert(g.nodeCount() == 10);
+        assert(g.edgeCount() == 100);
+
+        // the builder can be used again without changing the graph it built
+        b.addEdge(20, 21, 1.0);
+        OffHeapGraph<Integer> other = b.build();
+        assert(other.nodeCount() == 2);
+        assert(g.nodeCount() == 10);
+        assert(!g.hasNode(20));
+        assert(g.getNodesConnectedTo(0).contains(1));
+
+        g.close();
+        assert(g.nodeCount() == 0);
+        assert(g.getOffHeapByteCount() == 0);
+        assert(!g.hasNode(0));
+
+        assert(other.dijkstra(20, false).get(21).equals(1.0));
+        other.close();
+    }
+}
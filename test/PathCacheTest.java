@@ -0,0 +1,109 @@
+import Graph.*;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+import static org.junit.Assert.*;
+
+public class PathCacheTest {
+
+
+    private Graph<String, Double> makeGraph() {
+
+        Graph<String, Double> g = new Graph<String, Double>();
+        g.addNode("A");
+        g.addNode("B");
+        g.addNode("C");
+        g.addNode("D");
+
+        g.addEdge("A", "B", 1.0);
+        g.addEdge("B", "C", 1.0);
+        g.addEdge("A", "C", 5.0);
+
+        return g;
+    }
+
+    @Test
+    public void testHitsAndMisses() {
+
+        Graph<String, Double> g = makeGraph();
+        PathCache<String, Double> cache = new PathCache<String, Double>(g, 10);
+        ToDoubleFunction<Double> toDouble = (Double d) -> d;
+
+        List<Map.Entry<Map.Entry<String, String>, Double>> path = cache.findPath("A", "C", toDouble);
+        assert(path.size() == 2);
+        assert(cache.getMissCount() == 1 && cache.getHitCount() == 0);
+
+        assert(cache.findPath("A", "C", toDouble) == path);
+        assert(cache.getHitCount() == 1);
+
+        // no path is remembered too
+        assert(cache.findPath("A", "D", toDouble) == null);
+        assert(cache.findPath("A", "D", toDouble) == null);
+        assert(cache.getHitCount() == 2 && cache.getMissCount() == 2);
+
+        // other weights are another result
+        cache.findPath("A", "C", (Double d) -> 1.0);
+        assert(cache.getMissCount() == 3);
+
+        Map<String, Double> distances = cache.dijkstra("A", false, toDouble);
+        assert(distances.get("C").equals(2.0));
+        assert(cache.dijkstra("A", false, toDouble) == distances);
+        assert(cache.dijkstra("C", true, toDouble).get("A").equals(2.0));
+        assert(cache.size() == 5);
+
+        try {
+            path.clear();
+            assert(false);
+        } catch (UnsupportedOperationException e) {
+            assert(path.size() == 2);
+        }
+    }
+
+    @Test
+    public void testEviction() {
+
+        Graph<String, Double> g = makeGraph();
+        PathCache<String, Double> cache = new PathCache<String, Double>(g, 2);
+        ToDoubleFunction<Double> toDouble = (Double d) -> d;
+
+        cache.findPath("A", "B", toDouble);
+        cache.findPath("A", "C", toDouble);
+        cache.findPath("A", "B", toDouble);
+        cache.findPath("B", "C", toDouble);
+
+        // A to C was used least recently
+        assert(cache.size() == 2);
+        assert(cache.getEvictionCount() == 1);
+
+        cache.findPath("A", "B", toDouble);
+        assert(cache.getHitCount() == 2);
+        cache.findPath("A", "C", toDouble);
+        assert(cache.getMissCount() == 4);
+    }
+
+    @Test
+    public void testInvalidation() {
+
+        Graph<String, Double> g = makeGraph();
+        PathCache<String, Double> cache = new PathCache<String, Double>(g, 10);
+        ToDoubleFunction<Double> toDouble = (Double d) -> d;
+
+        assert(cache.findPath("A", "D", toDouble) == null);
+        assert(cache.dijkstra("A", false, toDouble).get("C").equals(2.0));
+
+        g.addEdge("C", "D", 1.0);
+        g.addEdge("A", "C", 0.5);
+
+        assert(cache.findPath("A", "D", toDouble).size() == 2);
+        assert(cache.getInvalidationCount() == 2);
+        assert(cache.dijkstra("A", false, toDouble).get("C").equals(0.5));
+        assert(cache.getHitCount() == 0 && cache.getMissCount() == 4);
+
+        g.addNode("E");
+        assert(cache.dijkstra("A", false, toDouble).get("D").equals(1.5));
+        assert(cache.getHitCount() == 0);
+    }
+}
@@ -0,0 +1,34 @@
+import Graph.*;
+
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Graphs made the same way by many of the tests.
+ */
+public class RandomGraphs {
+
+    /**
+     * @param seed
+     * @param nodeCount
+     * @param edgeCount the amount of edges tried, an edge that is already there is not added again
+     * @param label makes the label of each edge from random
+     * @return a graph with the nodes 0 to nodeCount - 1 and edgeCount edges between
+     * 		random nodes, the same graph for the same arguments
+     */
+    public static <E> Graph<Integer, E> make(long seed, int nodeCount, int edgeCount, Function<Random, E> label) {
+
+        Random random = new Random(seed);
+        Graph<Integer, E> g = new Graph<Integer, E>();
+
+        for (int i = 0; i < nodeCount; i++) {
+            g.addNode(i);
+        }
+
+        for (int i = 0; i < edgeCount; i++) {
+            g.addEdge(random.nextInt(nodeCount), random.nextInt(nodeCount), label.apply(random));
+        }
+
+        return g;
+    }
+}
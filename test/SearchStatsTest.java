@@ -0,0 +1,84 @@
+import Graph.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+import static org.junit.Assert.*;
+
+public class SearchStatsTest {
+
+
+    @Test
+    public void testDijkstraCounts() {
+
+        Graph<String, Double> g = new Graph<String, Double>();
+        for (String node : new String[] {"A", "B", "C", "D", "E"}) {
+            g.addNode(node);
+        }
+        g.addEdge("A", "B", 1.0);
+        g.addEdge("A", "B", 4.0);
+        g.addEdge("A", "C", 5.0);
+        g.addEdge("B", "C", 1.0);
+        g.addEdge("C", "D", 1.0);
+
+        ToDoubleFunction<Double> toDouble = (Double d) -> d;
+        SearchStats stats = new SearchStats();
+        Map<String, Double> distances = g.dijkstra("A", false, toDouble, stats);
+        assert(distances.equals(g.dijkstra("A", false, toDouble)));
+
+        assert(stats.getSearches() == 1);
+        assert(stats.getNodesSettled() == 4);
+        assert(stats.getHeapPops() == 4);
+        // A, B, C then D, C is given a shorter distance through B
+        assert(stats.getHeapPushes() == 4);
+        assert(stats.getHeapDecreases() == 1);
+        assert(stats.getStalePops() == 0);
+        assert(stats.getEdgesRelaxed() == 4);
+        // the edge from A to B has two labels
+        assert(stats.getLabelsEvaluated() == 5);
+        assert(stats.getWallNanos() > 0);
+
+        g.dijkstra("A", false, toDouble, stats);
+        assert(stats.getSearches() == 2);
+        assert(stats.getNodesSettled() == 8);
+
+        stats.reset();
+        assert(stats.getSearches() == 0);
+        assert(stats.getNodesSettled() == 0);
+        assert(stats.getWallNanos() == 0);
+    }
+
+    @Test
+    public void testFindPathCounts() {
+
+        Graph<Integer, Double> g = new Graph<Integer, Double>();
+        g.addNode(0);
+        for (int i = 0; i < 100; i++) {
+            g.addNode(i + 1);
+            g.addEdge(i, i + 1, 1.0);
+        }
+
+        ToDoubleFunction<Double> toDouble = (Double d) -> d;
+        SearchStats stats = new SearchStats();
+        ArrayList<Map.Entry<Map.Entry<Integer, Integer>, Double>> path = g.findPath(0, 10, toDouble, stats);
+        assert(path.size() == 10);
+
+        // stops once 10 is settled
+        assert(stats.getNodesSettled() == 11);
+        assert(stats.getEdgesRelaxed() == 10);
+        assert(stats.getHeapPushes() == 11);
+
+        stats.reset();
+        assert(g.findPath(0, 100, EdgeWeigher.<Integer, Double>minLabel(toDouble), stats).size() == 100);
+        assert(stats.getNodesSettled() == 101);
+        assert(stats.getLabelsEvaluated() == 0);
+
+        stats.reset();
+        assert(g.findPath(10, 0, toDouble, stats) == null);
+        assert(stats.getSearches() == 1);
+        assert(stats.getNodesSettled() == 91);
+        assert(stats.toString().contains("nodesSettled=91"));
+    }
+}
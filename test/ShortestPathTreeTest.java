@@ -0,0 +1,118 @@
+import Graph.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ShortestPathTreeTest {
+
+
+    private double pathLength(ArrayList<Map.Entry<Map.Entry<Integer, Integer>, Double>> path) {
+
+        double length = 0;
+        for (Map.Entry<Map.Entry<Integer, Integer>, Double> step : path) {
+            length += step.getValue();
+        }
+        return length;
+    }
+
+    @Test
+    public void testSameAsDijkstraWhileAddingEdges() {
+
+        Random rand = new Random(11);
+        Graph<Integer, Double> g = new Graph<Integer, Double>();
+        int nodeCount = 300;
+
+        for (int i = 0; i < nodeCount; i++) {
+            g.addNode(i);
+        }
+        for (int i = 0; i < 600; i++) {
+            g.addEdge(rand.nextInt(nodeCount), rand.nextInt(nodeCount), (double) (1 + rand.nextInt(100)));
+        }
+
+        ShortestPathTree<Integer, Double> fromZero = new ShortestPathTree<Integer, Double>(g, 0, false, (Double d) -> d);
+        ShortestPathTree<Integer, Double> toZero = new ShortestPathTree<Integer, Double>(g, 0, true, (Double d) -> d);
+
+        for (int i = 0; i < 600; i++) {
+
+            g.addEdge(rand.nextInt(nodeCount), rand.nextInt(nodeCount), (double) (1 + rand.nextInt(100)));
+
+            if (i % 50 == 0) {
+                assertEquals(g.dijkstra(0, false, (Double d) -> d), fromZero.getDistances());
+                assertEquals(g.dijkstra(0, true, (Double d) -> d), toZero.getDistances());
+            }
+        }
+
+        for (int node = 0; node < nodeCount; node++) {
+
+            ArrayList<Map.Entry<Map.Entry<Integer, Integer>, Double>> path = fromZero.getPath(node);
+            if (path == null) {
+                assert(!fromZero.isReached(node));
+                assert(fromZero.getDistance(node) == Double.POSITIVE_INFINITY);
+                continue;
+            }
+            assert(pathLength(path) == fromZero.getDistance(node));
+            if (node != 0) {
+                assert(path.get(0).getKey().getKey() == 0);
+                assert(path.get(path.size() - 1).getKey().getValue() == node);
+            }
+
+            path = toZero.getPath(node);
+            if (path != null && node != 0) {
+                assert(pathLength(path) == toZero.getDistance(node));
+                assert(path.get(0).getKey().getKey() == node);
+                assert(path.get(path.size() - 1).getKey().getValue() == 0);
+            }
+        }
+
+        fromZero.close();
+        toZero.close();
+    }
+
+    @Test
+    public void testOnlyAffectedNodesAreUpdated() {
+
+        Graph<String, Double> g = new Graph<String, Double>();
+        g.addNode("A");
+        g.addNode("B");
+        g.addNode("C");
+        g.addNode("D");
+
+        g.addEdge("A", "B", 5.0);
+        g.addEdge("B", "C", 5.0);
+
+        ShortestPathTree<String, Double> tree = new ShortestPathTree<String, Double>(g, "A", false, (Double d) -> d);
+        assert(tree.getDistance("C") == 10.0);
+        assert(!tree.isReached("D"));
+
+        // a worse label changes nothing
+        g.addEdge("A", "B", 7.0);
+        assert(tree.getLastAffectedCount() == 0);
+
+        // a better label moves B and C
+        g.addEdge("A", "B", 1.0);
+        assert(tree.getLastAffectedCount() == 2);
+        assert(tree.getDistance("C") == 6.0);
+        assert(tree.getPath("C").get(0).getValue().equals(1.0));
+
+        g.addEdge("C", "D", 1.0);
+        assert(tree.getLastAffectedCount() == 1);
+        assert(tree.getDistance("D") == 7.0);
+
+        // a root added after the tree was made
+        ShortestPathTree<String, Double> late = new ShortestPathTree<String, Double>(g, "E", false, (Double d) -> d);
+        assert(late.getDistances().size() == 1);
+        g.addNode("E");
+        g.addEdge("E", "A", 1.0);
+        assert(late.getDistance("D") == 8.0);
+        assert(late.getPath("E").isEmpty());
+
+        tree.close();
+        g.addEdge("A", "D", 0.5);
+        assert(tree.getDistance("D") == 7.0);
+        assert(late.getDistance("D") == 1.5);
+    }
+}
@@ -0,0 +1,80 @@
+import Graph.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class WeightedViewTest {
+
+
+    @Test
+    public void testWeightsAreUpdated() {
+
+        Graph<String, Double> g = new Graph<String, Double>();
+        g.addNode("A");
+        g.addNode("B");
+        g.addNode("C");
+
+        g.addEdge("A", "B", 10.0);
+        g.addEdge("A", "B", 9.0);
+
+        WeightedView<String, Double> view = new WeightedView<String, Double>(g, (Double d) -> d);
+
+        Map<String, Double> distances = g.dijkstra("A", false, view);
+        assert(distances.get("B").equals(9.0));
+        assert(!distances.containsKey("C"));
+
+        // a better label and a new edge after the view was made
+        g.addEdge("A", "B", 2.0);
+        g.addEdge("A", "B", 20.0);
+        g.addEdge("B", "C", 1.0);
+
+        distances = g.dijkstra("A", false, view);
+        assert(distances.get("B").equals(2.0));
+        assert(distances.get("C").equals(3.0));
+
+        ArrayList<Map.Entry<Map.Entry<String, String>, Double>> path = g.findPath("A", "C", view);
+        assert(path.size() == 2);
+        assert(path.get(0).getValue().equals(2.0));
+        assert(path.get(1).getValue().equals(1.0));
+
+        // after close the graph does not update the view
+        view.close();
+        g.addNode("D");
+        g.addEdge("C", "D", 1.0);
+        assert(g.dijkstra("A", false, (Double d) -> d).get("D").equals(4.0));
+    }
+
+
+    @Test
+    public void testSameAsToDouble() {
+
+        Random random = new Random(9);
+        Graph<Integer, Double> g = new Graph<Integer, Double>();
+
+        for (int i = 0; i < 80; i++) {
+            g.addNode(i);
+        }
+
+        WeightedView<Integer, Double> view = new WeightedView<Integer, Double>(g, (Double d) -> d);
+
+        for (int i = 0; i < 400; i++) {
+            g.addEdge(random.nextInt(80), random.nextInt(80), (double) random.nextInt(30));
+        }
+
+        for (int start = 0; start < 80; start += 9) {
+
+            assert(g.dijkstra(start, false, view).equals(g.dijkstra(start, false, (Double d) -> d)));
+            assert(g.dijkstra(start, true, view).equals(g.dijkstra(start, true, (Double d) -> d)));
+
+            for (int to = 0; to < 80; to += 13) {
+                ArrayList<Map.Entry<Map.Entry<Integer, Integer>, Double>> a = g.findPathBidirectional(start, to, view);
+                ArrayList<Map.Entry<Map.Entry<Integer, Integer>, Double>> b = g.findPathBidirectional(start, to, (Double d) -> d);
+                assert((a == null) == (b == null));
+            }
+        }
+    }
+}